@@ -0,0 +1,106 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.Payload;
+
+
+/**
+ * JMH benchmark of JWE encryption and decryption with the deprecated
+ * A128CBC+HS256 and A256CBC+HS512 encryption methods. These require an
+ * encrypted key and are therefore benchmarked only with the key encryption
+ * and key agreement with key wrapping algorithms, not with dir and ECDH-ES
+ * (direct key agreement).
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="DeprecatedCBCJWEBenchmark -p alg=RSA-OAEP-256"
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeprecatedCBCJWEBenchmark {
+
+
+	@Param({
+		"RSA1_5", "RSA-OAEP", "RSA-OAEP-256",
+		"A128KW", "A256KW",
+		"A128GCMKW", "A256GCMKW",
+		"ECDH-ES+A128KW", "ECDH-ES+A256KW",
+		"PBES2-HS256+A128KW"
+	})
+	public String alg;
+
+
+	@Param({"A128CBC+HS256", "A256CBC+HS512"})
+	public String enc;
+
+
+	@Param({"false", "true"})
+	public boolean zip;
+
+
+	@Param({"100", "10240", "1048576"})
+	public int payloadSize;
+
+
+	/**
+	 * The benchmark with the same setup.
+	 */
+	private final JWEBenchmark delegate = new JWEBenchmark();
+
+
+	@Setup
+	public void setUp()
+		throws Exception {
+
+		delegate.alg = alg;
+		delegate.enc = enc;
+		delegate.zip = zip;
+		delegate.payloadSize = payloadSize;
+		delegate.setUp();
+	}
+
+
+	@Benchmark
+	public String encrypt()
+		throws JOSEException {
+
+		return delegate.encrypt();
+	}
+
+
+	@Benchmark
+	public Payload decrypt()
+		throws Exception {
+
+		return delegate.decrypt();
+	}
+}
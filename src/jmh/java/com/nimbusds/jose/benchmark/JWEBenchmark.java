@@ -0,0 +1,231 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * JMH benchmark of JWE encryption and decryption for each JWE algorithm and
+ * encryption method, with and without DEFLATE compression, and payload sizes
+ * from 100 bytes to 1 MB.
+ *
+ * <p>The ECDH-ES algorithms are benchmarked with P-256 keys, and with X25519
+ * keys when suffixed with {@code /X25519}. The PBES2 algorithms use the
+ * minimum recommended iteration count (1000). The deprecated A128CBC+HS256
+ * and A256CBC+HS512 methods are benchmarked separately by
+ * {@link DeprecatedCBCJWEBenchmark}.
+ *
+ * <p>The full matrix is large, narrow it with JMH parameters, e.g.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="JWEBenchmark -p alg=dir,A128KW -p enc=A128GCM"
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWEBenchmark {
+
+
+	@Param({
+		"RSA1_5", "RSA-OAEP", "RSA-OAEP-256",
+		"A128KW", "A192KW", "A256KW",
+		"A128GCMKW", "A192GCMKW", "A256GCMKW",
+		"dir",
+		"ECDH-ES", "ECDH-ES+A128KW", "ECDH-ES+A192KW", "ECDH-ES+A256KW",
+		"ECDH-ES/X25519", "ECDH-ES+A128KW/X25519", "ECDH-ES+A192KW/X25519", "ECDH-ES+A256KW/X25519",
+		"PBES2-HS256+A128KW", "PBES2-HS384+A192KW", "PBES2-HS512+A256KW"
+	})
+	public String alg;
+
+
+	@Param({
+		"A128CBC-HS256", "A192CBC-HS384", "A256CBC-HS512",
+		"A128GCM", "A192GCM", "A256GCM"
+	})
+	public String enc;
+
+
+	@Param({"false", "true"})
+	public boolean zip;
+
+
+	@Param({"100", "10240", "1048576"})
+	public int payloadSize;
+
+
+	private JWEHeader header;
+
+
+	private Payload payload;
+
+
+	private JWEEncrypter encrypter;
+
+
+	private JWEDecrypter decrypter;
+
+
+	private String jweString;
+
+
+	@Setup
+	public void setUp()
+		throws Exception {
+
+		final boolean x25519 = alg.endsWith("/X25519");
+		final JWEAlgorithm jweAlg = JWEAlgorithm.parse(x25519 ? alg.substring(0, alg.indexOf('/')) : alg);
+		final EncryptionMethod encMethod = EncryptionMethod.parse(enc);
+
+		JWEHeader.Builder builder = new JWEHeader.Builder(jweAlg, encMethod);
+		if (zip) {
+			builder = builder.compressionAlgorithm(CompressionAlgorithm.DEF);
+		}
+		header = builder.build();
+
+		payload = new Payload(createPayload(payloadSize));
+
+		if (JWEAlgorithm.Family.RSA.contains(jweAlg)) {
+			RSAKey rsaJWK = new RSAKeyGenerator(2048).generate();
+			encrypter = new RSAEncrypter(rsaJWK);
+			decrypter = new RSADecrypter(rsaJWK);
+		} else if (JWEAlgorithm.Family.AES_KW.contains(jweAlg) || JWEAlgorithm.Family.AES_GCM_KW.contains(jweAlg)) {
+			byte[] kek = randomBytes(aesKeyBitLength(jweAlg) / 8);
+			encrypter = new AESEncrypter(kek);
+			decrypter = new AESDecrypter(kek);
+		} else if (JWEAlgorithm.DIR.equals(jweAlg)) {
+			byte[] cek = randomBytes(encMethod.cekBitLength() / 8);
+			encrypter = new DirectEncrypter(cek);
+			decrypter = new DirectDecrypter(cek);
+		} else if (JWEAlgorithm.Family.ECDH_ES.contains(jweAlg) && x25519) {
+			OctetKeyPair okp = new OctetKeyPairGenerator(Curve.X25519).generate();
+			encrypter = new X25519Encrypter(okp.toPublicJWK());
+			decrypter = new X25519Decrypter(okp);
+		} else if (JWEAlgorithm.Family.ECDH_ES.contains(jweAlg)) {
+			ECKey ecJWK = new ECKeyGenerator(Curve.P_256).generate();
+			encrypter = new ECDHEncrypter(ecJWK.toPublicJWK());
+			decrypter = new ECDHDecrypter(ecJWK);
+		} else if (JWEAlgorithm.Family.PBES2.contains(jweAlg)) {
+			byte[] password = "benchmark-password".getBytes(StandardCharset.UTF_8);
+			encrypter = new PasswordBasedEncrypter(password, 16, 1000);
+			decrypter = new PasswordBasedDecrypter(password);
+		} else {
+			throw new IllegalArgumentException("Unsupported JWE algorithm: " + alg);
+		}
+
+		jweString = encrypt();
+
+		// Sanity check
+		if (! payload.toString().equals(decrypt().toString())) {
+			throw new IllegalStateException("Decrypted payload mismatch");
+		}
+	}
+
+
+	@Benchmark
+	public String encrypt()
+		throws JOSEException {
+
+		JWEObject jweObject = new JWEObject(header, payload);
+		jweObject.encrypt(encrypter);
+		return jweObject.serialize();
+	}
+
+
+	@Benchmark
+	public Payload decrypt()
+		throws Exception {
+
+		JWEObject jweObject = JWEObject.parse(jweString);
+		jweObject.decrypt(decrypter);
+		return jweObject.getPayload();
+	}
+
+
+	/**
+	 * Returns the key bit length of the specified AES key wrap algorithm.
+	 */
+	private static int aesKeyBitLength(final JWEAlgorithm alg) {
+
+		if (JWEAlgorithm.A128KW.equals(alg) || JWEAlgorithm.A128GCMKW.equals(alg)) {
+			return 128;
+		} else if (JWEAlgorithm.A192KW.equals(alg) || JWEAlgorithm.A192GCMKW.equals(alg)) {
+			return 192;
+		} else {
+			return 256;
+		}
+	}
+
+
+	/**
+	 * Returns random bytes from a fixed seed.
+	 */
+	private static byte[] randomBytes(final int length) {
+
+		byte[] bytes = new byte[length];
+		new Random(42L).nextBytes(bytes);
+		return bytes;
+	}
+
+
+	/**
+	 * Creates a JSON-like, moderately compressible UTF-8 payload of the
+	 * specified size, so that DEFLATE compression has a realistic effect.
+	 */
+	static byte[] createPayload(final int size) {
+
+		final String[] words = {"sub", "alice", "scope", "openid", "email", "profile", "iss", "https://c2id.com", "exp", "true", "1600000000"};
+		final Random random = new Random(42L);
+
+		StringBuilder sb = new StringBuilder(size + 32);
+		sb.append('[');
+		while (sb.length() < size - 1) {
+			sb.append('"')
+				.append(words[random.nextInt(words.length)])
+				.append('-')
+				.append(Integer.toHexString(random.nextInt()))
+				.append("\",");
+		}
+		sb.setLength(size - 1);
+		sb.append(']');
+
+		return sb.toString().getBytes(StandardCharset.UTF_8);
+	}
+}
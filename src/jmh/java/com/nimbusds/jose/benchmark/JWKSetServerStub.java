@@ -0,0 +1,257 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.net.URL;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jadler.JadlerMocker;
+import net.jadler.Request;
+import net.jadler.stubbing.Responder;
+import net.jadler.stubbing.StubResponse;
+import net.jadler.stubbing.server.jetty.JettyStubHttpServer;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.StandardCharset;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+
+/**
+ * In-process HTTP stub serving a JWK set with RSA keys, backed by Jadler.
+ * Supports key rotation, a response delay and counts the served requests.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+final class JWKSetServerStub {
+
+
+	/**
+	 * The key pairs, reused with a new key ID on each rotation to keep key
+	 * generation out of the measurements.
+	 */
+	private final KeyPair[] keyPairs = new KeyPair[2];
+
+
+	/**
+	 * The key ID counter.
+	 */
+	private final AtomicInteger keyCounter = new AtomicInteger();
+
+
+	/**
+	 * The number of served JWK set requests.
+	 */
+	private final AtomicLong requestCount = new AtomicLong();
+
+
+	/**
+	 * The response delay, in milliseconds.
+	 */
+	private final long delayMillis;
+
+
+	/**
+	 * The Jadler mocker.
+	 */
+	private final JadlerMocker mocker;
+
+
+	/**
+	 * The current signing key.
+	 */
+	private volatile RSAKey currentKey;
+
+
+	/**
+	 * The JWK set JSON served.
+	 */
+	private volatile String jwkSetJSON;
+
+
+	/**
+	 * A JWT signed with the current key.
+	 */
+	private volatile String currentToken;
+
+
+	/**
+	 * Creates and starts a new JWK set server stub on a free port.
+	 *
+	 * @param delayMillis The response delay, in milliseconds, zero if
+	 *                    none.
+	 */
+	JWKSetServerStub(final long delayMillis)
+		throws Exception {
+
+		this.delayMillis = delayMillis;
+
+		KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+		gen.initialize(2048);
+		keyPairs[0] = gen.generateKeyPair();
+		keyPairs[1] = gen.generateKeyPair();
+
+		rotateKey();
+
+		mocker = new JadlerMocker(new JettyStubHttpServer());
+		mocker.start();
+		mocker.onRequest()
+			.havingMethodEqualTo("GET")
+			.havingPathEqualTo("/jwks.json")
+			.respondUsing(new Responder() {
+				@Override
+				public StubResponse nextResponse(final Request request) {
+
+					requestCount.incrementAndGet();
+
+					if (JWKSetServerStub.this.delayMillis > 0) {
+						try {
+							Thread.sleep(JWKSetServerStub.this.delayMillis);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+
+					return StubResponse.builder()
+						.status(200)
+						.header("Content-Type", "application/json")
+						.body(jwkSetJSON, StandardCharset.UTF_8)
+						.build();
+				}
+			});
+	}
+
+
+	/**
+	 * Returns the JWK set URL.
+	 *
+	 * @return The JWK set URL.
+	 */
+	URL getJWKSetURL()
+		throws Exception {
+
+		return new URL("http://localhost:" + mocker.getStubHttpServerPort() + "/jwks.json");
+	}
+
+
+	/**
+	 * Returns the number of served JWK set requests.
+	 *
+	 * @return The number of requests.
+	 */
+	long getRequestCount() {
+
+		return requestCount.get();
+	}
+
+
+	/**
+	 * Returns a JWT signed with the current key.
+	 *
+	 * @return The JWT.
+	 */
+	String getCurrentToken() {
+
+		return currentToken;
+	}
+
+
+	/**
+	 * Rotates the signing key. The served JWK set then contains the new
+	 * and the previous key, and {@link #getCurrentToken} returns a JWT
+	 * signed with the new key.
+	 */
+	void rotateKey()
+		throws JOSEException {
+
+		final int n = keyCounter.incrementAndGet();
+		final KeyPair keyPair = keyPairs[n % keyPairs.length];
+
+		RSAKey newKey = new RSAKey.Builder((RSAPublicKey)keyPair.getPublic())
+			.privateKey((RSAPrivateKey)keyPair.getPrivate())
+			.keyID("k" + n)
+			.build();
+
+		RSAKey previousKey = currentKey;
+
+		JWKSet jwkSet = previousKey != null ?
+			new JWKSet(Arrays.asList((JWK)newKey, (JWK)previousKey)) :
+			new JWKSet((JWK)newKey);
+
+		jwkSetJSON = jwkSet.toJSONObject(true).toJSONString();
+		currentKey = newKey;
+		currentToken = sign(newKey, newKey.getKeyID());
+	}
+
+
+	/**
+	 * Creates JWTs with key IDs not in the JWK set.
+	 *
+	 * @param count The number of JWTs.
+	 *
+	 * @return The JWTs.
+	 */
+	String[] createUnknownKeyIDTokens(final int count)
+		throws JOSEException {
+
+		String[] tokens = new String[count];
+		for (int i=0; i < count; i++) {
+			tokens[i] = sign(currentKey, "unknown-" + i);
+		}
+		return tokens;
+	}
+
+
+	/**
+	 * Stops the server.
+	 */
+	void close() {
+
+		mocker.close();
+	}
+
+
+	private static String sign(final RSAKey rsaJWK, final String keyID)
+		throws JOSEException {
+
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyID).build(),
+			new JWTClaimsSet.Builder()
+				.issuer("https://c2id.com")
+				.subject("alice")
+				.expirationTime(new Date(new Date().getTime() + 24 * 60 * 60 * 1000L))
+				.build());
+		jwt.sign(new RSASSASigner(rsaJWK));
+		return jwt.serialize();
+	}
+}
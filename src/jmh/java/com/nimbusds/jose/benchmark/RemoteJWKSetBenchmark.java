@@ -0,0 +1,136 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+
+/**
+ * JMH benchmark of JWT processing with keys from a {@link RemoteJWKSet},
+ * served by an in-process HTTP stub, in the {@link RemoteJWKSetScenario
+ * steady, expiry, rotation, slow and unknown-kid scenarios}.
+ *
+ * <p>Reports the throughput and the latency distribution (sample mode, with
+ * percentiles), and as secondary results the rejected JWTs and the outbound
+ * JWK set fetches per iteration. Vary the concurrency with the JMH threads
+ * option, e.g.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="RemoteJWKSetBenchmark -t 256 -p scenario=rotation"
+ * </pre>
+ *
+ * <p>See {@link RemoteJWKSetLoadHarness} for a stand-alone sweep over 1 to 256
+ * threads.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RemoteJWKSetBenchmark {
+
+
+	@Param({"steady", "expiry", "rotation", "slow", "unknown-kid"})
+	public String scenario;
+
+
+	private RemoteJWKSetScenario jwkSetScenario;
+
+
+	/**
+	 * Per-thread counters, summed over all threads and reported per
+	 * iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Counters {
+
+
+		/**
+		 * The number of rejected JWTs.
+		 */
+		public long rejected;
+
+
+		/**
+		 * The number of outbound JWK set fetches.
+		 */
+		public long fetches;
+
+
+		private long seq;
+
+
+		private long fetchesBase;
+
+
+		@Setup(Level.Iteration)
+		public void reset(final RemoteJWKSetBenchmark benchmark) {
+			rejected = 0;
+			fetches = 0;
+			fetchesBase = benchmark.jwkSetScenario.getThreadFetchCount();
+		}
+	}
+
+
+	@Setup(Level.Trial)
+	public void setUp()
+		throws Exception {
+
+		jwkSetScenario = new RemoteJWKSetScenario(scenario);
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+
+		System.out.println();
+		System.out.println("Outbound JWK set fetches: " + jwkSetScenario.getFetchCount() +
+			", served requests: " + jwkSetScenario.getServedCount());
+		jwkSetScenario.close();
+	}
+
+
+	@Benchmark
+	public JWTClaimsSet process(final Counters counters)
+		throws Exception {
+
+		final String token = jwkSetScenario.getToken(counters.seq++);
+
+		try {
+			return jwkSetScenario.process(token);
+		} catch (BadJOSEException e) {
+			counters.rejected++;
+			return null;
+		} finally {
+			counters.fetches = jwkSetScenario.getThreadFetchCount() - counters.fetchesBase;
+		}
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+
+
+/**
+ * Stand-alone load test harness for the {@link RemoteJWKSetScenario remote
+ * JWK set scenarios}. Runs each scenario with 1 to 256 concurrent threads and
+ * reports the throughput, the latency percentiles and the number of outbound
+ * JWK set fetches.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.nimbusds.jose.benchmark.RemoteJWKSetLoadHarness \
+ *     -Dexec.args="[seconds] [scenario...]"
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+public class RemoteJWKSetLoadHarness {
+
+
+	/**
+	 * The thread counts.
+	 */
+	static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64, 128, 256};
+
+
+	/**
+	 * The maximum number of latency samples per thread.
+	 */
+	private static final int MAX_SAMPLES_PER_THREAD = 1_000_000;
+
+
+	/**
+	 * The result of a load run.
+	 */
+	static final class Result {
+
+
+		final String scenario;
+		final int threads;
+		final long operations;
+		final long rejected;
+		final long fetches;
+		final double throughput;
+		final long[] sortedLatencies;
+
+
+		Result(final String scenario,
+		       final int threads,
+		       final long operations,
+		       final long rejected,
+		       final long fetches,
+		       final double throughput,
+		       final long[] sortedLatencies) {
+			this.scenario = scenario;
+			this.threads = threads;
+			this.operations = operations;
+			this.rejected = rejected;
+			this.fetches = fetches;
+			this.throughput = throughput;
+			this.sortedLatencies = sortedLatencies;
+		}
+
+
+		/**
+		 * Returns the specified latency percentile, in microseconds.
+		 */
+		double percentileMicros(final double percentile) {
+
+			if (sortedLatencies.length == 0) {
+				return 0;
+			}
+
+			int index = (int)Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+			index = Math.max(0, Math.min(sortedLatencies.length - 1, index));
+			return sortedLatencies[index] / 1000.0;
+		}
+
+
+		@Override
+		public String toString() {
+
+			return String.format("%-12s %7d %12d %10.0f %10.1f %10.1f %10.1f %10.1f %9d %9d",
+				scenario, threads, operations, throughput,
+				percentileMicros(50), percentileMicros(99), percentileMicros(99.9), percentileMicros(100),
+				rejected, fetches);
+		}
+	}
+
+
+	/**
+	 * Runs the specified scenario.
+	 *
+	 * @param scenarioName  The scenario name.
+	 * @param threadCount   The number of concurrent threads.
+	 * @param durationMillis The run duration, in milliseconds.
+	 *
+	 * @return The result.
+	 */
+	static Result run(final String scenarioName, final int threadCount, final long durationMillis)
+		throws Exception {
+
+		final RemoteJWKSetScenario scenario = new RemoteJWKSetScenario(scenarioName);
+
+		try {
+			// Warm up the cache
+			scenario.process(scenario.getValidToken());
+			final long fetchesBefore = scenario.getFetchCount();
+
+			final long[][] latencies = new long[threadCount][];
+			final int[] sampleCounts = new int[threadCount];
+			final long[] operations = new long[threadCount];
+			final long[] rejected = new long[threadCount];
+			final Throwable[] failures = new Throwable[threadCount];
+
+			final CountDownLatch start = new CountDownLatch(1);
+			final long[] deadline = new long[1];
+
+			Thread[] threads = new Thread[threadCount];
+
+			for (int t=0; t < threadCount; t++) {
+
+				final int index = t;
+
+				threads[t] = new Thread("load-" + t) {
+					@Override
+					public void run() {
+
+						long[] samples = new long[1024];
+						int n = 0;
+						long seq = index;
+
+						try {
+							start.await();
+
+							while (System.nanoTime() < deadline[0]) {
+
+								final String token = scenario.getToken(seq);
+								seq += threadCount;
+
+								final long t0 = System.nanoTime();
+								try {
+									scenario.process(token);
+								} catch (BadJOSEException e) {
+									rejected[index]++;
+								}
+								final long latency = System.nanoTime() - t0;
+
+								operations[index]++;
+
+								if (n < MAX_SAMPLES_PER_THREAD) {
+									if (n == samples.length) {
+										samples = Arrays.copyOf(samples, samples.length * 2);
+									}
+									samples[n++] = latency;
+								}
+							}
+						} catch (Throwable e) {
+							failures[index] = e;
+						}
+
+						latencies[index] = samples;
+						sampleCounts[index] = n;
+					}
+				};
+				threads[t].start();
+			}
+
+			final long startNanos = System.nanoTime();
+			deadline[0] = startNanos + durationMillis * 1_000_000L;
+			start.countDown();
+
+			for (Thread thread: threads) {
+				thread.join();
+			}
+
+			final double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+			long totalOperations = 0;
+			long totalRejected = 0;
+			int totalSamples = 0;
+
+			for (int t=0; t < threadCount; t++) {
+				if (failures[t] != null) {
+					throw new IllegalStateException("Load thread failed: " + failures[t], failures[t]);
+				}
+				totalOperations += operations[t];
+				totalRejected += rejected[t];
+				totalSamples += sampleCounts[t];
+			}
+
+			long[] merged = new long[totalSamples];
+			int pos = 0;
+			for (int t=0; t < threadCount; t++) {
+				System.arraycopy(latencies[t], 0, merged, pos, sampleCounts[t]);
+				pos += sampleCounts[t];
+			}
+			Arrays.sort(merged);
+
+			return new Result(
+				scenarioName,
+				threadCount,
+				totalOperations,
+				totalRejected,
+				scenario.getFetchCount() - fetchesBefore,
+				totalOperations / elapsedSeconds,
+				merged);
+
+		} finally {
+			scenario.close();
+		}
+	}
+
+
+	/**
+	 * Runs the load test.
+	 *
+	 * @param args Optional run duration per scenario and thread count, in
+	 *             seconds (default 5), followed by optional scenario
+	 *             names (default all).
+	 */
+	public static void main(final String[] args)
+		throws Exception {
+
+		final long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5L;
+
+		final List<String> scenarios = args.length > 1 ?
+			Arrays.asList(args).subList(1, args.length) :
+			Collections.unmodifiableList(RemoteJWKSetScenario.NAMES);
+
+		System.out.println(String.format("%-12s %7s %12s %10s %10s %10s %10s %10s %9s %9s",
+			"scenario", "threads", "ops", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "rejected", "fetches"));
+
+		for (String scenario: scenarios) {
+			for (int threads: THREAD_COUNTS) {
+				System.out.println(run(scenario, threads, seconds * 1000L));
+			}
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.benchmark;
+
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.DefaultJWKSetCache;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+
+/**
+ * {@link RemoteJWKSet} load scenario: a {@link DefaultJWTProcessor} with a
+ * {@link JWSVerificationKeySelector} backed by a remote JWK set served by a
+ * {@link JWKSetServerStub}.
+ *
+ * <ul>
+ *     <li>{@code steady} -- default JWK set cache, all JWTs signed with a
+ *         cached key.
+ *     <li>{@code expiry} -- JWK set cache with 200 ms lifespan and 100 ms
+ *         refresh time.
+ *     <li>{@code rotation} -- the signing key is rotated every second, the
+ *         first JWTs signed with a new key miss the cache.
+ *     <li>{@code slow} -- the JWK set is served with a 100 ms delay and
+ *         cached for 500 ms, with 250 ms refresh time.
+ *     <li>{@code unknown-kid} -- 10% of the JWTs have a key ID not in the
+ *         JWK set, as in a flood of forged JWTs.
+ * </ul>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ */
+final class RemoteJWKSetScenario {
+
+
+	/**
+	 * The scenario names.
+	 */
+	static final List<String> NAMES = Arrays.asList("steady", "expiry", "rotation", "slow", "unknown-kid");
+
+
+	/**
+	 * The JWK set server stub.
+	 */
+	private final JWKSetServerStub server;
+
+
+	/**
+	 * The counting resource retriever.
+	 */
+	private final CountingResourceRetriever retriever;
+
+
+	/**
+	 * The JWT processor.
+	 */
+	private final DefaultJWTProcessor<SecurityContext> jwtProcessor;
+
+
+	/**
+	 * The key rotation executor, {@code null} if none.
+	 */
+	private final ScheduledExecutorService rotator;
+
+
+	/**
+	 * JWTs with unknown key IDs, {@code null} if none.
+	 */
+	private final String[] unknownKeyIDTokens;
+
+
+	/**
+	 * The percentage of JWTs with unknown key ID.
+	 */
+	private final int unknownKeyIDPercent;
+
+
+	/**
+	 * Creates and starts a new scenario.
+	 *
+	 * @param name The scenario name.
+	 */
+	RemoteJWKSetScenario(final String name)
+		throws Exception {
+
+		if (! NAMES.contains(name)) {
+			throw new IllegalArgumentException("Unknown scenario: " + name + ", expected one of " + NAMES);
+		}
+
+		server = new JWKSetServerStub("slow".equals(name) ? 100L : 0L);
+
+		retriever = new CountingResourceRetriever(new DefaultResourceRetriever(1000, 1000, RemoteJWKSet.DEFAULT_HTTP_SIZE_LIMIT));
+
+		DefaultJWKSetCache cache;
+		if ("expiry".equals(name)) {
+			cache = new DefaultJWKSetCache(200L, 100L, TimeUnit.MILLISECONDS);
+		} else if ("slow".equals(name)) {
+			cache = new DefaultJWKSetCache(500L, 250L, TimeUnit.MILLISECONDS);
+		} else {
+			cache = new DefaultJWKSetCache();
+		}
+
+		RemoteJWKSet<SecurityContext> jwkSource = new RemoteJWKSet<>(server.getJWKSetURL(), retriever, cache);
+
+		jwtProcessor = new DefaultJWTProcessor<>();
+		jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+
+		if ("rotation".equals(name)) {
+			rotator = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					Thread thread = new Thread(r, "jwk-set-rotator");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			rotator.scheduleAtFixedRate(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						server.rotateKey();
+					} catch (JOSEException e) {
+						throw new IllegalStateException(e.getMessage(), e);
+					}
+				}
+			}, 1L, 1L, TimeUnit.SECONDS);
+		} else {
+			rotator = null;
+		}
+
+		if ("unknown-kid".equals(name)) {
+			unknownKeyIDTokens = server.createUnknownKeyIDTokens(1024);
+			unknownKeyIDPercent = 10;
+		} else {
+			unknownKeyIDTokens = null;
+			unknownKeyIDPercent = 0;
+		}
+	}
+
+
+	/**
+	 * Returns the JWT for the specified sequence number.
+	 *
+	 * @param seq The sequence number.
+	 *
+	 * @return The JWT.
+	 */
+	String getToken(final long seq) {
+
+		if (unknownKeyIDPercent > 0 && seq % 100 < unknownKeyIDPercent) {
+			return unknownKeyIDTokens[(int)((seq / 100) % unknownKeyIDTokens.length)];
+		}
+
+		return server.getCurrentToken();
+	}
+
+
+	/**
+	 * Returns a JWT signed with the current key.
+	 *
+	 * @return The JWT.
+	 */
+	String getValidToken() {
+
+		return server.getCurrentToken();
+	}
+
+
+	/**
+	 * Processes the specified JWT.
+	 *
+	 * @param token The JWT.
+	 *
+	 * @return The JWT claims set.
+	 */
+	JWTClaimsSet process(final String token)
+		throws BadJOSEException, JOSEException, ParseException {
+
+		return jwtProcessor.process(token, null);
+	}
+
+
+	/**
+	 * Returns the total number of outbound JWK set fetches.
+	 *
+	 * @return The number of fetches.
+	 */
+	long getFetchCount() {
+
+		return retriever.count.get();
+	}
+
+
+	/**
+	 * Returns the number of outbound JWK set fetches made by the current
+	 * thread.
+	 *
+	 * @return The number of fetches.
+	 */
+	long getThreadFetchCount() {
+
+		return retriever.threadCount.get()[0];
+	}
+
+
+	/**
+	 * Returns the number of JWK set requests served by the stub.
+	 *
+	 * @return The number of requests.
+	 */
+	long getServedCount() {
+
+		return server.getRequestCount();
+	}
+
+
+	/**
+	 * Stops the scenario.
+	 */
+	void close() {
+
+		if (rotator != null) {
+			rotator.shutdownNow();
+		}
+		server.close();
+	}
+
+
+	/**
+	 * Resource retriever counting the retrievals, in total and per thread.
+	 */
+	private static final class CountingResourceRetriever implements ResourceRetriever {
+
+
+		private final ResourceRetriever retriever;
+
+
+		private final AtomicLong count = new AtomicLong();
+
+
+		private final ThreadLocal<long[]> threadCount = new ThreadLocal<long[]>() {
+			@Override
+			protected long[] initialValue() {
+				return new long[1];
+			}
+		};
+
+
+		private CountingResourceRetriever(final ResourceRetriever retriever) {
+			this.retriever = retriever;
+		}
+
+
+		@Override
+		public Resource retrieveResource(final URL url)
+			throws IOException {
+
+			count.incrementAndGet();
+			threadCount.get()[0]++;
+			return retriever.retrieveResource(url);
+		}
+	}
+}
@@ -0,0 +1,442 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.text.ParseException;
+
+import net.jcip.annotations.Immutable;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * JSON Web Signature (JWS) with a detached payload (RFC 7515, appendix F),
+ * signed and verified by streaming the payload. Intended for large payloads,
+ * such as files, which need not be loaded in memory. This class is
+ * immutable.
+ *
+ * <p>The payload is Base64URL encoded on the fly for the signing input,
+ * unless the JWS header has a {@code b64} parameter set to {@code false}
+ * (RFC 7797), in which case the payload bytes are signed as they are. The
+ * {@code b64} parameter must then also be listed as critical and the
+ * verifier must be configured to defer it, as for {@link JWSObject}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+ * 	.customParam("b64", false)
+ * 	.criticalParams(Collections.singleton("b64"))
+ * 	.build();
+ *
+ * DetachedJWS jws;
+ * try (FileChannel channel = FileChannel.open(path)) {
+ * 	jws = DetachedJWS.sign(header, channel, new RSASSASigner(privateKey));
+ * }
+ *
+ * String detachedJWS = jws.serialize(); // header..signature
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public final class DetachedJWS {
+
+
+	/**
+	 * The JWS header.
+	 */
+	private final JWSHeader header;
+
+
+	/**
+	 * The signature.
+	 */
+	private final Base64URL signature;
+
+
+	/**
+	 * Creates a new detached JWS.
+	 *
+	 * @param header    The JWS header. Must not be {@code null}.
+	 * @param signature The signature. Must not be {@code null}.
+	 */
+	public DetachedJWS(final JWSHeader header, final Base64URL signature) {
+
+		if (header == null) {
+			throw new IllegalArgumentException("The JWS header must not be null");
+		}
+
+		this.header = header;
+
+		if (signature == null) {
+			throw new IllegalArgumentException("The signature must not be null");
+		}
+
+		this.signature = signature;
+	}
+
+
+	/**
+	 * Gets the JWS header.
+	 *
+	 * @return The JWS header.
+	 */
+	public JWSHeader getHeader() {
+
+		return header;
+	}
+
+
+	/**
+	 * Gets the signature.
+	 *
+	 * @return The signature.
+	 */
+	public Base64URL getSignature() {
+
+		return signature;
+	}
+
+
+	/**
+	 * Verifies the signature of the payload read from the specified
+	 * stream. The stream is read until its end and is not closed.
+	 *
+	 * @param payload  The payload stream. Must not be {@code null}.
+	 * @param verifier The verifier. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, the
+	 *                       payload couldn't be read, or verification
+	 *                       failed for some other internal reason.
+	 */
+	public boolean verify(final InputStream payload, final JWSStreamVerifier verifier)
+		throws JOSEException {
+
+		return verifier.verify(header, composeSigningInput(header, payload), signature);
+	}
+
+
+	/**
+	 * Verifies the signature of the payload read from the specified file
+	 * channel, starting at its current position. The channel is not
+	 * closed.
+	 *
+	 * @param payload  The payload file channel. Must not be {@code null}.
+	 * @param verifier The verifier. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, the
+	 *                       payload couldn't be read, or verification
+	 *                       failed for some other internal reason.
+	 */
+	public boolean verify(final FileChannel payload, final JWSStreamVerifier verifier)
+		throws JOSEException {
+
+		return verify(Channels.newInputStream(payload), verifier);
+	}
+
+
+	/**
+	 * Serialises this detached JWS to compact form with an empty payload
+	 * part.
+	 *
+	 * <p>Format:
+	 *
+	 * <pre>
+	 * [header-base64url]..[signature-base64url]
+	 * </pre>
+	 *
+	 * @return The serialised detached JWS.
+	 */
+	public String serialize() {
+
+		return header.toBase64URL().toString() + ".." + signature.toString();
+	}
+
+
+	/**
+	 * Signs the payload read from the specified stream. The stream is read
+	 * until its end and is not closed.
+	 *
+	 * @param header  The JWS header. Must not be {@code null}.
+	 * @param payload The payload stream. Must not be {@code null}.
+	 * @param signer  The signer. Must not be {@code null}.
+	 *
+	 * @return The detached JWS.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, the
+	 *                       payload couldn't be read, or signing failed
+	 *                       for some other internal reason.
+	 */
+	public static DetachedJWS sign(final JWSHeader header,
+				       final InputStream payload,
+				       final JWSStreamSigner signer)
+		throws JOSEException {
+
+		return new DetachedJWS(header, signer.sign(header, composeSigningInput(header, payload)));
+	}
+
+
+	/**
+	 * Signs the payload read from the specified file channel, starting at
+	 * its current position. The channel is not closed.
+	 *
+	 * @param header  The JWS header. Must not be {@code null}.
+	 * @param payload The payload file channel. Must not be {@code null}.
+	 * @param signer  The signer. Must not be {@code null}.
+	 *
+	 * @return The detached JWS.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, the
+	 *                       payload couldn't be read, or signing failed
+	 *                       for some other internal reason.
+	 */
+	public static DetachedJWS sign(final JWSHeader header,
+				       final FileChannel payload,
+				       final JWSStreamSigner signer)
+		throws JOSEException {
+
+		return sign(header, Channels.newInputStream(payload), signer);
+	}
+
+
+	/**
+	 * Parses a detached JWS from the specified compact form with an empty
+	 * payload part.
+	 *
+	 * @param s The string to parse. Must not be {@code null}.
+	 *
+	 * @return The detached JWS.
+	 *
+	 * @throws ParseException If the string couldn't be parsed to a valid
+	 *                        detached JWS.
+	 */
+	public static DetachedJWS parse(final String s)
+		throws ParseException {
+
+		Base64URL[] parts = JOSEObject.split(s);
+
+		if (parts.length != 3) {
+			throw new ParseException("Unexpected number of Base64URL parts, must be three", 0);
+		}
+
+		if (! parts[1].toString().isEmpty()) {
+			throw new ParseException("The payload part of a detached JWS must be empty", 0);
+		}
+
+		JWSHeader header;
+
+		try {
+			header = JWSHeader.parse(parts[0]);
+
+		} catch (ParseException e) {
+
+			throw new ParseException("Invalid JWS header: " + e.getMessage(), 0);
+		}
+
+		return new DetachedJWS(header, parts[2]);
+	}
+
+
+	/**
+	 * Returns {@code true} if the payload is Base64URL encoded in the
+	 * signing input, i.e. the {@code b64} header parameter is absent or
+	 * {@code true}.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the payload is Base64URL encoded.
+	 */
+	private static boolean isBase64URLEncodedPayload(final JWSHeader header) {
+
+		Object b64 = header.getCustomParam("b64");
+		return b64 == null || Boolean.TRUE.equals(b64);
+	}
+
+
+	/**
+	 * Composes the signing input stream for the specified JWS header and
+	 * payload stream.
+	 *
+	 * <p>Format:
+	 *
+	 * <pre>
+	 * [header-base64url].[payload-base64url]
+	 * [header-base64url].[payload] (b64=false)
+	 * </pre>
+	 *
+	 * @param header  The JWS header. Must not be {@code null}.
+	 * @param payload The payload stream. Must not be {@code null}.
+	 *
+	 * @return The signing input stream.
+	 */
+	private static InputStream composeSigningInput(final JWSHeader header, final InputStream payload) {
+
+		InputStream headerPart = new ByteArrayInputStream((header.toBase64URL().toString() + '.').getBytes(StandardCharset.UTF_8));
+
+		if (isBase64URLEncodedPayload(header)) {
+			return new SequenceInputStream(headerPart, new Base64URLEncodingInputStream(payload));
+		} else {
+			return new SequenceInputStream(headerPart, payload);
+		}
+	}
+
+
+	/**
+	 * Input stream which Base64URL encodes the bytes read from an
+	 * underlying stream, in chunks of a fixed size.
+	 */
+	private static final class Base64URLEncodingInputStream extends InputStream {
+
+
+		/**
+		 * The chunk size, a multiple of 3 so that only the last chunk
+		 * can have a partial Base64 quantum.
+		 */
+		private static final int CHUNK_SIZE = 3 * 2048;
+
+
+		/**
+		 * The underlying stream.
+		 */
+		private final InputStream in;
+
+
+		/**
+		 * The buffer for the unencoded chunk.
+		 */
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+
+
+		/**
+		 * The buffer for the encoded chunk.
+		 */
+		private final byte[] encoded = new byte[Base64URL.computeEncodedLength(CHUNK_SIZE)];
+
+
+		/**
+		 * The length of the encoded chunk.
+		 */
+		private int limit;
+
+
+		/**
+		 * The read position in the encoded chunk.
+		 */
+		private int pos;
+
+
+		/**
+		 * {@code true} if the end of the underlying stream was
+		 * reached.
+		 */
+		private boolean eof;
+
+
+		private Base64URLEncodingInputStream(final InputStream in) {
+
+			this.in = in;
+		}
+
+
+		@Override
+		public int read()
+			throws IOException {
+
+			if (pos >= limit && ! fill()) {
+				return -1;
+			}
+
+			return encoded[pos++] & 0xff;
+		}
+
+
+		@Override
+		public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+
+			if (len == 0) {
+				return 0;
+			}
+
+			if (pos >= limit && ! fill()) {
+				return -1;
+			}
+
+			int n = Math.min(len, limit - pos);
+			System.arraycopy(encoded, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+
+
+		/**
+		 * Reads and encodes the next chunk.
+		 *
+		 * @return {@code true} if a chunk was read, {@code false} at
+		 *         the end of the underlying stream.
+		 *
+		 * @throws IOException If reading failed.
+		 */
+		private boolean fill()
+			throws IOException {
+
+			if (eof) {
+				return false;
+			}
+
+			int n = 0;
+
+			while (n < CHUNK_SIZE) {
+
+				int r = in.read(chunk, n, CHUNK_SIZE - n);
+
+				if (r == -1) {
+					eof = true;
+					break;
+				}
+
+				n += r;
+			}
+
+			if (n == 0) {
+				return false;
+			}
+
+			limit = Base64URL.encodeInto(chunk, 0, n, encoded, 0);
+			pos = 0;
+			return true;
+		}
+	}
+}
@@ -18,11 +18,22 @@
 package com.nimbusds.jose;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.text.ParseException;
 
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.StandardCharset;
 import net.minidev.json.JSONObject;
 
 
@@ -31,7 +42,7 @@ import net.minidev.json.JSONObject;
  * Signature (JWS) secured and JSON Web Encryption (JWE) secured objects.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-07-11
+ * @version 2026-10-19
  */
 public abstract class JOSEObject implements Serializable {
 	
@@ -195,6 +206,163 @@ public abstract class JOSEObject implements Serializable {
 	public abstract String serialize();
 
 
+	/**
+	 * Returns the compact serialisation of this JOSE object as a sequence
+	 * of parts, including the period ('.') delimiters, which concatenated
+	 * equal {@link #serialize()}. Overridden by the JOSE object classes to
+	 * avoid composing the serialised string.
+	 *
+	 * @return The serialisation parts.
+	 *
+	 * @throws IllegalStateException If the JOSE object is not in a state
+	 *                               that permits serialisation.
+	 */
+	CharSequence[] getSerializedParts() {
+
+		return new CharSequence[]{serialize()};
+	}
+
+
+	/**
+	 * Serialises this JOSE object to its compact format and appends it to
+	 * the specified output, without composing an intermediate string.
+	 *
+	 * @param out The output to append to. Must not be {@code null}.
+	 *
+	 * @throws IOException           If appending failed.
+	 * @throws IllegalStateException If the JOSE object is not in a state
+	 *                               that permits serialisation.
+	 */
+	public void serialize(final Appendable out)
+		throws IOException {
+
+		for (CharSequence part: getSerializedParts()) {
+			out.append(part);
+		}
+	}
+
+
+	/**
+	 * Serialises this JOSE object to its compact format and puts it,
+	 * UTF-8 encoded, into the specified buffer, starting at its current
+	 * position. Nothing is put if the remaining buffer space is
+	 * insufficient. Unpaired surrogate characters, which may occur in an
+	 * unencoded (b64=false) payload, are replaced with '?', as by
+	 * {@link String#getBytes(java.nio.charset.Charset)}.
+	 *
+	 * @param buffer The buffer. Must not be {@code null}.
+	 *
+	 * @throws BufferOverflowException If the remaining buffer space is
+	 *                                 insufficient.
+	 * @throws IllegalStateException   If the JOSE object is not in a state
+	 *                                 that permits serialisation.
+	 */
+	public void serialize(final ByteBuffer buffer) {
+
+		CharSequence[] parts = getSerializedParts();
+
+		if (buffer.remaining() < computeUTF8Length(parts)) {
+			throw new BufferOverflowException();
+		}
+
+		CharsetEncoder encoder = StandardCharset.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		for (CharSequence part: parts) {
+
+			// The parts are separated by dots, a surrogate pair
+			// never spans two parts
+			CoderResult result = encoder.encode(CharBuffer.wrap(part), buffer, true);
+
+			if (! result.isOverflow()) {
+				result = encoder.flush(buffer);
+			}
+
+			if (result.isOverflow()) {
+				throw new BufferOverflowException();
+			}
+
+			encoder.reset();
+		}
+	}
+
+
+	/**
+	 * Returns the length of the UTF-8 encoded compact serialisation of
+	 * this JOSE object, e.g. for sizing a buffer for
+	 * {@link #serialize(ByteBuffer)}.
+	 *
+	 * @return The length, in bytes.
+	 *
+	 * @throws IllegalStateException If the JOSE object is not in a state
+	 *                               that permits serialisation.
+	 */
+	public int getSerializedLength() {
+
+		return computeUTF8Length(getSerializedParts());
+	}
+
+
+	/**
+	 * Serialises this JOSE object to its compact format and writes it,
+	 * UTF-8 encoded, to the specified output stream. The stream is not
+	 * closed.
+	 *
+	 * @param out The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException           If writing failed.
+	 * @throws IllegalStateException If the JOSE object is not in a state
+	 *                               that permits serialisation.
+	 */
+	public void writeTo(final OutputStream out)
+		throws IOException {
+
+		Writer writer = new OutputStreamWriter(out, StandardCharset.UTF_8);
+		serialize(writer);
+		writer.flush();
+	}
+
+
+	/**
+	 * Computes the UTF-8 encoded length of the specified character
+	 * sequences. Unpaired surrogate characters count as one byte, for
+	 * their '?' replacement.
+	 *
+	 * @param parts The character sequences. Must not be {@code null}.
+	 *
+	 * @return The length, in bytes.
+	 */
+	private static int computeUTF8Length(final CharSequence[] parts) {
+
+		int length = 0;
+
+		for (CharSequence part: parts) {
+
+			for (int i=0; i < part.length(); i++) {
+
+				char c = part.charAt(i);
+
+				if (c < 0x80) {
+					length++;
+				} else if (c < 0x800) {
+					length += 2;
+				} else if (Character.isHighSurrogate(c) && i + 1 < part.length() && Character.isLowSurrogate(part.charAt(i + 1))) {
+					length += 4;
+					i++;
+				} else if (Character.isSurrogate(c)) {
+					// Unpaired, replaced with '?'
+					length++;
+				} else {
+					length += 3;
+				}
+			}
+		}
+
+		return length;
+	}
+
+
 	/**
 	 * Splits a compact serialised JOSE object into its Base64URL-encoded
 	 * parts.
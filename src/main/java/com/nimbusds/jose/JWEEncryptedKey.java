@@ -0,0 +1,95 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import net.jcip.annotations.Immutable;
+
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * Encrypted Content Encryption Key (CEK) of a JSON Web Encryption (JWE)
+ * recipient. This class is an immutable wrapper for returning the encrypted
+ * key and the updated JWE header from {@link JWEKeyEncrypter}
+ * implementations.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public final class JWEEncryptedKey {
+
+
+	/**
+	 * The JWE header.
+	 */
+	private final JWEHeader header;
+
+
+	/**
+	 * The encrypted key.
+	 */
+	private final Base64URL encryptedKey;
+
+
+	/**
+	 * Creates a new encrypted key.
+	 *
+	 * @param header       The JWE header, updated with any key management
+	 *                     parameters. Must not be {@code null}.
+	 * @param encryptedKey The encrypted key. Must not be {@code null}.
+	 */
+	public JWEEncryptedKey(final JWEHeader header, final Base64URL encryptedKey) {
+
+		if (header == null) {
+			throw new IllegalArgumentException("The JWE header must not be null");
+		}
+
+		this.header = header;
+
+		if (encryptedKey == null) {
+			throw new IllegalArgumentException("The encrypted key must not be null");
+		}
+
+		this.encryptedKey = encryptedKey;
+	}
+
+
+	/**
+	 * Gets the JWE header, updated with any key management parameters.
+	 *
+	 * @return The JWE header.
+	 */
+	public JWEHeader getHeader() {
+
+		return header;
+	}
+
+
+	/**
+	 * Gets the encrypted key.
+	 *
+	 * @return The encrypted key.
+	 */
+	public Base64URL getEncryptedKey() {
+
+		return encryptedKey;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import javax.crypto.SecretKey;
+
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * JSON Web Encryption (JWE) key decrypter. Decrypts the Content Encryption
+ * Key (CEK) of a single recipient, without decrypting the content. Used for
+ * {@link JWEObjectJSON JWE objects with JSON serialisation}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface JWEKeyDecrypter extends JWEProvider {
+
+
+	/**
+	 * Decrypts the specified encrypted Content Encryption Key (CEK).
+	 *
+	 * @param header       The JWE header of the recipient, with the
+	 *                     protected and the recipient's parameters. Must
+	 *                     specify a supported JWE algorithm and method.
+	 *                     Must not be {@code null}.
+	 * @param encryptedKey The encrypted CEK. Must not be {@code null}.
+	 *
+	 * @return The Content Encryption Key (CEK).
+	 *
+	 * @throws JOSEException If the JWE algorithm or method is not
+	 *                       supported or if decryption failed for some
+	 *                       other internal reason.
+	 */
+	SecretKey decryptKey(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException;
+}
@@ -0,0 +1,57 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import javax.crypto.SecretKey;
+
+
+/**
+ * JSON Web Encryption (JWE) key encrypter. Encrypts a supplied Content
+ * Encryption Key (CEK) for a single recipient, without encrypting the
+ * content. Used for {@link JWEObjectJSON JWE objects with JSON
+ * serialisation} where the content is encrypted once for all recipients.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface JWEKeyEncrypter extends JWEProvider {
+
+
+	/**
+	 * Encrypts the specified Content Encryption Key (CEK).
+	 *
+	 * @param header The JWE header of the recipient, with the protected
+	 *               and the recipient's parameters. Must specify a
+	 *               supported JWE algorithm and method. Must not be
+	 *               {@code null}.
+	 * @param cek    The Content Encryption Key (CEK). Must not be
+	 *               {@code null}.
+	 *
+	 * @return The encrypted CEK, with the JWE header updated with any
+	 *         key management parameters, such as the ephemeral public
+	 *         key.
+	 *
+	 * @throws JOSEException If the JWE algorithm or method is not
+	 *                       supported or if encryption failed for some
+	 *                       other internal reason.
+	 */
+	JWEEncryptedKey encryptKey(final JWEHeader header, final SecretKey cek)
+		throws JOSEException;
+}
@@ -29,7 +29,7 @@ import com.nimbusds.jose.util.Base64URL;
  * JSON Web Encryption (JWE) secured object. This class is thread-safe.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-04-13
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class JWEObject extends JOSEObject {
@@ -485,6 +485,21 @@ public class JWEObject extends JOSEObject {
 	}
 
 
+	@Override
+	CharSequence[] getSerializedParts() {
+
+		ensureEncryptedOrDecryptedState();
+
+		return new CharSequence[]{
+			header.toBase64URL().toString(), ".",
+			encryptedKey != null ? encryptedKey.toString() : "", ".",
+			iv != null ? iv.toString() : "", ".",
+			cipherText.toString(), ".",
+			authTag != null ? authTag.toString() : ""
+		};
+	}
+
+
 	/**
 	 * Parses a JWE object from the specified string in compact form. The 
 	 * parsed JWE object will be given an {@link State#ENCRYPTED} state.
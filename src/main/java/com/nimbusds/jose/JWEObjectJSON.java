@@ -0,0 +1,1089 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.text.ParseException;
+import java.util.*;
+import javax.crypto.SecretKey;
+
+import net.jcip.annotations.Immutable;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * JSON Web Encryption (JWE) secured object with JSON serialisation (RFC 7516,
+ * section 7.2). The content is encrypted once with a single Content
+ * Encryption Key (CEK), which is then encrypted separately for each
+ * recipient. This class is immutable.
+ *
+ * <p>Supports the general and the flattened JWE JSON serialisation. The
+ * recipient keys are encrypted and decrypted with {@link JWEKeyEncrypter}
+ * and {@link JWEKeyDecrypter} implementations, such as the RSA, AES and
+ * ECDH-ES+AES key wrap ones.
+ *
+ * <p>Example encryption for two recipients:
+ *
+ * <pre>
+ * JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+ * 	.recipient(JWEAlgorithm.RSA_OAEP_256, "1", new RSAEncrypter(rsaPublicKey))
+ * 	.recipient(JWEAlgorithm.A128KW, "2", new AESEncrypter(aesKey))
+ * 	.encrypt(new Payload("Hello, world!"));
+ *
+ * String json = jwe.serializeGeneral();
+ * </pre>
+ *
+ * <p>Example decryption by one of the recipients:
+ *
+ * <pre>
+ * JWEObjectJSON jwe = JWEObjectJSON.parse(json);
+ * Payload payload = jwe.decrypt(new AESDecrypter(aesKey), "2");
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public class JWEObjectJSON {
+
+
+	/**
+	 * Individual JWE recipient, with optional per-recipient unprotected
+	 * header and encrypted key. This class is immutable.
+	 */
+	@Immutable
+	public static final class Recipient {
+
+
+		/**
+		 * The per-recipient unprotected header, {@code null} if none.
+		 */
+		private final JSONObject header;
+
+
+		/**
+		 * The encrypted key, {@code null} if none.
+		 */
+		private final Base64URL encryptedKey;
+
+
+		/**
+		 * Creates a new JWE recipient.
+		 *
+		 * @param header       The per-recipient unprotected header,
+		 *                     {@code null} if none.
+		 * @param encryptedKey The encrypted key, {@code null} if none.
+		 */
+		public Recipient(final JSONObject header, final Base64URL encryptedKey) {
+
+			this.header = header != null ? new JSONObject(header) : null;
+			this.encryptedKey = encryptedKey;
+		}
+
+
+		/**
+		 * Gets the per-recipient unprotected header.
+		 *
+		 * @return The per-recipient unprotected header, {@code null}
+		 *         if none.
+		 */
+		public JSONObject getHeader() {
+
+			return header != null ? new JSONObject(header) : null;
+		}
+
+
+		/**
+		 * Gets the key ID ({@code kid}) from the per-recipient
+		 * unprotected header.
+		 *
+		 * @return The key ID, {@code null} if not specified.
+		 */
+		public String getKeyID() {
+
+			if (header == null || ! (header.get("kid") instanceof String)) {
+				return null;
+			}
+
+			return (String) header.get("kid");
+		}
+
+
+		/**
+		 * Gets the encrypted key.
+		 *
+		 * @return The encrypted key, {@code null} if none.
+		 */
+		public Base64URL getEncryptedKey() {
+
+			return encryptedKey;
+		}
+
+
+		/**
+		 * Returns a JSON object representation of this recipient.
+		 *
+		 * @return The JSON object.
+		 */
+		public JSONObject toJSONObject() {
+
+			JSONObject o = new JSONObject();
+
+			if (header != null) {
+				o.put("header", new JSONObject(header));
+			}
+
+			if (encryptedKey != null) {
+				o.put("encrypted_key", encryptedKey.toString());
+			}
+
+			return o;
+		}
+
+
+		/**
+		 * Parses a JWE recipient from the specified JSON object.
+		 *
+		 * @param jsonObject The JSON object to parse. Must not be
+		 *                   {@code null}.
+		 *
+		 * @return The JWE recipient.
+		 *
+		 * @throws ParseException If parsing failed.
+		 */
+		public static Recipient parse(final JSONObject jsonObject)
+			throws ParseException {
+
+			JSONObject header = JSONObjectUtils.getJSONObject(jsonObject, "header");
+
+			String encryptedKey = JSONObjectUtils.getString(jsonObject, "encrypted_key");
+
+			return new Recipient(header, encryptedKey != null ? new Base64URL(encryptedKey) : null);
+		}
+	}
+
+
+	/**
+	 * Builder for encrypting a payload for one or more recipients.
+	 *
+	 * <p>The encryption method, type, content type and compression
+	 * algorithm go into the protected header, the algorithm, key ID and
+	 * any key management parameters into the per-recipient unprotected
+	 * headers.
+	 */
+	public static class Builder {
+
+
+		/**
+		 * The encryption method.
+		 */
+		private final EncryptionMethod enc;
+
+
+		/**
+		 * The protected header parameters.
+		 */
+		private final JSONObject protectedHeader = new JSONObject();
+
+
+		/**
+		 * The optional JWE AAD.
+		 */
+		private Base64URL aad;
+
+
+		/**
+		 * The recipient algorithms.
+		 */
+		private final List<JWEAlgorithm> algs = new LinkedList<>();
+
+
+		/**
+		 * The recipient key IDs.
+		 */
+		private final List<String> keyIDs = new LinkedList<>();
+
+
+		/**
+		 * The recipient key encrypters.
+		 */
+		private final List<JWEKeyEncrypter> encrypters = new LinkedList<>();
+
+
+		/**
+		 * The JCA context for the content encryption.
+		 */
+		private JWEJCAContext jcaContext = new JWEJCAContext();
+
+
+		/**
+		 * Creates a new builder.
+		 *
+		 * @param enc The encryption method. Must not be {@code null}.
+		 */
+		public Builder(final EncryptionMethod enc) {
+
+			if (enc == null) {
+				throw new IllegalArgumentException("The encryption method must not be null");
+			}
+
+			this.enc = enc;
+			protectedHeader.put("enc", enc.getName());
+		}
+
+
+		/**
+		 * Sets the type ({@code typ}) parameter.
+		 *
+		 * @param typ The type parameter, {@code null} if not
+		 *            specified.
+		 *
+		 * @return This builder.
+		 */
+		public Builder type(final JOSEObjectType typ) {
+
+			putOrRemove("typ", typ != null ? typ.toString() : null);
+			return this;
+		}
+
+
+		/**
+		 * Sets the content type ({@code cty}) parameter.
+		 *
+		 * @param cty The content type parameter, {@code null} if not
+		 *            specified.
+		 *
+		 * @return This builder.
+		 */
+		public Builder contentType(final String cty) {
+
+			putOrRemove("cty", cty);
+			return this;
+		}
+
+
+		/**
+		 * Sets the compression algorithm ({@code zip}) parameter.
+		 *
+		 * @param zip The compression algorithm parameter, {@code null}
+		 *            if not specified.
+		 *
+		 * @return This builder.
+		 */
+		public Builder compressionAlgorithm(final CompressionAlgorithm zip) {
+
+			putOrRemove("zip", zip != null ? zip.toString() : null);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JWE Additional Authenticated Data (AAD), which is
+		 * integrity protected but not encrypted.
+		 *
+		 * @param aad The JWE AAD, {@code null} if not specified.
+		 *
+		 * @return This builder.
+		 */
+		public Builder aad(final byte[] aad) {
+
+			this.aad = aad != null ? Base64URL.encode(aad) : null;
+			return this;
+		}
+
+
+		/**
+		 * Adds a recipient.
+		 *
+		 * @param alg       The JWE algorithm for the recipient. Must
+		 *                  not be {@code null}.
+		 * @param keyID     The recipient key ID, {@code null} if not
+		 *                  specified.
+		 * @param encrypter The key encrypter for the recipient. Must
+		 *                  not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder recipient(final JWEAlgorithm alg, final String keyID, final JWEKeyEncrypter encrypter) {
+
+			if (alg == null) {
+				throw new IllegalArgumentException("The JWE algorithm must not be null");
+			}
+
+			if (encrypter == null) {
+				throw new IllegalArgumentException("The JWE key encrypter must not be null");
+			}
+
+			algs.add(alg);
+			keyIDs.add(keyID);
+			encrypters.add(encrypter);
+			return this;
+		}
+
+
+		/**
+		 * Sets the JCA context for the content encryption.
+		 *
+		 * @param jcaContext The JCA context. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder jcaContext(final JWEJCAContext jcaContext) {
+
+			if (jcaContext == null) {
+				throw new IllegalArgumentException("The JCA context must not be null");
+			}
+
+			this.jcaContext = jcaContext;
+			return this;
+		}
+
+
+		/**
+		 * Encrypts the specified payload for the added recipients.
+		 *
+		 * @param payload The payload. Must not be {@code null}.
+		 *
+		 * @return The JWE object.
+		 *
+		 * @throws JOSEException If no recipient was added, a JWE
+		 *                       algorithm or the encryption method isn't
+		 *                       supported, or encryption failed.
+		 */
+		public JWEObjectJSON encrypt(final Payload payload)
+			throws JOSEException {
+
+			if (enc.equals(EncryptionMethod.A128CBC_HS256_DEPRECATED) || enc.equals(EncryptionMethod.A256CBC_HS512_DEPRECATED)) {
+				throw new JOSEException("The deprecated encryption method " + enc + " isn't supported with JSON serialization");
+			}
+
+			if (encrypters.isEmpty()) {
+				throw new JOSEException("At least one JWE recipient must be specified");
+			}
+
+			final Base64URL protectedHeaderB64 = Base64URL.encode(protectedHeader.toJSONString());
+
+			final SecretKey cek = ContentCryptoProvider.generateCEK(enc, jcaContext.getSecureRandom());
+
+			final List<Recipient> recipients = new ArrayList<>(encrypters.size());
+
+			JWEHeader contentHeader = null;
+
+			Iterator<JWEAlgorithm> algIt = algs.iterator();
+			Iterator<String> keyIDIt = keyIDs.iterator();
+
+			for (JWEKeyEncrypter encrypter: encrypters) {
+
+				JWEAlgorithm alg = algIt.next();
+				String keyID = keyIDIt.next();
+
+				if (! encrypter.supportedJWEAlgorithms().contains(alg)) {
+					throw new JOSEException("The JWE algorithm " + alg + " isn't supported by the key encrypter");
+				}
+
+				if (! encrypter.supportedEncryptionMethods().contains(enc)) {
+					throw new JOSEException("The encryption method " + enc + " isn't supported by the key encrypter");
+				}
+
+				JSONObject headerJSON = new JSONObject(protectedHeader);
+				headerJSON.put("alg", alg.getName());
+				if (keyID != null) {
+					headerJSON.put("kid", keyID);
+				}
+
+				final JWEHeader header;
+				try {
+					header = JWEHeader.parse(headerJSON);
+				} catch (ParseException e) {
+					throw new JOSEException(e.getMessage(), e);
+				}
+
+				JWEEncryptedKey encryptedKey = encrypter.encryptKey(header, cek);
+
+				// The per-recipient header gets the alg, kid and
+				// any key management parameters
+				JSONObject recipientHeader = encryptedKey.getHeader().toJSONObject();
+				for (String name: protectedHeader.keySet()) {
+					recipientHeader.remove(name);
+				}
+
+				recipients.add(new Recipient(recipientHeader, encryptedKey.getEncryptedKey()));
+
+				if (contentHeader == null) {
+					contentHeader = header;
+				}
+			}
+
+			JWECryptoParts parts = ContentCryptoProvider.encrypt(
+				contentHeader,
+				computeAAD(protectedHeaderB64, aad),
+				payload.toBytes(),
+				cek,
+				null,
+				jcaContext,
+				null);
+
+			try {
+				return new JWEObjectJSON(
+					protectedHeaderB64,
+					null,
+					recipients,
+					aad,
+					parts.getInitializationVector(),
+					parts.getCipherText(),
+					parts.getAuthenticationTag());
+
+			} catch (ParseException e) {
+				throw new JOSEException(e.getMessage(), e);
+			}
+		}
+
+
+		private void putOrRemove(final String name, final String value) {
+
+			if (value != null) {
+				protectedHeader.put(name, value);
+			} else {
+				protectedHeader.remove(name);
+			}
+		}
+	}
+
+
+	/**
+	 * The protected header, {@code null} if none.
+	 */
+	private final Base64URL protectedHeader;
+
+
+	/**
+	 * The shared unprotected header, {@code null} if none.
+	 */
+	private final JSONObject unprotectedHeader;
+
+
+	/**
+	 * The recipients.
+	 */
+	private final List<Recipient> recipients;
+
+
+	/**
+	 * The combined JWE headers of the recipients, in the same order.
+	 */
+	private final List<JWEHeader> headers;
+
+
+	/**
+	 * The recipient indices by key ID.
+	 */
+	private final Map<String,Integer> recipientsByKeyID;
+
+
+	/**
+	 * The JWE AAD, {@code null} if none.
+	 */
+	private final Base64URL aad;
+
+
+	/**
+	 * The initialisation vector, {@code null} if none.
+	 */
+	private final Base64URL iv;
+
+
+	/**
+	 * The cipher text.
+	 */
+	private final Base64URL cipherText;
+
+
+	/**
+	 * The authentication tag, {@code null} if none.
+	 */
+	private final Base64URL authTag;
+
+
+	/**
+	 * Creates a new JWE object with JSON serialisation.
+	 *
+	 * @param protectedHeader   The protected header, {@code null} if
+	 *                          none.
+	 * @param unprotectedHeader The shared unprotected header,
+	 *                          {@code null} if none.
+	 * @param recipients        The recipients. Must not be empty.
+	 * @param aad               The JWE AAD, {@code null} if none.
+	 * @param iv                The initialisation vector, {@code null}
+	 *                          if none.
+	 * @param cipherText        The cipher text. Must not be
+	 *                          {@code null}.
+	 * @param authTag           The authentication tag, {@code null} if
+	 *                          none.
+	 *
+	 * @throws ParseException If the combined header of a recipient is
+	 *                        invalid, the compression algorithm is not
+	 *                        in the protected header or the recipients
+	 *                        don't share the same encryption method.
+	 */
+	private JWEObjectJSON(final Base64URL protectedHeader,
+			      final JSONObject unprotectedHeader,
+			      final List<Recipient> recipients,
+			      final Base64URL aad,
+			      final Base64URL iv,
+			      final Base64URL cipherText,
+			      final Base64URL authTag)
+		throws ParseException {
+
+		if (recipients.isEmpty()) {
+			throw new ParseException("Missing JWE recipients", 0);
+		}
+
+		if (cipherText == null) {
+			throw new ParseException("Missing JWE cipher text", 0);
+		}
+
+		// The zip parameter must be integrity protected, RFC 7516, section 4.1.3
+		if (unprotectedHeader != null && unprotectedHeader.containsKey("zip")) {
+			throw new ParseException("The JWE compression algorithm (zip) must be in the protected header", 0);
+		}
+
+		for (Recipient recipient: recipients) {
+			if (recipient.header != null && recipient.header.containsKey("zip")) {
+				throw new ParseException("The JWE compression algorithm (zip) must be in the protected header", 0);
+			}
+		}
+
+		this.protectedHeader = protectedHeader;
+		this.unprotectedHeader = unprotectedHeader;
+		this.recipients = Collections.unmodifiableList(new ArrayList<>(recipients));
+		this.aad = aad;
+		this.iv = iv;
+		this.cipherText = cipherText;
+		this.authTag = authTag;
+
+		JSONObject protectedHeaderJSON = null;
+
+		if (protectedHeader != null) {
+			protectedHeaderJSON = JSONObjectUtils.parse(protectedHeader.decodeToString());
+		}
+
+		List<JWEHeader> headers = new ArrayList<>(recipients.size());
+		Map<String,Integer> recipientsByKeyID = new HashMap<>();
+
+		for (Recipient recipient: this.recipients) {
+
+			JWEHeader header = JWEHeader.parse(mergeHeaders(protectedHeaderJSON, unprotectedHeader, recipient.header));
+
+			// All recipients share the content encryption
+			if (! headers.isEmpty() && ! headers.get(0).getEncryptionMethod().equals(header.getEncryptionMethod())) {
+				throw new ParseException("The JWE encryption method (enc) must be the same for all recipients", 0);
+			}
+
+			if (header.getKeyID() != null && ! recipientsByKeyID.containsKey(header.getKeyID())) {
+				recipientsByKeyID.put(header.getKeyID(), headers.size());
+			}
+
+			headers.add(header);
+		}
+
+		this.headers = Collections.unmodifiableList(headers);
+		this.recipientsByKeyID = recipientsByKeyID;
+	}
+
+
+	/**
+	 * Gets the protected header.
+	 *
+	 * @return The protected header, {@code null} if none.
+	 */
+	public Base64URL getProtectedHeader() {
+
+		return protectedHeader;
+	}
+
+
+	/**
+	 * Gets the shared unprotected header.
+	 *
+	 * @return The shared unprotected header, {@code null} if none.
+	 */
+	public JSONObject getUnprotectedHeader() {
+
+		return unprotectedHeader != null ? new JSONObject(unprotectedHeader) : null;
+	}
+
+
+	/**
+	 * Gets the recipients.
+	 *
+	 * @return The recipients, as an unmodifiable list.
+	 */
+	public List<Recipient> getRecipients() {
+
+		return recipients;
+	}
+
+
+	/**
+	 * Gets the combined JWE header of the recipient at the specified
+	 * index, with the protected, shared unprotected and per-recipient
+	 * unprotected parameters.
+	 *
+	 * @param index The recipient index.
+	 *
+	 * @return The combined JWE header.
+	 */
+	public JWEHeader getHeader(final int index) {
+
+		return headers.get(index);
+	}
+
+
+	/**
+	 * Gets the combined JWE header of the recipient with the specified
+	 * key ID.
+	 *
+	 * @param keyID The key ID. Must not be {@code null}.
+	 *
+	 * @return The combined JWE header, {@code null} if no recipient has
+	 *         the key ID.
+	 */
+	public JWEHeader getHeader(final String keyID) {
+
+		Integer index = recipientsByKeyID.get(keyID);
+		return index != null ? headers.get(index) : null;
+	}
+
+
+	/**
+	 * Gets the JWE AAD.
+	 *
+	 * @return The JWE AAD, {@code null} if none.
+	 */
+	public Base64URL getAAD() {
+
+		return aad;
+	}
+
+
+	/**
+	 * Gets the initialisation vector (IV).
+	 *
+	 * @return The initialisation vector, {@code null} if none.
+	 */
+	public Base64URL getIV() {
+
+		return iv;
+	}
+
+
+	/**
+	 * Gets the cipher text.
+	 *
+	 * @return The cipher text.
+	 */
+	public Base64URL getCipherText() {
+
+		return cipherText;
+	}
+
+
+	/**
+	 * Gets the authentication tag.
+	 *
+	 * @return The authentication tag, {@code null} if none.
+	 */
+	public Base64URL getAuthTag() {
+
+		return authTag;
+	}
+
+
+	/**
+	 * Decrypts this JWE object as the recipient with the specified key ID.
+	 *
+	 * @param decrypter The key decrypter. Must not be {@code null}.
+	 * @param keyID     The key ID of the recipient. Must not be
+	 *                  {@code null}.
+	 *
+	 * @return The decrypted payload.
+	 *
+	 * @throws JOSEException If no recipient has the key ID or decryption
+	 *                       failed.
+	 */
+	public Payload decrypt(final JWEKeyDecrypter decrypter, final String keyID)
+		throws JOSEException {
+
+		Integer index = recipientsByKeyID.get(keyID);
+
+		if (index == null) {
+			throw new JOSEException("No JWE recipient with key ID " + keyID);
+		}
+
+		return decrypt(decrypter, index);
+	}
+
+
+	/**
+	 * Decrypts this JWE object by trying the recipients with a JWE
+	 * algorithm supported by the specified key decrypter, in order.
+	 * Prefer {@link #decrypt(JWEKeyDecrypter, String)} when the key ID is
+	 * known.
+	 *
+	 * @param decrypter The key decrypter. Must not be {@code null}.
+	 *
+	 * @return The decrypted payload.
+	 *
+	 * @throws JOSEException If decryption failed for all recipients.
+	 */
+	public Payload decrypt(final JWEKeyDecrypter decrypter)
+		throws JOSEException {
+
+		JOSEException lastException = null;
+
+		for (int i=0; i < headers.size(); i++) {
+
+			if (! decrypter.supportedJWEAlgorithms().contains(headers.get(i).getAlgorithm())) {
+				continue;
+			}
+
+			try {
+				return decrypt(decrypter, i);
+			} catch (JOSEException e) {
+				lastException = e;
+			}
+		}
+
+		if (lastException != null) {
+			throw lastException;
+		}
+
+		throw new JOSEException("No JWE recipient with an algorithm supported by the key decrypter");
+	}
+
+
+	/**
+	 * Decrypts this JWE object as the recipient at the specified index.
+	 *
+	 * @param decrypter The key decrypter. Must not be {@code null}.
+	 * @param index     The recipient index.
+	 *
+	 * @return The decrypted payload.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	private Payload decrypt(final JWEKeyDecrypter decrypter, final int index)
+		throws JOSEException {
+
+		final JWEHeader header = headers.get(index);
+
+		final EncryptionMethod enc = header.getEncryptionMethod();
+
+		if (enc.equals(EncryptionMethod.A128CBC_HS256_DEPRECATED) || enc.equals(EncryptionMethod.A256CBC_HS512_DEPRECATED)) {
+			throw new JOSEException("The deprecated encryption method " + enc + " isn't supported with JSON serialization");
+		}
+
+		if (! decrypter.supportedJWEAlgorithms().contains(header.getAlgorithm())) {
+			throw new JOSEException("The JWE algorithm " + header.getAlgorithm() + " isn't supported by the key decrypter");
+		}
+
+		if (! decrypter.supportedEncryptionMethods().contains(enc)) {
+			throw new JOSEException("The encryption method " + enc + " isn't supported by the key decrypter");
+		}
+
+		if (iv == null) {
+			throw new JOSEException("Missing JWE initialization vector (IV)");
+		}
+
+		if (authTag == null) {
+			throw new JOSEException("Missing JWE authentication tag");
+		}
+
+		final Base64URL encryptedKey = recipients.get(index).getEncryptedKey();
+
+		SecretKey cek = decrypter.decryptKey(header, encryptedKey);
+
+		byte[] clearText = ContentCryptoProvider.decrypt(
+			header,
+			computeAAD(protectedHeader, aad),
+			encryptedKey,
+			iv,
+			cipherText,
+			authTag,
+			cek,
+			decrypter.getJCAContext());
+
+		return new Payload(clearText);
+	}
+
+
+	/**
+	 * Returns a JSON object representation of this JWE object in the
+	 * general JSON serialisation.
+	 *
+	 * @return The JSON object.
+	 */
+	public JSONObject toGeneralJSONObject() {
+
+		JSONObject o = toJSONObject();
+
+		JSONArray recipientsArray = new JSONArray();
+		for (Recipient recipient: recipients) {
+			recipientsArray.add(recipient.toJSONObject());
+		}
+		o.put("recipients", recipientsArray);
+
+		return o;
+	}
+
+
+	/**
+	 * Returns a JSON object representation of this JWE object in the
+	 * flattened JSON serialisation.
+	 *
+	 * @return The JSON object.
+	 *
+	 * @throws IllegalStateException If the JWE object has more than one
+	 *                               recipient.
+	 */
+	public JSONObject toFlattenedJSONObject() {
+
+		if (recipients.size() > 1) {
+			throw new IllegalStateException("The flattened JWE JSON serialization requires a single recipient");
+		}
+
+		JSONObject o = toJSONObject();
+		o.putAll(recipients.get(0).toJSONObject());
+		return o;
+	}
+
+
+	/**
+	 * Serialises this JWE object to its general JSON format.
+	 *
+	 * @return The general JSON serialisation.
+	 */
+	public String serializeGeneral() {
+
+		return toGeneralJSONObject().toJSONString();
+	}
+
+
+	/**
+	 * Serialises this JWE object to its flattened JSON format.
+	 *
+	 * @return The flattened JSON serialisation.
+	 *
+	 * @throws IllegalStateException If the JWE object has more than one
+	 *                               recipient.
+	 */
+	public String serializeFlattened() {
+
+		return toFlattenedJSONObject().toJSONString();
+	}
+
+
+	/**
+	 * Returns a JSON object with the members shared by the general and
+	 * the flattened JSON serialisation.
+	 *
+	 * @return The JSON object.
+	 */
+	private JSONObject toJSONObject() {
+
+		JSONObject o = new JSONObject();
+
+		if (protectedHeader != null) {
+			o.put("protected", protectedHeader.toString());
+		}
+
+		if (unprotectedHeader != null) {
+			o.put("unprotected", new JSONObject(unprotectedHeader));
+		}
+
+		if (aad != null) {
+			o.put("aad", aad.toString());
+		}
+
+		if (iv != null) {
+			o.put("iv", iv.toString());
+		}
+
+		o.put("ciphertext", cipherText.toString());
+
+		if (authTag != null) {
+			o.put("tag", authTag.toString());
+		}
+
+		return o;
+	}
+
+
+	/**
+	 * Parses a JWE object from the specified string in general or
+	 * flattened JSON serialisation.
+	 *
+	 * @param s The string to parse. Must not be {@code null}.
+	 *
+	 * @return The JWE object.
+	 *
+	 * @throws ParseException If the string couldn't be parsed to a valid
+	 *                        JWE object.
+	 */
+	public static JWEObjectJSON parse(final String s)
+		throws ParseException {
+
+		return parse(JSONObjectUtils.parse(s));
+	}
+
+
+	/**
+	 * Parses a JWE object from the specified JSON object in general or
+	 * flattened JSON serialisation.
+	 *
+	 * @param jsonObject The JSON object to parse. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The JWE object.
+	 *
+	 * @throws ParseException If the JSON object couldn't be parsed to a
+	 *                        valid JWE object.
+	 */
+	public static JWEObjectJSON parse(final JSONObject jsonObject)
+		throws ParseException {
+
+		List<Recipient> recipients = new ArrayList<>();
+
+		if (jsonObject.containsKey("recipients")) {
+
+			// General
+			for (Object item: JSONObjectUtils.getJSONArray(jsonObject, "recipients")) {
+
+				if (! (item instanceof JSONObject)) {
+					throw new ParseException("Invalid JWE recipient", 0);
+				}
+
+				recipients.add(Recipient.parse((JSONObject) item));
+			}
+
+		} else {
+			// Flattened
+			recipients.add(Recipient.parse(jsonObject));
+		}
+
+		return new JWEObjectJSON(
+			getBase64URL(jsonObject, "protected"),
+			JSONObjectUtils.getJSONObject(jsonObject, "unprotected"),
+			recipients,
+			getBase64URL(jsonObject, "aad"),
+			getBase64URL(jsonObject, "iv"),
+			getBase64URL(jsonObject, "ciphertext"),
+			getBase64URL(jsonObject, "tag"));
+	}
+
+
+	/**
+	 * Merges the protected, shared unprotected and per-recipient
+	 * unprotected header parameters. The parameter names must be
+	 * disjoint.
+	 *
+	 * @param headers The headers, {@code null} if not present.
+	 *
+	 * @return The merged header parameters.
+	 *
+	 * @throws ParseException If a header parameter name occurs more than
+	 *                        once.
+	 */
+	private static JSONObject mergeHeaders(final JSONObject ... headers)
+		throws ParseException {
+
+		JSONObject merged = new JSONObject();
+
+		for (JSONObject header: headers) {
+
+			if (header == null) {
+				continue;
+			}
+
+			for (Map.Entry<String,Object> en: header.entrySet()) {
+
+				if (merged.containsKey(en.getKey())) {
+					throw new ParseException("Duplicate JWE header parameter: " + en.getKey(), 0);
+				}
+
+				merged.put(en.getKey(), en.getValue());
+			}
+		}
+
+		return merged;
+	}
+
+
+	/**
+	 * Computes the Additional Authenticated Data (AAD) for the JWE JSON
+	 * serialisation, {@code ASCII(BASE64URL(protected))} followed by
+	 * {@code '.' || BASE64URL(aad)} if a JWE AAD is present.
+	 *
+	 * @param protectedHeader The protected header, {@code null} if none.
+	 * @param aad             The JWE AAD, {@code null} if none.
+	 *
+	 * @return The AAD.
+	 */
+	private static byte[] computeAAD(final Base64URL protectedHeader, final Base64URL aad) {
+
+		StringBuilder sb = new StringBuilder();
+
+		if (protectedHeader != null) {
+			sb.append(protectedHeader.toString());
+		}
+
+		if (aad != null) {
+			sb.append('.');
+			sb.append(aad.toString());
+		}
+
+		return sb.toString().getBytes(StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Gets a Base64URL encoded member of a JSON object.
+	 *
+	 * @param jsonObject The JSON object. Must not be {@code null}.
+	 * @param key        The JSON object member key. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The member value, {@code null} if not present.
+	 *
+	 * @throws ParseException If the member value is not a string.
+	 */
+	private static Base64URL getBase64URL(final JSONObject jsonObject, final String key)
+		throws ParseException {
+
+		String value = JSONObjectUtils.getString(jsonObject, key);
+		return value != null ? new Base64URL(value) : null;
+	}
+}
@@ -29,7 +29,7 @@ import net.jcip.annotations.ThreadSafe;
  * JSON Web Signature (JWS) secured object. This class is thread-safe.
  *
  * @author Vladimir Dzhuvinov
- * @version 2019-08-01
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class JWSObject extends JOSEObject {
@@ -423,6 +423,15 @@ public class JWSObject extends JOSEObject {
 		return signingInputString + '.' + signature.toString();
 	}
 
+
+	@Override
+	CharSequence[] getSerializedParts() {
+
+		ensureSignedOrVerifiedState();
+
+		return new CharSequence[]{signingInputString, ".", signature.toString()};
+	}
+
 	/**
 	 * Parses a JWS object from the specified string in compact format. The
 	 * parsed JWS object will be given a {@link State#SIGNED} state.
@@ -0,0 +1,913 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import net.jcip.annotations.Immutable;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * JSON Web Signature (JWS) secured object with JSON serialisation (RFC 7515,
+ * section 7.2). The payload is encoded once and may be signed by one or more
+ * signers. This class is immutable.
+ *
+ * <p>Supports the general and the flattened JWS JSON serialisation. The
+ * signatures can be verified serially or concurrently on an executor,
+ * according to a {@link VerificationPolicy verification policy} which
+ * requires any, all or a threshold number of the signatures to be valid.
+ * Repeated signature values are rejected when parsing and a verifier
+ * instance is counted at most once, so that a signature repeated by an
+ * attacker cannot satisfy a threshold. Signatures by the same key should
+ * therefore be given the same verifier instance.
+ *
+ * <p>Example signing by two parties:
+ *
+ * <pre>
+ * JWSObjectJSON jws = new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+ * 	.signature(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("1").build(), new RSASSASigner(rsaPrivateKey))
+ * 	.signature(new JWSHeader.Builder(JWSAlgorithm.ES256).keyID("2").build(), new ECDSASigner(ecPrivateKey))
+ * 	.sign();
+ *
+ * String json = jws.serializeGeneral();
+ * </pre>
+ *
+ * <p>Example concurrent verification, requiring all signatures to be valid:
+ *
+ * <pre>
+ * JWSObjectJSON jws = JWSObjectJSON.parse(json);
+ * boolean verified = jws.verify(
+ * 	Arrays.asList(new RSASSAVerifier(rsaPublicKey), new ECDSAVerifier(ecPublicKey)),
+ * 	JWSObjectJSON.VerificationPolicy.allOf(),
+ * 	executorService);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public class JWSObjectJSON {
+
+
+	/**
+	 * Individual JWS signature, with protected and optional unprotected
+	 * header. This class is immutable.
+	 */
+	@Immutable
+	public static final class Signature {
+
+
+		/**
+		 * The protected header, {@code null} if none.
+		 */
+		private final Base64URL protectedHeader;
+
+
+		/**
+		 * The unprotected header, {@code null} if none.
+		 */
+		private final JSONObject unprotectedHeader;
+
+
+		/**
+		 * The signature.
+		 */
+		private final Base64URL signature;
+
+
+		/**
+		 * The combined protected and unprotected JWS header.
+		 */
+		private final JWSHeader header;
+
+
+		/**
+		 * Creates a new JWS signature.
+		 *
+		 * @param protectedHeader   The protected header, {@code null}
+		 *                          if none.
+		 * @param unprotectedHeader The unprotected header, {@code null}
+		 *                          if none.
+		 * @param signature         The signature. Must not be
+		 *                          {@code null}.
+		 *
+		 * @throws ParseException If the combined header is invalid or
+		 *                        the unprotected header contains a
+		 *                        critical ({@code crit}) or base64url
+		 *                        payload encoding ({@code b64})
+		 *                        parameter, which must be integrity
+		 *                        protected.
+		 */
+		public Signature(final Base64URL protectedHeader,
+				 final JSONObject unprotectedHeader,
+				 final Base64URL signature)
+			throws ParseException {
+
+			if (signature == null) {
+				throw new ParseException("Missing JWS signature", 0);
+			}
+
+			this.protectedHeader = protectedHeader;
+			this.unprotectedHeader = unprotectedHeader != null ? new JSONObject(unprotectedHeader) : null;
+			this.signature = signature;
+
+			JSONObject merged = new JSONObject();
+
+			if (protectedHeader != null) {
+				merged.putAll(JSONObjectUtils.parse(protectedHeader.decodeToString()));
+			}
+
+			if (unprotectedHeader != null) {
+				for (Map.Entry<String,Object> en: unprotectedHeader.entrySet()) {
+
+					if ("crit".equals(en.getKey()) || "b64".equals(en.getKey())) {
+						// RFC 7515, section 4.1.11 and RFC 7797, section 6
+						throw new ParseException("The " + en.getKey() + " JWS header parameter must be integrity protected", 0);
+					}
+
+					if (merged.containsKey(en.getKey())) {
+						throw new ParseException("Duplicate JWS header parameter: " + en.getKey(), 0);
+					}
+
+					merged.put(en.getKey(), en.getValue());
+				}
+			}
+
+			header = JWSHeader.parse(merged);
+		}
+
+
+		/**
+		 * Gets the protected header.
+		 *
+		 * @return The protected header, {@code null} if none.
+		 */
+		public Base64URL getProtectedHeader() {
+
+			return protectedHeader;
+		}
+
+
+		/**
+		 * Gets the unprotected header.
+		 *
+		 * @return The unprotected header, {@code null} if none.
+		 */
+		public JSONObject getUnprotectedHeader() {
+
+			return unprotectedHeader != null ? new JSONObject(unprotectedHeader) : null;
+		}
+
+
+		/**
+		 * Gets the combined protected and unprotected JWS header.
+		 *
+		 * @return The JWS header.
+		 */
+		public JWSHeader getHeader() {
+
+			return header;
+		}
+
+
+		/**
+		 * Gets the signature.
+		 *
+		 * @return The signature.
+		 */
+		public Base64URL getSignature() {
+
+			return signature;
+		}
+
+
+		/**
+		 * Returns a JSON object representation of this signature.
+		 *
+		 * @return The JSON object.
+		 */
+		public JSONObject toJSONObject() {
+
+			JSONObject o = new JSONObject();
+
+			if (protectedHeader != null) {
+				o.put("protected", protectedHeader.toString());
+			}
+
+			if (unprotectedHeader != null) {
+				o.put("header", new JSONObject(unprotectedHeader));
+			}
+
+			o.put("signature", signature.toString());
+
+			return o;
+		}
+
+
+		/**
+		 * Parses a JWS signature from the specified JSON object.
+		 *
+		 * @param jsonObject The JSON object to parse. Must not be
+		 *                   {@code null}.
+		 *
+		 * @return The JWS signature.
+		 *
+		 * @throws ParseException If parsing failed.
+		 */
+		public static Signature parse(final JSONObject jsonObject)
+			throws ParseException {
+
+			String protectedHeader = JSONObjectUtils.getString(jsonObject, "protected");
+			String signature = JSONObjectUtils.getString(jsonObject, "signature");
+
+			return new Signature(
+				protectedHeader != null ? new Base64URL(protectedHeader) : null,
+				JSONObjectUtils.getJSONObject(jsonObject, "header"),
+				signature != null ? new Base64URL(signature) : null);
+		}
+	}
+
+
+	/**
+	 * Verification policy for JWS objects with multiple signatures. This
+	 * class is immutable.
+	 */
+	@Immutable
+	public static final class VerificationPolicy {
+
+
+		/**
+		 * The required number of valid signatures, zero for all.
+		 */
+		private final int threshold;
+
+
+		/**
+		 * Creates a new verification policy.
+		 *
+		 * @param threshold The required number of valid signatures,
+		 *                  zero for all.
+		 */
+		private VerificationPolicy(final int threshold) {
+
+			this.threshold = threshold;
+		}
+
+
+		/**
+		 * Returns a policy requiring at least one valid signature.
+		 *
+		 * @return The policy.
+		 */
+		public static VerificationPolicy anyOf() {
+
+			return new VerificationPolicy(1);
+		}
+
+
+		/**
+		 * Returns a policy requiring all signatures to be valid.
+		 *
+		 * @return The policy.
+		 */
+		public static VerificationPolicy allOf() {
+
+			return new VerificationPolicy(0);
+		}
+
+
+		/**
+		 * Returns a policy requiring at least the specified number of
+		 * valid signatures.
+		 *
+		 * @param threshold The required number of valid signatures.
+		 *                  Must be positive.
+		 *
+		 * @return The policy.
+		 */
+		public static VerificationPolicy threshold(final int threshold) {
+
+			if (threshold < 1) {
+				throw new IllegalArgumentException("The threshold must be positive");
+			}
+
+			return new VerificationPolicy(threshold);
+		}
+
+
+		/**
+		 * Returns the required number of valid signatures for a JWS
+		 * object with the specified number of signatures.
+		 *
+		 * @param numSignatures The number of signatures.
+		 *
+		 * @return The required number of valid signatures.
+		 */
+		public int getRequiredCount(final int numSignatures) {
+
+			return threshold == 0 ? numSignatures : threshold;
+		}
+
+
+		@Override
+		public String toString() {
+
+			return threshold == 0 ? "allOf" : (threshold == 1 ? "anyOf" : "threshold(" + threshold + ")");
+		}
+	}
+
+
+	/**
+	 * Builder for signing a payload by one or more signers.
+	 */
+	public static class Builder {
+
+
+		/**
+		 * The payload.
+		 */
+		private final Payload payload;
+
+
+		/**
+		 * The protected headers.
+		 */
+		private final List<JWSHeader> protectedHeaders = new LinkedList<>();
+
+
+		/**
+		 * The unprotected headers, {@code null} elements if none.
+		 */
+		private final List<JSONObject> unprotectedHeaders = new LinkedList<>();
+
+
+		/**
+		 * The signers.
+		 */
+		private final List<JWSSigner> signers = new LinkedList<>();
+
+
+		/**
+		 * Creates a new builder.
+		 *
+		 * @param payload The payload. Must not be {@code null}.
+		 */
+		public Builder(final Payload payload) {
+
+			if (payload == null) {
+				throw new IllegalArgumentException("The payload must not be null");
+			}
+
+			this.payload = payload;
+		}
+
+
+		/**
+		 * Adds a signature.
+		 *
+		 * @param protectedHeader The protected JWS header. Must not be
+		 *                        {@code null}.
+		 * @param signer          The signer. Must not be {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder signature(final JWSHeader protectedHeader, final JWSSigner signer) {
+
+			return signature(protectedHeader, null, signer);
+		}
+
+
+		/**
+		 * Adds a signature.
+		 *
+		 * @param protectedHeader   The protected JWS header. Must not
+		 *                          be {@code null}.
+		 * @param unprotectedHeader The unprotected header, {@code null}
+		 *                          if none.
+		 * @param signer            The signer. Must not be
+		 *                          {@code null}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder signature(final JWSHeader protectedHeader,
+					 final JSONObject unprotectedHeader,
+					 final JWSSigner signer) {
+
+			if (protectedHeader == null) {
+				throw new IllegalArgumentException("The protected JWS header must not be null");
+			}
+
+			if (signer == null) {
+				throw new IllegalArgumentException("The JWS signer must not be null");
+			}
+
+			protectedHeaders.add(protectedHeader);
+			unprotectedHeaders.add(unprotectedHeader);
+			signers.add(signer);
+			return this;
+		}
+
+
+		/**
+		 * Signs the payload by the added signers.
+		 *
+		 * @return The JWS object.
+		 *
+		 * @throws JOSEException If no signature was added, a JWS
+		 *                       algorithm isn't supported by its signer,
+		 *                       or signing failed.
+		 */
+		public JWSObjectJSON sign()
+			throws JOSEException {
+
+			if (signers.isEmpty()) {
+				throw new JOSEException("At least one JWS signature must be specified");
+			}
+
+			final Base64URL payloadB64 = payload.toBase64URL();
+			final byte[] payloadPart = ("." + payloadB64).getBytes(StandardCharset.UTF_8);
+
+			final List<Signature> signatures = new ArrayList<>(signers.size());
+
+			Iterator<JWSHeader> protectedHeaderIt = protectedHeaders.iterator();
+			Iterator<JSONObject> unprotectedHeaderIt = unprotectedHeaders.iterator();
+
+			for (JWSSigner signer: signers) {
+
+				JWSHeader protectedHeader = protectedHeaderIt.next();
+				JSONObject unprotectedHeader = unprotectedHeaderIt.next();
+
+				if (! signer.supportedJWSAlgorithms().contains(protectedHeader.getAlgorithm())) {
+					throw new JOSEException("The JWS algorithm " + protectedHeader.getAlgorithm() + " isn't supported by the signer");
+				}
+
+				Base64URL protectedHeaderB64 = protectedHeader.toBase64URL();
+
+				Base64URL signature = signer.sign(protectedHeader, composeSigningInput(protectedHeaderB64, payloadPart));
+
+				try {
+					signatures.add(new Signature(protectedHeaderB64, unprotectedHeader, signature));
+				} catch (ParseException e) {
+					throw new JOSEException(e.getMessage(), e);
+				}
+			}
+
+			return new JWSObjectJSON(payloadB64, signatures);
+		}
+	}
+
+
+	/**
+	 * The payload, Base64URL encoded.
+	 */
+	private final Base64URL payload;
+
+
+	/**
+	 * The signatures.
+	 */
+	private final List<Signature> signatures;
+
+
+	/**
+	 * The ASCII bytes of the period and the Base64URL encoded payload,
+	 * shared by the signing inputs of all signatures.
+	 */
+	private final byte[] payloadPart;
+
+
+	/**
+	 * Creates a new JWS object with JSON serialisation.
+	 *
+	 * @param payload    The payload, Base64URL encoded. Must not be
+	 *                   {@code null}.
+	 * @param signatures The signatures. Must not be empty.
+	 */
+	private JWSObjectJSON(final Base64URL payload, final List<Signature> signatures) {
+
+		this.payload = payload;
+		this.signatures = Collections.unmodifiableList(new ArrayList<>(signatures));
+		payloadPart = ("." + payload).getBytes(StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Gets the payload.
+	 *
+	 * @return The payload.
+	 */
+	public Payload getPayload() {
+
+		return new Payload(payload);
+	}
+
+
+	/**
+	 * Gets the signatures.
+	 *
+	 * @return The signatures, as an unmodifiable list.
+	 */
+	public List<Signature> getSignatures() {
+
+		return signatures;
+	}
+
+
+	/**
+	 * Returns the signing input for the specified signature.
+	 *
+	 * @param signature The signature. Must not be {@code null}.
+	 *
+	 * @return The signing input.
+	 */
+	public byte[] getSigningInput(final Signature signature) {
+
+		return composeSigningInput(signature.getProtectedHeader(), payloadPart);
+	}
+
+
+	/**
+	 * Verifies the signature at the specified index.
+	 *
+	 * @param verifier The verifier. Must not be {@code null}.
+	 * @param index    The signature index.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, or if
+	 *                       signature verification failed for some other
+	 *                       internal reason.
+	 */
+	public boolean verify(final JWSVerifier verifier, final int index)
+		throws JOSEException {
+
+		Signature signature = signatures.get(index);
+		return verifier.verify(signature.getHeader(), getSigningInput(signature), signature.getSignature());
+	}
+
+
+	/**
+	 * Verifies the signatures serially, in the calling thread, until the
+	 * policy is satisfied or can no longer be satisfied.
+	 *
+	 * @param verifiers The verifiers, one for each signature, in the same
+	 *                  order. A {@code null} element marks a signature
+	 *                  which cannot be verified and is counted as
+	 *                  invalid. A verifier instance repeated for several
+	 *                  signatures is counted as valid at most once. Must
+	 *                  not be {@code null}.
+	 * @param policy    The verification policy. Must not be
+	 *                  {@code null}.
+	 *
+	 * @return {@code true} if the policy is satisfied, else
+	 *         {@code false}.
+	 */
+	public boolean verify(final List<JWSVerifier> verifiers, final VerificationPolicy policy) {
+
+		checkVerifiers(verifiers);
+
+		final int required = policy.getRequiredCount(signatures.size());
+
+		Set<JWSVerifier> counted = Collections.newSetFromMap(new IdentityHashMap<JWSVerifier,Boolean>());
+
+		int valid = 0;
+		int remaining = signatures.size();
+
+		for (int i=0; i < signatures.size(); i++) {
+
+			if (valid >= required || valid + remaining < required) {
+				break;
+			}
+
+			remaining--;
+
+			final JWSVerifier verifier = verifiers.get(i);
+
+			if (verifier == null || counted.contains(verifier)) {
+				continue;
+			}
+
+			if (verifySafely(verifier, i)) {
+				counted.add(verifier);
+				valid++;
+			}
+		}
+
+		return valid >= required;
+	}
+
+
+	/**
+	 * Verifies the signatures concurrently on the specified executor.
+	 * Returns as soon as the policy is satisfied or can no longer be
+	 * satisfied, cancelling any pending verifications.
+	 *
+	 * @param verifiers The verifiers, one for each signature, in the same
+	 *                  order. A {@code null} element marks a signature
+	 *                  which cannot be verified and is counted as
+	 *                  invalid. A verifier instance repeated for several
+	 *                  signatures is counted as valid at most once. Must
+	 *                  not be {@code null}.
+	 * @param policy    The verification policy. Must not be
+	 *                  {@code null}.
+	 * @param executor  The executor service. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the policy is satisfied, else
+	 *         {@code false}.
+	 *
+	 * @throws JOSEException If the calling thread was interrupted.
+	 */
+	public boolean verify(final List<JWSVerifier> verifiers,
+			      final VerificationPolicy policy,
+			      final ExecutorService executor)
+		throws JOSEException {
+
+		checkVerifiers(verifiers);
+
+		final int required = policy.getRequiredCount(signatures.size());
+
+		CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+		List<Future<Boolean>> futures = new ArrayList<>(signatures.size());
+		Map<Future<Boolean>,JWSVerifier> futureVerifiers = new IdentityHashMap<>();
+
+		for (int i=0; i < signatures.size(); i++) {
+
+			final JWSVerifier verifier = verifiers.get(i);
+
+			if (verifier == null) {
+				continue;
+			}
+
+			final int index = i;
+
+			Future<Boolean> future = completionService.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return verifySafely(verifier, index);
+				}
+			});
+
+			futures.add(future);
+			futureVerifiers.put(future, verifier);
+		}
+
+		Set<JWSVerifier> counted = Collections.newSetFromMap(new IdentityHashMap<JWSVerifier,Boolean>());
+
+		int valid = 0;
+		int remaining = futures.size();
+
+		try {
+			while (valid < required && valid + remaining >= required) {
+
+				Future<Boolean> future = completionService.take();
+				remaining--;
+
+				try {
+					if (future.get() && counted.add(futureVerifiers.get(future))) {
+						valid++;
+					}
+				} catch (ExecutionException e) {
+					// Counted as invalid
+				}
+			}
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JOSEException("Interrupted while verifying the JWS signatures", e);
+
+		} finally {
+			for (Future<Boolean> future: futures) {
+				future.cancel(true);
+			}
+		}
+
+		return valid >= required;
+	}
+
+
+	/**
+	 * Verifies the signature at the specified index, counting a
+	 * verification exception, checked or unchecked, as an invalid
+	 * signature.
+	 *
+	 * @param verifier The verifier. Must not be {@code null}.
+	 * @param index    The signature index.
+	 *
+	 * @return {@code true} if the signature is valid, else
+	 *         {@code false}.
+	 */
+	private boolean verifySafely(final JWSVerifier verifier, final int index) {
+
+		try {
+			return verify(verifier, index);
+		} catch (JOSEException | RuntimeException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Checks the specified verifiers match the signatures.
+	 *
+	 * @param verifiers The verifiers.
+	 */
+	private void checkVerifiers(final List<JWSVerifier> verifiers) {
+
+		if (verifiers.size() != signatures.size()) {
+			throw new IllegalArgumentException("The number of verifiers must match the number of signatures");
+		}
+	}
+
+
+	/**
+	 * Returns a JSON object representation of this JWS object in the
+	 * general JSON serialisation.
+	 *
+	 * @return The JSON object.
+	 */
+	public JSONObject toGeneralJSONObject() {
+
+		JSONObject o = new JSONObject();
+		o.put("payload", payload.toString());
+
+		JSONArray signaturesArray = new JSONArray();
+		for (Signature signature: signatures) {
+			signaturesArray.add(signature.toJSONObject());
+		}
+		o.put("signatures", signaturesArray);
+
+		return o;
+	}
+
+
+	/**
+	 * Returns a JSON object representation of this JWS object in the
+	 * flattened JSON serialisation.
+	 *
+	 * @return The JSON object.
+	 *
+	 * @throws IllegalStateException If the JWS object has more than one
+	 *                               signature.
+	 */
+	public JSONObject toFlattenedJSONObject() {
+
+		if (signatures.size() > 1) {
+			throw new IllegalStateException("The flattened JWS JSON serialization requires a single signature");
+		}
+
+		JSONObject o = new JSONObject();
+		o.put("payload", payload.toString());
+		o.putAll(signatures.get(0).toJSONObject());
+		return o;
+	}
+
+
+	/**
+	 * Serialises this JWS object to its general JSON format.
+	 *
+	 * @return The general JSON serialisation.
+	 */
+	public String serializeGeneral() {
+
+		return toGeneralJSONObject().toJSONString();
+	}
+
+
+	/**
+	 * Serialises this JWS object to its flattened JSON format.
+	 *
+	 * @return The flattened JSON serialisation.
+	 *
+	 * @throws IllegalStateException If the JWS object has more than one
+	 *                               signature.
+	 */
+	public String serializeFlattened() {
+
+		return toFlattenedJSONObject().toJSONString();
+	}
+
+
+	/**
+	 * Parses a JWS object from the specified string in general or
+	 * flattened JSON serialisation.
+	 *
+	 * @param s The string to parse. Must not be {@code null}.
+	 *
+	 * @return The JWS object.
+	 *
+	 * @throws ParseException If the string couldn't be parsed to a valid
+	 *                        JWS object.
+	 */
+	public static JWSObjectJSON parse(final String s)
+		throws ParseException {
+
+		return parse(JSONObjectUtils.parse(s));
+	}
+
+
+	/**
+	 * Parses a JWS object from the specified JSON object in general or
+	 * flattened JSON serialisation.
+	 *
+	 * @param jsonObject The JSON object to parse. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The JWS object.
+	 *
+	 * @throws ParseException If the JSON object couldn't be parsed to a
+	 *                        valid JWS object.
+	 */
+	public static JWSObjectJSON parse(final JSONObject jsonObject)
+		throws ParseException {
+
+		String payload = JSONObjectUtils.getString(jsonObject, "payload");
+
+		if (payload == null) {
+			throw new ParseException("Missing JWS payload", 0);
+		}
+
+		List<Signature> signatures = new ArrayList<>();
+
+		if (jsonObject.containsKey("signatures")) {
+
+			// General
+			for (Object item: JSONObjectUtils.getJSONArray(jsonObject, "signatures")) {
+
+				if (! (item instanceof JSONObject)) {
+					throw new ParseException("Invalid JWS signature", 0);
+				}
+
+				signatures.add(Signature.parse((JSONObject) item));
+			}
+
+		} else {
+			// Flattened
+			signatures.add(Signature.parse(jsonObject));
+		}
+
+		if (signatures.isEmpty()) {
+			throw new ParseException("Missing JWS signatures", 0);
+		}
+
+		Set<Base64URL> signatureValues = new HashSet<>();
+
+		for (Signature signature: signatures) {
+
+			if (! signatureValues.add(signature.getSignature())) {
+				throw new ParseException("Duplicate JWS signature", 0);
+			}
+		}
+
+		return new JWSObjectJSON(new Base64URL(payload), signatures);
+	}
+
+
+	/**
+	 * Composes the signing input for the specified protected header and
+	 * payload part.
+	 *
+	 * @param protectedHeader The protected header, {@code null} if none.
+	 * @param payloadPart     The ASCII bytes of the period and the
+	 *                        Base64URL encoded payload.
+	 *
+	 * @return The signing input.
+	 */
+	private static byte[] composeSigningInput(final Base64URL protectedHeader, final byte[] payloadPart) {
+
+		if (protectedHeader == null) {
+			return payloadPart.clone();
+		}
+
+		byte[] headerPart = protectedHeader.toString().getBytes(StandardCharset.UTF_8);
+		byte[] signingInput = new byte[headerPart.length + payloadPart.length];
+		System.arraycopy(headerPart, 0, signingInput, 0, headerPart.length);
+		System.arraycopy(payloadPart, 0, signingInput, headerPart.length, payloadPart.length);
+		return signingInput;
+	}
+}
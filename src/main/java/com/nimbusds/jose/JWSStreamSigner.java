@@ -0,0 +1,58 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.io.InputStream;
+
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * JSON Web Signature (JWS) signer which can also sign a signing input read
+ * from a stream, without holding it in memory. Used to sign large detached
+ * payloads, see {@link DetachedJWS}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface JWSStreamSigner extends JWSSigner {
+
+
+	/**
+	 * Signs the signing input read from the specified stream. The signing
+	 * input is read until the end of the stream, which is not closed.
+	 *
+	 * @param header       The JSON Web Signature (JWS) header. Must
+	 *                     specify a supported JWS algorithm and must not
+	 *                     be {@code null}.
+	 * @param signingInput The signing input stream. Must not be
+	 *                     {@code null}.
+	 *
+	 * @return The resulting signature part (third part) of the JWS object.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported, if a
+	 *                       critical header parameter is not supported or
+	 *                       marked for deferral to the application, if
+	 *                       the signing input couldn't be read, or if
+	 *                       signing failed for some other internal reason.
+	 */
+	Base64URL sign(final JWSHeader header, final InputStream signingInput)
+		throws JOSEException;
+}
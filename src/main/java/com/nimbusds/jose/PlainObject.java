@@ -29,7 +29,7 @@ import com.nimbusds.jose.util.Base64URL;
  * Unsecured (plain / {@code alg=none}) JOSE object. This class is thread-safe.
  *
  * @author Vladimir Dzhuvinov
- * @version 2014-04-08
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class PlainObject extends JOSEObject {
@@ -150,6 +150,13 @@ public class PlainObject extends JOSEObject {
 	}
 
 
+	@Override
+	CharSequence[] getSerializedParts() {
+
+		return new CharSequence[]{header.toBase64URL().toString(), ".", getPayload().toBase64URL().toString(), "."};
+	}
+
+
 	/**
 	 * Parses an unsecured JOSE object from the specified string in compact
 	 * format.
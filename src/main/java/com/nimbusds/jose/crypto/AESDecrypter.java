@@ -70,10 +70,10 @@ import com.nimbusds.jose.util.Base64URL;
  *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
- * @version 2015-06-29
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
+public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, JWEKeyDecrypter, CriticalHeaderParamsAware {
 
 
 	/**
@@ -187,6 +187,16 @@ public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, Cri
 			throw new JOSEException("Missing JWE authentication tag");
 		}
 
+		SecretKey cek = decryptKey(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+
+
+	@Override
+	public SecretKey decryptKey(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
 		critPolicy.ensureHeaderPasses(header);
 
 		// Derive the content encryption key
@@ -225,6 +235,6 @@ public class AESDecrypter extends AESCryptoProvider implements JWEDecrypter, Cri
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWEAlgorithm(alg, SUPPORTED_ALGORITHMS));
 		}
 
-		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+		return cek;
 	}
 }
\ No newline at end of file
@@ -68,13 +68,18 @@ import net.jcip.annotations.ThreadSafe;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>For a long-lived Key Encryption Key (KEK) wrapping many CEKs with an AES
+ * GCM key wrap algorithm the encrypter can be configured with an
+ * {@link AESGCMIVGenerator} to produce deterministic instead of random key
+ * wrap IVs.
+ *
  * @author Melisa Halsband
  * @author Vladimir Dzhuvinov
  * @author Dimitar A. Stoikov
- * @version 2017-06-01
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
+public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter, JWEKeyEncrypter {
 
 
 	/**
@@ -86,6 +91,13 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 	}
 
 
+	/**
+	 * The deterministic IV generator for the AES GCM key wrap
+	 * algorithms, {@code null} if not specified.
+	 */
+	private final AESGCMIVGenerator gcmIVGenerator;
+
+
 	/**
 	 * Creates a new AES encrypter.
 	 *
@@ -98,7 +110,28 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 	public AESEncrypter(final SecretKey kek)
 		throws KeyLengthException {
 
+		this(kek, null);
+	}
+
+
+	/**
+	 * Creates a new AES encrypter with a deterministic IV generator for
+	 * the AES GCM key wrap algorithms.
+	 *
+	 * @param kek            The Key Encryption Key. Must be 128 bits (16
+	 *                       bytes), 192 bits (24 bytes) or 256 bits (32
+	 *                       bytes). Must not be {@code null}.
+	 * @param gcmIVGenerator The deterministic IV generator for the AES GCM
+	 *                       key wrap algorithms, {@code null} to generate
+	 *                       random IVs. Must be used with this KEK only.
+	 *
+	 * @throws KeyLengthException If the KEK length is invalid.
+	 */
+	public AESEncrypter(final SecretKey kek, final AESGCMIVGenerator gcmIVGenerator)
+		throws KeyLengthException {
+
 		super(kek);
+		this.gcmIVGenerator = gcmIVGenerator;
 	}
 
 	/**
@@ -134,10 +167,36 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 	}
 
 
+	/**
+	 * Returns the deterministic IV generator for the AES GCM key wrap
+	 * algorithms.
+	 *
+	 * @return The IV generator, {@code null} if not specified.
+	 */
+	public AESGCMIVGenerator getAESGCMIVGenerator() {
+
+		return gcmIVGenerator;
+	}
+
+
 	@Override
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
+		// Generate and encrypt the CEK according to the enc method
+		final EncryptionMethod enc = header.getEncryptionMethod();
+		final SecretKey cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
+
+		final JWEEncryptedKey encryptedKey = encryptKey(header, cek);
+
+		return ContentCryptoProvider.encrypt(encryptedKey.getHeader(), clearText, cek, encryptedKey.getEncryptedKey(), getJCAContext());
+	}
+
+
+	@Override
+	public JWEEncryptedKey encryptKey(final JWEHeader header, final SecretKey cek)
+		throws JOSEException {
+
 		final JWEAlgorithm alg = header.getAlgorithm();
 
 		// Check the AES key size and determine the algorithm family
@@ -194,10 +253,6 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 		final JWEHeader updatedHeader; // We need to work on the header
 		final Base64URL encryptedKey; // The second JWE part
 
-		// Generate and encrypt the CEK according to the enc method
-		final EncryptionMethod enc = header.getEncryptionMethod();
-		final SecretKey cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
-
 		if(AlgFamily.AESKW.equals(algFamily)) {
 
 			encryptedKey = Base64URL.encode(AESKW.wrapCEK(cek, getKey(), getJCAContext().getKeyEncryptionProvider()));
@@ -205,7 +260,8 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 
 		} else if(AlgFamily.AESGCMKW.equals(algFamily)) {
 
-			final Container<byte[]> keyIV = new Container<>(AESGCM.generateIV(getJCAContext().getSecureRandom()));
+			final Container<byte[]> keyIV = new Container<>(gcmIVGenerator != null ?
+				gcmIVGenerator.generateIV() : AESGCM.generateIV(getJCAContext().getSecureRandom()));
 			final AuthenticatedCipherText authCiphCEK = AESGCMKW.encryptCEK(cek, keyIV, getKey(), getJCAContext().getKeyEncryptionProvider());
 			encryptedKey = Base64URL.encode(authCiphCEK.getCipherText());
 
@@ -219,6 +275,6 @@ public class AESEncrypter extends AESCryptoProvider implements JWEEncrypter {
 			throw new JOSEException("Unexpected JWE algorithm: " + alg);
 		}
 
-		return ContentCryptoProvider.encrypt(updatedHeader, clearText, cek, encryptedKey, getJCAContext());
+		return new JWEEncryptedKey(updatedHeader, encryptedKey);
 	}
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ package com.nimbusds.jose.crypto;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+import com.nimbusds.jose.crypto.impl.AESGCMIVGenerator;
 import com.nimbusds.jose.crypto.impl.AlgorithmSupportMessage;
 import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
 import com.nimbusds.jose.crypto.impl.DirectCryptoProvider;
@@ -61,13 +62,24 @@ import com.nimbusds.jose.util.ByteUtils;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED} (requires 512 bit key)
  * </ul>
  *
+ * <p>For a long-lived key encrypting many messages with an AES/GCM method the
+ * encrypter can be configured with an {@link AESGCMIVGenerator} to produce
+ * deterministic instead of random IVs.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypter {
 
 
+	/**
+	 * The deterministic IV generator for AES/GCM encryption methods,
+	 * {@code null} if not specified.
+	 */
+	private final AESGCMIVGenerator gcmIVGenerator;
+
+
 	/**
 	 * Creates a new direct encrypter.
 	 *
@@ -82,7 +94,31 @@ public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypte
 	public DirectEncrypter(final SecretKey key)
 		throws KeyLengthException {
 
+		this(key, null);
+	}
+
+
+	/**
+	 * Creates a new direct encrypter with a deterministic IV generator for
+	 * AES/GCM encryption methods.
+	 *
+	 * @param key            The symmetric key. Its algorithm should be
+	 *                       "AES". Must be 128 bits (16 bytes), 192 bits
+	 *                       (24 bytes), 256 bits (32 bytes), 384 bits (48
+	 *                       bytes) or 512 bits (64 bytes) long. Must not
+	 *                       be {@code null}.
+	 * @param gcmIVGenerator The deterministic IV generator for AES/GCM
+	 *                       encryption methods, {@code null} to generate
+	 *                       random IVs. Must be used with this key only.
+	 *
+	 * @throws KeyLengthException If the symmetric key length is not
+	 *                            compatible.
+	 */
+	public DirectEncrypter(final SecretKey key, final AESGCMIVGenerator gcmIVGenerator)
+		throws KeyLengthException {
+
 		super(key);
+		this.gcmIVGenerator = gcmIVGenerator;
 	}
 
 
@@ -122,6 +158,18 @@ public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypte
 	}
 
 
+	/**
+	 * Returns the deterministic IV generator for AES/GCM encryption
+	 * methods.
+	 *
+	 * @return The IV generator, {@code null} if not specified.
+	 */
+	public AESGCMIVGenerator getAESGCMIVGenerator() {
+
+		return gcmIVGenerator;
+	}
+
+
 	@Override
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
@@ -141,6 +189,6 @@ public class DirectEncrypter extends DirectCryptoProvider implements JWEEncrypte
 
 		final Base64URL encryptedKey = null; // The second JWE part
 
-		return ContentCryptoProvider.encrypt(header, clearText, getKey(), encryptedKey, getJCAContext());
+		return ContentCryptoProvider.encrypt(header, clearText, getKey(), encryptedKey, getJCAContext(), gcmIVGenerator);
 	}
 }
\ No newline at end of file
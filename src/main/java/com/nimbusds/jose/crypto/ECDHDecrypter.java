@@ -30,6 +30,7 @@ import com.nimbusds.jose.CriticalHeaderParamsAware;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEDecrypter;
 import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEKeyDecrypter;
 import com.nimbusds.jose.crypto.impl.CriticalHeaderParamsDeferral;
 import com.nimbusds.jose.crypto.impl.ECDH;
 import com.nimbusds.jose.crypto.impl.ECDHCryptoProvider;
@@ -83,9 +84,9 @@ import com.nimbusds.jose.util.Base64URL;
  * </ul>
  *
  * @author Vladimir Dzhuvinov
- * @version 2018-12-12
+ * @version 2026-10-19
  */
-public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
+public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, JWEKeyDecrypter, CriticalHeaderParamsAware {
 
 
 	/**
@@ -239,6 +240,45 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 
 		critPolicy.ensureHeaderPasses(header);
 
+		SecretKey Z = deriveSharedSecret(header);
+
+		return decryptWithZ(header, Z, encryptedKey, iv, cipherText, authTag);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Supported only for ECDH-ES with key wrapping
+	 * ({@code ECDH-ES+A128KW}, {@code ECDH-ES+A192KW} and
+	 * {@code ECDH-ES+A256KW}).
+	 */
+	@Override
+	public SecretKey decryptKey(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
+		critPolicy.ensureHeaderPasses(header);
+
+		SecretKey Z = deriveSharedSecret(header);
+
+		return decryptKeyWithZ(header, Z, encryptedKey);
+	}
+
+
+	/**
+	 * Derives the shared secret ("Z") from the ephemeral public EC key in
+	 * the specified JWE header and the private EC key.
+	 *
+	 * @param header The JWE header. Must not be {@code null}.
+	 *
+	 * @return The shared secret.
+	 *
+	 * @throws JOSEException If the ephemeral public EC key is missing or
+	 *                       invalid.
+	 */
+	private SecretKey deriveSharedSecret(final JWEHeader header)
+		throws JOSEException {
+
 		// Get ephemeral EC key
 		ECKey ephemeralKey = (ECKey) header.getEphemeralPublicKey();
 
@@ -261,11 +301,9 @@ public class ECDHDecrypter extends ECDHCryptoProvider implements JWEDecrypter, C
 		}
 
 		// Derive 'Z'
-		SecretKey Z = ECDH.deriveSharedSecret(
+		return ECDH.deriveSharedSecret(
 			ephemeralPublicKey,
 			privateKey,
 			getJCAContext().getKeyEncryptionProvider());
-
-		return decryptWithZ(header, Z, encryptedKey, iv, cipherText, authTag);
 	}
 }
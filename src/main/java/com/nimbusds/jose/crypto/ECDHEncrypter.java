@@ -34,10 +34,13 @@ import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWECryptoParts;
+import com.nimbusds.jose.JWEEncryptedKey;
 import com.nimbusds.jose.JWEEncrypter;
 import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEKeyEncrypter;
 import com.nimbusds.jose.crypto.impl.ECDH;
 import com.nimbusds.jose.crypto.impl.ECDHCryptoProvider;
+import com.nimbusds.jose.crypto.impl.ECEphemeralKeyPool;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 
@@ -90,10 +93,10 @@ import net.jcip.annotations.ThreadSafe;
  * @author Tim McLean
  * @author Vladimir Dzhuvinov
  * @author Fernando González Callejas
- * @version 2019-01-24
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
+public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter, JWEKeyEncrypter {
 
 
 	/**
@@ -122,6 +125,14 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	 */
 	private final SecretKey contentEncryptionKey;
 
+
+	/**
+	 * The pool of pre-generated ephemeral key pairs, {@code null} to
+	 * generate the ephemeral key pair inline for each JWE.
+	 */
+	private final ECEphemeralKeyPool ephemeralKeyPool;
+
+
 	/**
 	 * Creates a new Elliptic Curve Diffie-Hellman encrypter.
 	 *
@@ -150,6 +161,7 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 
 		publicKey = ecJWK.toECPublicKey();
 		contentEncryptionKey = null;
+		ephemeralKeyPool = null;
 	}
 	
 	/**
@@ -168,6 +180,35 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	 */
 	public ECDHEncrypter(final ECPublicKey publicKey, final SecretKey contentEncryptionKey)
 		throws JOSEException {
+
+		this(publicKey, contentEncryptionKey, null);
+	}
+
+
+	/**
+	 * Creates a new Elliptic Curve Diffie-Hellman encrypter with an
+	 * optionally specified content encryption key (CEK) and pool of
+	 * pre-generated ephemeral key pairs.
+	 *
+	 * @param publicKey            The public EC key. Must not be
+	 *                             {@code null}.
+	 * @param contentEncryptionKey The content encryption key (CEK) to use.
+	 *                             If specified its algorithm must be "AES"
+	 *                             and its length must match the expected
+	 *                             for the JWE encryption method ("enc").
+	 *                             If {@code null} a CEK will be generated
+	 *                             for each JWE.
+	 * @param ephemeralKeyPool     The pool to take the ephemeral key pairs
+	 *                             from, must be for the curve of the
+	 *                             public key. If {@code null} the
+	 *                             ephemeral key pair will be generated for
+	 *                             each JWE.
+	 * @throws JOSEException       If the elliptic curve is not supported.
+	 */
+	public ECDHEncrypter(final ECPublicKey publicKey,
+			     final SecretKey contentEncryptionKey,
+			     final ECEphemeralKeyPool ephemeralKeyPool)
+		throws JOSEException {
 		
 		super(Curve.forECParameterSpec(publicKey.getParams()));
 		
@@ -182,6 +223,12 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 		} else {
 			this.contentEncryptionKey = null;
 		}
+
+		if (ephemeralKeyPool != null && ! getCurve().equals(ephemeralKeyPool.getCurve())) {
+			throw new IllegalArgumentException("The curve of the ephemeral key pool must match the public key curve");
+		}
+
+		this.ephemeralKeyPool = ephemeralKeyPool;
 	}
 
 
@@ -196,6 +243,17 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	}
 
 
+	/**
+	 * Returns the pool of pre-generated ephemeral key pairs.
+	 *
+	 * @return The ephemeral key pool, {@code null} if not specified.
+	 */
+	public ECEphemeralKeyPool getEphemeralKeyPool() {
+
+		return ephemeralKeyPool;
+	}
+
+
 	@Override
 	public Set<Curve> supportedEllipticCurves() {
 
@@ -208,7 +266,9 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 		throws JOSEException {
 
 		// Generate ephemeral EC key pair on the same curve as the consumer's public key
-		KeyPair ephemeralKeyPair = generateEphemeralKeyPair(publicKey.getParams());
+		KeyPair ephemeralKeyPair = ephemeralKeyPool != null ?
+			ephemeralKeyPool.take() :
+			generateEphemeralKeyPair(publicKey.getParams());
 		ECPublicKey ephemeralPublicKey = (ECPublicKey)ephemeralKeyPair.getPublic();
 		ECPrivateKey ephemeralPrivateKey = (ECPrivateKey)ephemeralKeyPair.getPrivate();
 
@@ -227,6 +287,39 @@ public class ECDHEncrypter extends ECDHCryptoProvider implements JWEEncrypter {
 	}
 
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Supported only for ECDH-ES with key wrapping
+	 * ({@code ECDH-ES+A128KW}, {@code ECDH-ES+A192KW} and
+	 * {@code ECDH-ES+A256KW}).
+	 */
+	@Override
+	public JWEEncryptedKey encryptKey(final JWEHeader header, final SecretKey cek)
+		throws JOSEException {
+
+		// Generate ephemeral EC key pair on the same curve as the consumer's public key
+		KeyPair ephemeralKeyPair = ephemeralKeyPool != null ?
+			ephemeralKeyPool.take() :
+			generateEphemeralKeyPair(publicKey.getParams());
+		ECPublicKey ephemeralPublicKey = (ECPublicKey)ephemeralKeyPair.getPublic();
+		ECPrivateKey ephemeralPrivateKey = (ECPrivateKey)ephemeralKeyPair.getPrivate();
+
+		// Add the ephemeral public EC key to the header
+		JWEHeader updatedHeader = new JWEHeader.Builder(header).
+			ephemeralPublicKey(new ECKey.Builder(getCurve(), ephemeralPublicKey).build()).
+			build();
+
+		// Derive 'Z'
+		SecretKey Z = ECDH.deriveSharedSecret(
+			publicKey,
+			ephemeralPrivateKey,
+			getJCAContext().getKeyEncryptionProvider());
+
+		return new JWEEncryptedKey(updatedHeader, encryptKeyWithZ(updatedHeader, Z, cek));
+	}
+
+
 	/**
 	 * Generates a new ephemeral EC key pair with the specified curve.
 	 *
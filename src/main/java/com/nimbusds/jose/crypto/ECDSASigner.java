@@ -18,6 +18,7 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.PrivateKey;
 import java.security.Signature;
@@ -27,10 +28,11 @@ import java.security.interfaces.ECPrivateKey;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSStreamSigner;
 import com.nimbusds.jose.crypto.impl.AlgorithmSupportMessage;
 import com.nimbusds.jose.crypto.impl.ECDSA;
 import com.nimbusds.jose.crypto.impl.ECDSAProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.util.Base64URL;
@@ -58,12 +60,23 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Axel Nennker
  * @author Vladimir Dzhuvinov
- * @version 2016-11-30
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class ECDSASigner extends ECDSAProvider implements JWSSigner {
-	
-	
+public class ECDSASigner extends ECDSAProvider implements JWSStreamSigner {
+
+
+	/**
+	 * Per-thread buffer for the ASN.1/DER-encoded JCA signature output.
+	 */
+	private static final ThreadLocal<byte[]> DER_SIGNATURE_BUFFER = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[ECDSA.MAX_DER_SIGNATURE_LENGTH];
+		}
+	};
+
+
 	/**
 	 * The private EC key. Represented by generic private key interface to
 	 * support key stores that prevent exposure of the private key
@@ -160,29 +173,97 @@ public class ECDSASigner extends ECDSAProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
+		Signature dsa = getInitSigner(header);
+
+		try {
+			dsa.update(signingInput);
+		} catch (SignatureException e) {
+			throw new JOSEException(e.getMessage(), e);
+		}
+
+		return sign(header, dsa);
+	}
+
+
+	@Override
+	public Base64URL sign(final JWSHeader header, final InputStream signingInput)
+		throws JOSEException {
+
+		Signature dsa = getInitSigner(header);
+
+		try {
+			SigningInputStreams.update(dsa, signingInput);
+		} catch (SignatureException e) {
+			throw new JOSEException(e.getMessage(), e);
+		}
+
+		return sign(header, dsa);
+	}
+
+
+	/**
+	 * Returns a signature initialised for signing with the JWS algorithm
+	 * and the private EC key.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The initialised signature.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported or the
+	 *                       private EC key is invalid.
+	 */
+	private Signature getInitSigner(final JWSHeader header)
+		throws JOSEException {
+
 		final JWSAlgorithm alg = header.getAlgorithm();
 
 		if (! supportedJWSAlgorithms().contains(alg)) {
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWSAlgorithm(alg, supportedJWSAlgorithms()));
 		}
 
+		try {
+			Signature dsa = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
+			dsa.initSign(privateKey, getJCAContext().getSecureRandom());
+			return dsa;
+
+		} catch (InvalidKeyException e) {
+
+			throw new JOSEException(e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Completes the specified signature and transcodes it to the
+	 * concatenated R + S format of JWS.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 * @param dsa    The signature, updated with the signing input. Must
+	 *               not be {@code null}.
+	 *
+	 * @return The JWS signature.
+	 *
+	 * @throws JOSEException If signing failed.
+	 */
+	private static Base64URL sign(final JWSHeader header, final Signature dsa)
+		throws JOSEException {
+
 		// DER-encoded signature, according to JCA spec
 		// (sequence of two integers - R + S)
-		final byte[] jcaSignature;
+		final byte[] jcaSignature = DER_SIGNATURE_BUFFER.get();
+		final int jcaSignatureLength;
 
 		try {
-			Signature dsa = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
-			dsa.initSign(privateKey, getJCAContext().getSecureRandom());
-			dsa.update(signingInput);
-			jcaSignature = dsa.sign();
+			jcaSignatureLength = dsa.sign(jcaSignature, 0, jcaSignature.length);
 
-		} catch (InvalidKeyException | SignatureException e) {
+		} catch (SignatureException e) {
 
 			throw new JOSEException(e.getMessage(), e);
 		}
 
 		final int rsByteArrayLength = ECDSA.getSignatureByteArrayLength(header.getAlgorithm());
-		final byte[] jwsSignature = ECDSA.transcodeSignatureToConcat(jcaSignature, rsByteArrayLength);
+		final byte[] jwsSignature = new byte[rsByteArrayLength];
+		ECDSA.transcodeSignatureToConcat(jcaSignature, 0, jcaSignatureLength, jwsSignature, 0, rsByteArrayLength);
 		return Base64URL.encode(jwsSignature);
 	}
 }
@@ -18,6 +18,7 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.Signature;
 import java.security.SignatureException;
@@ -29,6 +30,7 @@ import com.nimbusds.jose.crypto.impl.AlgorithmSupportMessage;
 import com.nimbusds.jose.crypto.impl.CriticalHeaderParamsDeferral;
 import com.nimbusds.jose.crypto.impl.ECDSA;
 import com.nimbusds.jose.crypto.impl.ECDSAProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import com.nimbusds.jose.crypto.utils.ECChecks;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
@@ -57,10 +59,21 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Axel Nennker
  * @author Vladimir Dzhuvinov
- * @version 2017-04-13
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class ECDSAVerifier extends ECDSAProvider implements JWSVerifier, CriticalHeaderParamsAware {
+public class ECDSAVerifier extends ECDSAProvider implements JWSStreamVerifier, CriticalHeaderParamsAware {
+
+
+	/**
+	 * Per-thread buffer for the ASN.1/DER-encoded transcoded JWS signature.
+	 */
+	private static final ThreadLocal<byte[]> DER_SIGNATURE_BUFFER = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[ECDSA.MAX_DER_SIGNATURE_LENGTH];
+		}
+	};
 
 
 	/**
@@ -164,6 +177,70 @@ public class ECDSAVerifier extends ECDSAProvider implements JWSVerifier, Critica
 		              final Base64URL signature)
 		throws JOSEException {
 
+		final byte[] derSignature = DER_SIGNATURE_BUFFER.get();
+		final int derSignatureLength = toDERSignature(header, signature, derSignature);
+
+		if (derSignatureLength < 0) {
+			return false;
+		}
+
+		Signature sig = getInitVerifier(header);
+
+		try {
+			sig.update(signedContent);
+			return sig.verify(derSignature, 0, derSignatureLength);
+
+		} catch (SignatureException e) {
+			return false;
+		}
+	}
+
+
+	@Override
+	public boolean verify(final JWSHeader header,
+			      final InputStream signingInput,
+			      final Base64URL signature)
+		throws JOSEException {
+
+		final byte[] derSignature = DER_SIGNATURE_BUFFER.get();
+		final int derSignatureLength = toDERSignature(header, signature, derSignature);
+
+		if (derSignatureLength < 0) {
+			return false;
+		}
+
+		Signature sig = getInitVerifier(header);
+
+		try {
+			SigningInputStreams.update(sig, signingInput);
+			return sig.verify(derSignature, 0, derSignatureLength);
+
+		} catch (SignatureException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Checks the JWS algorithm and the critical header parameters, and
+	 * transcodes the specified JWS signature to the ASN.1/DER format of
+	 * JCA.
+	 *
+	 * @param header       The JWS header. Must not be {@code null}.
+	 * @param signature    The JWS signature. Must not be {@code null}.
+	 * @param derSignature The output buffer for the DER-encoded
+	 *                     signature. Must not be {@code null}.
+	 *
+	 * @return The DER-encoded signature length, -1 if the header is
+	 *         rejected or the signature format is invalid.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported.
+	 */
+	private int toDERSignature(final JWSHeader header,
+				   final Base64URL signature,
+				   final byte[] derSignature)
+		throws JOSEException {
+
 		final JWSAlgorithm alg = header.getAlgorithm();
 
 		if (! supportedJWSAlgorithms().contains(alg)) {
@@ -171,31 +248,42 @@ public class ECDSAVerifier extends ECDSAProvider implements JWSVerifier, Critica
 		}
 
 		if (! critPolicy.headerPasses(header)) {
-			return false;
+			return -1;
 		}
 
 		final byte[] jwsSignature = signature.decode();
 
-		final byte[] derSignature;
-
 		try {
-			derSignature = ECDSA.transcodeSignatureToDER(jwsSignature);
+			return ECDSA.transcodeSignatureToDER(jwsSignature, 0, jwsSignature.length, derSignature, 0);
 		} catch (JOSEException e) {
 			// Invalid signature format
-			return false;
+			return -1;
 		}
+	}
+
+
+	/**
+	 * Returns a signature initialised for verification with the JWS
+	 * algorithm and the public EC key.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The initialised signature.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported or the
+	 *                       public EC key is invalid.
+	 */
+	private Signature getInitVerifier(final JWSHeader header)
+		throws JOSEException {
 
-		Signature sig = ECDSA.getSignerAndVerifier(alg, getJCAContext().getProvider());
+		Signature sig = ECDSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
 
 		try {
 			sig.initVerify(publicKey);
-			sig.update(signedContent);
-			return sig.verify(derSignature);
+			return sig;
 
 		} catch (InvalidKeyException e) {
 			throw new JOSEException("Invalid EC public key: " + e.getMessage(), e);
-		} catch (SignatureException e) {
-			return false;
 		}
 	}
 }
@@ -18,15 +18,17 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.impl.AlgorithmSupportMessage;
-import com.nimbusds.jose.crypto.impl.HMAC;
 import com.nimbusds.jose.crypto.impl.MACProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.ByteUtils;
@@ -54,10 +56,10 @@ import net.jcip.annotations.ThreadSafe;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2016-07-27
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class MACSigner extends MACProvider implements JWSSigner {
+public class MACSigner extends MACProvider implements JWSStreamSigner {
 
 
 	/**
@@ -183,14 +185,41 @@ public class MACSigner extends MACProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
+		byte[] hmac = getInitMac(header).doFinal(signingInput);
+		return Base64URL.encode(hmac);
+	}
+
+
+	@Override
+	public Base64URL sign(final JWSHeader header, final InputStream signingInput)
+		throws JOSEException {
+
+		Mac mac = getInitMac(header);
+		SigningInputStreams.update(mac, signingInput);
+		return Base64URL.encode(mac.doFinal());
+	}
+
+
+	/**
+	 * Checks the secret length for the JWS algorithm and returns an
+	 * initialised MAC.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The initialised MAC.
+	 *
+	 * @throws JOSEException If the secret is too short or the JWS
+	 *                       algorithm is not supported.
+	 */
+	private Mac getInitMac(final JWSHeader header)
+		throws JOSEException {
+
 		final int minRequiredLength = getMinRequiredSecretLength(header.getAlgorithm());
 
 		if (getSecret().length < ByteUtils.byteLength(minRequiredLength)) {
 			throw new KeyLengthException("The secret length for " + header.getAlgorithm() + " must be at least " + minRequiredLength + " bits");
 		}
 
-		String jcaAlg = getJCAAlgorithmName(header.getAlgorithm());
-		byte[] hmac = HMAC.compute(jcaAlg, getSecret(), signingInput, getJCAContext().getProvider());
-		return Base64URL.encode(hmac);
+		return getInitMac(getJCAAlgorithmName(header.getAlgorithm()));
 	}
 }
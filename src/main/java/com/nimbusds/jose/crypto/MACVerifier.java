@@ -18,16 +18,18 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.util.Set;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 
 import com.nimbusds.jose.CriticalHeaderParamsAware;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.JWSStreamVerifier;
 import com.nimbusds.jose.crypto.impl.CriticalHeaderParamsDeferral;
-import com.nimbusds.jose.crypto.impl.HMAC;
 import com.nimbusds.jose.crypto.impl.MACProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import com.nimbusds.jose.crypto.utils.ConstantTimeUtils;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64URL;
@@ -54,10 +56,10 @@ import net.jcip.annotations.ThreadSafe;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2016-06-26
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class MACVerifier extends MACProvider implements JWSVerifier, CriticalHeaderParamsAware {
+public class MACVerifier extends MACProvider implements JWSStreamVerifier, CriticalHeaderParamsAware {
 
 
 	/**
@@ -196,7 +198,26 @@ public class MACVerifier extends MACProvider implements JWSVerifier, CriticalHea
 		}
 
 		String jcaAlg = getJCAAlgorithmName(header.getAlgorithm());
-		byte[] expectedHMAC = HMAC.compute(jcaAlg, getSecret(), signedContent, getJCAContext().getProvider());
+		byte[] expectedHMAC = getInitMac(jcaAlg).doFinal(signedContent);
 		return ConstantTimeUtils.areEqual(expectedHMAC, signature.decode());
 	}
+
+
+	@Override
+	public boolean verify(final JWSHeader header,
+			      final InputStream signingInput,
+			      final Base64URL signature)
+		throws JOSEException {
+
+		if (! critPolicy.headerPasses(header)) {
+			return false;
+		}
+
+		String jcaAlg = getJCAAlgorithmName(header.getAlgorithm());
+		Mac mac = getInitMac(jcaAlg);
+
+		SigningInputStreams.update(mac, signingInput);
+
+		return ConstantTimeUtils.areEqual(mac.doFinal(), signature.decode());
+	}
 }
@@ -59,8 +59,12 @@ import net.jcip.annotations.ThreadSafe;
  *     <li>{@link com.nimbusds.jose.EncryptionMethod#A256CBC_HS512_DEPRECATED}
  * </ul>
  *
+ * <p>The decrypter can be configured with a {@link PBKDF2KeyCache} to skip
+ * the key derivation for JWE objects with the same salt and iteration count
+ * as previously decrypted ones.
+ *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
@@ -72,6 +76,12 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	private final CriticalHeaderParamsDeferral critPolicy = new CriticalHeaderParamsDeferral();
 
 
+	/**
+	 * The derived key cache, {@code null} if not specified.
+	 */
+	private final PBKDF2KeyCache keyCache;
+
+
 	/**
 	 * Creates a new password-based decrypter.
 	 *
@@ -80,7 +90,7 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	 */
 	public PasswordBasedDecrypter(final byte[] password) {
 
-		super(password);
+		this(password, null);
 	}
 
 
@@ -92,7 +102,33 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 	 */
 	public PasswordBasedDecrypter(final String password) {
 
-		super(password.getBytes(StandardCharset.UTF_8));
+		this(password.getBytes(StandardCharset.UTF_8));
+	}
+
+
+	/**
+	 * Creates a new password-based decrypter with a derived key cache.
+	 *
+	 * @param password The password bytes. Must not be empty or
+	 *                 {@code null}.
+	 * @param keyCache The derived key cache, {@code null} if not
+	 *                 specified. May be shared with other decrypters.
+	 */
+	public PasswordBasedDecrypter(final byte[] password, final PBKDF2KeyCache keyCache) {
+
+		super(password);
+		this.keyCache = keyCache;
+	}
+
+
+	/**
+	 * Returns the derived key cache.
+	 *
+	 * @return The derived key cache, {@code null} if not specified.
+	 */
+	public PBKDF2KeyCache getKeyCache() {
+
+		return keyCache;
 	}
 
 
@@ -148,10 +184,16 @@ public class PasswordBasedDecrypter extends PasswordBasedCryptoProvider implemen
 		final JWEAlgorithm alg = header.getAlgorithm();
 		final byte[] formattedSalt = PBKDF2.formatSalt(alg, salt);
 		final PRFParams prfParams = PRFParams.resolve(alg, getJCAContext().getMACProvider());
-		final SecretKey psKey = PBKDF2.deriveKey(getPassword(), formattedSalt, iterationCount, prfParams);
+		final SecretKey cachedPSKey = keyCache != null ? keyCache.get(getPassword(), formattedSalt, iterationCount, prfParams) : null;
+		final SecretKey psKey = cachedPSKey != null ? cachedPSKey : PBKDF2.deriveKey(getPassword(), formattedSalt, iterationCount, prfParams);
 
 		final SecretKey cek = AESKW.unwrapCEK(psKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
 
+		if (keyCache != null && cachedPSKey == null) {
+			// Cache only keys confirmed by the key unwrap integrity check
+			keyCache.put(getPassword(), formattedSalt, iterationCount, prfParams, psKey);
+		}
+
 		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
 	}
 }
@@ -68,10 +68,10 @@ import net.jcip.annotations.ThreadSafe;
  * @author David Ortiz
  * @author Vladimir Dzhuvinov
  * @author Dimitar A. Stoikov
- * @version 2018-10-11
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class RSADecrypter extends RSACryptoProvider implements JWEDecrypter, CriticalHeaderParamsAware {
+public class RSADecrypter extends RSACryptoProvider implements JWEDecrypter, JWEKeyDecrypter, CriticalHeaderParamsAware {
 
 
 	/**
@@ -236,8 +236,17 @@ public class RSADecrypter extends RSACryptoProvider implements JWEDecrypter, Cri
 			throw new JOSEException("Missing JWE authentication tag");
 		}
 
+		SecretKey cek = decryptKey(header, encryptedKey);
+
+		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+	}
+	
+	
+	@Override
+	public SecretKey decryptKey(final JWEHeader header, final Base64URL encryptedKey)
+		throws JOSEException {
+
 		critPolicy.ensureHeaderPasses(header);
-		
 
 		// Derive the content encryption key
 		JWEAlgorithm alg = header.getAlgorithm();
@@ -282,10 +291,10 @@ public class RSADecrypter extends RSACryptoProvider implements JWEDecrypter, Cri
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWEAlgorithm(alg, SUPPORTED_ALGORITHMS));
 		}
 
-		return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, getJCAContext());
+		return cek;
 	}
-	
-	
+
+
 	/**
 	 * Returns the Content Encryption Key (CEK) decryption exception if one
 	 * was encountered during the last {@link #decrypt} run. Intended for
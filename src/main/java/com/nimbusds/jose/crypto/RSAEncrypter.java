@@ -28,8 +28,10 @@ import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
 import com.nimbusds.jose.JWECryptoParts;
+import com.nimbusds.jose.JWEEncryptedKey;
 import com.nimbusds.jose.JWEEncrypter;
 import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEKeyEncrypter;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.util.Base64URL;
 
@@ -72,10 +74,10 @@ import com.nimbusds.jose.util.Base64URL;
  * @author David Ortiz
  * @author Vladimir Dzhuvinov
  * @author Jun Yu
- * @version 2018-07-17
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
+public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter, JWEKeyEncrypter {
 
 
 	/**
@@ -163,7 +165,6 @@ public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
-		final JWEAlgorithm alg = header.getAlgorithm();
 		final EncryptionMethod enc = header.getEncryptionMethod();
 
 		// Generate and encrypt the CEK according to the enc method
@@ -176,6 +177,18 @@ public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
 			cek = ContentCryptoProvider.generateCEK(enc, getJCAContext().getSecureRandom());
 		}
 
+		final Base64URL encryptedKey = encryptKey(header, cek).getEncryptedKey(); // The second JWE part
+
+		return ContentCryptoProvider.encrypt(header, clearText, cek, encryptedKey, getJCAContext());
+	}
+
+
+	@Override
+	public JWEEncryptedKey encryptKey(final JWEHeader header, final SecretKey cek)
+		throws JOSEException {
+
+		final JWEAlgorithm alg = header.getAlgorithm();
+
 		final Base64URL encryptedKey; // The second JWE part
 
 		if (alg.equals(JWEAlgorithm.RSA1_5)) {
@@ -195,6 +208,6 @@ public class RSAEncrypter extends RSACryptoProvider implements JWEEncrypter {
 			throw new JOSEException(AlgorithmSupportMessage.unsupportedJWEAlgorithm(alg, SUPPORTED_ALGORITHMS));
 		}
 
-		return ContentCryptoProvider.encrypt(header, clearText, cek, encryptedKey, getJCAContext());
+		return new JWEEncryptedKey(header, encryptedKey);
 	}
-}
\ No newline at end of file
+}
@@ -18,6 +18,7 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.PrivateKey;
 import java.security.Signature;
@@ -27,10 +28,11 @@ import static com.nimbusds.jose.jwk.gen.RSAKeyGenerator.MIN_KEY_SIZE_BITS;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSStreamSigner;
 import com.nimbusds.jose.crypto.impl.RSAKeyUtils;
 import com.nimbusds.jose.crypto.impl.RSASSA;
 import com.nimbusds.jose.crypto.impl.RSASSAProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.util.Base64URL;
 import net.jcip.annotations.ThreadSafe;
@@ -61,10 +63,10 @@ import net.jcip.annotations.ThreadSafe;
  * 
  * @author Vladimir Dzhuvinov
  * @author Omer Levi Hevroni
- * @version 2018-10-11
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class RSASSASigner extends RSASSAProvider implements JWSSigner {
+public class RSASSASigner extends RSASSAProvider implements JWSStreamSigner {
 
 
 	/**
@@ -184,18 +186,56 @@ public class RSASSASigner extends RSASSAProvider implements JWSSigner {
 	public Base64URL sign(final JWSHeader header, final byte[] signingInput)
 		throws JOSEException {
 
-		Signature signer = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
+		Signature signer = getInitSigner(header);
 
 		try {
-			signer.initSign(privateKey);
 			signer.update(signingInput);
 			return Base64URL.encode(signer.sign());
 
-		} catch (InvalidKeyException e) {
-			throw new JOSEException("Invalid private RSA key: " + e.getMessage(), e);
+		} catch (SignatureException e) {
+			throw new JOSEException("RSA signature exception: " + e.getMessage(), e);
+		}
+	}
+
+
+	@Override
+	public Base64URL sign(final JWSHeader header, final InputStream signingInput)
+		throws JOSEException {
+
+		Signature signer = getInitSigner(header);
+
+		try {
+			SigningInputStreams.update(signer, signingInput);
+			return Base64URL.encode(signer.sign());
 
 		} catch (SignatureException e) {
 			throw new JOSEException("RSA signature exception: " + e.getMessage(), e);
 		}
 	}
+
+
+	/**
+	 * Returns a signature initialised for signing with the JWS algorithm
+	 * and the private RSA key.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The initialised signature.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported or the
+	 *                       private RSA key is invalid.
+	 */
+	private Signature getInitSigner(final JWSHeader header)
+		throws JOSEException {
+
+		Signature signer = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
+
+		try {
+			signer.initSign(privateKey);
+			return signer;
+
+		} catch (InvalidKeyException e) {
+			throw new JOSEException("Invalid private RSA key: " + e.getMessage(), e);
+		}
+	}
 }
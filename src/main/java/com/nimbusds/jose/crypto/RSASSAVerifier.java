@@ -18,6 +18,7 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.Signature;
 import java.security.SignatureException;
@@ -27,6 +28,7 @@ import java.util.Set;
 import com.nimbusds.jose.crypto.impl.CriticalHeaderParamsDeferral;
 import com.nimbusds.jose.crypto.impl.RSASSA;
 import com.nimbusds.jose.crypto.impl.RSASSAProvider;
+import com.nimbusds.jose.crypto.impl.SigningInputStreams;
 import net.jcip.annotations.ThreadSafe;
 
 import com.nimbusds.jose.*;
@@ -57,10 +59,10 @@ import com.nimbusds.jose.util.Base64URL;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2015-06-02
+ * @version 2026-10-19
  */
 @ThreadSafe
-public class RSASSAVerifier extends RSASSAProvider implements JWSVerifier, CriticalHeaderParamsAware {
+public class RSASSAVerifier extends RSASSAProvider implements JWSStreamVerifier, CriticalHeaderParamsAware {
 
 
 	/**
@@ -156,21 +158,62 @@ public class RSASSAVerifier extends RSASSAProvider implements JWSVerifier, Criti
 			return false;
 		}
 
-		final Signature verifier = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
+		final Signature verifier = getInitVerifier(header);
 
 		try {
-			verifier.initVerify(publicKey);
+			verifier.update(signedContent);
+			return verifier.verify(signature.decode());
 
-		} catch (InvalidKeyException e) {
-			throw new JOSEException("Invalid public RSA key: " + e.getMessage(), e);
+		} catch (SignatureException e) {
+			return false;
 		}
+	}
+
+
+	@Override
+	public boolean verify(final JWSHeader header,
+			      final InputStream signingInput,
+			      final Base64URL signature)
+		throws JOSEException {
+
+		if (! critPolicy.headerPasses(header)) {
+			return false;
+		}
+
+		final Signature verifier = getInitVerifier(header);
 
 		try {
-			verifier.update(signedContent);
+			SigningInputStreams.update(verifier, signingInput);
 			return verifier.verify(signature.decode());
 
 		} catch (SignatureException e) {
 			return false;
 		}
 	}
+
+
+	/**
+	 * Returns a signature initialised for verification with the JWS
+	 * algorithm and the public RSA key.
+	 *
+	 * @param header The JWS header. Must not be {@code null}.
+	 *
+	 * @return The initialised signature.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported or the
+	 *                       public RSA key is invalid.
+	 */
+	private Signature getInitVerifier(final JWSHeader header)
+		throws JOSEException {
+
+		final Signature verifier = RSASSA.getSignerAndVerifier(header.getAlgorithm(), getJCAContext().getProvider());
+
+		try {
+			verifier.initVerify(publicKey);
+			return verifier;
+
+		} catch (InvalidKeyException e) {
+			throw new JOSEException("Invalid public RSA key: " + e.getMessage(), e);
+		}
+	}
 }
@@ -27,6 +27,7 @@ import com.google.crypto.tink.subtle.X25519;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.impl.ECDH;
 import com.nimbusds.jose.crypto.impl.ECDHCryptoProvider;
+import com.nimbusds.jose.crypto.impl.X25519EphemeralKeyPool;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.OctetKeyPair;
 import com.nimbusds.jose.util.Base64URL;
@@ -74,7 +75,8 @@ import net.jcip.annotations.ThreadSafe;
  * </ul>
  *
  * @author Tim McLean
- * @version 2018-07-12
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter {
@@ -86,6 +88,13 @@ public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter
 	private final OctetKeyPair publicKey;
 
 
+	/**
+	 * The pool of pre-generated ephemeral key pairs, {@code null} to
+	 * generate the ephemeral key pair inline for each JWE.
+	 */
+	private final X25519EphemeralKeyPool ephemeralKeyPool;
+
+
 	/**
 	 * Creates a new Curve25519 Elliptic Curve Diffie-Hellman encrypter.
 	 *
@@ -96,6 +105,25 @@ public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter
 	public X25519Encrypter(final OctetKeyPair publicKey)
 		throws JOSEException {
 
+		this(publicKey, null);
+	}
+
+
+	/**
+	 * Creates a new Curve25519 Elliptic Curve Diffie-Hellman encrypter
+	 * with a pool of pre-generated ephemeral key pairs.
+	 *
+	 * @param publicKey        The public key. Must not be {@code null}.
+	 * @param ephemeralKeyPool The pool to take the ephemeral key pairs
+	 *                         from, {@code null} to generate the
+	 *                         ephemeral key pair for each JWE.
+	 *
+	 * @throws JOSEException If the key subtype is not supported.
+	 */
+	public X25519Encrypter(final OctetKeyPair publicKey,
+			       final X25519EphemeralKeyPool ephemeralKeyPool)
+		throws JOSEException {
+
 		super(publicKey.getCurve());
 
 		if (! Curve.X25519.equals(publicKey.getCurve())) {
@@ -107,6 +135,7 @@ public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter
 		}
 
 		this.publicKey = publicKey;
+		this.ephemeralKeyPool = ephemeralKeyPool;
 	}
 
 
@@ -128,25 +157,43 @@ public class X25519Encrypter extends ECDHCryptoProvider implements JWEEncrypter
 	}
 
 
+	/**
+	 * Returns the pool of pre-generated ephemeral key pairs.
+	 *
+	 * @return The ephemeral key pool, {@code null} if not specified.
+	 */
+	public X25519EphemeralKeyPool getEphemeralKeyPool() {
+
+		return ephemeralKeyPool;
+	}
+
+
 	@Override
 	public JWECryptoParts encrypt(final JWEHeader header, final byte[] clearText)
 		throws JOSEException {
 
-		// Generate ephemeral X25519 key pair
-		final byte[] ephemeralPrivateKeyBytes = X25519.generatePrivateKey();
-		final byte[] ephemeralPublicKeyBytes;
-		try {
-			ephemeralPublicKeyBytes = X25519.publicFromPrivate(ephemeralPrivateKeyBytes);
-
-		} catch (InvalidKeyException e) {
-			// Should never happen since we just generated this private key
-			throw new JOSEException(e.getMessage(), e);
+		// Take or generate ephemeral X25519 key pair
+		final OctetKeyPair ephemeralPrivateKey;
+
+		if (ephemeralKeyPool != null) {
+			ephemeralPrivateKey = ephemeralKeyPool.take();
+		} else {
+			final byte[] ephemeralPrivateKeyBytes = X25519.generatePrivateKey();
+			final byte[] ephemeralPublicKeyBytes;
+			try {
+				ephemeralPublicKeyBytes = X25519.publicFromPrivate(ephemeralPrivateKeyBytes);
+
+			} catch (InvalidKeyException e) {
+				// Should never happen since we just generated this private key
+				throw new JOSEException(e.getMessage(), e);
+			}
+
+			ephemeralPrivateKey =
+				new OctetKeyPair.Builder(getCurve(), Base64URL.encode(ephemeralPublicKeyBytes)).
+				d(Base64URL.encode(ephemeralPrivateKeyBytes)).
+				build();
 		}
 
-		final OctetKeyPair ephemeralPrivateKey =
-			new OctetKeyPair.Builder(getCurve(), Base64URL.encode(ephemeralPublicKeyBytes)).
-			d(Base64URL.encode(ephemeralPrivateKeyBytes)).
-			build();
 		final OctetKeyPair ephemeralPublicKey = ephemeralPrivateKey.toPublicJWK();
 
 		// Add the ephemeral public EC key to the header
@@ -0,0 +1,193 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+
+
+/**
+ * Deterministic 96 bit AES/GCM Initialisation Vector (IV) generator, for long
+ * lived keys that encrypt many messages. This class is thread-safe.
+ *
+ * <p>Each IV is composed of a 32 bit fixed field, identifying the generator
+ * instance, followed by a 64 bit invocation counter, as specified in
+ * <a href="http://nvlpubs.nist.gov/nistpubs/Legacy/SP/nistspecialpublication800-38d.pdf">NIST
+ * Special Publication 800-38D</a>, section 8.2.1. Unlike randomly generated
+ * IVs this construction doesn't consume random bytes and doesn't limit the
+ * number of messages a key can encrypt to 2<sup>32</sup>.
+ *
+ * <p>The generator refuses to produce further IVs once the configured maximum
+ * number of invocations is reached. The {@link #getInvocationCount invocation
+ * count} can also be used to schedule the rotation of the key.
+ *
+ * <p>Important: An IV must never be repeated for the same key. Every
+ * generator used with a key, including generators created after a restart,
+ * must therefore have a distinct fixed field, or resume the invocation
+ * counter from where the previous generator with the same fixed field left
+ * off. The fixed field and the counter are therefore supplied by the
+ * application, which must assign and persist them; they are not chosen at
+ * random, as random 32 bit fixed fields are likely to collide after some
+ * 2<sup>16</sup> generators.
+ *
+ * <p>See RFC 7518 (JWA), section 5.3.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class AESGCMIVGenerator {
+
+
+	/**
+	 * The default maximum number of invocations (2<sup>63</sup> - 1).
+	 */
+	public static final long DEFAULT_MAX_INVOCATIONS = Long.MAX_VALUE;
+
+
+	/**
+	 * The fixed field.
+	 */
+	private final int fixedField;
+
+
+	/**
+	 * The invocation counter.
+	 */
+	private final AtomicLong counter;
+
+
+	/**
+	 * The maximum number of invocations.
+	 */
+	private final long maxInvocations;
+
+
+	/**
+	 * Creates a new deterministic AES/GCM IV generator.
+	 *
+	 * @param fixedField        The 32 bit fixed field, must be distinct
+	 *                          for each generator used with the same key.
+	 * @param initialCounter    The initial invocation counter value, zero
+	 *                          or the last value of a previous generator
+	 *                          with the same fixed field and key. Must not
+	 *                          be negative.
+	 * @param maxInvocations    The maximum invocation counter value, after
+	 *                          which no more IVs are generated. Must be
+	 *                          greater than the initial counter value.
+	 */
+	public AESGCMIVGenerator(final int fixedField,
+				 final long initialCounter,
+				 final long maxInvocations) {
+
+		if (initialCounter < 0) {
+			throw new IllegalArgumentException("The initial counter must not be negative");
+		}
+
+		if (maxInvocations <= initialCounter) {
+			throw new IllegalArgumentException("The maximum invocations must be greater than the initial counter");
+		}
+
+		this.fixedField = fixedField;
+		this.counter = new AtomicLong(initialCounter);
+		this.maxInvocations = maxInvocations;
+	}
+
+
+	/**
+	 * Returns the 32 bit fixed field.
+	 *
+	 * @return The fixed field.
+	 */
+	public int getFixedField() {
+
+		return fixedField;
+	}
+
+
+	/**
+	 * Returns the maximum number of invocations.
+	 *
+	 * @return The maximum number of invocations.
+	 */
+	public long getMaxInvocations() {
+
+		return maxInvocations;
+	}
+
+
+	/**
+	 * Returns the current invocation counter value. Equals the number of
+	 * generated IVs if the generator was created with an initial counter
+	 * value of zero.
+	 *
+	 * @return The invocation counter value.
+	 */
+	public long getInvocationCount() {
+
+		return Math.min(counter.get(), maxInvocations);
+	}
+
+
+	/**
+	 * Returns the number of IVs that can still be generated.
+	 *
+	 * @return The remaining invocations.
+	 */
+	public long getRemainingInvocations() {
+
+		return maxInvocations - getInvocationCount();
+	}
+
+
+	/**
+	 * Generates a new 96 bit (12 byte) IV.
+	 *
+	 * @return The IV, as 12 byte array.
+	 *
+	 * @throws JOSEException If the maximum number of invocations is
+	 *                       reached.
+	 */
+	public byte[] generateIV()
+		throws JOSEException {
+
+		final long invocation = counter.getAndIncrement();
+
+		if (invocation < 0 || invocation >= maxInvocations) {
+			throw new JOSEException("The AES/GCM IV generator is exhausted after " + maxInvocations + " invocations, the key must be rotated");
+		}
+
+		final byte[] iv = new byte[AESGCM.IV_BIT_LENGTH / 8];
+
+		iv[0] = (byte)(fixedField >>> 24);
+		iv[1] = (byte)(fixedField >>> 16);
+		iv[2] = (byte)(fixedField >>> 8);
+		iv[3] = (byte)fixedField;
+
+		for (int i=11; i >= 4; i--) {
+			iv[i] = (byte)(invocation >>> (8 * (11 - i)));
+		}
+
+		return iv;
+	}
+}
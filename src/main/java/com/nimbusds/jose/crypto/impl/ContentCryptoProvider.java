@@ -35,7 +35,7 @@ import com.nimbusds.jose.util.IntegerOverflowException;
  * JWE content encryption / decryption provider.
  *
  * @author Vladimir Dzhuvinov
- * @version 2017-06-01
+ * @version 2026-10-19
  */
 public class ContentCryptoProvider {
 
@@ -160,14 +160,85 @@ public class ContentCryptoProvider {
 					     final JWEJCAContext jcaProvider)
 		throws JOSEException {
 
+		return encrypt(header, clearText, cek, encryptedKey, jcaProvider, null);
+	}
+
+
+	/**
+	 * Encrypts the specified clear text (content).
+	 *
+	 * @param header         The final JWE header. Must not be
+	 *                       {@code null}.
+	 * @param clearText      The clear text to encrypt and optionally
+	 *                       compress. Must not be {@code null}.
+	 * @param cek            The Content Encryption Key (CEK). Must not be
+	 *                       {@code null}.
+	 * @param encryptedKey   The encrypted CEK, {@code null} if not
+	 *                       required.
+	 * @param jcaProvider    The JWE JCA provider specification. Must not
+	 *                       be {@code null}.
+	 * @param gcmIVGenerator The deterministic IV generator for AES/GCM
+	 *                       encryption methods, {@code null} to generate
+	 *                       random IVs. Not used with AES/CBC encryption
+	 *                       methods, which require random IVs.
+	 *
+	 * @return The JWE crypto parts.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static JWECryptoParts encrypt(final JWEHeader header,
+					     final byte[] clearText,
+					     final SecretKey cek,
+					     final Base64URL encryptedKey,
+					     final JWEJCAContext jcaProvider,
+					     final AESGCMIVGenerator gcmIVGenerator)
+		throws JOSEException {
+
+		return encrypt(header, AAD.compute(header), clearText, cek, encryptedKey, jcaProvider, gcmIVGenerator);
+	}
+
+
+	/**
+	 * Encrypts the specified clear text (content) with the specified
+	 * Additional Authenticated Data (AAD). Intended for the JWE JSON
+	 * serialisation, where the AAD is computed from the protected header
+	 * and the optional JWE AAD.
+	 *
+	 * @param header         The final JWE header. Must not be
+	 *                       {@code null}.
+	 * @param aad            The Additional Authenticated Data (AAD). Must
+	 *                       not be {@code null}.
+	 * @param clearText      The clear text to encrypt and optionally
+	 *                       compress. Must not be {@code null}.
+	 * @param cek            The Content Encryption Key (CEK). Must not be
+	 *                       {@code null}.
+	 * @param encryptedKey   The encrypted CEK, {@code null} if not
+	 *                       required.
+	 * @param jcaProvider    The JWE JCA provider specification. Must not
+	 *                       be {@code null}.
+	 * @param gcmIVGenerator The deterministic IV generator for AES/GCM
+	 *                       encryption methods, {@code null} to generate
+	 *                       random IVs. Not used with AES/CBC encryption
+	 *                       methods, which require random IVs.
+	 *
+	 * @return The JWE crypto parts.
+	 *
+	 * @throws JOSEException If encryption failed.
+	 */
+	public static JWECryptoParts encrypt(final JWEHeader header,
+					     final byte[] aad,
+					     final byte[] clearText,
+					     final SecretKey cek,
+					     final Base64URL encryptedKey,
+					     final JWEJCAContext jcaProvider,
+					     final AESGCMIVGenerator gcmIVGenerator)
+		throws JOSEException {
+
 		checkCEKLength(cek, header.getEncryptionMethod());
 
 		// Apply compression if instructed
 		final byte[] plainText = DeflateHelper.applyCompression(header, clearText);
 
-		// Compose the AAD
-		final byte[] aad = AAD.compute(header);
-
 		// Encrypt the plain text according to the JWE enc
 		final byte[] iv;
 		final AuthenticatedCipherText authCipherText;
@@ -187,7 +258,8 @@ public class ContentCryptoProvider {
 			   header.getEncryptionMethod().equals(EncryptionMethod.A192GCM) ||
 			   header.getEncryptionMethod().equals(EncryptionMethod.A256GCM)    ) {
 
-			Container<byte[]> ivContainer = new Container<>(AESGCM.generateIV(jcaProvider.getSecureRandom()));
+			Container<byte[]> ivContainer = new Container<>(gcmIVGenerator != null ?
+				gcmIVGenerator.generateIV() : AESGCM.generateIV(jcaProvider.getSecureRandom()));
 
 			authCipherText = AESGCM.encrypt(
 				cek, ivContainer, plainText, aad,
@@ -250,10 +322,46 @@ public class ContentCryptoProvider {
 				     final JWEJCAContext jcaProvider)
 		throws JOSEException {
 
-		checkCEKLength(cek, header.getEncryptionMethod());
+		return decrypt(header, AAD.compute(header), encryptedKey, iv, cipherText, authTag, cek, jcaProvider);
+	}
 
-		// Compose the AAD
-		byte[] aad = AAD.compute(header);
+
+	/**
+	 * Decrypts the specified cipher text with the specified Additional
+	 * Authenticated Data (AAD). Intended for the JWE JSON serialisation,
+	 * where the AAD is computed from the protected header and the
+	 * optional JWE AAD.
+	 *
+	 * @param header       The JWE header. Must not be {@code null}.
+	 * @param aad          The Additional Authenticated Data (AAD). Must
+	 *                     not be {@code null}.
+	 * @param encryptedKey The encrypted key, {@code null} if not
+	 *                     specified.
+	 * @param iv           The initialisation vector (IV). Must not be
+	 *                     {@code null}.
+	 * @param cipherText   The cipher text. Must not be {@code null}.
+	 * @param authTag      The authentication tag. Must not be
+	 *                     {@code null}.
+	 * @param cek          The Content Encryption Key (CEK). Must not be
+	 *                     {@code null}.
+	 * @param jcaProvider  The JWE JCA provider specification. Must not be
+	 *                     {@code null}.
+	 *
+	 * @return The clear text.
+	 *
+	 * @throws JOSEException If decryption failed.
+	 */
+	public static byte[] decrypt(final JWEHeader header,
+				     final byte[] aad,
+				     final Base64URL encryptedKey,
+				     final Base64URL iv,
+				     final Base64URL cipherText,
+				     final Base64URL authTag,
+				     final SecretKey cek,
+				     final JWEJCAContext jcaProvider)
+		throws JOSEException {
+
+		checkCEKLength(cek, header.getEncryptionMethod());
 
 		// Decrypt the cipher text according to the JWE enc
 
@@ -71,7 +71,7 @@ import com.nimbusds.jose.util.Base64URL;
  * @author Tim McLean
  * @author Vladimir Dzhuvinov
  * @author Fernando González Callejas
- * @version 2019-01-24
+ * @version 2026-10-19
  */
 public abstract class ECDHCryptoProvider extends BaseJWEProvider {
 
@@ -251,4 +251,73 @@ public abstract class ECDHCryptoProvider extends BaseJWEProvider {
 	}
 
 
+	/**
+	 * Encrypts the specified content encryption key (CEK) using the
+	 * specified shared secret ("Z"). Supported only for ECDH-ES with key
+	 * wrapping.
+	 *
+	 * @param header The JWE header. Must not be {@code null}.
+	 * @param Z      The shared secret. Must not be {@code null}.
+	 * @param cek    The content encryption key (CEK). Must not be
+	 *               {@code null}.
+	 *
+	 * @return The encrypted CEK.
+	 *
+	 * @throws JOSEException If the algorithm is ECDH-ES direct key
+	 *                       agreement or encryption failed.
+	 */
+	protected Base64URL encryptKeyWithZ(final JWEHeader header,
+					    final SecretKey Z,
+					    final SecretKey cek)
+		throws JOSEException {
+
+		final JWEAlgorithm alg = header.getAlgorithm();
+
+		if (! ECDH.AlgorithmMode.KW.equals(ECDH.resolveAlgorithmMode(alg))) {
+			throw new JOSEException("The JWE algorithm " + alg + " doesn't support encryption of a supplied content encryption key (CEK)");
+		}
+
+		// Derive shared key via concat KDF
+		getConcatKDF().getJCAContext().setProvider(getJCAContext().getMACProvider()); // update before concat
+		SecretKey sharedKey = ECDH.deriveSharedKey(header, Z, getConcatKDF());
+
+		return Base64URL.encode(AESKW.wrapCEK(cek, sharedKey, getJCAContext().getKeyEncryptionProvider()));
+	}
+
+
+	/**
+	 * Decrypts the specified encrypted content encryption key (CEK) using
+	 * the specified shared secret ("Z"). Supported only for ECDH-ES with
+	 * key wrapping.
+	 *
+	 * @param header       The JWE header. Must not be {@code null}.
+	 * @param Z            The shared secret. Must not be {@code null}.
+	 * @param encryptedKey The encrypted CEK. Must not be {@code null}.
+	 *
+	 * @return The content encryption key (CEK).
+	 *
+	 * @throws JOSEException If the algorithm is ECDH-ES direct key
+	 *                       agreement or decryption failed.
+	 */
+	protected SecretKey decryptKeyWithZ(final JWEHeader header,
+					    final SecretKey Z,
+					    final Base64URL encryptedKey)
+		throws JOSEException {
+
+		final JWEAlgorithm alg = header.getAlgorithm();
+
+		if (! ECDH.AlgorithmMode.KW.equals(ECDH.resolveAlgorithmMode(alg))) {
+			throw new JOSEException("The JWE algorithm " + alg + " doesn't support decryption of a content encryption key (CEK)");
+		}
+
+		if (encryptedKey == null) {
+			throw new JOSEException("Missing JWE encrypted key");
+		}
+
+		// Derive shared key via concat KDF
+		getConcatKDF().getJCAContext().setProvider(getJCAContext().getMACProvider()); // update before concat
+		SecretKey sharedKey = ECDH.deriveSharedKey(header, Z, getConcatKDF());
+
+		return AESKW.unwrapCEK(sharedKey, encryptedKey.decode(), getJCAContext().getKeyEncryptionProvider());
+	}
 }
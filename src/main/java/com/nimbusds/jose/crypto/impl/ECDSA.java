@@ -34,11 +34,19 @@ import com.nimbusds.jose.jwk.Curve;
  *
  * @author Vladimir Dzhuvinov
  * @author Aleksei Doroganov
- * @version 2019-10-03
+ * @version 2026-10-19
  */
 public class ECDSA {
 
 
+	/**
+	 * The maximum length of an ASN.1/DER-encoded ECDSA signature produced
+	 * by {@link #transcodeSignatureToDER(byte[], int, int, byte[], int)},
+	 * in bytes.
+	 */
+	public static final int MAX_DER_SIGNATURE_LENGTH = 3 + 255;
+
+
 	/**
 	 * Resolves the matching EC DSA algorithm for the specified EC key
 	 * (public or private).
@@ -311,6 +319,203 @@ public class ECDSA {
 	}
 
 
+	/**
+	 * Transcodes the JCA ASN.1/DER-encoded signature into the concatenated
+	 * R + S format expected by ECDSA JWS, writing the output into the
+	 * specified buffer. Unlike {@link #transcodeSignatureToConcat(byte[],
+	 * int)} this method doesn't allocate and requires the R and S values
+	 * to fit in half of the expected output length each.
+	 *
+	 * @param derSignature The buffer with the ASN.1/DER-encoded signature.
+	 *                     Must not be {@code null}.
+	 * @param derOffset    The offset of the signature in the buffer.
+	 * @param derLength    The length of the signature.
+	 * @param out          The output buffer, must have at least
+	 *                     {@code outputLength} bytes available at the
+	 *                     output offset. Must not be {@code null}.
+	 * @param outOffset    The output offset.
+	 * @param outputLength The expected length of the ECDSA JWS signature.
+	 *
+	 * @return The number of bytes written, equal to the expected length
+	 *         of the ECDSA JWS signature.
+	 *
+	 * @throws JOSEException If the ASN.1/DER signature format is invalid.
+	 */
+	public static int transcodeSignatureToConcat(final byte[] derSignature,
+						     final int derOffset,
+						     final int derLength,
+						     final byte[] out,
+						     final int outOffset,
+						     final int outputLength)
+		throws JOSEException {
+
+		if (derLength < 8 || derSignature[derOffset] != 48) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int seqLength;
+		final int rPos;
+
+		if (derSignature[derOffset + 1] > 0) {
+			seqLength = derSignature[derOffset + 1];
+			rPos = derOffset + 2;
+		} else if (derSignature[derOffset + 1] == (byte) 0x81) {
+			seqLength = derSignature[derOffset + 2] & 0xff;
+			rPos = derOffset + 3;
+		} else {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		if (seqLength != derOffset + derLength - rPos || derSignature[rPos] != 2) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int rLength = derSignature[rPos + 1] & 0xff;
+		final int sPos = rPos + 2 + rLength;
+
+		if (2 + rLength + 2 > seqLength || derSignature[sPos] != 2) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int sLength = derSignature[sPos + 1] & 0xff;
+
+		if (2 + rLength + 2 + sLength != seqLength) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int rawLen = outputLength / 2;
+
+		copyUnsignedInteger(derSignature, rPos + 2, rLength, out, outOffset, rawLen);
+		copyUnsignedInteger(derSignature, sPos + 2, sLength, out, outOffset + rawLen, rawLen);
+
+		return 2 * rawLen;
+	}
+
+
+	/**
+	 * Copies the specified ASN.1 integer value bytes, without any leading
+	 * zeros, into the specified fixed length field of the output.
+	 *
+	 * @param src       The source buffer.
+	 * @param srcOffset The offset of the integer value bytes.
+	 * @param srcLength The number of integer value bytes.
+	 * @param out       The output buffer.
+	 * @param outOffset The output offset.
+	 * @param outLength The output field length.
+	 *
+	 * @throws JOSEException If the integer doesn't fit the output field.
+	 */
+	private static void copyUnsignedInteger(final byte[] src,
+						int srcOffset,
+						int srcLength,
+						final byte[] out,
+						final int outOffset,
+						final int outLength)
+		throws JOSEException {
+
+		while (srcLength > 0 && src[srcOffset] == 0) {
+			srcOffset++;
+			srcLength--;
+		}
+
+		if (srcLength > outLength) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int padding = outLength - srcLength;
+
+		for (int i=0; i < padding; i++) {
+			out[outOffset + i] = 0;
+		}
+
+		System.arraycopy(src, srcOffset, out, outOffset + padding, srcLength);
+	}
+
+
+	/**
+	 * Transcodes the ECDSA JWS signature into ASN.1/DER format for use by
+	 * the JCA verifier, writing the output into the specified buffer.
+	 * Unlike {@link #transcodeSignatureToDER(byte[])} this method doesn't
+	 * allocate.
+	 *
+	 * @param jwsSignature The buffer with the JWS signature, consisting of
+	 *                     the concatenated R and S values. Must not be
+	 *                     {@code null}.
+	 * @param offset       The offset of the JWS signature in the buffer.
+	 * @param length       The length of the JWS signature.
+	 * @param out          The output buffer, must have at least
+	 *                     {@link #MAX_DER_SIGNATURE_LENGTH} bytes
+	 *                     available at the output offset. Must not be
+	 *                     {@code null}.
+	 * @param outOffset    The output offset.
+	 *
+	 * @return The length of the ASN.1/DER encoded signature written to the
+	 *         output buffer.
+	 *
+	 * @throws JOSEException If the ECDSA JWS signature format is invalid.
+	 */
+	public static int transcodeSignatureToDER(final byte[] jwsSignature,
+						  final int offset,
+						  final int length,
+						  final byte[] out,
+						  final int outOffset)
+		throws JOSEException {
+
+		if (length < 2 || length % 2 != 0) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		final int rawLen = length / 2;
+
+		// Skip leading zeros, keep at least one byte
+		int rStart = offset;
+		while (rStart < offset + rawLen - 1 && jwsSignature[rStart] == 0) {
+			rStart++;
+		}
+		final int rLength = offset + rawLen - rStart;
+		final int rIntLength = jwsSignature[rStart] < 0 ? rLength + 1 : rLength;
+
+		int sStart = offset + rawLen;
+		while (sStart < offset + length - 1 && jwsSignature[sStart] == 0) {
+			sStart++;
+		}
+		final int sLength = offset + length - sStart;
+		final int sIntLength = jwsSignature[sStart] < 0 ? sLength + 1 : sLength;
+
+		final int seqLength = 2 + rIntLength + 2 + sIntLength;
+
+		if (seqLength > 255) {
+			throw new JOSEException("Invalid ECDSA signature format");
+		}
+
+		int pos = outOffset;
+
+		out[pos++] = 48;
+		if (seqLength >= 128) {
+			out[pos++] = (byte) 0x81;
+		}
+		out[pos++] = (byte) seqLength;
+
+		out[pos++] = 2;
+		out[pos++] = (byte) rIntLength;
+		if (rIntLength > rLength) {
+			out[pos++] = 0;
+		}
+		System.arraycopy(jwsSignature, rStart, out, pos, rLength);
+		pos += rLength;
+
+		out[pos++] = 2;
+		out[pos++] = (byte) sIntLength;
+		if (sIntLength > sLength) {
+			out[pos++] = 0;
+		}
+		System.arraycopy(jwsSignature, sStart, out, pos, sLength);
+		pos += sLength;
+
+		return pos - outOffset;
+	}
+
+
 	/**
 	 * Prevents public instantiation.
 	 */
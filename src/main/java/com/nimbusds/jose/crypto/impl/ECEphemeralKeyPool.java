@@ -0,0 +1,140 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.spec.ECParameterSpec;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+
+
+/**
+ * Bounded pool of single-use ephemeral EC key pairs for the
+ * {@link com.nimbusds.jose.crypto.ECDHEncrypter}, filled by a background
+ * thread. This class is thread-safe.
+ *
+ * <p>Supports the following elliptic curves:
+ *
+ * <ul>
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_256}
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_384}
+ *     <li>{@link com.nimbusds.jose.jwk.Curve#P_521}
+ * </ul>
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ECEphemeralKeyPool pool = new ECEphemeralKeyPool(Curve.P_256);
+ * ECDHEncrypter encrypter = new ECDHEncrypter(publicKey, null, pool);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public final class ECEphemeralKeyPool extends EphemeralKeyPool<KeyPair> {
+
+
+	/**
+	 * The EC parameter spec.
+	 */
+	private final ECParameterSpec ecParameterSpec;
+
+
+	/**
+	 * The JCA provider for the key pair generation, {@code null} if not
+	 * specified.
+	 */
+	private final Provider provider;
+
+
+	/**
+	 * Creates a new ephemeral EC key pool with the default capacity.
+	 *
+	 * @param curve The curve. Must be P-256, P-384 or P-521.
+	 */
+	public ECEphemeralKeyPool(final Curve curve) {
+
+		this(curve, DEFAULT_CAPACITY, null);
+	}
+
+
+	/**
+	 * Creates a new ephemeral EC key pool.
+	 *
+	 * @param curve    The curve. Must be P-256, P-384 or P-521.
+	 * @param capacity The maximum number of pooled key pairs. Must be
+	 *                 positive.
+	 * @param provider The JCA provider for the key pair generation,
+	 *                 {@code null} to use the default one.
+	 */
+	public ECEphemeralKeyPool(final Curve curve, final int capacity, final Provider provider) {
+
+		super(curve, capacity);
+
+		if (! Curve.P_256.equals(curve) && ! Curve.P_384.equals(curve) && ! Curve.P_521.equals(curve)) {
+			throw new IllegalArgumentException("Unsupported elliptic curve: " + curve);
+		}
+
+		ecParameterSpec = curve.toECParameterSpec();
+		this.provider = provider;
+
+		startRefill();
+	}
+
+
+	/**
+	 * Returns the JCA provider for the key pair generation.
+	 *
+	 * @return The JCA provider, {@code null} if not specified.
+	 */
+	public Provider getProvider() {
+
+		return provider;
+	}
+
+
+	@Override
+	protected KeyPair generateKeyPair()
+		throws JOSEException {
+
+		try {
+			KeyPairGenerator generator;
+
+			if (provider != null) {
+				generator = KeyPairGenerator.getInstance("EC", provider);
+			} else {
+				generator = KeyPairGenerator.getInstance("EC");
+			}
+
+			generator.initialize(ecParameterSpec);
+			return generator.generateKeyPair();
+		} catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+			throw new JOSEException("Couldn't generate ephemeral EC key pair: " + e.getMessage(), e);
+		}
+	}
+}
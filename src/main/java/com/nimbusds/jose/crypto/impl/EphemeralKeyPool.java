@@ -0,0 +1,337 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+
+
+/**
+ * Abstract bounded pool of single-use ephemeral key pairs for ECDH-ES
+ * encryption, filled by a background thread. This class is thread-safe.
+ *
+ * <p>Each key pair is handed out once and then removed from the pool, it is
+ * never reused. When the pool is empty the key pair is generated inline, on
+ * the calling thread.
+ *
+ * <p>The background thread runs until {@link #shutdown()} is called, after
+ * which all key pairs are generated inline. If the background generation of
+ * a key pair fails the thread retries after a backoff, doubled on each
+ * consecutive failure, from {@link #MIN_RETRY_BACKOFF_MILLIS} up to
+ * {@link #MAX_RETRY_BACKOFF_MILLIS}.
+ *
+ * @param <T> The key pair type.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public abstract class EphemeralKeyPool<T> {
+
+
+	/**
+	 * The default pool capacity (16).
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+
+
+	/**
+	 * The backoff before retrying after a first background key pair
+	 * generation failure, in milliseconds (100).
+	 */
+	public static final long MIN_RETRY_BACKOFF_MILLIS = 100L;
+
+
+	/**
+	 * The maximum backoff before retrying after consecutive background
+	 * key pair generation failures, in milliseconds (1 minute).
+	 */
+	public static final long MAX_RETRY_BACKOFF_MILLIS = 60L * 1000L;
+
+
+	/**
+	 * The curve.
+	 */
+	private final Curve curve;
+
+
+	/**
+	 * The pool capacity.
+	 */
+	private final int capacity;
+
+
+	/**
+	 * The pooled key pairs.
+	 */
+	private final BlockingQueue<T> pool;
+
+
+	/**
+	 * The number of key pairs generated by the background thread.
+	 */
+	private final AtomicLong generatedCount = new AtomicLong();
+
+
+	/**
+	 * The number of key pairs taken from the pool.
+	 */
+	private final AtomicLong hitCount = new AtomicLong();
+
+
+	/**
+	 * The number of key pairs generated inline because the pool was
+	 * empty.
+	 */
+	private final AtomicLong missCount = new AtomicLong();
+
+
+	/**
+	 * The number of background key pair generation failures.
+	 */
+	private final AtomicLong failureCount = new AtomicLong();
+
+
+	/**
+	 * {@code true} if the pool has been shut down.
+	 */
+	private volatile boolean stopped = false;
+
+
+	/**
+	 * The background thread filling the pool.
+	 */
+	private final Thread refiller;
+
+
+	/**
+	 * Creates a new ephemeral key pool. The background thread must be
+	 * started by the concrete class with {@link #startRefill()}, once it
+	 * is fully constructed.
+	 *
+	 * @param curve    The curve. Must not be {@code null}.
+	 * @param capacity The maximum number of pooled key pairs. Must be
+	 *                 positive.
+	 */
+	protected EphemeralKeyPool(final Curve curve, final int capacity) {
+
+		if (curve == null) {
+			throw new IllegalArgumentException("The curve must not be null");
+		}
+		this.curve = curve;
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		this.capacity = capacity;
+
+		pool = new ArrayBlockingQueue<>(capacity);
+
+		refiller = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				long backoff = MIN_RETRY_BACKOFF_MILLIS;
+				while (! stopped) {
+					T keyPair;
+					try {
+						keyPair = generateKeyPair();
+					} catch (JOSEException | RuntimeException e) {
+						// Leave error reporting to the calling
+						// threads, which generate inline while
+						// the pool is empty
+						failureCount.incrementAndGet();
+						try {
+							Thread.sleep(backoff);
+						} catch (InterruptedException ie) {
+							// Shut down
+							return;
+						}
+						backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+						continue;
+					}
+					backoff = MIN_RETRY_BACKOFF_MILLIS;
+					generatedCount.incrementAndGet();
+					try {
+						pool.put(keyPair);
+					} catch (InterruptedException e) {
+						// Shut down
+						return;
+					}
+				}
+			}
+		}, "nimbus-ephemeral-key-pool-" + curve);
+
+		refiller.setDaemon(true);
+	}
+
+
+	/**
+	 * Starts the background thread filling the pool.
+	 */
+	protected void startRefill() {
+
+		refiller.start();
+	}
+
+
+	/**
+	 * Generates a new ephemeral key pair.
+	 *
+	 * @return The key pair.
+	 *
+	 * @throws JOSEException If the key pair couldn't be generated.
+	 */
+	protected abstract T generateKeyPair()
+		throws JOSEException;
+
+
+	/**
+	 * Returns the curve.
+	 *
+	 * @return The curve.
+	 */
+	public Curve getCurve() {
+
+		return curve;
+	}
+
+
+	/**
+	 * Returns the maximum number of pooled key pairs.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+
+		return capacity;
+	}
+
+
+	/**
+	 * Returns the number of currently pooled key pairs.
+	 *
+	 * @return The number of available key pairs.
+	 */
+	public int size() {
+
+		return pool.size();
+	}
+
+
+	/**
+	 * Takes an ephemeral key pair from the pool, or generates one inline
+	 * if the pool is empty. The returned key pair is removed from the
+	 * pool and must be used only once.
+	 *
+	 * @return The key pair.
+	 *
+	 * @throws JOSEException If the key pair couldn't be generated.
+	 */
+	public T take()
+		throws JOSEException {
+
+		T keyPair = stopped ? null : pool.poll();
+
+		if (keyPair != null) {
+			hitCount.incrementAndGet();
+			return keyPair;
+		}
+
+		missCount.incrementAndGet();
+		return generateKeyPair();
+	}
+
+
+	/**
+	 * Returns the number of key pairs generated by the background thread.
+	 *
+	 * @return The generated key pair count.
+	 */
+	public long getGeneratedCount() {
+
+		return generatedCount.get();
+	}
+
+
+	/**
+	 * Returns the number of key pairs taken from the pool.
+	 *
+	 * @return The pool hit count.
+	 */
+	public long getHitCount() {
+
+		return hitCount.get();
+	}
+
+
+	/**
+	 * Returns the number of key pairs generated inline because the pool
+	 * was empty.
+	 *
+	 * @return The pool miss count.
+	 */
+	public long getMissCount() {
+
+		return missCount.get();
+	}
+
+
+	/**
+	 * Returns the number of key pair generation failures in the
+	 * background thread. The thread retries after a backoff.
+	 *
+	 * @return The failure count.
+	 */
+	public long getFailureCount() {
+
+		return failureCount.get();
+	}
+
+
+	/**
+	 * Returns {@code true} if the background thread filling the pool is
+	 * running.
+	 *
+	 * @return {@code true} if running, {@code false} if shut down.
+	 */
+	public boolean isRunning() {
+
+		return ! stopped && refiller.isAlive();
+	}
+
+
+	/**
+	 * Stops the background thread filling the pool and discards the
+	 * pooled key pairs. Subsequent calls to {@link #take()} generate the
+	 * key pairs inline.
+	 */
+	public void shutdown() {
+
+		stopped = true;
+		refiller.interrupt();
+		pool.clear();
+	}
+}
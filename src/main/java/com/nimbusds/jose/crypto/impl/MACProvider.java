@@ -18,9 +18,13 @@
 package com.nimbusds.jose.crypto.impl;
 
 
+import java.security.Provider;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -34,6 +38,10 @@ import com.nimbusds.jose.util.StandardCharset;
  * The base abstract class for Message Authentication Code (MAC) signers and
  * verifiers of {@link com.nimbusds.jose.JWSObject JWS objects}.
  *
+ * <p>Keeps an initialised prototype {@link Mac} for each used HMAC algorithm
+ * and JCA provider, so that the key and its inner and outer pad state are set
+ * up only once. Each operation gets a clone of the prototype.
+ *
  * <p>Supports the following algorithms:
  *
  * <ul>
@@ -43,7 +51,7 @@ import com.nimbusds.jose.util.StandardCharset;
  * </ul>
  * 
  * @author Vladimir Dzhuvinov
- * @version 2016-07-27
+ * @version 2026-10-19
  */
 public abstract class MACProvider extends BaseJWSProvider {
 
@@ -97,6 +105,12 @@ public abstract class MACProvider extends BaseJWSProvider {
 	private final byte[] secret;
 
 
+	/**
+	 * The initialised prototype MACs, keyed by JCA algorithm name.
+	 */
+	private final ConcurrentMap<String,PrototypeMac> prototypeMacs = new ConcurrentHashMap<>();
+
+
 	/**
 	 * Creates a new Message Authentication (MAC) provider.
 	 *
@@ -153,4 +167,74 @@ public abstract class MACProvider extends BaseJWSProvider {
 
 		return new String(secret, StandardCharset.UTF_8);
 	}
+
+
+	/**
+	 * Returns an initialised MAC for the specified algorithm with the
+	 * secret, cloned from a prototype if the JCA provider supports this.
+	 * The returned MAC must be used by the calling thread only.
+	 *
+	 * @param jcaAlg The JCA HMAC algorithm name. Must not be
+	 *               {@code null}.
+	 *
+	 * @return The initialised MAC.
+	 *
+	 * @throws JOSEException If the algorithm is not supported or the
+	 *                       MAC secret key is invalid.
+	 */
+	protected Mac getInitMac(final String jcaAlg)
+		throws JOSEException {
+
+		final Provider provider = getJCAContext().getProvider();
+
+		PrototypeMac prototype = prototypeMacs.get(jcaAlg);
+
+		if (prototype == null || prototype.provider != provider) {
+			// Created on first use and on a JCA provider change
+			prototype = new PrototypeMac(provider, HMAC.getInitMac(new SecretKeySpec(secret, jcaAlg), provider));
+			prototypeMacs.put(jcaAlg, prototype);
+		}
+
+		if (prototype.cloneable) {
+			try {
+				return (Mac) prototype.mac.clone();
+			} catch (CloneNotSupportedException e) {
+				prototype.cloneable = false;
+			}
+		}
+
+		return HMAC.getInitMac(new SecretKeySpec(secret, jcaAlg), provider);
+	}
+
+
+	/**
+	 * Initialised prototype MAC.
+	 */
+	private static final class PrototypeMac {
+
+
+		/**
+		 * The JCA provider, {@code null} for the default.
+		 */
+		private final Provider provider;
+
+
+		/**
+		 * The initialised MAC, never updated.
+		 */
+		private final Mac mac;
+
+
+		/**
+		 * {@code false} if the MAC implementation doesn't support
+		 * cloning.
+		 */
+		private volatile boolean cloneable = true;
+
+
+		private PrototypeMac(final Provider provider, final Mac mac) {
+			this.provider = provider;
+			this.mac = mac;
+		}
+	}
 }
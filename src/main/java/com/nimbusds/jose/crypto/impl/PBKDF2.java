@@ -20,14 +20,21 @@ package com.nimbusds.jose.crypto.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.util.ByteUtils;
-import com.nimbusds.jose.util.IntegerUtils;
 import com.nimbusds.jose.util.StandardCharset;
 
 
@@ -38,7 +45,7 @@ import com.nimbusds.jose.util.StandardCharset;
  *
  * @author Brian Campbell
  * @author Yavor Vassilev
- * @version 2016-07-26
+ * @version 2026-10-19
  */
 public class PBKDF2 {
 
@@ -85,6 +92,11 @@ public class PBKDF2 {
 	/**
 	 * Derives a PBKDF2 key from the specified password and parameters.
 	 *
+	 * <p>If no specific MAC provider is set in the PRF parameters and the
+	 * password is valid UTF-8, the derivation is delegated to the
+	 * platform {@code PBKDF2WithHmacSHA*} {@link SecretKeyFactory}, where
+	 * available, else it is computed with the PRF.
+	 *
 	 * @param password       The password. Must not be {@code null}.
 	 * @param formattedSalt  The formatted cryptographic salt. Must not be
 	 *                       {@code null}.
@@ -102,6 +114,98 @@ public class PBKDF2 {
 					  final PRFParams prfParams)
 		throws JOSEException {
 
+		if (prfParams.getMacProvider() == null) {
+
+			SecretKey key = deriveKeyWithSecretKeyFactory(password, formattedSalt, iterationCount, prfParams);
+
+			if (key != null) {
+				return key;
+			}
+		}
+
+		return deriveKeyWithPRF(password, formattedSalt, iterationCount, prfParams);
+	}
+
+
+	/**
+	 * Derives a PBKDF2 key with the platform {@code PBKDF2WithHmacSHA*}
+	 * secret key factory.
+	 *
+	 * @param password       The password. Must not be {@code null}.
+	 * @param formattedSalt  The formatted cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count. Must be positive.
+	 * @param prfParams      The Pseudo-Random Function (PRF) parameters.
+	 *                       Must not be {@code null}.
+	 *
+	 * @return The derived secret key (with "AES" algorithm), {@code null}
+	 *         if the password isn't valid UTF-8 (the secret key factory
+	 *         takes characters) or the secret key factory isn't available
+	 *         or failed.
+	 */
+	static SecretKey deriveKeyWithSecretKeyFactory(final byte[] password,
+						       final byte[] formattedSalt,
+						       final int iterationCount,
+						       final PRFParams prfParams) {
+
+		final char[] passwordChars;
+
+		try {
+			CharBuffer chars = StandardCharset.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT)
+				.decode(ByteBuffer.wrap(password));
+			passwordChars = new char[chars.remaining()];
+			chars.get(passwordChars);
+		} catch (CharacterCodingException e) {
+			return null;
+		}
+
+		// e.g. PBKDF2WithHmacSHA256
+		final String kdfAlg = "PBKDF2With" + prfParams.getMACAlgorithm();
+
+		PBEKeySpec keySpec = new PBEKeySpec(passwordChars, formattedSalt, iterationCount, prfParams.getDerivedKeyByteLength() * 8);
+
+		try {
+			byte[] dk = SecretKeyFactory.getInstance(kdfAlg).generateSecret(keySpec).getEncoded();
+
+			if (dk == null || dk.length != prfParams.getDerivedKeyByteLength()) {
+				return null;
+			}
+
+			return new SecretKeySpec(dk, "AES");
+
+		} catch (GeneralSecurityException | RuntimeException e) {
+			return null;
+		} finally {
+			keySpec.clearPassword();
+			Arrays.fill(passwordChars, '\0');
+		}
+	}
+
+
+	/**
+	 * Derives a PBKDF2 key by computing the PRF iterations. The PRF output
+	 * is written into reusable buffers and XOR-ed in place, without
+	 * allocation per iteration.
+	 *
+	 * @param password       The password. Must not be {@code null}.
+	 * @param formattedSalt  The formatted cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count. Must be positive.
+	 * @param prfParams      The Pseudo-Random Function (PRF) parameters.
+	 *                       Must not be {@code null}.
+	 *
+	 * @return The derived secret key (with "AES" algorithm).
+	 *
+	 * @throws JOSEException If the key derivation failed.
+	 */
+	static SecretKey deriveKeyWithPRF(final byte[] password,
+					  final byte[] formattedSalt,
+					  final int iterationCount,
+					  final PRFParams prfParams)
+		throws JOSEException {
+
 		SecretKey macKey = new SecretKeySpec(password, prfParams.getMACAlgorithm());
 
 		Mac prf = HMAC.getInitMac(macKey, prfParams.getMacProvider());
@@ -158,17 +262,20 @@ public class PBKDF2 {
 		//
 		//               DK = T_1 || T_2 ||  ...  || T_l<0..r-1>
 		//
-		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		byte[] dk = new byte[prfParams.getDerivedKeyByteLength()];
+		byte[] u = new byte[hLen];
+		byte[] t = new byte[hLen];
+
 		for (int i = 0; i < l; i++) {
-			byte[] block = extractBlock(formattedSalt, iterationCount, i + 1, prf);
-			if (i == (l - 1)) {
-				block = ByteUtils.subArray(block, 0, r);
-			}
-			byteArrayOutputStream.write(block, 0, block.length);
+			extractBlock(formattedSalt, iterationCount, i + 1, prf, u, t);
+			System.arraycopy(t, 0, dk, i * hLen, i == (l - 1) ? r : hLen);
 		}
 
+		Arrays.fill(u, (byte) 0);
+		Arrays.fill(t, (byte) 0);
+
 		//  5. Output the derived key DK.
-		return new SecretKeySpec(byteArrayOutputStream.toByteArray(), "AES");
+		return new SecretKeySpec(dk, "AES");
 	}
 
 
@@ -180,37 +287,45 @@ public class PBKDF2 {
 	 * @param iterationCount The iteration count.
 	 * @param blockIndex     The block index.
 	 * @param prf            The pseudo-random function (HMAC). Must not be
-	 *                       {@code null.
+	 *                       {@code null}.
+	 * @param u              Buffer for the U values, of the PRF output
+	 *                       length. Must not be {@code null}.
+	 * @param t              Buffer for the output block, of the PRF output
+	 *                       length. Must not be {@code null}.
 	 *
-	 * @return The block.
+	 * @throws JOSEException If a PRF output buffer is too short.
 	 */
-	private static byte[] extractBlock(byte[] salt, int iterationCount, int blockIndex, Mac prf) {
-
-		byte[] currentU;
-		byte[] lastU = null;
-		byte[] xorU = null;
-
-		for (int i = 1; i <= iterationCount; i++)
-		{
-			byte[] inputBytes;
-			if (i == 1)
-			{
-				inputBytes = ByteUtils.concat(salt, IntegerUtils.toBytes(blockIndex));
-				currentU = prf.doFinal(inputBytes);
-				xorU = currentU;
-			}
-			else
-			{
-				currentU = prf.doFinal(lastU);
-				for (int j = 0; j < currentU.length; j++)
-				{
-					xorU[j] = (byte) (currentU[j] ^ xorU[j]);
+	private static void extractBlock(final byte[] salt,
+					 final int iterationCount,
+					 final int blockIndex,
+					 final Mac prf,
+					 final byte[] u,
+					 final byte[] t)
+		throws JOSEException {
+
+		try {
+			prf.update(salt);
+			prf.update((byte) (blockIndex >>> 24));
+			prf.update((byte) (blockIndex >>> 16));
+			prf.update((byte) (blockIndex >>> 8));
+			prf.update((byte) blockIndex);
+			prf.doFinal(u, 0);
+
+			System.arraycopy(u, 0, t, 0, u.length);
+
+			for (int i = 2; i <= iterationCount; i++) {
+
+				prf.update(u);
+				prf.doFinal(u, 0);
+
+				for (int j = 0; j < u.length; j++) {
+					t[j] ^= u[j];
 				}
 			}
 
-			lastU = currentU;
+		} catch (ShortBufferException e) {
+			throw new JOSEException(e.getMessage(), e);
 		}
-		return xorU;
 	}
 
 
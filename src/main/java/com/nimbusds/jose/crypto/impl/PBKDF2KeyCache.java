@@ -0,0 +1,293 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.ExpiringLRUCache;
+import com.nimbusds.jose.util.SystemClock;
+
+
+/**
+ * Bounded cache of PBKDF2 derived keys, for the decryption of password-based
+ * JWE objects which share the same salt and iteration count. This class is
+ * thread-safe.
+ *
+ * <p>The keys are cached by password (identified by its SHA-256 digest),
+ * formatted salt, iteration count, pseudo-random function (PRF) and derived
+ * key length. Entries expire after a configurable time to live; when the
+ * cache is full the least recently used entry is evicted. The current time
+ * is obtained from a configurable {@link Clock clock}, by default the
+ * {@link SystemClock system clock}.
+ *
+ * <p>Note that the cached keys are equivalent to the password for the
+ * particular salt and iteration count and should be protected accordingly.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class PBKDF2KeyCache {
+
+
+	/**
+	 * The default maximum number of cached keys.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+
+	/**
+	 * The default time to live of cached keys (10 minutes).
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MINUTES = 10;
+
+
+	/**
+	 * The cached keys.
+	 */
+	private final ExpiringLRUCache<Key,SecretKey> cache;
+
+
+	/**
+	 * Creates a new PBKDF2 key cache with the default maximum size of
+	 * 1000 keys and time to live of 10 minutes.
+	 */
+	public PBKDF2KeyCache() {
+
+		this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+	}
+
+
+	/**
+	 * Creates a new PBKDF2 key cache.
+	 *
+	 * @param maxSize    The maximum number of cached keys. Must be
+	 *                   positive.
+	 * @param timeToLive The time to live of cached keys. Must be positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 */
+	public PBKDF2KeyCache(final int maxSize, final long timeToLive, final TimeUnit timeUnit) {
+
+		this(maxSize, timeToLive, timeUnit, SystemClock.INSTANCE);
+	}
+
+
+	/**
+	 * Creates a new PBKDF2 key cache.
+	 *
+	 * @param maxSize    The maximum number of cached keys. Must be
+	 *                   positive.
+	 * @param timeToLive The time to live of cached keys. Must be positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 * @param clock      The clock for obtaining the current time. Must
+	 *                   not be {@code null}.
+	 */
+	public PBKDF2KeyCache(final int maxSize,
+			      final long timeToLive,
+			      final TimeUnit timeUnit,
+			      final Clock clock) {
+
+		cache = new ExpiringLRUCache<>(maxSize, timeToLive, timeUnit, clock);
+	}
+
+
+	/**
+	 * Returns the maximum number of cached keys.
+	 *
+	 * @return The maximum number of cached keys.
+	 */
+	public int getMaxSize() {
+
+		return cache.getMaxSize();
+	}
+
+
+	/**
+	 * Returns the time to live of cached keys.
+	 *
+	 * @param timeUnit The time unit. Must not be {@code null}.
+	 *
+	 * @return The time to live.
+	 */
+	public long getTimeToLive(final TimeUnit timeUnit) {
+
+		return cache.getTimeToLive(timeUnit);
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+
+		return cache.getClock();
+	}
+
+
+	/**
+	 * Gets a cached derived key.
+	 *
+	 * @param password       The password. Must not be {@code null}.
+	 * @param formattedSalt  The formatted cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count.
+	 * @param prfParams      The Pseudo-Random Function (PRF) parameters.
+	 *                       Must not be {@code null}.
+	 *
+	 * @return The derived key, {@code null} if not cached or expired.
+	 *
+	 * @throws JOSEException If the password digest couldn't be computed.
+	 */
+	public SecretKey get(final byte[] password,
+			     final byte[] formattedSalt,
+			     final int iterationCount,
+			     final PRFParams prfParams)
+		throws JOSEException {
+
+		return cache.get(new Key(password, formattedSalt, iterationCount, prfParams));
+	}
+
+
+	/**
+	 * Caches a derived key.
+	 *
+	 * @param password       The password. Must not be {@code null}.
+	 * @param formattedSalt  The formatted cryptographic salt. Must not be
+	 *                       {@code null}.
+	 * @param iterationCount The iteration count.
+	 * @param prfParams      The Pseudo-Random Function (PRF) parameters.
+	 *                       Must not be {@code null}.
+	 * @param derivedKey     The derived key. Must not be {@code null}.
+	 *
+	 * @throws JOSEException If the password digest couldn't be computed.
+	 */
+	public void put(final byte[] password,
+			final byte[] formattedSalt,
+			final int iterationCount,
+			final PRFParams prfParams,
+			final SecretKey derivedKey)
+		throws JOSEException {
+
+		cache.put(new Key(password, formattedSalt, iterationCount, prfParams), derivedKey);
+	}
+
+
+	/**
+	 * Returns the number of cached keys, including any expired ones not
+	 * evicted yet.
+	 *
+	 * @return The number of cached keys.
+	 */
+	public int size() {
+
+		return cache.size();
+	}
+
+
+	/**
+	 * Removes all cached keys.
+	 */
+	public void clear() {
+
+		cache.clear();
+	}
+
+
+	/**
+	 * Cache key.
+	 */
+	private static final class Key {
+
+
+		private final byte[] passwordDigest;
+
+
+		private final byte[] formattedSalt;
+
+
+		private final int iterationCount;
+
+
+		private final String macAlg;
+
+
+		private final int dkLen;
+
+
+		private final int hashCode;
+
+
+		private Key(final byte[] password,
+			    final byte[] formattedSalt,
+			    final int iterationCount,
+			    final PRFParams prfParams)
+			throws JOSEException {
+
+			try {
+				passwordDigest = MessageDigest.getInstance("SHA-256").digest(password);
+			} catch (NoSuchAlgorithmException e) {
+				throw new JOSEException("Couldn't compute the password digest: " + e.getMessage(), e);
+			}
+
+			this.formattedSalt = formattedSalt;
+			this.iterationCount = iterationCount;
+			this.macAlg = prfParams.getMACAlgorithm();
+			this.dkLen = prfParams.getDerivedKeyByteLength();
+
+			int h = Arrays.hashCode(passwordDigest);
+			h = 31 * h + Arrays.hashCode(formattedSalt);
+			h = 31 * h + iterationCount;
+			h = 31 * h + macAlg.hashCode();
+			h = 31 * h + dkLen;
+			hashCode = h;
+		}
+
+
+		@Override
+		public boolean equals(final Object o) {
+
+			if (this == o) return true;
+			if (! (o instanceof Key)) return false;
+			Key other = (Key) o;
+			return iterationCount == other.iterationCount &&
+				dkLen == other.dkLen &&
+				macAlg.equals(other.macAlg) &&
+				Arrays.equals(passwordDigest, other.passwordDigest) &&
+				Arrays.equals(formattedSalt, other.formattedSalt);
+		}
+
+
+		@Override
+		public int hashCode() {
+
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Signature;
+import java.security.SignatureException;
+import javax.crypto.Mac;
+
+import com.nimbusds.jose.JOSEException;
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Static methods for feeding a streamed JWS signing input to a MAC or a
+ * signature in fixed-size pieces. This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class SigningInputStreams {
+
+
+	/**
+	 * The buffer size for reading streamed signing input, in bytes.
+	 */
+	public static final int BUFFER_SIZE = 8192;
+
+
+	/**
+	 * Updates the specified MAC with the signing input read from the
+	 * specified stream, until the end of the stream. The stream is not
+	 * closed.
+	 *
+	 * @param mac          The initialised MAC. Must not be {@code null}.
+	 * @param signingInput The signing input stream. Must not be
+	 *                     {@code null}.
+	 *
+	 * @throws JOSEException If the signing input couldn't be read.
+	 */
+	public static void update(final Mac mac, final InputStream signingInput)
+		throws JOSEException {
+
+		byte[] buffer = new byte[BUFFER_SIZE];
+
+		try {
+			int n;
+			while ((n = signingInput.read(buffer)) != -1) {
+				mac.update(buffer, 0, n);
+			}
+		} catch (IOException e) {
+			throw new JOSEException("Couldn't read the signing input: " + e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Updates the specified signature with the signing input read from
+	 * the specified stream, until the end of the stream. The stream is
+	 * not closed.
+	 *
+	 * @param signature    The initialised signature. Must not be
+	 *                     {@code null}.
+	 * @param signingInput The signing input stream. Must not be
+	 *                     {@code null}.
+	 *
+	 * @throws JOSEException      If the signing input couldn't be read.
+	 * @throws SignatureException If the signature update failed.
+	 */
+	public static void update(final Signature signature, final InputStream signingInput)
+		throws JOSEException, SignatureException {
+
+		byte[] buffer = new byte[BUFFER_SIZE];
+
+		try {
+			int n;
+			while ((n = signingInput.read(buffer)) != -1) {
+				signature.update(buffer, 0, n);
+			}
+		} catch (IOException e) {
+			throw new JOSEException("Couldn't read the signing input: " + e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private SigningInputStreams() { }
+}
@@ -0,0 +1,93 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.security.InvalidKeyException;
+
+import com.google.crypto.tink.subtle.X25519;
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+
+/**
+ * Bounded pool of single-use ephemeral X25519 key pairs for the
+ * {@link com.nimbusds.jose.crypto.X25519Encrypter}, filled by a background
+ * thread. This class is thread-safe.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * X25519EphemeralKeyPool pool = new X25519EphemeralKeyPool();
+ * X25519Encrypter encrypter = new X25519Encrypter(publicKey, pool);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public final class X25519EphemeralKeyPool extends EphemeralKeyPool<OctetKeyPair> {
+
+
+	/**
+	 * Creates a new ephemeral X25519 key pool with the default capacity.
+	 */
+	public X25519EphemeralKeyPool() {
+
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Creates a new ephemeral X25519 key pool.
+	 *
+	 * @param capacity The maximum number of pooled key pairs. Must be
+	 *                 positive.
+	 */
+	public X25519EphemeralKeyPool(final int capacity) {
+
+		super(Curve.X25519, capacity);
+
+		startRefill();
+	}
+
+
+	@Override
+	protected OctetKeyPair generateKeyPair()
+		throws JOSEException {
+
+		final byte[] privateKeyBytes = X25519.generatePrivateKey();
+		final byte[] publicKeyBytes;
+		try {
+			publicKeyBytes = X25519.publicFromPrivate(privateKeyBytes);
+
+		} catch (InvalidKeyException e) {
+			// Should never happen since we just generated this private key
+			throw new JOSEException(e.getMessage(), e);
+		}
+
+		return new OctetKeyPair.Builder(Curve.X25519, Base64URL.encode(publicKeyBytes)).
+			d(Base64URL.encode(privateKeyBytes)).
+			build();
+	}
+}
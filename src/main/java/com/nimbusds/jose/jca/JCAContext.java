@@ -28,7 +28,7 @@ import java.security.SecureRandom;
  * {@link java.security.SecureRandom secure random generator}.
  *
  * @author Vladimir Dzhuvinov
- * @version 2015-06-08
+ * @version 2026-10-19
  */
 public class JCAContext {
 
@@ -111,7 +111,9 @@ public class JCAContext {
 
 	/**
 	 * Sets a specific secure random generator for the initialisation
-	 * vector and other purposes requiring a random number.
+	 * vector and other purposes requiring a random number, e.g. the
+	 * {@link ThreadLocalSecureRandom#getDefault() default thread-local
+	 * one}.
 	 *
 	 * @param randomGen The secure random generator, {@code null} to use
 	 *                  the default system one.
@@ -0,0 +1,423 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jca;
+
+
+import java.io.ObjectStreamException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.SecureRandomSpi;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Secure random generator backed by a separate deterministic random bit
+ * generator (DRBG) instance for each thread. Intended for the generation of
+ * initialisation vectors, content encryption keys and salts by many
+ * concurrent threads, which then don't contend for a single shared
+ * generator. This class is thread-safe.
+ *
+ * <p>Each per-thread generator is seeded from a shared seed source, the
+ * default system {@link SecureRandom}, when first used, and reseeded after
+ * a configurable number of output bytes and time interval, whichever comes
+ * first. The seed source is accessed only on seeding and reseeding.
+ *
+ * <p>The per-thread generator algorithm is by default {@code DRBG}, where
+ * supported (Java 9+), else {@code SHA1PRNG}.
+ *
+ * <p>Example setting a thread-local secure random generator for a JWE
+ * encrypter:
+ *
+ * <pre>
+ * encrypter.getJCAContext().setSecureRandom(ThreadLocalSecureRandom.getDefault());
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class ThreadLocalSecureRandom extends SecureRandom {
+
+
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * The default number of output bytes after which a per-thread
+	 * generator is reseeded (1 MiB).
+	 */
+	public static final long DEFAULT_RESEED_INTERVAL_BYTES = 1024L * 1024L;
+
+
+	/**
+	 * The default time after which a per-thread generator is reseeded,
+	 * in milliseconds (10 minutes).
+	 */
+	public static final long DEFAULT_RESEED_INTERVAL_MILLIS = 10L * 60L * 1000L;
+
+
+	/**
+	 * The seed length, in bytes.
+	 */
+	private static final int SEED_LENGTH = 32;
+
+
+	/**
+	 * Lazily created default instance.
+	 */
+	private static class DefaultHolder {
+
+		private static final ThreadLocalSecureRandom INSTANCE = new ThreadLocalSecureRandom();
+	}
+
+
+	/**
+	 * Returns the shared default thread-local secure random generator.
+	 *
+	 * @return The default thread-local secure random generator.
+	 */
+	public static ThreadLocalSecureRandom getDefault() {
+
+		return DefaultHolder.INSTANCE;
+	}
+
+
+	/**
+	 * The SPI, holding the per-thread generators.
+	 */
+	private final ThreadLocalSpi spi;
+
+
+	/**
+	 * Creates a new thread-local secure random generator with the default
+	 * algorithm and reseed intervals.
+	 */
+	public ThreadLocalSecureRandom() {
+
+		this(getDefaultAlgorithm(), DEFAULT_RESEED_INTERVAL_BYTES, DEFAULT_RESEED_INTERVAL_MILLIS);
+	}
+
+
+	/**
+	 * Creates a new thread-local secure random generator.
+	 *
+	 * @param algorithm            The JCA secure random algorithm of the
+	 *                             per-thread generators, e.g.
+	 *                             {@code DRBG} or {@code SHA1PRNG}. Must
+	 *                             not be {@code null}.
+	 * @param reseedIntervalBytes  The number of output bytes after which
+	 *                             a per-thread generator is reseeded. Must
+	 *                             be positive.
+	 * @param reseedIntervalMillis The time after which a per-thread
+	 *                             generator is reseeded, in milliseconds.
+	 *                             Must be positive.
+	 *
+	 * @throws IllegalArgumentException If the algorithm isn't supported
+	 *                                  or an interval isn't positive.
+	 */
+	public ThreadLocalSecureRandom(final String algorithm,
+				       final long reseedIntervalBytes,
+				       final long reseedIntervalMillis) {
+
+		this(new ThreadLocalSpi(algorithm, reseedIntervalBytes, reseedIntervalMillis, new SecureRandom()));
+	}
+
+
+	private ThreadLocalSecureRandom(final ThreadLocalSpi spi) {
+
+		super(spi, null);
+		this.spi = spi;
+	}
+
+
+	/**
+	 * Returns the default per-thread generator algorithm.
+	 *
+	 * @return {@code DRBG} if supported, else {@code SHA1PRNG}.
+	 */
+	private static String getDefaultAlgorithm() {
+
+		try {
+			SecureRandom.getInstance("DRBG");
+			return "DRBG";
+		} catch (NoSuchAlgorithmException e) {
+			return "SHA1PRNG";
+		}
+	}
+
+
+	/**
+	 * Returns the algorithm of the per-thread generators, prefixed with
+	 * {@code ThreadLocal-}.
+	 *
+	 * @return The algorithm name.
+	 */
+	@Override
+	public String getAlgorithm() {
+
+		return "ThreadLocal-" + spi.algorithm;
+	}
+
+
+	/**
+	 * Returns the number of output bytes after which a per-thread
+	 * generator is reseeded.
+	 *
+	 * @return The reseed interval, in bytes.
+	 */
+	public long getReseedIntervalBytes() {
+
+		return spi.reseedIntervalBytes;
+	}
+
+
+	/**
+	 * Returns the time after which a per-thread generator is reseeded.
+	 *
+	 * @return The reseed interval, in milliseconds.
+	 */
+	public long getReseedIntervalMillis() {
+
+		return spi.reseedIntervalMillis;
+	}
+
+
+	/**
+	 * Generates random bytes with the generator of the current thread.
+	 * Unlike {@link SecureRandom#nextBytes} in Java 8 this method doesn't
+	 * synchronise.
+	 *
+	 * @param bytes The array to fill with random bytes.
+	 */
+	@Override
+	public void nextBytes(final byte[] bytes) {
+
+		spi.engineNextBytes(bytes);
+	}
+
+
+	/**
+	 * Supplements the seed of the generator of the current thread.
+	 *
+	 * @param seed The seed.
+	 */
+	@Override
+	public void setSeed(final byte[] seed) {
+
+		if (spi != null) {
+			// Null when called from the super constructor
+			spi.engineSetSeed(seed);
+		}
+	}
+
+
+	/**
+	 * Returns seed bytes from the seed source.
+	 *
+	 * @param numBytes The number of seed bytes.
+	 *
+	 * @return The seed bytes.
+	 */
+	@Override
+	public byte[] generateSeed(final int numBytes) {
+
+		return spi.engineGenerateSeed(numBytes);
+	}
+
+
+	/**
+	 * Replaces a deserialised instance with a new one with the same
+	 * algorithm, reseed intervals and seed source, as the per-thread
+	 * generators aren't serialised.
+	 *
+	 * @return The thread-local secure random generator.
+	 *
+	 * @throws ObjectStreamException Never.
+	 */
+	private Object readResolve()
+		throws ObjectStreamException {
+
+		return new ThreadLocalSecureRandom(new ThreadLocalSpi(
+			spi.algorithm,
+			spi.reseedIntervalBytes,
+			spi.reseedIntervalMillis,
+			spi.seedSource));
+	}
+
+
+	/**
+	 * Per-thread generator state.
+	 */
+	private static final class Stripe {
+
+
+		/**
+		 * The generator.
+		 */
+		private final SecureRandom random;
+
+
+		/**
+		 * The number of output bytes since the last (re)seeding.
+		 */
+		private long outputBytes;
+
+
+		/**
+		 * The time of the last (re)seeding, in milliseconds since the
+		 * Unix epoch.
+		 */
+		private long seedTime;
+
+
+		private Stripe(final SecureRandom random) {
+			this.random = random;
+		}
+	}
+
+
+	/**
+	 * Secure random SPI delegating to per-thread generators.
+	 */
+	private static final class ThreadLocalSpi extends SecureRandomSpi {
+
+
+		private static final long serialVersionUID = 1L;
+
+
+		private final String algorithm;
+
+
+		private final long reseedIntervalBytes;
+
+
+		private final long reseedIntervalMillis;
+
+
+		/**
+		 * The shared seed source.
+		 */
+		private final SecureRandom seedSource;
+
+
+		private final transient ThreadLocal<Stripe> stripes = new ThreadLocal<>();
+
+
+		private ThreadLocalSpi(final String algorithm,
+				       final long reseedIntervalBytes,
+				       final long reseedIntervalMillis,
+				       final SecureRandom seedSource) {
+
+			if (reseedIntervalBytes < 1) {
+				throw new IllegalArgumentException("The reseed interval in bytes must be positive");
+			}
+
+			if (reseedIntervalMillis < 1) {
+				throw new IllegalArgumentException("The reseed interval in milliseconds must be positive");
+			}
+
+			try {
+				SecureRandom.getInstance(algorithm);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalArgumentException("Unsupported secure random algorithm: " + algorithm, e);
+			}
+
+			this.algorithm = algorithm;
+			this.reseedIntervalBytes = reseedIntervalBytes;
+			this.reseedIntervalMillis = reseedIntervalMillis;
+			this.seedSource = seedSource;
+		}
+
+
+		/**
+		 * Returns the generator of the current thread, creating or
+		 * reseeding it as necessary.
+		 *
+		 * @param numBytes The number of bytes to be generated.
+		 *
+		 * @return The generator.
+		 */
+		private SecureRandom getGenerator(final int numBytes) {
+
+			Stripe stripe = stripes.get();
+
+			final long now = System.currentTimeMillis();
+
+			if (stripe == null) {
+
+				SecureRandom random;
+				try {
+					random = SecureRandom.getInstance(algorithm);
+				} catch (NoSuchAlgorithmException e) {
+					// Checked in constructor
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+				random.setSeed(seed());
+				stripe = new Stripe(random);
+				stripe.seedTime = now;
+				stripes.set(stripe);
+
+			} else if (stripe.outputBytes >= reseedIntervalBytes || now - stripe.seedTime >= reseedIntervalMillis) {
+
+				stripe.random.setSeed(seed());
+				stripe.outputBytes = 0;
+				stripe.seedTime = now;
+			}
+
+			stripe.outputBytes += numBytes;
+
+			return stripe.random;
+		}
+
+
+		/**
+		 * Returns a new seed from the seed source.
+		 *
+		 * @return The seed.
+		 */
+		private byte[] seed() {
+
+			byte[] seed = new byte[SEED_LENGTH];
+			seedSource.nextBytes(seed);
+			return seed;
+		}
+
+
+		@Override
+		protected void engineSetSeed(final byte[] seed) {
+
+			getGenerator(0).setSeed(seed);
+		}
+
+
+		@Override
+		protected void engineNextBytes(final byte[] bytes) {
+
+			getGenerator(bytes.length).nextBytes(bytes);
+		}
+
+
+		@Override
+		protected byte[] engineGenerateSeed(final int numBytes) {
+
+			return seedSource.generateSeed(numBytes);
+		}
+	}
+}
@@ -0,0 +1,508 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.*;
+
+import net.jcip.annotations.Immutable;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+import net.minidev.json.parser.JSONParser;
+
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * Compact in-memory representation of a JSON Web Key (JWK) set, intended
+ * for applications holding large numbers of keys, such as multi-tenant
+ * verifiers. This class is immutable.
+ *
+ * <p>The keys are stored one after another in a single byte arena, on the
+ * Java heap or off-heap in a direct buffer. The Base64URL encoded key
+ * parameters, such as the RSA modulus and private CRT parameters, and the
+ * X.509 certificate chain are stored as raw bytes. A {@link JWK} object,
+ * with the Base64URL forms of its parameters, is created on demand each time
+ * a key is retrieved, and can be discarded after use.
+ *
+ * <p>Key store references are not retained.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public final class CompactJWKSet {
+
+
+	/**
+	 * The JWK parameters with Base64URL encoded values.
+	 */
+	private static final Set<String> BASE64URL_PARAMS = new HashSet<>(Arrays.asList(
+		"n", "e", "d", "p", "q", "dp", "dq", "qi", "x", "y", "k", "x5t", "x5t#S256"));
+
+
+	/**
+	 * Tag for a Base64URL parameter value stored as raw bytes.
+	 */
+	private static final byte TAG_BASE64URL = 0;
+
+
+	/**
+	 * Tag for a string parameter value stored as UTF-8.
+	 */
+	private static final byte TAG_STRING = 1;
+
+
+	/**
+	 * Tag for a Base64 string list parameter value stored as raw bytes.
+	 */
+	private static final byte TAG_BASE64_LIST = 2;
+
+
+	/**
+	 * Tag for any other parameter value stored as UTF-8 encoded JSON.
+	 */
+	private static final byte TAG_JSON = 3;
+
+
+	/**
+	 * The byte arena holding the keys.
+	 */
+	private final ByteBuffer arena;
+
+
+	/**
+	 * The offsets of the keys in the arena, with an additional end
+	 * offset.
+	 */
+	private final int[] offsets;
+
+
+	/**
+	 * The key positions, by key ID.
+	 */
+	private final Map<String,int[]> keyIDIndex;
+
+
+	/**
+	 * Additional custom members.
+	 */
+	private final Map<String,Object> customMembers;
+
+
+	/**
+	 * Creates a new compact JWK set stored on the Java heap.
+	 *
+	 * @param jwkSet The JWK set. Must not be {@code null}.
+	 */
+	public CompactJWKSet(final JWKSet jwkSet) {
+
+		this(jwkSet, false);
+	}
+
+
+	/**
+	 * Creates a new compact JWK set.
+	 *
+	 * @param jwkSet  The JWK set. Must not be {@code null}.
+	 * @param offHeap If {@code true} the keys are stored off-heap, in a
+	 *                direct byte buffer.
+	 */
+	public CompactJWKSet(final JWKSet jwkSet, final boolean offHeap) {
+
+		if (jwkSet == null) {
+			throw new IllegalArgumentException("The JWK set must not be null");
+		}
+
+		List<JWK> keys = jwkSet.getKeys();
+
+		offsets = new int[keys.size() + 1];
+		Map<String,int[]> index = new HashMap<>();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		try {
+			for (int i=0; i < keys.size(); i++) {
+
+				offsets[i] = out.size();
+
+				JWK key = keys.get(i);
+				writeKey(key.toJSONObject(), out);
+
+				if (key.getKeyID() != null) {
+					int[] positions = index.get(key.getKeyID());
+					if (positions == null) {
+						positions = new int[]{i};
+					} else {
+						positions = Arrays.copyOf(positions, positions.length + 1);
+						positions[positions.length - 1] = i;
+					}
+					index.put(key.getKeyID(), positions);
+				}
+			}
+
+			out.flush();
+
+		} catch (IOException e) {
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+
+		offsets[keys.size()] = bytes.size();
+
+		if (offHeap) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+			buffer.put(bytes.toByteArray());
+			// Buffer cast for Java 7/8 binary compatibility
+			((Buffer) buffer).flip();
+			arena = buffer.asReadOnlyBuffer();
+		} else {
+			arena = ByteBuffer.wrap(bytes.toByteArray()).asReadOnlyBuffer();
+		}
+
+		keyIDIndex = index;
+		customMembers = jwkSet.getAdditionalMembers();
+	}
+
+
+	/**
+	 * Returns the number of keys in this JWK set.
+	 *
+	 * @return The number of keys.
+	 */
+	public int size() {
+
+		return offsets.length - 1;
+	}
+
+
+	/**
+	 * Returns the size of the byte arena holding the keys.
+	 *
+	 * @return The arena size, in bytes.
+	 */
+	public int getStorageSize() {
+
+		return arena.capacity();
+	}
+
+
+	/**
+	 * Returns {@code true} if the keys are stored off-heap.
+	 *
+	 * @return {@code true} if the keys are stored off-heap.
+	 */
+	public boolean isOffHeap() {
+
+		return arena.isDirect();
+	}
+
+
+	/**
+	 * Gets the key at the specified position.
+	 *
+	 * @param index The key position.
+	 *
+	 * @return The key.
+	 */
+	public JWK getKey(final int index) {
+
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Invalid key index: " + index);
+		}
+
+		return readKey(offsets[index], offsets[index + 1]);
+	}
+
+
+	/**
+	 * Gets the key from this JWK set as identified by its Key ID (kid)
+	 * member.
+	 *
+	 * <p>If more than one key exists in the JWK Set with the same
+	 * identifier, this function returns only the first one in the set.
+	 *
+	 * @param kid They key identifier.
+	 *
+	 * @return The key identified by {@code kid} or {@code null} if no key
+	 *         exists.
+	 */
+	public JWK getKeyByKeyId(final String kid) {
+
+		int[] positions = keyIDIndex.get(kid);
+
+		if (positions == null) {
+			return null;
+		}
+
+		return getKey(positions[0]);
+	}
+
+
+	/**
+	 * Gets the keys from this JWK set with the specified key IDs, in set
+	 * order.
+	 *
+	 * @param kids The key identifiers. Must not be {@code null}.
+	 *
+	 * @return The keys, empty list if none.
+	 */
+	public List<JWK> getKeysByKeyId(final Set<String> kids) {
+
+		SortedSet<Integer> positions = new TreeSet<>();
+
+		for (String kid: kids) {
+
+			int[] p = keyIDIndex.get(kid);
+
+			if (p != null) {
+				for (int i: p) {
+					positions.add(i);
+				}
+			}
+		}
+
+		List<JWK> keys = new ArrayList<>(positions.size());
+
+		for (int i: positions) {
+			keys.add(getKey(i));
+		}
+
+		return keys;
+	}
+
+
+	/**
+	 * Gets the additional custom members of this JWK set.
+	 *
+	 * @return The additional custom members, empty map if none.
+	 */
+	public Map<String,Object> getAdditionalMembers() {
+
+		return customMembers;
+	}
+
+
+	/**
+	 * Returns a regular JWK set with all keys of this compact JWK set.
+	 *
+	 * @return The JWK set.
+	 */
+	public JWKSet toJWKSet() {
+
+		List<JWK> keys = new ArrayList<>(size());
+
+		for (int i=0; i < size(); i++) {
+			keys.add(getKey(i));
+		}
+
+		return new JWKSet(keys, customMembers);
+	}
+
+
+	/**
+	 * Writes the specified JWK JSON object.
+	 *
+	 * @param jsonObject The JWK JSON object. Must not be {@code null}.
+	 * @param out        The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	private static void writeKey(final JSONObject jsonObject, final DataOutputStream out)
+		throws IOException {
+
+		out.writeShort(jsonObject.size());
+
+		for (Map.Entry<String,Object> param: jsonObject.entrySet()) {
+
+			byte[] name = param.getKey().getBytes(StandardCharset.UTF_8);
+			out.writeShort(name.length);
+			out.write(name);
+
+			Object value = param.getValue();
+
+			if (value instanceof String && BASE64URL_PARAMS.contains(param.getKey())) {
+
+				byte[] raw = new Base64URL((String) value).decode();
+
+				// Store raw only if lossless
+				if (Base64URL.encode(raw).toString().equals(value)) {
+					out.writeByte(TAG_BASE64URL);
+					writeBytes(raw, out);
+					continue;
+				}
+			}
+
+			if (value instanceof String) {
+				out.writeByte(TAG_STRING);
+				writeBytes(((String) value).getBytes(StandardCharset.UTF_8), out);
+				continue;
+			}
+
+			if ("x5c".equals(param.getKey()) && value instanceof List) {
+
+				List<byte[]> certs = decodeBase64List((List<?>) value);
+
+				if (certs != null) {
+					out.writeByte(TAG_BASE64_LIST);
+					out.writeInt(certs.size());
+					for (byte[] cert: certs) {
+						writeBytes(cert, out);
+					}
+					continue;
+				}
+			}
+
+			out.writeByte(TAG_JSON);
+			writeBytes(JSONValue.toJSONString(value).getBytes(StandardCharset.UTF_8), out);
+		}
+	}
+
+
+	/**
+	 * Decodes the specified list of Base64 strings.
+	 *
+	 * @param list The list. Must not be {@code null}.
+	 *
+	 * @return The decoded bytes, {@code null} if the list contains other
+	 *         items or the decoding isn't lossless.
+	 */
+	private static List<byte[]> decodeBase64List(final List<?> list) {
+
+		List<byte[]> decoded = new ArrayList<>(list.size());
+
+		for (Object item: list) {
+
+			if (! (item instanceof String)) {
+				return null;
+			}
+
+			byte[] raw = new Base64((String) item).decode();
+
+			if (! Base64.encode(raw).toString().equals(item)) {
+				return null;
+			}
+
+			decoded.add(raw);
+		}
+
+		return decoded;
+	}
+
+
+	/**
+	 * Writes the specified bytes, prefixed with their length.
+	 *
+	 * @param bytes The bytes. Must not be {@code null}.
+	 * @param out   The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	private static void writeBytes(final byte[] bytes, final DataOutputStream out)
+		throws IOException {
+
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	/**
+	 * Reads the key stored in the specified arena range.
+	 *
+	 * @param start The start offset.
+	 * @param end   The end offset.
+	 *
+	 * @return The key.
+	 */
+	private JWK readKey(final int start, final int end) {
+
+		// Independent position for concurrent readers
+		ByteBuffer in = arena.duplicate();
+		((Buffer) in).limit(end);
+		((Buffer) in).position(start);
+
+		JSONObject jsonObject = new JSONObject();
+
+		int count = in.getShort() & 0xffff;
+
+		try {
+			for (int i=0; i < count; i++) {
+
+				byte[] name = new byte[in.getShort() & 0xffff];
+				in.get(name);
+
+				byte tag = in.get();
+
+				Object value;
+
+				switch (tag) {
+					case TAG_BASE64URL:
+						value = Base64URL.encode(readBytes(in)).toString();
+						break;
+					case TAG_STRING:
+						value = new String(readBytes(in), StandardCharset.UTF_8);
+						break;
+					case TAG_BASE64_LIST:
+						JSONArray list = new JSONArray();
+						int size = in.getInt();
+						for (int j=0; j < size; j++) {
+							list.add(Base64.encode(readBytes(in)).toString());
+						}
+						value = list;
+						break;
+					default:
+						value = new JSONParser(JSONParser.USE_HI_PRECISION_FLOAT).parse(new String(readBytes(in), StandardCharset.UTF_8));
+				}
+
+				jsonObject.put(new String(name, StandardCharset.UTF_8), value);
+			}
+
+			return JWK.parse(jsonObject);
+
+		} catch (ParseException | net.minidev.json.parser.ParseException e) {
+			// Stored from a valid JWK
+			throw new IllegalStateException("Couldn't restore compact JWK: " + e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Reads length-prefixed bytes.
+	 *
+	 * @param in The input buffer. Must not be {@code null}.
+	 *
+	 * @return The bytes.
+	 */
+	private static byte[] readBytes(final ByteBuffer in) {
+
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return bytes;
+	}
+}
@@ -106,7 +106,7 @@ import com.nimbusds.jose.util.JSONObjectUtils;
  *
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
- * @version 2019-04-15
+ * @version 2026-10-19
  */
 @Immutable
 public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
@@ -725,7 +725,7 @@ public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
 		
 		ensurePublicCoordinatesOnCurve(crv, x, y);
 		
-		ensureMatches(getParsedX509CertChain());
+		ensureMatches(getFirstParsedX509Cert());
 
 		this.d = null;
 		
@@ -794,7 +794,7 @@ public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
 		
 		ensurePublicCoordinatesOnCurve(crv, x, y);
 		
-		ensureMatches(getParsedX509CertChain());
+		ensureMatches(getFirstParsedX509Cert());
 		
 		if (d == null) {
 			throw new IllegalArgumentException("The 'd' coordinate must not be null");
@@ -864,7 +864,7 @@ public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
 		
 		ensurePublicCoordinatesOnCurve(crv, x, y);
 		
-		ensureMatches(getParsedX509CertChain());
+		ensureMatches(getFirstParsedX509Cert());
 		
 		d = null;
 		
@@ -1244,7 +1244,7 @@ public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
 		
 		ECPublicKey certECKey;
 		try {
-			certECKey = (ECPublicKey) getParsedX509CertChain().get(0).getPublicKey();
+			certECKey = (ECPublicKey) cert.getPublicKey();
 		} catch (ClassCastException ex) {
 			return false;
 		}
@@ -1261,22 +1261,21 @@ public final class ECKey extends JWK implements AsymmetricJWK, CurveBasedJWK {
 	
 	
 	/**
-	 * Calls {@link #matches(X509Certificate)} for the first X.509
-	 * certificate in the specified chain.
+	 * Calls {@link #matches(X509Certificate)} for the specified first
+	 * X.509 certificate in the chain.
 	 *
-	 * @param chain The X.509 certificate chain, {@code null} if not
-	 *              specified.
+	 * @param cert The first X.509 certificate in the chain, {@code null}
+	 *             if no chain is specified.
 	 *
-	 * @throws IllegalArgumentException If a certificate chain is specified
-	 *                                  and the first certificate in it
+	 * @throws IllegalArgumentException If a certificate is specified and
 	 *                                  doesn't match.
 	 */
-	private void ensureMatches(final List<X509Certificate> chain) {
+	private void ensureMatches(final X509Certificate cert) {
 		
-		if (chain == null)
+		if (cert == null)
 			return;
 		
-		if (! matches(chain.get(0)))
+		if (! matches(cert))
 			throw new IllegalArgumentException("The public subject key info of the first X.509 certificate in the chain must match the JWK type and public parameters");
 	}
 	
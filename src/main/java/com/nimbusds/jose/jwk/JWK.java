@@ -74,7 +74,7 @@ import com.nimbusds.jose.util.*;
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
  * @author Stefan Larsson
- * @version 2020-02-09
+ * @version 2026-10-19
  */
 public abstract class JWK implements JSONAware, Serializable {
 
@@ -145,9 +145,16 @@ public abstract class JWK implements JSONAware, Serializable {
 	
 	
 	/**
-	 * The parsed X.509 certificate chain, optional.
+	 * The parsed X.509 certificate chain, optional, lazily parsed on
+	 * first access.
 	 */
-	private final List<X509Certificate> parsedX5c;
+	private transient volatile List<X509Certificate> parsedX5c;
+	
+	
+	/**
+	 * The SHA-256 thumbprint, lazily computed on first access.
+	 */
+	private transient volatile Base64URL sha256Thumbprint;
 	
 	
 	/**
@@ -212,14 +219,9 @@ public abstract class JWK implements JSONAware, Serializable {
 		if (x5c != null && x5c.isEmpty()) {
 			throw new IllegalArgumentException("The X.509 certificate chain \"x5c\" must not be empty");
 		}
+		checkX509CertChainEncoding(x5c);
 		this.x5c = x5c;
 		
-		try {
-			parsedX5c = X509CertChainUtils.parse(x5c);
-		} catch (ParseException e) {
-			throw new IllegalArgumentException("Invalid X.509 certificate chain \"x5c\": " + e.getMessage(), e);
-		}
-		
 		this.keyStore = ks;
 	}
 
@@ -339,17 +341,134 @@ public abstract class JWK implements JSONAware, Serializable {
 	
 	/**
 	 * Gets the parsed X.509 certificate chain ({@code x5c}) of this JWK.
+	 * The chain is parsed on first access.
 	 *
 	 * @return The X.509 certificate chain as a unmodifiable list,
 	 *         {@code null} if not specified.
+	 *
+	 * @throws IllegalArgumentException If the X.509 certificate chain is
+	 *                                  invalid.
 	 */
 	public List<X509Certificate> getParsedX509CertChain() {
 		
-		if (parsedX5c == null) {
+		if (x5c == null) {
 			return null;
 		}
 		
-		return Collections.unmodifiableList(parsedX5c);
+		List<X509Certificate> chain = parsedX5c;
+		
+		if (chain == null) {
+			try {
+				chain = Collections.unmodifiableList(X509CertChainUtils.parse(x5c));
+			} catch (ParseException e) {
+				throw new IllegalArgumentException("Invalid X.509 certificate chain \"x5c\": " + e.getMessage(), e);
+			}
+			parsedX5c = chain;
+		}
+		
+		return chain;
+	}
+	
+	
+	/**
+	 * Gets the first certificate of the X.509 certificate chain
+	 * ({@code x5c}) of this JWK, without parsing the rest of the chain.
+	 *
+	 * @return The first X.509 certificate, {@code null} if no chain is
+	 *         specified.
+	 *
+	 * @throws IllegalArgumentException If the first X.509 certificate is
+	 *                                  invalid.
+	 */
+	X509Certificate getFirstParsedX509Cert() {
+		
+		if (x5c == null) {
+			return null;
+		}
+		
+		List<X509Certificate> chain = parsedX5c;
+		
+		if (chain != null) {
+			return chain.isEmpty() ? null : chain.get(0);
+		}
+		
+		for (int i=0; i < x5c.size(); i++) {
+			
+			if (x5c.get(i) == null) continue; // skip, as X509CertChainUtils.parse
+			
+			X509Certificate cert = X509CertUtils.parse(x5c.get(i).decode());
+			
+			if (cert == null) {
+				throw new IllegalArgumentException("Invalid X.509 certificate chain \"x5c\": Invalid X.509 certificate at position " + i);
+			}
+			
+			return cert;
+		}
+		
+		return null;
+	}
+	
+	
+	/**
+	 * Checks that each entry of the specified X.509 certificate chain
+	 * decodes to a complete DER SEQUENCE. The certificates themselves are
+	 * parsed on first access to {@link #getParsedX509CertChain()}.
+	 *
+	 * @param x5c The X.509 certificate chain, {@code null} if not
+	 *            specified.
+	 *
+	 * @throws IllegalArgumentException If an entry is not DER encoded.
+	 */
+	private static void checkX509CertChainEncoding(final List<Base64> x5c) {
+		
+		if (x5c == null) {
+			return;
+		}
+		
+		for (int i=0; i < x5c.size(); i++) {
+			
+			if (x5c.get(i) == null) continue; // skip, as X509CertChainUtils.parse
+			
+			if (! isDERSequence(x5c.get(i).decode())) {
+				throw new IllegalArgumentException("Invalid X.509 certificate chain \"x5c\": Invalid X.509 certificate at position " + i);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Returns {@code true} if the specified bytes consist of exactly one
+	 * DER SEQUENCE, as an X.509 certificate does.
+	 *
+	 * @param der The bytes to check.
+	 *
+	 * @return {@code true} if the bytes are a DER SEQUENCE.
+	 */
+	private static boolean isDERSequence(final byte[] der) {
+		
+		if (der.length < 2 || der[0] != 0x30) {
+			return false;
+		}
+		
+		int pos = 2;
+		long length = der[1] & 0xff;
+		
+		if (length > 0x7f) {
+			// Long form
+			int numLengthBytes = (int) (length & 0x7f);
+			
+			if (numLengthBytes == 0 || numLengthBytes > 4 || der.length < pos + numLengthBytes) {
+				return false;
+			}
+			
+			length = 0;
+			
+			for (int i=0; i < numLengthBytes; i++) {
+				length = (length << 8) | (der[pos++] & 0xff);
+			}
+		}
+		
+		return pos + length == der.length;
 	}
 	
 	
@@ -376,7 +495,8 @@ public abstract class JWK implements JSONAware, Serializable {
 
 	/**
 	 * Computes the SHA-256 thumbprint of this JWK. See RFC 7638 for more
-	 * information.
+	 * information. The thumbprint is computed on the first call and
+	 * cached.
 	 *
 	 * @return The SHA-256 thumbprint.
 	 *
@@ -403,7 +523,18 @@ public abstract class JWK implements JSONAware, Serializable {
 	public Base64URL computeThumbprint(final String hashAlg)
 		throws JOSEException {
 
-		return ThumbprintUtils.compute(hashAlg, this);
+		if (! "SHA-256".equals(hashAlg)) {
+			return ThumbprintUtils.compute(hashAlg, getRequiredParams());
+		}
+
+		Base64URL thumbprint = sha256Thumbprint;
+
+		if (thumbprint == null) {
+			thumbprint = ThumbprintUtils.compute(hashAlg, getRequiredParams());
+			sha256Thumbprint = thumbprint;
+		}
+
+		return thumbprint;
 	}
 
 
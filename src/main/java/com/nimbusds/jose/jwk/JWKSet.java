@@ -71,7 +71,7 @@ import net.minidev.json.JSONObject;
  *
  * @author Vladimir Dzhuvinov
  * @author Vedran Pavic
- * @version 2019-10-03
+ * @version 2026-10-19
  */
 @Immutable
 public class JWKSet implements Serializable {
@@ -99,6 +99,13 @@ public class JWKSet implements Serializable {
 	private final Map<String,Object> customMembers;
 
 
+	/**
+	 * The keys indexed by SHA-256 thumbprint, lazily built on first
+	 * access.
+	 */
+	private transient volatile Map<Base64URL,JWK> thumbprintIndex;
+
+
 	/**
 	 * Creates a new empty JSON Web Key (JWK) set.
 	 */
@@ -191,6 +198,49 @@ public class JWKSet implements Serializable {
 	}
 
 
+	/**
+	 * Gets the key from this JSON Web Key (JWK) set as identified by its
+	 * SHA-256 thumbprint (RFC 7638), e.g. for a confirmation
+	 * ({@code cnf}) {@code jkt} claim. The thumbprints are indexed on the
+	 * first call.
+	 *
+	 * <p>If more than one key exists in the JWK Set with the same
+	 * thumbprint, this function returns only the first one in the set.
+	 *
+	 * @param thumbprint The SHA-256 thumbprint.
+	 *
+	 * @return The key with the {@code thumbprint} or {@code null} if no
+	 *         key exists.
+	 */
+	public JWK getKeyByThumbprint(final Base64URL thumbprint) {
+
+		Map<Base64URL,JWK> index = thumbprintIndex;
+
+		if (index == null) {
+
+			index = new HashMap<>();
+
+			for (JWK key: getKeys()) {
+
+				try {
+					Base64URL t = key.computeThumbprint();
+
+					if (! index.containsKey(t)) {
+						index.put(t, key);
+					}
+
+				} catch (JOSEException e) {
+					// SHA-256 not supported, skip
+				}
+			}
+
+			thumbprintIndex = index;
+		}
+
+		return index.get(thumbprint);
+	}
+
+
 	/**
 	 * Gets the additional custom members of this JSON Web Key (JWK) set.
 	 *
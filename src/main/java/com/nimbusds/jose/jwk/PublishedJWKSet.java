@@ -0,0 +1,450 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import net.jcip.annotations.Immutable;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * Publication form of a JSON Web Key (JWK) set, for serving the public keys
+ * of a JWK set at a JWK set endpoint. The public JWK set is serialised once,
+ * to UTF-8 encoded JSON and to its gzip-compressed variant, each with its
+ * own strong entity tag (ETag) for conditional HTTP requests (RFC 7232,
+ * section 2.3.3). Repeated requests can thus be served without serialising
+ * the keys again. This class is immutable.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * // On key set change
+ * published = published.update(jwkSet);
+ *
+ * // On HTTP request, with Content-Encoding: gzip
+ * response.setHeader("ETag", published.getGzipETag());
+ * if (published.isGzipNotModified(request.getHeader("If-None-Match"))) {
+ * 	response.setStatus(304);
+ * 	return;
+ * }
+ * response.setContentType(published.getContentType());
+ * response.setHeader("Content-Encoding", "gzip");
+ * published.writeGzipTo(response.getOutputStream());
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public final class PublishedJWKSet {
+
+
+	/**
+	 * The source JWK set.
+	 */
+	private final JWKSet source;
+
+
+	/**
+	 * The published public JWK set.
+	 */
+	private final JWKSet publicJWKSet;
+
+
+	/**
+	 * The UTF-8 encoded JSON.
+	 */
+	private final byte[] bytes;
+
+
+	/**
+	 * The gzip-compressed UTF-8 encoded JSON.
+	 */
+	private final byte[] gzipBytes;
+
+
+	/**
+	 * The strong entity tag of the JSON, quoted.
+	 */
+	private final String eTag;
+
+
+	/**
+	 * The strong entity tag of the gzip-compressed JSON, quoted.
+	 */
+	private final String gzipETag;
+
+
+	/**
+	 * Creates a new published JWK set. Private keys and parameters are
+	 * omitted.
+	 *
+	 * @param jwkSet The JWK set to publish. Must not be {@code null}.
+	 */
+	public PublishedJWKSet(final JWKSet jwkSet) {
+
+		this(jwkSet, toPublicJWKSet(jwkSet));
+	}
+
+
+	/**
+	 * Creates a new published JWK set.
+	 *
+	 * @param source       The source JWK set. Must not be {@code null}.
+	 * @param publicJWKSet The public JWK set. Must not be {@code null}.
+	 */
+	private PublishedJWKSet(final JWKSet source, final JWKSet publicJWKSet) {
+
+		this(source, publicJWKSet, serialize(publicJWKSet));
+	}
+
+
+	/**
+	 * Creates a new published JWK set.
+	 *
+	 * @param source       The source JWK set. Must not be {@code null}.
+	 * @param publicJWKSet The public JWK set. Must not be {@code null}.
+	 * @param bytes        The UTF-8 encoded JSON of the public JWK set.
+	 *                     Must not be {@code null}.
+	 */
+	private PublishedJWKSet(final JWKSet source, final JWKSet publicJWKSet, final byte[] bytes) {
+
+		this.source = source;
+		this.publicJWKSet = publicJWKSet;
+		this.bytes = bytes;
+		this.gzipBytes = gzip(bytes);
+		this.eTag = computeETag(bytes);
+		this.gzipETag = eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+	}
+
+
+	/**
+	 * Returns the published public JWK set.
+	 *
+	 * @return The public JWK set.
+	 */
+	public JWKSet getJWKSet() {
+
+		return publicJWKSet;
+	}
+
+
+	/**
+	 * Returns the content type of the published JWK set.
+	 *
+	 * @return {@link JWKSet#MIME_TYPE}.
+	 */
+	public String getContentType() {
+
+		return JWKSet.MIME_TYPE;
+	}
+
+
+	/**
+	 * Returns a copy of the UTF-8 encoded JSON of the published JWK set.
+	 * Use {@link #writeTo(OutputStream)} to output it without copying.
+	 *
+	 * @return The UTF-8 encoded JSON.
+	 */
+	public byte[] getBytes() {
+
+		return Arrays.copyOf(bytes, bytes.length);
+	}
+
+
+	/**
+	 * Returns the length of the UTF-8 encoded JSON of the published JWK
+	 * set.
+	 *
+	 * @return The content length, in bytes.
+	 */
+	public int getContentLength() {
+
+		return bytes.length;
+	}
+
+
+	/**
+	 * Returns a copy of the gzip-compressed UTF-8 encoded JSON of the
+	 * published JWK set. Use {@link #writeGzipTo(OutputStream)} to
+	 * output it without copying.
+	 *
+	 * @return The gzip-compressed JSON.
+	 */
+	public byte[] getGzipBytes() {
+
+		return Arrays.copyOf(gzipBytes, gzipBytes.length);
+	}
+
+
+	/**
+	 * Returns the length of the gzip-compressed UTF-8 encoded JSON of the
+	 * published JWK set.
+	 *
+	 * @return The compressed content length, in bytes.
+	 */
+	public int getGzipContentLength() {
+
+		return gzipBytes.length;
+	}
+
+
+	/**
+	 * Returns the strong entity tag of the published JWK set, derived
+	 * from the SHA-256 hash of its JSON. The returned value is quoted,
+	 * ready for use in an HTTP {@code ETag} header.
+	 *
+	 * @return The entity tag.
+	 */
+	public String getETag() {
+
+		return eTag;
+	}
+
+
+	/**
+	 * Returns the strong entity tag of the gzip-compressed published JWK
+	 * set. It differs from {@link #getETag()}, as required for different
+	 * content codings of the same resource (RFC 7232, section 2.3.3). The
+	 * returned value is quoted, ready for use in an HTTP {@code ETag}
+	 * header.
+	 *
+	 * @return The entity tag.
+	 */
+	public String getGzipETag() {
+
+		return gzipETag;
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified {@code If-None-Match} HTTP
+	 * header value matches the entity tag of the published JWK set, i.e.
+	 * a 304 (Not Modified) response can be sent.
+	 *
+	 * @param ifNoneMatch The {@code If-None-Match} header value,
+	 *                    {@code null} if none.
+	 *
+	 * @return {@code true} if the published JWK set is not modified.
+	 */
+	public boolean isNotModified(final String ifNoneMatch) {
+
+		return matches(ifNoneMatch, eTag);
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified {@code If-None-Match} HTTP
+	 * header value matches the entity tag of the gzip-compressed published
+	 * JWK set, i.e. a 304 (Not Modified) response can be sent.
+	 *
+	 * @param ifNoneMatch The {@code If-None-Match} header value,
+	 *                    {@code null} if none.
+	 *
+	 * @return {@code true} if the gzip-compressed published JWK set is not
+	 *         modified.
+	 */
+	public boolean isGzipNotModified(final String ifNoneMatch) {
+
+		return matches(ifNoneMatch, gzipETag);
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified {@code If-None-Match} HTTP
+	 * header value matches the specified entity tag.
+	 *
+	 * @param ifNoneMatch The {@code If-None-Match} header value,
+	 *                    {@code null} if none.
+	 * @param eTag        The quoted entity tag. Must not be {@code null}.
+	 *
+	 * @return {@code true} if matched.
+	 */
+	private static boolean matches(final String ifNoneMatch, final String eTag) {
+
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		for (String tag: ifNoneMatch.split(",")) {
+
+			tag = tag.trim();
+
+			if (tag.startsWith("W/")) {
+				// Weak comparison, RFC 7232, section 3.2
+				tag = tag.substring(2);
+			}
+
+			if ("*".equals(tag) || eTag.equals(tag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+	/**
+	 * Writes the UTF-8 encoded JSON of the published JWK set to the
+	 * specified output stream. The stream is not closed.
+	 *
+	 * @param out The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public void writeTo(final OutputStream out)
+		throws IOException {
+
+		out.write(bytes);
+	}
+
+
+	/**
+	 * Writes the gzip-compressed UTF-8 encoded JSON of the published JWK
+	 * set to the specified output stream, for a
+	 * {@code Content-Encoding: gzip} response. The stream is not closed.
+	 *
+	 * @param out The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public void writeGzipTo(final OutputStream out)
+		throws IOException {
+
+		out.write(gzipBytes);
+	}
+
+
+	/**
+	 * Returns a published JWK set for the specified JWK set. If the
+	 * published content is unchanged this instance is returned, so that
+	 * the compressed form and entity tags are not computed again.
+	 *
+	 * @param jwkSet The JWK set to publish. Must not be {@code null}.
+	 *
+	 * @return The published JWK set, this instance if unchanged.
+	 */
+	public PublishedJWKSet update(final JWKSet jwkSet) {
+
+		if (jwkSet == source) {
+			return this;
+		}
+
+		JWKSet updatedPublicJWKSet = toPublicJWKSet(jwkSet);
+		byte[] updatedBytes = serialize(updatedPublicJWKSet);
+
+		if (Arrays.equals(bytes, updatedBytes)) {
+			return this;
+		}
+
+		return new PublishedJWKSet(jwkSet, updatedPublicJWKSet, updatedBytes);
+	}
+
+
+	/**
+	 * Returns the JSON of the published JWK set.
+	 *
+	 * @return The JSON string.
+	 */
+	@Override
+	public String toString() {
+
+		return new String(bytes, StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Returns the public keys of the specified JWK set.
+	 *
+	 * @param jwkSet The JWK set. Must not be {@code null}.
+	 *
+	 * @return The public JWK set.
+	 */
+	private static JWKSet toPublicJWKSet(final JWKSet jwkSet) {
+
+		if (jwkSet == null) {
+			throw new IllegalArgumentException("The JWK set must not be null");
+		}
+
+		return jwkSet.toPublicJWKSet();
+	}
+
+
+	/**
+	 * Serialises the specified public JWK set to UTF-8 encoded JSON.
+	 *
+	 * @param publicJWKSet The public JWK set. Must not be {@code null}.
+	 *
+	 * @return The UTF-8 encoded JSON.
+	 */
+	private static byte[] serialize(final JWKSet publicJWKSet) {
+
+		return publicJWKSet.toJSONObject(false).toString().getBytes(StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Compresses the specified bytes with gzip.
+	 *
+	 * @param bytes The bytes to compress. Must not be {@code null}.
+	 *
+	 * @return The compressed bytes.
+	 */
+	private static byte[] gzip(final byte[] bytes) {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+			gzipOut.write(bytes);
+		} catch (IOException e) {
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Computes the strong entity tag for the specified bytes.
+	 *
+	 * @param bytes The bytes. Must not be {@code null}.
+	 *
+	 * @return The quoted entity tag.
+	 */
+	private static String computeETag(final byte[] bytes) {
+
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return "\"" + Base64URL.encode(sha256.digest(bytes)) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+}
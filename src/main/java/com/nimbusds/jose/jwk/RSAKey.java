@@ -132,7 +132,7 @@ import com.nimbusds.jose.util.*;
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
  * @author Cedric Staub
- * @version 2019-04-15
+ * @version 2026-10-19
  */
 @Immutable
 public final class RSAKey extends JWK implements AsymmetricJWK {
@@ -1344,8 +1344,8 @@ public final class RSAKey extends JWK implements AsymmetricJWK {
 		}
 		this.e = e;
 
-		if (getParsedX509CertChain() != null) {
-			if (! matches(getParsedX509CertChain().get(0)))
+		if (getFirstParsedX509Cert() != null) {
+			if (! matches(getFirstParsedX509Cert()))
 				throw new IllegalArgumentException("The public subject key info of the first X.509 certificate in the chain must match the JWK type and public parameters");
 		}
 
@@ -1919,7 +1919,7 @@ public final class RSAKey extends JWK implements AsymmetricJWK {
 		
 		RSAPublicKey certRSAKey;
 		try {
-			certRSAKey = (RSAPublicKey) getParsedX509CertChain().get(0).getPublicKey();
+			certRSAKey = (RSAPublicKey) cert.getPublicKey();
 		} catch (ClassCastException ex) {
 			return false;
 		}
@@ -34,13 +34,14 @@ import net.minidev.json.JSONObject;
  * <p>See RFC 7638.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-07-26
+ * @version 2026-10-19
  */
 public final class ThumbprintUtils {
 
 
 	/**
-	 * Computes the SHA-256 thumbprint for the specified JWK.
+	 * Computes the SHA-256 thumbprint for the specified JWK. The
+	 * thumbprint is cached by the JWK.
 	 *
 	 * @param jwk The JWK. Must not be {@code null}.
 	 *
@@ -69,9 +70,7 @@ public final class ThumbprintUtils {
 	public static Base64URL compute(final String hashAlg, final JWK jwk)
 		throws JOSEException {
 
-		final LinkedHashMap<String,?> orderedParams = jwk.getRequiredParams();
-
-		return compute(hashAlg, orderedParams);
+		return jwk.computeThumbprint(hashAlg);
 	}
 
 
@@ -0,0 +1,554 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk.gen;
+
+
+import java.security.KeyStore;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.*;
+
+
+/**
+ * JWK generator which keeps a pool of pre-generated keys, filled in the
+ * background by a bounded executor. Intended for keys which are expensive to
+ * generate on demand, such as 3072 and 4096 bit RSA keys. Wraps an
+ * {@link RSAKeyGenerator}, {@link ECKeyGenerator},
+ * {@link OctetKeyPairGenerator} or {@link OctetSequenceKeyGenerator}.
+ *
+ * <p>The wrapped generator determines the key type and size, or curve, of
+ * the pooled keys. The parameters set on this generator, i.e. the key use,
+ * operations, algorithm, ID and key store, are applied when a key is taken
+ * out of the pool with {@link #generate()}. Parameters not set on this
+ * generator are retained from the wrapped generator. Each pooled key is
+ * handed out once.
+ *
+ * <p>When the pool is empty the key is generated inline, on the calling
+ * thread. After {@link #shutdown()} all keys are generated inline.
+ *
+ * <p>The background threads created by this generator terminate after
+ * being idle for {@link #IDLE_THREAD_TIMEOUT_SECONDS 60 seconds}, so that
+ * a generator which is no longer used doesn't retain them. Call
+ * {@link #shutdown()} to release them and the pooled keys immediately.
+ *
+ * <p>The {@link #generate()} method may be called concurrently, provided
+ * the parameters of this generator are not modified at the same time.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * PooledJWKGenerator&lt;RSAKey&gt; pool = new PooledJWKGenerator&lt;&gt;(new RSAKeyGenerator(4096), 10);
+ *
+ * RSAKey rsaJWK = pool
+ * 	.keyUse(KeyUse.SIGNATURE)
+ * 	.keyIDFromThumbprint(true)
+ * 	.generate();
+ * </pre>
+ *
+ * @param <T> The JWK type.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class PooledJWKGenerator<T extends JWK> extends JWKGenerator<T> {
+
+
+	/**
+	 * The default number of background threads (1).
+	 */
+	public static final int DEFAULT_THREADS = 1;
+
+
+	/**
+	 * The time after which idle background threads created by this
+	 * generator terminate, in seconds (60).
+	 */
+	public static final long IDLE_THREAD_TIMEOUT_SECONDS = 60L;
+
+
+	/**
+	 * The wrapped generator.
+	 */
+	private final JWKGenerator<T> generator;
+
+
+	/**
+	 * The target number of pooled keys.
+	 */
+	private final int capacity;
+
+
+	/**
+	 * The pooled keys.
+	 */
+	private final BlockingQueue<T> pool;
+
+
+	/**
+	 * The executor for the background key generation.
+	 */
+	private final ExecutorService executor;
+
+
+	/**
+	 * {@code true} if the executor was created by this generator and
+	 * must be shut down with it.
+	 */
+	private final boolean ownExecutor;
+
+
+	/**
+	 * The number of submitted background key generation tasks not
+	 * completed yet.
+	 */
+	private final AtomicInteger pendingCount = new AtomicInteger();
+
+
+	/**
+	 * The number of keys generated in the background.
+	 */
+	private final AtomicLong generatedCount = new AtomicLong();
+
+
+	/**
+	 * The number of keys taken from the pool.
+	 */
+	private final AtomicLong hitCount = new AtomicLong();
+
+
+	/**
+	 * The number of keys generated inline because the pool was empty.
+	 */
+	private final AtomicLong missCount = new AtomicLong();
+
+
+	/**
+	 * The number of background key generation failures.
+	 */
+	private final AtomicLong failureCount = new AtomicLong();
+
+
+	/**
+	 * {@code true} if the pool has been shut down.
+	 */
+	private volatile boolean stopped = false;
+
+
+	/**
+	 * The background key generation task.
+	 */
+	private final Runnable fillTask = new Runnable() {
+		@Override
+		public void run() {
+			try {
+				if (stopped) {
+					return;
+				}
+				T key = generator.generate();
+				generatedCount.incrementAndGet();
+				if (! stopped) {
+					pool.offer(key);
+				}
+			} catch (JOSEException | RuntimeException e) {
+				// Leave error reporting to the calling threads,
+				// the next take triggers a retry
+				failureCount.incrementAndGet();
+			} finally {
+				pendingCount.decrementAndGet();
+			}
+		}
+	};
+
+
+	/**
+	 * Creates a new pooled JWK generator with a single background
+	 * thread, which terminates when idle. Call {@link #shutdown()} to
+	 * stop the background key generation when the generator is no longer
+	 * needed.
+	 *
+	 * @param generator The wrapped generator. Must not be {@code null}.
+	 * @param capacity  The target number of pooled keys. Must be
+	 *                  positive.
+	 */
+	public PooledJWKGenerator(final JWKGenerator<T> generator, final int capacity) {
+
+		this(generator, capacity, DEFAULT_THREADS);
+	}
+
+
+	/**
+	 * Creates a new pooled JWK generator. The background threads
+	 * terminate when idle. Call {@link #shutdown()} to stop the
+	 * background key generation when the generator is no longer needed.
+	 *
+	 * @param generator The wrapped generator. Must not be {@code null}.
+	 * @param capacity  The target number of pooled keys. Must be
+	 *                  positive.
+	 * @param threads   The number of background threads. Must be
+	 *                  positive.
+	 */
+	public PooledJWKGenerator(final JWKGenerator<T> generator, final int capacity, final int threads) {
+
+		this(generator, capacity, createExecutor(threads), true);
+	}
+
+
+	/**
+	 * Creates a new pooled JWK generator using the specified executor.
+	 * The executor is not shut down together with this generator.
+	 *
+	 * @param generator The wrapped generator. Must not be {@code null}.
+	 * @param capacity  The target number of pooled keys. Must be
+	 *                  positive.
+	 * @param executor  The executor for the background key generation.
+	 *                  Must not be {@code null}.
+	 */
+	public PooledJWKGenerator(final JWKGenerator<T> generator, final int capacity, final ExecutorService executor) {
+
+		this(generator, capacity, executor, false);
+	}
+
+
+	/**
+	 * Creates a new pooled JWK generator.
+	 *
+	 * @param generator   The wrapped generator. Must not be
+	 *                    {@code null}.
+	 * @param capacity    The target number of pooled keys. Must be
+	 *                    positive.
+	 * @param executor    The executor for the background key
+	 *                    generation. Must not be {@code null}.
+	 * @param ownExecutor {@code true} if the executor must be shut down
+	 *                    with this generator.
+	 */
+	private PooledJWKGenerator(final JWKGenerator<T> generator,
+				   final int capacity,
+				   final ExecutorService executor,
+				   final boolean ownExecutor) {
+
+		if (generator == null) {
+			throw new IllegalArgumentException("The JWK generator must not be null");
+		}
+		if (generator instanceof PooledJWKGenerator) {
+			throw new IllegalArgumentException("The JWK generator must not be pooled");
+		}
+		this.generator = generator;
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		this.capacity = capacity;
+
+		if (executor == null) {
+			throw new IllegalArgumentException("The executor must not be null");
+		}
+		this.executor = executor;
+		this.ownExecutor = ownExecutor;
+
+		pool = new ArrayBlockingQueue<>(capacity);
+
+		refill();
+	}
+
+
+	/**
+	 * Creates an executor with the specified number of daemon threads,
+	 * which terminate when idle.
+	 *
+	 * @param threads The number of threads. Must be positive.
+	 *
+	 * @return The executor.
+	 */
+	private static ExecutorService createExecutor(final int threads) {
+
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive");
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			threads,
+			threads,
+			IDLE_THREAD_TIMEOUT_SECONDS,
+			TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new ThreadFactory() {
+
+				private final AtomicInteger counter = new AtomicInteger();
+
+				@Override
+				public Thread newThread(final Runnable r) {
+					Thread thread = new Thread(r, "nimbus-jwk-generator-pool-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+
+	/**
+	 * Returns the wrapped generator.
+	 *
+	 * @return The wrapped generator.
+	 */
+	public JWKGenerator<T> getGenerator() {
+
+		return generator;
+	}
+
+
+	/**
+	 * Returns the target number of pooled keys.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+
+		return capacity;
+	}
+
+
+	/**
+	 * Returns the number of currently pooled keys.
+	 *
+	 * @return The number of available keys.
+	 */
+	public int size() {
+
+		return pool.size();
+	}
+
+
+	/**
+	 * Takes a key from the pool, or generates one inline if the pool is
+	 * empty, and applies the parameters of this generator to it. The
+	 * pool is refilled in the background.
+	 *
+	 * @return The generated JWK.
+	 *
+	 * @throws JOSEException If the key generation failed.
+	 */
+	@Override
+	public T generate()
+		throws JOSEException {
+
+		T key = stopped ? null : pool.poll();
+
+		if (key != null) {
+			hitCount.incrementAndGet();
+			refill();
+		} else {
+			missCount.incrementAndGet();
+			refill();
+			key = generator.generate();
+		}
+
+		return applyParams(key);
+	}
+
+
+	/**
+	 * Submits background key generation tasks until the pooled and
+	 * pending keys reach the capacity.
+	 */
+	private void refill() {
+
+		while (! stopped) {
+
+			int pending = pendingCount.get();
+
+			if (pool.size() + pending >= capacity) {
+				return;
+			}
+
+			if (pendingCount.compareAndSet(pending, pending + 1)) {
+				try {
+					executor.execute(fillTask);
+				} catch (RejectedExecutionException e) {
+					pendingCount.decrementAndGet();
+					return;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Applies the parameters of this generator to the specified key. The
+	 * parameters not set on this generator are retained from the key, as
+	 * set by the wrapped generator.
+	 *
+	 * @param key The key. Must not be {@code null}.
+	 *
+	 * @return The key with the parameters applied.
+	 *
+	 * @throws JOSEException If the key ID couldn't be computed from the
+	 *                       key thumbprint.
+	 */
+	@SuppressWarnings("unchecked")
+	private T applyParams(final T key)
+		throws JOSEException {
+
+		final KeyUse use = this.use != null ? this.use : key.getKeyUse();
+		final Set<KeyOperation> ops = this.ops != null ? this.ops : key.getKeyOperations();
+		final Algorithm alg = this.alg != null ? this.alg : key.getAlgorithm();
+		final String kid = this.kid != null ? this.kid : key.getKeyID();
+		final KeyStore keyStore = this.keyStore != null ? this.keyStore : key.getKeyStore();
+
+		if (key instanceof RSAKey) {
+
+			RSAKey.Builder builder = new RSAKey.Builder((RSAKey) key)
+				.keyUse(use)
+				.keyOperations(ops)
+				.algorithm(alg)
+				.keyStore(keyStore);
+
+			if (x5tKid) {
+				builder.keyIDFromThumbprint();
+			} else {
+				builder.keyID(kid);
+			}
+
+			return (T) builder.build();
+
+		} else if (key instanceof ECKey) {
+
+			ECKey.Builder builder = new ECKey.Builder((ECKey) key)
+				.keyUse(use)
+				.keyOperations(ops)
+				.algorithm(alg)
+				.keyStore(keyStore);
+
+			if (x5tKid) {
+				builder.keyIDFromThumbprint();
+			} else {
+				builder.keyID(kid);
+			}
+
+			return (T) builder.build();
+
+		} else if (key instanceof OctetKeyPair) {
+
+			OctetKeyPair.Builder builder = new OctetKeyPair.Builder((OctetKeyPair) key)
+				.keyUse(use)
+				.keyOperations(ops)
+				.algorithm(alg)
+				.keyStore(keyStore);
+
+			if (x5tKid) {
+				builder.keyIDFromThumbprint();
+			} else {
+				builder.keyID(kid);
+			}
+
+			return (T) builder.build();
+
+		} else if (key instanceof OctetSequenceKey) {
+
+			OctetSequenceKey.Builder builder = new OctetSequenceKey.Builder(((OctetSequenceKey) key).getKeyValue())
+				.keyUse(use)
+				.keyOperations(ops)
+				.algorithm(alg)
+				.keyStore(keyStore);
+
+			if (x5tKid) {
+				builder.keyIDFromThumbprint();
+			} else {
+				builder.keyID(kid);
+			}
+
+			return (T) builder.build();
+
+		} else {
+			throw new JOSEException("Unsupported JWK type: " + key.getKeyType());
+		}
+	}
+
+
+	/**
+	 * Returns the number of keys generated in the background.
+	 *
+	 * @return The generated key count.
+	 */
+	public long getGeneratedCount() {
+
+		return generatedCount.get();
+	}
+
+
+	/**
+	 * Returns the number of keys taken from the pool.
+	 *
+	 * @return The pool hit count.
+	 */
+	public long getHitCount() {
+
+		return hitCount.get();
+	}
+
+
+	/**
+	 * Returns the number of keys generated inline because the pool was
+	 * empty.
+	 *
+	 * @return The pool miss count.
+	 */
+	public long getMissCount() {
+
+		return missCount.get();
+	}
+
+
+	/**
+	 * Returns the number of background key generation failures.
+	 *
+	 * @return The failure count.
+	 */
+	public long getFailureCount() {
+
+		return failureCount.get();
+	}
+
+
+	/**
+	 * Stops the background key generation and discards the pooled keys.
+	 * An executor created by this generator is shut down. Subsequent
+	 * calls to {@link #generate()} generate the keys inline.
+	 */
+	public void shutdown() {
+
+		stopped = true;
+
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+
+		pool.clear();
+	}
+}
@@ -18,18 +18,22 @@
 package com.nimbusds.jose.jwk.source;
 
 
-import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
 
 
 /**
- * JSON Web Key (JWK) set cache implementation.
+ * JSON Web Key (JWK) set cache implementation. The current time for the put
+ * timestamp and the expiration and refresh checks is obtained from a
+ * configurable {@link Clock clock}, by default the {@link SystemClock system
+ * clock}.
  *
  * @author Vladimir Dzhuvinov
  * @author Sarvesh Sharma
- * @version 2020-03-11
+ * @version 2026-10-19
  */
 public class DefaultJWKSetCache implements JWKSetCache {
 	
@@ -66,6 +70,12 @@ public class DefaultJWKSetCache implements JWKSetCache {
 	private final TimeUnit timeUnit;
 	
 	
+	/**
+	 * The clock for obtaining the current time.
+	 */
+	private final Clock clock;
+	
+	
 	/**
 	 * The cache put timestamp, negative if not specified.
 	 */
@@ -95,6 +105,28 @@ public class DefaultJWKSetCache implements JWKSetCache {
 	 */
 	public DefaultJWKSetCache(final long lifespan, final long refreshTime, final TimeUnit timeUnit) {
 		
+		this(lifespan, refreshTime, timeUnit, SystemClock.INSTANCE);
+	}
+	
+	
+	/**
+	 * Creates a new JWK set cache.
+	 *
+	 * @param lifespan    The lifespan of the cached JWK set before it
+	 *                    expires, negative means no expiration.
+	 * @param refreshTime The time after which the cached JWK set is marked
+	 *                    for refresh, negative if not specified. Should be
+	 *                    shorter or equal to the lifespan.
+	 * @param timeUnit    The lifespan time unit, may be {@code null} if no
+	 *                    expiration or refresh time.
+	 * @param clock       The clock for obtaining the current time. Must
+	 *                    not be {@code null}.
+	 */
+	public DefaultJWKSetCache(final long lifespan,
+				  final long refreshTime,
+				  final TimeUnit timeUnit,
+				  final Clock clock) {
+		
 		this.lifespan = lifespan;
 		this.refreshTime = refreshTime;
 
@@ -103,6 +135,12 @@ public class DefaultJWKSetCache implements JWKSetCache {
 		}
 		
 		this.timeUnit = timeUnit;
+		
+		if (clock == null) {
+			throw new IllegalArgumentException("The clock must not be null");
+		}
+		
+		this.clock = clock;
 	}
 	
 	
@@ -118,7 +156,7 @@ public class DefaultJWKSetCache implements JWKSetCache {
 		this.jwkSet = jwkSet;
 		
 		if (jwkSet != null) {
-			putTimestamp = new Date().getTime();
+			putTimestamp = clock.currentTimeMillis();
 		} else {
 			// cache cleared
 			putTimestamp = -1;
@@ -142,7 +180,7 @@ public class DefaultJWKSetCache implements JWKSetCache {
 
 		return putTimestamp > -1 &&
 			refreshTime > -1 &&
-			new Date().getTime() > putTimestamp + TimeUnit.MILLISECONDS.convert(refreshTime, timeUnit);
+			clock.currentTimeMillis() > putTimestamp + TimeUnit.MILLISECONDS.convert(refreshTime, timeUnit);
 	}
 
 	
@@ -166,7 +204,18 @@ public class DefaultJWKSetCache implements JWKSetCache {
 	
 		return putTimestamp > -1 &&
 			lifespan > -1 &&
-			new Date().getTime() > putTimestamp + TimeUnit.MILLISECONDS.convert(lifespan, timeUnit);
+			clock.currentTimeMillis() > putTimestamp + TimeUnit.MILLISECONDS.convert(lifespan, timeUnit);
+	}
+	
+	
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+		
+		return clock;
 	}
 	
 	
@@ -0,0 +1,87 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk.source;
+
+
+import java.util.List;
+import java.util.Set;
+
+import com.nimbusds.jose.jwk.CompactJWKSet;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * JSON Web Key (JWK) source backed by an immutable
+ * {@link CompactJWKSet compact JWK set}. If the selector matches by key ID
+ * only the keys with the matching IDs are restored from their compact form,
+ * else all keys.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@Immutable
+public class ImmutableCompactJWKSet<C extends SecurityContext> implements JWKSource<C> {
+
+
+	/**
+	 * The compact JWK set.
+	 */
+	private final CompactJWKSet jwkSet;
+
+
+	/**
+	 * Creates a new JWK source backed by an immutable compact JWK set.
+	 *
+	 * @param jwkSet The compact JWK set. Must not be {@code null}.
+	 */
+	public ImmutableCompactJWKSet(final CompactJWKSet jwkSet) {
+		if (jwkSet == null) {
+			throw new IllegalArgumentException("The JWK set must not be null");
+		}
+		this.jwkSet = jwkSet;
+	}
+
+
+	/**
+	 * Returns the compact JWK set.
+	 *
+	 * @return The compact JWK set.
+	 */
+	public CompactJWKSet getJWKSet() {
+		return jwkSet;
+	}
+
+
+	@Override
+	public List<JWK> get(final JWKSelector jwkSelector, final C context) {
+
+		Set<String> kids = jwkSelector.getMatcher().getKeyIDs();
+
+		if (kids == null || kids.contains(null)) {
+			// Keys without ID may match
+			return jwkSelector.select(jwkSet.toJWKSet());
+		}
+
+		return jwkSelector.select(new JWKSet(jwkSet.getKeysByKeyId(kids), jwkSet.getAdditionalMembers()));
+	}
+}
@@ -74,11 +74,15 @@ import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
  * unsecured (plain) JOSE objects. Override the {@link #process(PlainObject,
  * SecurityContext)} method if you need to handle unsecured JOSE objects.
  *
+ * <p>An optional {@link #setJWEDecryptionCache JWE decryption cache} can be
+ * set to return the payload of a previously decrypted JWE object without
+ * decrypting it again.
+ *
  * <p>To process JSON Web Tokens (JWTs) use the
  * {@link com.nimbusds.jwt.proc.DefaultJWTProcessor} class.
  *
  * @author Vladimir Dzhuvinov
- * @version 2019-10-15
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class DefaultJOSEProcessor<C extends SecurityContext> implements ConfigurableJOSEProcessor<C>{
@@ -117,6 +121,12 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 	 * The JWE decrypter factory.
 	 */
 	private JWEDecrypterFactory jweDecrypterFactory = new DefaultJWEDecrypterFactory();
+
+
+	/**
+	 * The optional JWE decryption cache.
+	 */
+	private JWEDecryptionCache jweDecryptionCache;
 	
 	
 	@Override
@@ -203,6 +213,44 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 	}
 
 
+	/**
+	 * Gets the cache of the payloads of successfully decrypted JWE
+	 * objects.
+	 *
+	 * @return The JWE decryption cache, {@code null} if not specified.
+	 */
+	public JWEDecryptionCache getJWEDecryptionCache() {
+
+		return jweDecryptionCache;
+	}
+
+
+	/**
+	 * Sets the cache of the payloads of successfully decrypted JWE
+	 * objects. The JWE key selector is still called for every JWE object
+	 * and a cached payload is returned only if the JWE object was
+	 * previously decrypted with one of the selected key candidates, so
+	 * that context-dependent key selection and key rotation take effect
+	 * immediately, also for a cache shared between processors. Only the
+	 * key unwrapping and the content decryption are skipped. The JWE
+	 * header "typ" (type) is still verified and a nested JWS object
+	 * still processed.
+	 *
+	 * <p>On a cache hit the passed JWE object is not decrypted, it
+	 * remains in the {@link JWEObject.State#ENCRYPTED encrypted} state
+	 * without a payload, whereas on a cache miss it ends up
+	 * {@link JWEObject.State#DECRYPTED decrypted}. Callers should use the
+	 * returned payload and not the payload of the JWE object.
+	 *
+	 * @param jweDecryptionCache The JWE decryption cache, {@code null} if
+	 *                           not specified (disables caching).
+	 */
+	public void setJWEDecryptionCache(final JWEDecryptionCache jweDecryptionCache) {
+
+		this.jweDecryptionCache = jweDecryptionCache;
+	}
+
+
 	@Override
 	public Payload process(final String compactJOSE, final C context)
 		throws ParseException, BadJOSEException, JOSEException {
@@ -322,11 +370,89 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 			throw new BadJOSEException("JWE object rejected: Another algorithm expected, or no matching key(s) found");
 		}
 
+		Payload payload = getCachedPayload(jweObject, keyCandidates);
+
+		if (payload == null) {
+
+			Key key = decrypt(jweObject, keyCandidates);
+			payload = jweObject.getPayload();
+
+			if (jweDecryptionCache != null) {
+				jweDecryptionCache.put(jweObject, key, payload);
+			}
+		}
+
+		if ("JWT".equalsIgnoreCase(jweObject.getHeader().getContentType())) {
+
+			// Handle nested signed JWT, see http://tools.ietf.org/html/rfc7519#section-5.2
+			JWSObject nestedJWS = payload.toJWSObject();
+
+			if (nestedJWS == null) {
+				// Cannot parse payload to JWS object, return original form
+				return payload;
+			}
+
+			return process(nestedJWS, context);
+		}
+
+		return payload;
+	}
+
+
+	/**
+	 * Gets the cached payload of the specified JWE object, if it was
+	 * previously decrypted with one of the specified key candidates.
+	 *
+	 * @param jweObject     The JWE object. Must not be {@code null}.
+	 * @param keyCandidates The key candidates from the JWE key selector.
+	 *                      Must not be {@code null}.
+	 *
+	 * @return The cached payload, {@code null} if none or no JWE
+	 *         decryption cache is configured.
+	 */
+	private Payload getCachedPayload(final JWEObject jweObject, final List<? extends Key> keyCandidates) {
+
+		if (jweDecryptionCache == null) {
+			return null;
+		}
+
+		for (Key key: keyCandidates) {
+
+			Payload payload = jweDecryptionCache.get(jweObject, key);
+
+			if (payload != null) {
+				return payload;
+			}
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Decrypts the specified JWE object with the specified key candidates.
+	 *
+	 * @param jweObject     The JWE object. Must not be {@code null}.
+	 * @param keyCandidates The key candidates from the JWE key selector.
+	 *                      Must not be empty or {@code null}.
+	 *
+	 * @return The key which decrypted the JWE object.
+	 *
+	 * @throws BadJOSEException If no key candidate could decrypt the JWE
+	 *                          object.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private Key decrypt(final JWEObject jweObject, final List<? extends Key> keyCandidates)
+		throws BadJOSEException, JOSEException {
+
 		ListIterator<? extends Key> it = keyCandidates.listIterator();
 
 		while (it.hasNext()) {
 
-			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(jweObject.getHeader(), it.next());
+			Key key = it.next();
+
+			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(jweObject.getHeader(), key);
 
 			if (decrypter == null) {
 				continue;
@@ -346,20 +472,7 @@ public class DefaultJOSEProcessor<C extends SecurityContext> implements Configur
 				throw new BadJWEException("JWE object rejected: " + e.getMessage(), e);
 			}
 
-			if ("JWT".equalsIgnoreCase(jweObject.getHeader().getContentType())) {
-
-				// Handle nested signed JWT, see http://tools.ietf.org/html/rfc7519#section-5.2
-				JWSObject nestedJWS = jweObject.getPayload().toJWSObject();
-
-				if (nestedJWS == null) {
-					// Cannot parse payload to JWS object, return original form
-					return jweObject.getPayload();
-				}
-
-				return process(nestedJWS, context);
-			}
-
-			return jweObject.getPayload();
+			return key;
 		}
 
 		throw new BadJOSEException("JWE object rejected: No matching decrypter(s) found");
@@ -0,0 +1,277 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.ExpiringLRUCache;
+import com.nimbusds.jose.util.StandardCharset;
+import com.nimbusds.jose.util.SystemClock;
+
+
+/**
+ * Default cache of the payloads of successfully decrypted JWE objects. This
+ * class is thread-safe.
+ *
+ * <p>The payloads are cached by the SHA-256 hash of the compact serialisation
+ * of the JWE object, together with the key which decrypted it, so that a
+ * cached payload is returned only for the exact JWE object that was decrypted
+ * and authenticated, and only for a key candidate with the same encoded form
+ * as the decrypting key. Entries expire after a
+ * configurable time to live; when the cache is full the least recently used
+ * entry is evicted. The current time is obtained from a configurable
+ * {@link Clock clock}, by default the {@link SystemClock system clock}.
+ *
+ * <p>The decrypting key is recorded as the SHA-256 hash of its encoded form,
+ * or as a reference if the key cannot be encoded, for example a key held in
+ * a hardware security module. Note that the cached payloads are held in
+ * memory as plain text.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class DefaultJWEDecryptionCache implements JWEDecryptionCache {
+
+
+	/**
+	 * The default maximum number of cached payloads.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+
+	/**
+	 * The default time to live of cached payloads (5 minutes).
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MINUTES = 5;
+
+
+	/**
+	 * The cached payloads, keyed by JWE hash.
+	 */
+	private final ExpiringLRUCache<Base64URL,Entry> cache;
+
+
+	/**
+	 * Creates a new JWE decryption cache with the default maximum size of
+	 * 1000 payloads and time to live of 5 minutes.
+	 */
+	public DefaultJWEDecryptionCache() {
+
+		this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+	}
+
+
+	/**
+	 * Creates a new JWE decryption cache.
+	 *
+	 * @param maxSize    The maximum number of cached payloads. Must be
+	 *                   positive.
+	 * @param timeToLive The time to live of cached payloads. Must be
+	 *                   positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 */
+	public DefaultJWEDecryptionCache(final int maxSize, final long timeToLive, final TimeUnit timeUnit) {
+
+		this(maxSize, timeToLive, timeUnit, SystemClock.INSTANCE);
+	}
+
+
+	/**
+	 * Creates a new JWE decryption cache.
+	 *
+	 * @param maxSize    The maximum number of cached payloads. Must be
+	 *                   positive.
+	 * @param timeToLive The time to live of cached payloads. Must be
+	 *                   positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 * @param clock      The clock for obtaining the current time. Must
+	 *                   not be {@code null}.
+	 */
+	public DefaultJWEDecryptionCache(final int maxSize,
+					 final long timeToLive,
+					 final TimeUnit timeUnit,
+					 final Clock clock) {
+
+		cache = new ExpiringLRUCache<>(maxSize, timeToLive, timeUnit, clock);
+	}
+
+
+	/**
+	 * Returns the maximum number of cached payloads.
+	 *
+	 * @return The maximum number of cached payloads.
+	 */
+	public int getMaxSize() {
+
+		return cache.getMaxSize();
+	}
+
+
+	/**
+	 * Returns the time to live of cached payloads.
+	 *
+	 * @param timeUnit The time unit. Must not be {@code null}.
+	 *
+	 * @return The time to live.
+	 */
+	public long getTimeToLive(final TimeUnit timeUnit) {
+
+		return cache.getTimeToLive(timeUnit);
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+
+		return cache.getClock();
+	}
+
+
+	@Override
+	public Payload get(final JWEObject jweObject, final Key key) {
+
+		Entry entry = cache.get(computeHash(jweObject));
+
+		if (entry == null || ! entry.keyID.equals(computeKeyID(key))) {
+			return null;
+		}
+
+		return entry.payload;
+	}
+
+
+	@Override
+	public void put(final JWEObject jweObject, final Key key, final Payload payload) {
+
+		cache.put(computeHash(jweObject), new Entry(computeKeyID(key), payload));
+	}
+
+
+	/**
+	 * Returns the number of cached payloads, including any expired ones
+	 * not evicted yet.
+	 *
+	 * @return The number of cached payloads.
+	 */
+	public int size() {
+
+		return cache.size();
+	}
+
+
+	/**
+	 * Removes all cached payloads.
+	 */
+	public void clear() {
+
+		cache.clear();
+	}
+
+
+	/**
+	 * Computes the SHA-256 hash of the compact serialisation of the
+	 * specified JWE object.
+	 *
+	 * @param jweObject The JWE object. Must not be {@code null}.
+	 *
+	 * @return The hash.
+	 */
+	static Base64URL computeHash(final JWEObject jweObject) {
+
+		String compactJWE = jweObject.getParsedString();
+
+		if (compactJWE == null) {
+			compactJWE = jweObject.serialize();
+		}
+
+		return sha256(compactJWE.getBytes(StandardCharset.UTF_8));
+	}
+
+
+	/**
+	 * Computes the identifier of the specified key, the SHA-256 hash of
+	 * its encoded form, or the key itself if it cannot be encoded.
+	 *
+	 * @param key The key. Must not be {@code null}.
+	 *
+	 * @return The key identifier.
+	 */
+	static Object computeKeyID(final Key key) {
+
+		byte[] encoded = key.getEncoded();
+
+		if (encoded == null) {
+			return key;
+		}
+
+		return sha256(encoded);
+	}
+
+
+	/**
+	 * Computes the SHA-256 hash of the specified bytes.
+	 *
+	 * @param bytes The bytes. Must not be {@code null}.
+	 *
+	 * @return The hash.
+	 */
+	private static Base64URL sha256(final byte[] bytes) {
+
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return Base64URL.encode(sha256.digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Cached payload with the identifier of the decrypting key.
+	 */
+	private static final class Entry {
+
+
+		private final Object keyID;
+
+
+		private final Payload payload;
+
+
+		private Entry(final Object keyID, final Payload payload) {
+			this.keyID = keyID;
+			this.payload = payload;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.Payload;
+
+
+/**
+ * Cache of the payloads of successfully decrypted JWE objects, to skip the
+ * key unwrapping and content decryption of JWE objects which are received
+ * repeatedly, such as encrypted access tokens. Entries are identified by the
+ * compact serialisation of the JWE object and the key which decrypted it.
+ * Used by the {@link DefaultJOSEProcessor} and the
+ * {@link com.nimbusds.jwt.proc.DefaultJWTProcessor}, which still select the
+ * key candidates for every JWE object and look up the cached payload with
+ * them, so that a payload is never returned for a key which is no longer
+ * selected, for example after a key rotation or for another security
+ * context.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface JWEDecryptionCache {
+
+
+	/**
+	 * Gets the cached payload of the specified JWE object, provided it
+	 * was decrypted with the specified key.
+	 *
+	 * @param jweObject The JWE object, in encrypted or decrypted state.
+	 *                  Must not be {@code null}.
+	 * @param key       The decryption key candidate. Must not be
+	 *                  {@code null}.
+	 *
+	 * @return The payload, {@code null} if not cached, expired or
+	 *         decrypted with another key.
+	 */
+	Payload get(final JWEObject jweObject, final Key key);
+
+
+	/**
+	 * Caches the payload of the specified JWE object. Must be called only
+	 * after the JWE object was successfully decrypted.
+	 *
+	 * @param jweObject The JWE object, in decrypted state. Must not be
+	 *                  {@code null}.
+	 * @param key       The key which decrypted the JWE object. Must not
+	 *                  be {@code null}.
+	 * @param payload   The payload. Must not be {@code null}.
+	 */
+	void put(final JWEObject jweObject, final Key key, final Payload payload);
+}
@@ -0,0 +1,494 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.proc;
+
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.cert.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.ExpiringLRUCache;
+import com.nimbusds.jose.util.IntegerUtils;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jose.util.X509CertChainUtils;
+import com.nimbusds.jose.util.X509CertUtils;
+
+
+/**
+ * Key selector for verifying JWS objects where the public key is conveyed in
+ * the X.509 certificate chain ({@code x5c}) header parameter. The chain is
+ * validated with PKIX against a configured set of trust anchors, the public
+ * key of the leaf certificate is returned as the sole key candidate. This
+ * class is thread-safe.
+ *
+ * <p>Successful validations are cached by the SHA-256 fingerprint of the
+ * DER-encoded chain, each certificate length-prefixed, so that repeated JWS objects from the same signer skip
+ * certificate parsing and path building. A cached validation expires after
+ * a configurable time to live, or when the first certificate in the chain
+ * expires, whichever comes first. Failed validations are not cached.
+ *
+ * <p>Revocation checking is performed according to the supplied
+ * {@link PKIXParameters}, by default it is disabled. Because revocation is
+ * only checked when a chain is validated, the time to live should not exceed
+ * the acceptable delay for a revocation to take effect. Chains containing a
+ * certificate known to be revoked can be evicted immediately with
+ * {@link #invalidate(X509Certificate)}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * Set&lt;TrustAnchor&gt; trustAnchors = Collections.singleton(new TrustAnchor(rootCert, null));
+ *
+ * JWSKeySelector&lt;SecurityContext&gt; keySelector = new X509CertChainJWSKeySelector&lt;&gt;(
+ * 	Collections.singleton(JWSAlgorithm.ES256),
+ * 	trustAnchors);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class X509CertChainJWSKeySelector<C extends SecurityContext> implements JWSKeySelector<C> {
+
+
+	/**
+	 * The default maximum number of cached chain validations.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+
+	/**
+	 * The default time to live of cached chain validations (5 minutes).
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MINUTES = 5;
+
+
+	/**
+	 * The accepted JWS algorithms.
+	 */
+	private final Set<JWSAlgorithm> jwsAlgs;
+
+
+	/**
+	 * The PKIX parameters, cloned for each validation.
+	 */
+	private final PKIXParameters pkixParams;
+
+
+	/**
+	 * The cached chain validations, keyed by chain fingerprint.
+	 */
+	private final ExpiringLRUCache<Base64URL,Entry> cache;
+
+
+	/**
+	 * Creates a new X.509 certificate chain JWS key selector with
+	 * revocation checking disabled, caching up to 1000 chain validations
+	 * for 5 minutes.
+	 *
+	 * @param jwsAlgs      The accepted RSA or EC based JWS algorithms.
+	 *                     Must not be empty or {@code null}.
+	 * @param trustAnchors The trust anchors. Must not be empty or
+	 *                     {@code null}.
+	 */
+	public X509CertChainJWSKeySelector(final Set<JWSAlgorithm> jwsAlgs,
+					   final Set<TrustAnchor> trustAnchors) {
+
+		this(jwsAlgs, toPKIXParameters(trustAnchors), DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES, SystemClock.INSTANCE);
+	}
+
+
+	/**
+	 * Creates a new X.509 certificate chain JWS key selector.
+	 *
+	 * @param jwsAlgs    The accepted RSA or EC based JWS algorithms. Must
+	 *                   not be empty or {@code null}.
+	 * @param pkixParams The PKIX parameters, specifying the trust anchors
+	 *                   and revocation checking. The validation date is
+	 *                   set from the clock. Must not be {@code null}.
+	 * @param maxSize    The maximum number of cached chain validations.
+	 *                   Must be positive.
+	 * @param timeToLive The time to live of cached chain validations.
+	 *                   Must be positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 * @param clock      The clock for obtaining the current time. Must
+	 *                   not be {@code null}.
+	 */
+	public X509CertChainJWSKeySelector(final Set<JWSAlgorithm> jwsAlgs,
+					   final PKIXParameters pkixParams,
+					   final int maxSize,
+					   final long timeToLive,
+					   final TimeUnit timeUnit,
+					   final Clock clock) {
+
+		if (jwsAlgs == null || jwsAlgs.isEmpty()) {
+			throw new IllegalArgumentException("The accepted JWS algorithms must not be empty or null");
+		}
+
+		for (JWSAlgorithm alg: jwsAlgs) {
+			if (! JWSAlgorithm.Family.RSA.contains(alg) && ! JWSAlgorithm.Family.EC.contains(alg)) {
+				throw new IllegalArgumentException("The JWS algorithm must be RSA or EC based: " + alg);
+			}
+		}
+
+		this.jwsAlgs = Collections.unmodifiableSet(new HashSet<>(jwsAlgs));
+
+		if (pkixParams == null) {
+			throw new IllegalArgumentException("The PKIX parameters must not be null");
+		}
+
+		this.pkixParams = (PKIXParameters) pkixParams.clone();
+
+		cache = new ExpiringLRUCache<>(maxSize, timeToLive, timeUnit, clock);
+	}
+
+
+	/**
+	 * Creates PKIX parameters with revocation checking disabled for the
+	 * specified trust anchors.
+	 *
+	 * @param trustAnchors The trust anchors. Must not be empty or
+	 *                     {@code null}.
+	 *
+	 * @return The PKIX parameters.
+	 */
+	private static PKIXParameters toPKIXParameters(final Set<TrustAnchor> trustAnchors) {
+
+		if (trustAnchors == null || trustAnchors.isEmpty()) {
+			throw new IllegalArgumentException("The trust anchors must not be empty or null");
+		}
+
+		try {
+			PKIXParameters params = new PKIXParameters(trustAnchors);
+			params.setRevocationEnabled(false);
+			return params;
+		} catch (InvalidAlgorithmParameterException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Returns the accepted JWS algorithms.
+	 *
+	 * @return The accepted JWS algorithms.
+	 */
+	public Set<JWSAlgorithm> getJWSAlgorithms() {
+
+		return jwsAlgs;
+	}
+
+
+	/**
+	 * Returns a copy of the PKIX parameters.
+	 *
+	 * @return The PKIX parameters.
+	 */
+	public PKIXParameters getPKIXParameters() {
+
+		return (PKIXParameters) pkixParams.clone();
+	}
+
+
+	/**
+	 * Returns the maximum number of cached chain validations.
+	 *
+	 * @return The maximum number of cached chain validations.
+	 */
+	public int getMaxSize() {
+
+		return cache.getMaxSize();
+	}
+
+
+	/**
+	 * Returns the time to live of cached chain validations.
+	 *
+	 * @param timeUnit The time unit. Must not be {@code null}.
+	 *
+	 * @return The time to live.
+	 */
+	public long getTimeToLive(final TimeUnit timeUnit) {
+
+		return cache.getTimeToLive(timeUnit);
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+
+		return cache.getClock();
+	}
+
+
+	@Override
+	public List<? extends Key> selectJWSKeys(final JWSHeader header, final C context)
+		throws KeySourceException {
+
+		if (! jwsAlgs.contains(header.getAlgorithm())) {
+			return Collections.emptyList();
+		}
+
+		List<Base64> x5c = header.getX509CertChain();
+
+		if (x5c == null || x5c.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final Base64URL fingerprint = computeFingerprint(x5c);
+
+		Entry entry = cache.get(fingerprint);
+
+		if (entry != null) {
+			return selectKey(header.getAlgorithm(), entry.publicKey);
+		}
+
+		final long now = cache.getClock().currentTimeMillis();
+
+		List<X509Certificate> chain;
+
+		try {
+			chain = X509CertChainUtils.parse(x5c);
+		} catch (ParseException e) {
+			return Collections.emptyList();
+		}
+
+		if (chain.isEmpty() || ! validate(chain, now)) {
+			return Collections.emptyList();
+		}
+
+		long expirationTime = Long.MAX_VALUE;
+		List<Base64URL> certThumbprints = new ArrayList<>(chain.size());
+
+		for (X509Certificate cert: chain) {
+			expirationTime = Math.min(expirationTime, cert.getNotAfter().getTime());
+			certThumbprints.add(X509CertUtils.computeSHA256Thumbprint(cert));
+		}
+
+		PublicKey publicKey = chain.get(0).getPublicKey();
+
+		// Expires after the time to live or with the first certificate
+		cache.put(fingerprint, new Entry(publicKey, certThumbprints), expirationTime);
+
+		return selectKey(header.getAlgorithm(), publicKey);
+	}
+
+
+	/**
+	 * Returns the specified public key if it matches the JWS algorithm.
+	 *
+	 * @param alg       The JWS algorithm. Must not be {@code null}.
+	 * @param publicKey The public key. Must not be {@code null}.
+	 *
+	 * @return The key as singleton list, empty list if it doesn't match
+	 *         the algorithm.
+	 */
+	private static List<? extends Key> selectKey(final JWSAlgorithm alg, final PublicKey publicKey) {
+
+		if (JWSAlgorithm.Family.RSA.contains(alg) && publicKey instanceof RSAPublicKey) {
+			return Collections.singletonList(publicKey);
+		}
+
+		if (JWSAlgorithm.Family.EC.contains(alg) && publicKey instanceof ECPublicKey) {
+			return Collections.singletonList(publicKey);
+		}
+
+		return Collections.emptyList();
+	}
+
+
+	/**
+	 * Validates the specified certificate chain with PKIX. A trust anchor
+	 * certificate at the end of the chain is omitted from the validated
+	 * path.
+	 *
+	 * @param chain The certificate chain, leaf first. Must not be empty.
+	 * @param now   The validation time, in milliseconds since the Unix
+	 *              epoch.
+	 *
+	 * @return {@code true} if the chain is valid, else {@code false}.
+	 *
+	 * @throws KeySourceException If PKIX validation isn't supported.
+	 */
+	private boolean validate(final List<X509Certificate> chain, final long now)
+		throws KeySourceException {
+
+		final Date date = new Date(now);
+
+		List<X509Certificate> path = new ArrayList<>(chain);
+
+		if (isTrustAnchor(path.get(path.size() - 1))) {
+			path.remove(path.size() - 1);
+		}
+
+		if (path.isEmpty()) {
+			// The leaf is itself a trust anchor
+			try {
+				chain.get(0).checkValidity(date);
+				return true;
+			} catch (CertificateException e) {
+				return false;
+			}
+		}
+
+		PKIXParameters params = (PKIXParameters) pkixParams.clone();
+		params.setDate(date);
+
+		try {
+			CertPath certPath = CertificateFactory.getInstance("X.509").generateCertPath(path);
+			CertPathValidator.getInstance("PKIX").validate(certPath, params);
+			return true;
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new KeySourceException("Couldn't validate the X.509 certificate chain: " + e.getMessage(), e);
+
+		} catch (CertificateException | CertPathValidatorException | InvalidAlgorithmParameterException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified certificate is a trust
+	 * anchor.
+	 *
+	 * @param cert The certificate. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the certificate is a trust anchor.
+	 */
+	private boolean isTrustAnchor(final X509Certificate cert) {
+
+		for (TrustAnchor anchor: pkixParams.getTrustAnchors()) {
+			if (cert.equals(anchor.getTrustedCert())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+	/**
+	 * Removes all cached chain validations which include the specified
+	 * certificate, e.g. after it has been revoked.
+	 *
+	 * @param cert The certificate. Must not be {@code null}.
+	 */
+	public void invalidate(final X509Certificate cert) {
+
+		final Base64URL thumbprint = X509CertUtils.computeSHA256Thumbprint(cert);
+
+		cache.removeMatching(new ExpiringLRUCache.Matcher<Entry>() {
+			@Override
+			public boolean matches(final Entry entry) {
+				return entry.certThumbprints.contains(thumbprint);
+			}
+		});
+	}
+
+
+	/**
+	 * Returns the number of cached chain validations, including any
+	 * expired ones not evicted yet.
+	 *
+	 * @return The number of cached chain validations.
+	 */
+	public int size() {
+
+		return cache.size();
+	}
+
+
+	/**
+	 * Removes all cached chain validations.
+	 */
+	public void clear() {
+
+		cache.clear();
+	}
+
+
+	/**
+	 * Computes the SHA-256 fingerprint of the specified DER-encoded
+	 * certificate chain. Each certificate is prefixed with its length, so
+	 * that a differently split chain has a different fingerprint.
+	 *
+	 * @param x5c The Base64-encoded DER-encoded certificate chain. Must
+	 *            not be {@code null}.
+	 *
+	 * @return The fingerprint.
+	 */
+	static Base64URL computeFingerprint(final List<Base64> x5c) {
+
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+
+			for (Base64 cert: x5c) {
+				byte[] der = cert.decode();
+				sha256.update(IntegerUtils.toBytes(der.length));
+				sha256.update(der);
+			}
+
+			return Base64URL.encode(sha256.digest());
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Cached chain validation.
+	 */
+	private static final class Entry {
+
+
+		private final PublicKey publicKey;
+
+
+		private final List<Base64URL> certThumbprints;
+
+
+		private Entry(final PublicKey publicKey, final List<Base64URL> certThumbprints) {
+
+			this.publicKey = publicKey;
+			this.certThumbprints = certThumbprints;
+		}
+	}
+}
@@ -24,7 +24,7 @@ import java.util.Arrays;
 /**
  * @author Tim McLean
  * @author others
- * @version 2018-07-23
+ * @version 2026-10-19
  */
 final class Base64Codec {
 
@@ -273,15 +273,50 @@ final class Base64Codec {
 			return "";
 		}
 
-		final int eLen = (sLen / 3) * 3;                      // Length of even 24-bits.
 		final int dLen = computeEncodedLength(sLen, urlSafe); // Returned byte count
 		final byte[] out = new byte[dLen];
 
+		encode(byteArray, 0, sLen, out, 0, urlSafe);
+
+		return new String(out, StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Encodes a byte array range into the specified output array.
+	 *
+	 * @param src       The bytes to encode. Must not be {@code null}.
+	 * @param srcOffset The offset of the first byte to encode.
+	 * @param sLen      The number of bytes to encode.
+	 * @param out       The output array, with at least
+	 *                  {@link #computeEncodedLength} bytes remaining
+	 *                  from the output offset. Must not be {@code null}.
+	 * @param outOffset The output offset.
+	 * @param urlSafe   If {@code true} to apply URL-safe encoding (padding
+	 *                  still included and not to spec).
+	 *
+	 * @return The number of output bytes written.
+	 */
+	static int encode(final byte[] src,
+			  final int srcOffset,
+			  final int sLen,
+			  final byte[] out,
+			  final int outOffset,
+			  final boolean urlSafe) {
+
+		if (sLen == 0) {
+			return 0;
+		}
+
+		final int eLen = (sLen / 3) * 3;                      // Length of even 24-bits.
+		final int dLen = computeEncodedLength(sLen, urlSafe); // Returned byte count
+		final int dEnd = outOffset + dLen;
+
 		// Encode even 24-bits
-		for (int s = 0, d = 0; s < eLen; ) {
+		for (int s = srcOffset, d = outOffset; s < srcOffset + eLen; ) {
 
 			// Copy next three bytes into lower 24 bits of int, paying attention to sign
-			final int i = (byteArray[s++] & 0xff) << 16 | (byteArray[s++] & 0xff) << 8 | (byteArray[s++] & 0xff);
+			final int i = (src[s++] & 0xff) << 16 | (src[s++] & 0xff) << 8 | (src[s++] & 0xff);
 
 			// Encode the int into four chars
 			if (urlSafe) {
@@ -302,29 +337,29 @@ final class Base64Codec {
 		final int left = sLen - eLen; // 0 - 2.
 		if (left > 0) {
 			// Prepare the int
-			final int i = ((byteArray[eLen] & 0xff) << 10) | (left == 2 ? ((byteArray[sLen - 1] & 0xff) << 2) : 0);
+			final int i = ((src[srcOffset + eLen] & 0xff) << 10) | (left == 2 ? ((src[srcOffset + sLen - 1] & 0xff) << 2) : 0);
 
 			// Set last four chars
 			if (urlSafe) {
 
 				if (left == 2) {
-					out[dLen - 3] = encodeDigitBase64URL(i >> 12);
-					out[dLen - 2] = encodeDigitBase64URL((i >>> 6) & 0x3f);
-					out[dLen - 1] = encodeDigitBase64URL(i & 0x3f);
+					out[dEnd - 3] = encodeDigitBase64URL(i >> 12);
+					out[dEnd - 2] = encodeDigitBase64URL((i >>> 6) & 0x3f);
+					out[dEnd - 1] = encodeDigitBase64URL(i & 0x3f);
 				} else {
-					out[dLen - 2] = encodeDigitBase64URL(i >> 12);
-					out[dLen - 1] = encodeDigitBase64URL((i >>> 6) & 0x3f);
+					out[dEnd - 2] = encodeDigitBase64URL(i >> 12);
+					out[dEnd - 1] = encodeDigitBase64URL((i >>> 6) & 0x3f);
 				}
 			} else {
 				// Original Mig code with padding
-				out[dLen - 4] = encodeDigitBase64(i >> 12);
-				out[dLen - 3] = encodeDigitBase64((i >>> 6) & 0x3f);
-				out[dLen - 2] = left == 2 ? encodeDigitBase64(i & 0x3f) : (byte) '=';
-				out[dLen - 1] = (byte) '=';
+				out[dEnd - 4] = encodeDigitBase64(i >> 12);
+				out[dEnd - 3] = encodeDigitBase64((i >>> 6) & 0x3f);
+				out[dEnd - 2] = left == 2 ? encodeDigitBase64(i & 0x3f) : (byte) '=';
+				out[dEnd - 1] = (byte) '=';
 			}
 		}
 
-		return new String(out, StandardCharset.UTF_8);
+		return dLen;
 	}
 
 
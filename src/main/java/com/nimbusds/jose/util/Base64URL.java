@@ -33,7 +33,7 @@ import net.jcip.annotations.Immutable;
  * </ul>
  *
  * @author Vladimir Dzhuvinov
- * @version 2019-10-04
+ * @version 2026-10-19
  */
 @Immutable
 public class Base64URL extends Base64 {
@@ -101,6 +101,45 @@ public class Base64URL extends Base64 {
 	}
 
 
+	/**
+	 * Base64URL-encodes the specified byte array range into the specified
+	 * output array, without allocating.
+	 *
+	 * @param bytes     The bytes to encode. Must not be {@code null}.
+	 * @param offset    The offset of the first byte to encode.
+	 * @param length    The number of bytes to encode.
+	 * @param out       The output array for the ASCII encoded characters,
+	 *                  with at least {@link #computeEncodedLength} bytes
+	 *                  remaining from the output offset. Must not be
+	 *                  {@code null}.
+	 * @param outOffset The output offset.
+	 *
+	 * @return The number of output bytes written.
+	 */
+	public static int encodeInto(final byte[] bytes,
+				     final int offset,
+				     final int length,
+				     final byte[] out,
+				     final int outOffset) {
+
+		return Base64Codec.encode(bytes, offset, length, out, outOffset, true);
+	}
+
+
+	/**
+	 * Computes the Base64URL encoded character length for the specified
+	 * input byte length.
+	 *
+	 * @param length The input byte length.
+	 *
+	 * @return The Base64URL encoded character length.
+	 */
+	public static int computeEncodedLength(final int length) {
+
+		return Base64Codec.computeEncodedLength(length, true);
+	}
+
+
 	/**
 	 * Base64URL-encodes the specified big integer, without the sign bit.
 	 *
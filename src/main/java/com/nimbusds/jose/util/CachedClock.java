@@ -0,0 +1,365 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Coarse-grained clock which caches the current time of an underlying clock
+ * in a volatile field, refreshed by a background daemon thread. Reading the
+ * time is then a single memory read instead of a call to the system clock.
+ * This class is thread-safe.
+ *
+ * <p>The returned time lags behind the underlying clock by up to the
+ * configured resolution, plus thread scheduling delays. This is acceptable
+ * for JWT expiration and JWK set cache checks, which have a granularity of
+ * seconds.
+ *
+ * <p>All cached clocks with the same resolution share one background thread.
+ * The thread is started on the first time read of a clock, not by the
+ * constructor, and ends when no running clocks with its resolution remain.
+ * Clocks are tracked by weak reference, so a clock which is no longer used
+ * doesn't keep the thread alive. An interrupted thread ends, and the clocks
+ * start a new one on their next time read. After {@link #shutdown()} the time
+ * is read directly from the underlying clock.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * CachedClock clock = new CachedClock();
+ * DefaultJWTClaimsVerifier verifier = new DefaultJWTClaimsVerifier();
+ * verifier.setClock(clock);
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class CachedClock implements Clock {
+
+
+	/**
+	 * The default resolution, in milliseconds (100).
+	 */
+	public static final long DEFAULT_RESOLUTION_MILLIS = 100L;
+
+
+	/**
+	 * The shared tickers, by resolution.
+	 */
+	private static final ConcurrentMap<Long,Ticker> TICKERS = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Background thread refreshing the cached time of the clocks with a
+	 * given resolution.
+	 */
+	private static final class Ticker implements Runnable {
+
+
+		/**
+		 * The resolution, in milliseconds.
+		 */
+		private final long resolution;
+
+
+		/**
+		 * The registered clocks, guarded by this ticker.
+		 */
+		private final List<WeakReference<CachedClock>> clocks = new LinkedList<>();
+
+
+		/**
+		 * The running thread, {@code null} if none. Guarded by this
+		 * ticker.
+		 */
+		private Thread thread;
+
+
+		/**
+		 * Creates a new ticker.
+		 *
+		 * @param resolution The resolution, in milliseconds.
+		 */
+		private Ticker(final long resolution) {
+
+			this.resolution = resolution;
+		}
+
+
+		/**
+		 * Registers the specified clock, starting the thread if not
+		 * running.
+		 *
+		 * @param clock The clock.
+		 */
+		private synchronized void register(final CachedClock clock) {
+
+			clocks.add(new WeakReference<>(clock));
+
+			if (thread == null) {
+				thread = new Thread(this, "nimbus-cached-clock-" + resolution + "ms");
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+
+
+		/**
+		 * Refreshes the registered clocks, dropping those which are
+		 * shut down or no longer referenced.
+		 *
+		 * @return {@code true} if clocks remain, else the thread is
+		 *         released and must end.
+		 */
+		private synchronized boolean tick() {
+
+			Iterator<WeakReference<CachedClock>> it = clocks.iterator();
+
+			while (it.hasNext()) {
+
+				CachedClock clock = it.next().get();
+
+				if (clock == null || clock.stopped) {
+					it.remove();
+					continue;
+				}
+
+				clock.cachedTime = clock.source.currentTimeMillis();
+			}
+
+			if (clocks.isEmpty()) {
+				thread = null;
+				return false;
+			}
+
+			return true;
+		}
+
+
+		/**
+		 * Releases the thread and the registered clocks, which
+		 * register again on their next time read.
+		 */
+		private synchronized void release() {
+
+			for (WeakReference<CachedClock> ref: clocks) {
+
+				CachedClock clock = ref.get();
+
+				if (clock != null) {
+					clock.started = false;
+				}
+			}
+
+			clocks.clear();
+			thread = null;
+		}
+
+
+		@Override
+		public void run() {
+
+			do {
+				try {
+					Thread.sleep(resolution);
+				} catch (InterruptedException e) {
+					// End the thread, the clocks start a
+					// new one on their next time read
+					release();
+					Thread.currentThread().interrupt();
+					return;
+				}
+			} while (tick());
+		}
+	}
+
+
+	/**
+	 * The underlying clock.
+	 */
+	private final Clock source;
+
+
+	/**
+	 * The resolution, in milliseconds.
+	 */
+	private final long resolution;
+
+
+	/**
+	 * The cached time, in milliseconds since the Unix epoch.
+	 */
+	private volatile long cachedTime;
+
+
+	/**
+	 * {@code true} if the clock is registered with its ticker.
+	 */
+	private volatile boolean started = false;
+
+
+	/**
+	 * {@code true} if the clock has been shut down.
+	 */
+	private volatile boolean stopped = false;
+
+
+	/**
+	 * Creates a new cached clock backed by the {@link SystemClock system
+	 * clock}, with the {@link #DEFAULT_RESOLUTION_MILLIS default
+	 * resolution}.
+	 */
+	public CachedClock() {
+
+		this(DEFAULT_RESOLUTION_MILLIS);
+	}
+
+
+	/**
+	 * Creates a new cached clock backed by the {@link SystemClock system
+	 * clock}.
+	 *
+	 * @param resolution The resolution, in milliseconds. Must be
+	 *                   positive.
+	 */
+	public CachedClock(final long resolution) {
+
+		this(resolution, SystemClock.INSTANCE);
+	}
+
+
+	/**
+	 * Creates a new cached clock. The background thread is started on
+	 * the first time read.
+	 *
+	 * @param resolution The resolution, in milliseconds. Must be
+	 *                   positive.
+	 * @param source     The underlying clock. Must not be {@code null}.
+	 */
+	public CachedClock(final long resolution, final Clock source) {
+
+		if (resolution < 1) {
+			throw new IllegalArgumentException("The resolution must be at least one millisecond");
+		}
+		this.resolution = resolution;
+
+		if (source == null) {
+			throw new IllegalArgumentException("The underlying clock must not be null");
+		}
+		this.source = source;
+	}
+
+
+	/**
+	 * Returns the resolution of this clock.
+	 *
+	 * @return The resolution, in milliseconds.
+	 */
+	public long getResolution() {
+
+		return resolution;
+	}
+
+
+	/**
+	 * Returns the underlying clock.
+	 *
+	 * @return The underlying clock.
+	 */
+	public Clock getSource() {
+
+		return source;
+	}
+
+
+	@Override
+	public long currentTimeMillis() {
+
+		if (stopped) {
+			return source.currentTimeMillis();
+		}
+
+		if (! started) {
+			start();
+		}
+
+		return cachedTime;
+	}
+
+
+	/**
+	 * Sets the cached time and registers this clock with the shared
+	 * ticker for its resolution, unless already done.
+	 */
+	private synchronized void start() {
+
+		if (started) {
+			return;
+		}
+
+		cachedTime = source.currentTimeMillis();
+
+		Ticker ticker = TICKERS.get(resolution);
+
+		if (ticker == null) {
+			Ticker newTicker = new Ticker(resolution);
+			ticker = TICKERS.putIfAbsent(resolution, newTicker);
+			if (ticker == null) {
+				ticker = newTicker;
+			}
+		}
+
+		ticker.register(this);
+		started = true;
+	}
+
+
+	/**
+	 * Returns {@code true} if this clock is running, i.e. hasn't been
+	 * shut down.
+	 *
+	 * @return {@code true} if running, {@code false} if shut down.
+	 */
+	public boolean isRunning() {
+
+		return ! stopped;
+	}
+
+
+	/**
+	 * Shuts down this clock. Subsequent calls to
+	 * {@link #currentTimeMillis()} read the underlying clock directly.
+	 * The shared background thread ends when no running clocks with the
+	 * same resolution remain.
+	 */
+	public void shutdown() {
+
+		stopped = true;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+/**
+ * Source of the current time, as milliseconds since the Unix epoch. Allows
+ * the time used by JWT claims verifiers and JWK set caches to be replaced,
+ * e.g. with a {@link CachedClock cached clock} to avoid reading the system
+ * clock on every call, or with a fixed clock in tests.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface Clock {
+
+
+	/**
+	 * Returns the current time.
+	 *
+	 * @return The current time, in milliseconds since the Unix epoch.
+	 */
+	long currentTimeMillis();
+}
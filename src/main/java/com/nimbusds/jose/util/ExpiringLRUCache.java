@@ -0,0 +1,332 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Bounded, optionally expiring cache with least recently used (LRU)
+ * eviction. This class is thread-safe.
+ *
+ * <p>When the cache is full the least recently used entry is evicted. If a
+ * time to live is set entries expire after it, or at an earlier expiration
+ * time specified when the entry is put. Expired entries are removed when
+ * looked up. The current time is obtained from a configurable
+ * {@link Clock clock}, by default the {@link SystemClock system clock}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class ExpiringLRUCache<K,V> {
+
+
+	/**
+	 * Matches cached values, for their selective removal.
+	 */
+	public interface Matcher<V> {
+
+
+		/**
+		 * Returns {@code true} if the specified value matches.
+		 *
+		 * @param value The cached value. Not {@code null}.
+		 *
+		 * @return {@code true} if the value matches, else
+		 *         {@code false}.
+		 */
+		boolean matches(final V value);
+	}
+
+
+	/**
+	 * Indicates no expiration.
+	 */
+	private static final long NEVER = Long.MAX_VALUE;
+
+
+	/**
+	 * The maximum number of entries.
+	 */
+	private final int maxSize;
+
+
+	/**
+	 * The time to live of the entries, in milliseconds,
+	 * {@link #NEVER} if they don't expire.
+	 */
+	private final long timeToLiveMillis;
+
+
+	/**
+	 * The clock for obtaining the current time.
+	 */
+	private final Clock clock;
+
+
+	/**
+	 * The entries, in access order.
+	 */
+	private final LinkedHashMap<K,Entry<V>> entries;
+
+
+	/**
+	 * Creates a new cache with entries that don't expire.
+	 *
+	 * @param maxSize The maximum number of entries. Must be positive.
+	 */
+	public ExpiringLRUCache(final int maxSize) {
+
+		this(maxSize, NEVER, TimeUnit.MILLISECONDS, SystemClock.INSTANCE);
+	}
+
+
+	/**
+	 * Creates a new cache with expiring entries.
+	 *
+	 * @param maxSize    The maximum number of entries. Must be positive.
+	 * @param timeToLive The time to live of the entries. Must be
+	 *                   positive.
+	 * @param timeUnit   The time to live unit. Must not be {@code null}.
+	 * @param clock      The clock for obtaining the current time. Must
+	 *                   not be {@code null}.
+	 */
+	public ExpiringLRUCache(final int maxSize,
+				final long timeToLive,
+				final TimeUnit timeUnit,
+				final Clock clock) {
+
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The maximum size must be positive");
+		}
+
+		if (timeToLive < 1) {
+			throw new IllegalArgumentException("The time to live must be positive");
+		}
+
+		if (timeUnit == null) {
+			throw new IllegalArgumentException("The time unit must not be null");
+		}
+
+		if (clock == null) {
+			throw new IllegalArgumentException("The clock must not be null");
+		}
+
+		this.maxSize = maxSize;
+		this.timeToLiveMillis = timeToLive == NEVER ? NEVER : timeUnit.toMillis(timeToLive);
+		this.clock = clock;
+
+		entries = new LinkedHashMap<K,Entry<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<K,Entry<V>> eldest) {
+				return size() > ExpiringLRUCache.this.maxSize;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the maximum number of entries.
+	 *
+	 * @return The maximum number of entries.
+	 */
+	public int getMaxSize() {
+
+		return maxSize;
+	}
+
+
+	/**
+	 * Returns the time to live of the entries.
+	 *
+	 * @param timeUnit The time unit. Must not be {@code null}.
+	 *
+	 * @return The time to live, {@link Long#MAX_VALUE} if the entries
+	 *         don't expire.
+	 */
+	public long getTimeToLive(final TimeUnit timeUnit) {
+
+		if (timeToLiveMillis == NEVER) {
+			return NEVER;
+		}
+
+		return timeUnit.convert(timeToLiveMillis, TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+
+		return clock;
+	}
+
+
+	/**
+	 * Gets the value for the specified key.
+	 *
+	 * @param key The key. Must not be {@code null}.
+	 *
+	 * @return The value, {@code null} if not cached or expired.
+	 */
+	public V get(final K key) {
+
+		synchronized (entries) {
+
+			Entry<V> entry = entries.get(key);
+
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.expirationTime != NEVER && clock.currentTimeMillis() >= entry.expirationTime) {
+				entries.remove(key);
+				return null;
+			}
+
+			return entry.value;
+		}
+	}
+
+
+	/**
+	 * Puts the specified value, to expire after the time to live.
+	 *
+	 * @param key   The key. Must not be {@code null}.
+	 * @param value The value. Must not be {@code null}.
+	 */
+	public void put(final K key, final V value) {
+
+		put(key, value, NEVER);
+	}
+
+
+	/**
+	 * Puts the specified value, to expire after the time to live or at
+	 * the specified expiration time, whichever comes first.
+	 *
+	 * @param key            The key. Must not be {@code null}.
+	 * @param value          The value. Must not be {@code null}.
+	 * @param expirationTime The expiration time, in milliseconds since
+	 *                       the Unix epoch.
+	 */
+	public void put(final K key, final V value, final long expirationTime) {
+
+		long exp = expirationTime;
+
+		if (timeToLiveMillis != NEVER) {
+
+			final long now = clock.currentTimeMillis();
+
+			if (now < NEVER - timeToLiveMillis) {
+				exp = Math.min(exp, now + timeToLiveMillis);
+			}
+		}
+
+		final Entry<V> entry = new Entry<>(value, exp);
+
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+	}
+
+
+	/**
+	 * Removes the entries with matching values.
+	 *
+	 * @param matcher The value matcher. Must not be {@code null}.
+	 *
+	 * @return The number of removed entries.
+	 */
+	public int removeMatching(final Matcher<V> matcher) {
+
+		int count = 0;
+
+		synchronized (entries) {
+
+			Iterator<Entry<V>> it = entries.values().iterator();
+
+			while (it.hasNext()) {
+				if (matcher.matches(it.next().value)) {
+					it.remove();
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * Returns the number of entries, including any expired ones not
+	 * removed yet.
+	 *
+	 * @return The number of entries.
+	 */
+	public int size() {
+
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+
+	/**
+	 * Cache entry.
+	 */
+	private static final class Entry<V> {
+
+
+		private final V value;
+
+
+		private final long expirationTime;
+
+
+		private Entry(final V value, final long expirationTime) {
+			this.value = value;
+			this.expirationTime = expirationTime;
+		}
+	}
+}
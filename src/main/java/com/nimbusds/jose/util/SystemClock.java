@@ -0,0 +1,53 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Clock backed by {@link System#currentTimeMillis()}. This class is
+ * thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public final class SystemClock implements Clock {
+
+
+	/**
+	 * The system clock instance.
+	 */
+	public static final SystemClock INSTANCE = new SystemClock();
+
+
+	/**
+	 * Prevents public instantiation.
+	 */
+	private SystemClock() { }
+
+
+	@Override
+	public long currentTimeMillis() {
+
+		return System.currentTimeMillis();
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+
+import net.jcip.annotations.ThreadSafe;
+
+
+/**
+ * Bounded cache of parsed X.509 certificates, keyed by the SHA-256 hash of
+ * their DER encoding. Used by {@link X509CertUtils} to skip the repeated
+ * parsing of certificates which are received again and again, such as the
+ * {@code x5c} chains in JWK sets and JOSE headers. When the cache is full
+ * the least recently used certificate is evicted. This class is
+ * thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class X509CertCache {
+
+
+	/**
+	 * The default maximum number of cached certificates.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+
+	/**
+	 * The cached certificates, keyed by DER hash.
+	 */
+	private final ExpiringLRUCache<ByteBuffer,X509Certificate> certs;
+
+
+	/**
+	 * Creates a new X.509 certificate cache with the default maximum size
+	 * of 1000 certificates.
+	 */
+	public X509CertCache() {
+
+		this(DEFAULT_MAX_SIZE);
+	}
+
+
+	/**
+	 * Creates a new X.509 certificate cache.
+	 *
+	 * @param maxSize The maximum number of cached certificates. Must be
+	 *                positive.
+	 */
+	public X509CertCache(final int maxSize) {
+
+		certs = new ExpiringLRUCache<>(maxSize);
+	}
+
+
+	/**
+	 * Returns the maximum number of cached certificates.
+	 *
+	 * @return The maximum number of cached certificates.
+	 */
+	public int getMaxSize() {
+
+		return certs.getMaxSize();
+	}
+
+
+	/**
+	 * Gets the cached certificate with the specified DER encoding.
+	 *
+	 * @param derEncodedCert The DER-encoded certificate. Must not be
+	 *                       {@code null}.
+	 *
+	 * @return The certificate, {@code null} if not cached.
+	 */
+	public X509Certificate get(final byte[] derEncodedCert) {
+
+		return certs.get(computeKey(derEncodedCert));
+	}
+
+
+	/**
+	 * Caches the specified certificate.
+	 *
+	 * @param derEncodedCert The DER encoding of the certificate. Must not
+	 *                       be {@code null}.
+	 * @param cert           The parsed certificate. Must not be
+	 *                       {@code null}.
+	 */
+	public void put(final byte[] derEncodedCert, final X509Certificate cert) {
+
+		certs.put(computeKey(derEncodedCert), cert);
+	}
+
+
+	/**
+	 * Returns the number of cached certificates.
+	 *
+	 * @return The number of cached certificates.
+	 */
+	public int size() {
+
+		return certs.size();
+	}
+
+
+	/**
+	 * Removes all cached certificates.
+	 */
+	public void clear() {
+
+		certs.clear();
+	}
+
+
+	/**
+	 * Computes the cache key for the specified DER-encoded certificate.
+	 *
+	 * @param derEncodedCert The DER-encoded certificate. Must not be
+	 *                       {@code null}.
+	 *
+	 * @return The SHA-256 hash, wrapped for use as map key.
+	 */
+	private static ByteBuffer computeKey(final byte[] derEncodedCert) {
+
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return ByteBuffer.wrap(sha256.digest(derEncodedCert));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+}
@@ -29,7 +29,7 @@ import java.util.UUID;
  *  X.509 certificate utilities.
  *
  *  @author Vladimir Dzhuvinov
- *  @version 2020-02-22
+ *  @version 2026-10-19
  */
 public class X509CertUtils {
 
@@ -46,6 +46,44 @@ public class X509CertUtils {
 	public static final String PEM_END_MARKER = "-----END CERTIFICATE-----";
 
 
+	/**
+	 * The X.509 certificate factories, one per thread since certificate
+	 * factories aren't guaranteed to be thread-safe.
+	 */
+	private static final ThreadLocal<CertificateFactory> CERT_FACTORIES = new ThreadLocal<>();
+
+
+	/**
+	 * The shared cache of parsed certificates, {@code null} if disabled.
+	 */
+	private static volatile X509CertCache certCache = new X509CertCache();
+
+
+	/**
+	 * Gets the shared cache of parsed X.509 certificates, which is used
+	 * when parsing DER-encoded certificates. Enabled by default with
+	 * the {@link X509CertCache#DEFAULT_MAX_SIZE default maximum size}.
+	 *
+	 * @return The certificate cache, {@code null} if disabled.
+	 */
+	public static X509CertCache getCertCache() {
+
+		return certCache;
+	}
+
+
+	/**
+	 * Sets the shared cache of parsed X.509 certificates.
+	 *
+	 * @param cache The certificate cache, {@code null} to disable
+	 *              caching.
+	 */
+	public static void setCertCache(final X509CertCache cache) {
+
+		certCache = cache;
+	}
+
+
 	/**
 	 * Parses a DER-encoded X.509 certificate.
 	 *
@@ -67,6 +105,8 @@ public class X509CertUtils {
 
 	/**
 	 * Parses a DER-encoded X.509 certificate with exception handling.
+	 * Returns the certificate from the {@link #getCertCache shared cache}
+	 * if it was already parsed.
 	 *
 	 * @param derEncodedCert The DER-encoded X.509 certificate, as a byte
 	 *                       array. Empty or {@code null} if not specified.
@@ -82,17 +122,51 @@ public class X509CertUtils {
 			return null;
 		}
 
-		CertificateFactory cf = CertificateFactory.getInstance("X.509");
-		final Certificate cert = cf.generateCertificate(new ByteArrayInputStream(derEncodedCert));
+		final X509CertCache cache = certCache;
+
+		if (cache != null) {
+			X509Certificate cachedCert = cache.get(derEncodedCert);
+			if (cachedCert != null) {
+				return cachedCert;
+			}
+		}
+
+		final Certificate cert = getCertificateFactory().generateCertificate(new ByteArrayInputStream(derEncodedCert));
 
 		if (! (cert instanceof X509Certificate)) {
 			throw new CertificateException("Not a X.509 certificate: " + cert.getType());
 		}
 
+		if (cache != null) {
+			cache.put(derEncodedCert, (X509Certificate)cert);
+		}
+
 		return (X509Certificate)cert;
 	}
 
 
+	/**
+	 * Returns the X.509 certificate factory for the current thread.
+	 *
+	 * @return The X.509 certificate factory.
+	 *
+	 * @throws CertificateException If no X.509 certificate factory is
+	 *                              available.
+	 */
+	private static CertificateFactory getCertificateFactory()
+		throws CertificateException {
+
+		CertificateFactory cf = CERT_FACTORIES.get();
+
+		if (cf == null) {
+			cf = CertificateFactory.getInstance("X.509");
+			CERT_FACTORIES.set(cf);
+		}
+
+		return cf;
+	}
+
+
 	/**
 	 * Parses a PEM-encoded X.509 certificate.
 	 *
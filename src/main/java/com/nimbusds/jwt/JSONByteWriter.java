@@ -0,0 +1,403 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt;
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import net.jcip.annotations.NotThreadSafe;
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONValue;
+
+import com.nimbusds.jose.util.DateUtils;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * Writer of JSON directly into a reusable UTF-8 byte buffer. Strings are
+ * escaped like the JSON Smart serialiser does by default, including the
+ * forward slash. Values of types without a direct representation are
+ * serialised with JSON Smart. This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@NotThreadSafe
+final class JSONByteWriter {
+
+
+	/**
+	 * The hex digits for {@code \\uXXXX} escapes.
+	 */
+	private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharset.UTF_8);
+
+
+	/**
+	 * The buffer.
+	 */
+	private byte[] buf;
+
+
+	/**
+	 * The number of bytes written.
+	 */
+	private int len;
+
+
+	/**
+	 * Creates a new JSON byte writer.
+	 *
+	 * @param initialCapacity The initial buffer capacity, in bytes.
+	 */
+	JSONByteWriter(final int initialCapacity) {
+
+		buf = new byte[initialCapacity];
+	}
+
+
+	/**
+	 * Returns the buffer. Valid until the next write.
+	 *
+	 * @return The buffer.
+	 */
+	byte[] getBuffer() {
+
+		return buf;
+	}
+
+
+	/**
+	 * Returns the number of bytes written.
+	 *
+	 * @return The number of bytes written.
+	 */
+	int length() {
+
+		return len;
+	}
+
+
+	/**
+	 * Discards the written bytes.
+	 */
+	void reset() {
+
+		len = 0;
+	}
+
+
+	/**
+	 * Ensures the buffer has space for the specified number of bytes
+	 * beyond those written.
+	 *
+	 * @param n The number of bytes.
+	 */
+	void ensureCapacity(final int n) {
+
+		if (len + n > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+		}
+	}
+
+
+	/**
+	 * Writes the specified byte.
+	 *
+	 * @param b The byte.
+	 */
+	void write(final byte b) {
+
+		ensureCapacity(1);
+		buf[len++] = b;
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the first byte.
+	 * @param n      The number of bytes.
+	 */
+	void write(final byte[] bytes, final int offset, final int n) {
+
+		ensureCapacity(n);
+		System.arraycopy(bytes, offset, buf, len, n);
+		len += n;
+	}
+
+
+	/**
+	 * Writes the specified string, which must consist of ASCII characters
+	 * only, as is.
+	 *
+	 * @param s The ASCII string. Must not be {@code null}.
+	 */
+	void writeASCII(final String s) {
+
+		final int n = s.length();
+		ensureCapacity(n);
+		for (int i=0; i < n; i++) {
+			buf[len++] = (byte)s.charAt(i);
+		}
+	}
+
+
+	/**
+	 * Writes the specified long integer.
+	 *
+	 * @param value The long integer.
+	 */
+	void writeLong(final long value) {
+
+		if (value == Long.MIN_VALUE) {
+			writeASCII(Long.toString(value));
+			return;
+		}
+
+		long v = value;
+
+		if (v < 0) {
+			write((byte)'-');
+			v = -v;
+		}
+
+		// Count the digits
+		int digits = 1;
+		for (long p = 10; digits < 19 && v >= p; p *= 10) {
+			digits++;
+		}
+
+		ensureCapacity(digits);
+
+		for (int i = len + digits - 1; i >= len; i--) {
+			buf[i] = (byte)('0' + v % 10);
+			v /= 10;
+		}
+
+		len += digits;
+	}
+
+
+	/**
+	 * Writes the specified string as a quoted and escaped JSON string.
+	 *
+	 * @param s The string. Must not be {@code null}.
+	 */
+	void writeString(final String s) {
+
+		final int n = s.length();
+
+		// Worst case is 6 bytes per char (backslash-u escapes)
+		ensureCapacity(n * 6 + 2);
+
+		final byte[] b = buf;
+		int pos = len;
+
+		b[pos++] = '"';
+
+		for (int i=0; i < n; i++) {
+
+			final char c = s.charAt(i);
+
+			switch (c) {
+				case '"':  b[pos++] = '\\'; b[pos++] = '"'; continue;
+				case '\\': b[pos++] = '\\'; b[pos++] = '\\'; continue;
+				case '/':  b[pos++] = '\\'; b[pos++] = '/'; continue;
+				case '\b': b[pos++] = '\\'; b[pos++] = 'b'; continue;
+				case '\f': b[pos++] = '\\'; b[pos++] = 'f'; continue;
+				case '\n': b[pos++] = '\\'; b[pos++] = 'n'; continue;
+				case '\r': b[pos++] = '\\'; b[pos++] = 'r'; continue;
+				case '\t': b[pos++] = '\\'; b[pos++] = 't'; continue;
+				default:
+			}
+
+			if (c < 0x20 || (c >= 0x7F && c <= 0x9F) || (c >= 0x2000 && c <= 0x20FF)) {
+				b[pos++] = '\\';
+				b[pos++] = 'u';
+				b[pos++] = HEX[(c >> 12) & 0xF];
+				b[pos++] = HEX[(c >> 8) & 0xF];
+				b[pos++] = HEX[(c >> 4) & 0xF];
+				b[pos++] = HEX[c & 0xF];
+			} else if (c < 0x80) {
+				b[pos++] = (byte)c;
+			} else if (c < 0x800) {
+				b[pos++] = (byte)(0xC0 | (c >> 6));
+				b[pos++] = (byte)(0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+				final int cp = Character.toCodePoint(c, s.charAt(++i));
+				b[pos++] = (byte)(0xF0 | (cp >> 18));
+				b[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+				b[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+				b[pos++] = (byte)(0x80 | (cp & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				// Unpaired surrogate, replaced like String.getBytes does
+				b[pos++] = '?';
+			} else {
+				b[pos++] = (byte)(0xE0 | (c >> 12));
+				b[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+				b[pos++] = (byte)(0x80 | (c & 0x3F));
+			}
+		}
+
+		b[pos++] = '"';
+
+		len = pos;
+	}
+
+
+	/**
+	 * Writes the specified value as JSON.
+	 *
+	 * @param value The value, {@code null} if none.
+	 */
+	void writeValue(final Object value) {
+
+		if (value == null) {
+			writeASCII("null");
+		} else if (value instanceof String) {
+			writeString((String)value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			writeLong(((Number)value).longValue());
+		} else if (value instanceof Boolean) {
+			writeASCII((Boolean)value ? "true" : "false");
+		} else if (value instanceof JSONAware) {
+			writeUTF8(((JSONAware)value).toJSONString());
+		} else if (value instanceof Map) {
+			write((byte)'{');
+			boolean first = true;
+			for (Map.Entry<?,?> entry: ((Map<?,?>)value).entrySet()) {
+				if (! first) {
+					write((byte)',');
+				}
+				first = false;
+				writeString(String.valueOf(entry.getKey()));
+				write((byte)':');
+				writeValue(entry.getValue());
+			}
+			write((byte)'}');
+		} else if (value instanceof Collection) {
+			write((byte)'[');
+			boolean first = true;
+			for (Object item: (Collection<?>)value) {
+				if (! first) {
+					write((byte)',');
+				}
+				first = false;
+				writeValue(item);
+			}
+			write((byte)']');
+		} else if (value instanceof Object[]) {
+			writeValue(Arrays.asList((Object[])value));
+		} else {
+			// Other numbers, primitive arrays, dates nested in
+			// structures, etc.
+			writeUTF8(JSONValue.toJSONString(value));
+		}
+	}
+
+
+	/**
+	 * Writes the specified claims set as a JSON object, with the same
+	 * members as {@link JWTClaimsSet#toJSONObject()}: dates as Unix
+	 * timestamps, a single audience as string, and claims with
+	 * {@code null} values omitted.
+	 *
+	 * @param claimsSet The claims set. Must not be {@code null}.
+	 */
+	void writeClaimsSet(final JWTClaimsSet claimsSet) {
+
+		write((byte)'{');
+
+		boolean first = true;
+
+		for (Map.Entry<String,Object> claim: claimsSet.getClaims().entrySet()) {
+
+			final Object value = claim.getValue();
+
+			if (value == null) {
+				continue;
+			}
+
+			if ("aud".equals(claim.getKey())) {
+
+				List<String> audList = claimsSet.getAudience();
+
+				if (audList == null || audList.isEmpty()) {
+					continue;
+				}
+
+				writeMemberName(claim.getKey(), first);
+
+				if (audList.size() == 1) {
+					writeString(audList.get(0));
+				} else {
+					writeValue(audList);
+				}
+
+			} else if (value instanceof Date) {
+
+				// Transform dates to Unix timestamps
+				writeMemberName(claim.getKey(), first);
+				writeLong(DateUtils.toSecondsSinceEpoch((Date)value));
+
+			} else {
+				writeMemberName(claim.getKey(), first);
+				writeValue(value);
+			}
+
+			first = false;
+		}
+
+		write((byte)'}');
+	}
+
+
+	/**
+	 * Writes the specified JSON object member name and the following
+	 * colon, preceded by a comma unless the first member.
+	 *
+	 * @param name  The member name. Must not be {@code null}.
+	 * @param first {@code true} for the first member.
+	 */
+	private void writeMemberName(final String name, final boolean first) {
+
+		if (! first) {
+			write((byte)',');
+		}
+		writeString(name);
+		write((byte)':');
+	}
+
+
+	/**
+	 * Writes the specified string, UTF-8 encoded, as is.
+	 *
+	 * @param s The string. Must not be {@code null}.
+	 */
+	private void writeUTF8(final String s) {
+
+		byte[] bytes = s.getBytes(StandardCharset.UTF_8);
+		write(bytes, 0, bytes.length);
+	}
+}
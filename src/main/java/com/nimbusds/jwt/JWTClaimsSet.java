@@ -18,9 +18,13 @@
 package com.nimbusds.jwt;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.*;
 
@@ -29,6 +33,7 @@ import com.nimbusds.jose.util.JSONObjectUtils;
 import net.jcip.annotations.Immutable;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
 
 
 /**
@@ -72,7 +77,7 @@ import net.minidev.json.JSONObject;
  *
  * @author Vladimir Dzhuvinov
  * @author Justin Richer
- * @version 2019-12-21
+ * @version 2026-10-19
  */
 @Immutable
 public final class JWTClaimsSet implements Serializable {
@@ -876,6 +881,101 @@ public final class JWTClaimsSet implements Serializable {
 	}
 
 
+	/**
+	 * Serialises the claims set to JSON and appends it to the specified
+	 * output, without creating an intermediate JSON object. The claims
+	 * are serialised according to their insertion order, claims with
+	 * {@code null} values are omitted.
+	 *
+	 * @param out The output to append to. Must not be {@code null}.
+	 *
+	 * @throws IOException If appending failed.
+	 */
+	public void serialize(final Appendable out)
+		throws IOException {
+
+		out.append('{');
+
+		boolean first = true;
+
+		for (Map.Entry<String,Object> claim: claims.entrySet()) {
+
+			Object value = claim.getValue();
+
+			if (value instanceof Date) {
+
+				// Transform dates to Unix timestamps
+				value = DateUtils.toSecondsSinceEpoch((Date) value);
+
+			} else if (AUDIENCE_CLAIM.equals(claim.getKey())) {
+
+				// Serialise single audience list and string
+				List<String> audList = getAudience();
+
+				if (audList == null || audList.isEmpty()) {
+					continue;
+				}
+
+				value = audList.size() == 1 ? audList.get(0) : audList;
+
+			} else if (value == null) {
+				continue;
+			}
+
+			if (! first) {
+				out.append(',');
+			}
+
+			first = false;
+
+			JSONValue.writeJSONString(claim.getKey(), out);
+			out.append(':');
+			JSONValue.writeJSONString(value, out);
+		}
+
+		out.append('}');
+	}
+
+
+	/**
+	 * Serialises the claims set to JSON and writes it, UTF-8 encoded, to
+	 * the specified output stream. The stream is not closed.
+	 *
+	 * @param out The output stream. Must not be {@code null}.
+	 *
+	 * @throws IOException If writing failed.
+	 *
+	 * @see #serialize(Appendable)
+	 */
+	public void writeTo(final OutputStream out)
+		throws IOException {
+
+		JSONByteWriter json = new JSONByteWriter(256);
+		json.writeClaimsSet(this);
+		out.write(json.getBuffer(), 0, json.length());
+	}
+
+
+	/**
+	 * Serialises the claims set to JSON and puts it, UTF-8 encoded, into
+	 * the specified buffer, starting at its current position. Nothing is
+	 * put if the remaining buffer space is insufficient.
+	 *
+	 * @param buffer The buffer. Must not be {@code null}.
+	 *
+	 * @throws BufferOverflowException If the remaining buffer space is
+	 *                                 insufficient.
+	 *
+	 * @see #serialize(Appendable)
+	 */
+	public void serialize(final ByteBuffer buffer) {
+
+		JSONByteWriter json = new JSONByteWriter(256);
+		json.writeClaimsSet(this);
+		buffer.put(json.getBuffer(), 0, json.length());
+	}
+
+
 	/**
 	 * Returns a transformation of this JWT claims set.
 	 *
@@ -0,0 +1,233 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt;
+
+
+import java.util.Arrays;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * Minter of signed JSON Web Tokens (JWTs) for high-throughput token issuing.
+ * This class is thread-safe.
+ *
+ * <p>The JWS header is Base64URL-encoded once, when the minter is created.
+ * Each {@link #mint minted} JWT then has its claims serialised directly into
+ * a reusable per-thread UTF-8 byte buffer, Base64URL-encoded in place next to
+ * the pre-encoded header, signed with the shared {@link JWSSigner} and output
+ * in compact serialisation, without the intermediate JSON object, string
+ * concatenation and {@link SignedJWT} state of
+ * {@code new SignedJWT(header, claimsSet).sign(signer)}.
+ *
+ * <p>The output is equivalent to that of {@link SignedJWT}, with the claims
+ * serialised in their insertion order.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * SignedJWTMinter minter = new SignedJWTMinter(new JWSHeader(JWSAlgorithm.HS256), new MACSigner(secret));
+ *
+ * String jwt = minter.mint(new JWTClaimsSet.Builder()
+ * 	.subject("alice")
+ * 	.expirationTime(exp)
+ * 	.build());
+ * </pre>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class SignedJWTMinter {
+
+
+	/**
+	 * The initial per-thread buffer size, in bytes.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+
+	/**
+	 * Per-thread buffers larger than this size, in bytes, are not retained
+	 * after use.
+	 */
+	private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+
+	/**
+	 * The per-thread buffers.
+	 */
+	private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+		@Override
+		protected Buffers initialValue() {
+			return new Buffers();
+		}
+	};
+
+
+	/**
+	 * The JWS header.
+	 */
+	private final JWSHeader header;
+
+
+	/**
+	 * The JWS signer.
+	 */
+	private final JWSSigner signer;
+
+
+	/**
+	 * The Base64URL-encoded JWS header, as ASCII bytes.
+	 */
+	private final byte[] encodedHeader;
+
+
+	/**
+	 * Creates a new signed JWT minter.
+	 *
+	 * @param header The JWS header for all minted JWTs. Must not be
+	 *               {@code null}.
+	 * @param signer The JWS signer. Must support the JWS algorithm of the
+	 *               header and not be {@code null}.
+	 *
+	 * @throws JOSEException If the JWS algorithm is not supported by the
+	 *                       signer.
+	 */
+	public SignedJWTMinter(final JWSHeader header, final JWSSigner signer)
+		throws JOSEException {
+
+		if (header == null) {
+			throw new IllegalArgumentException("The JWS header must not be null");
+		}
+
+		if (signer == null) {
+			throw new IllegalArgumentException("The JWS signer must not be null");
+		}
+
+		if (! signer.supportedJWSAlgorithms().contains(header.getAlgorithm())) {
+
+			throw new JOSEException("The \"" + header.getAlgorithm() +
+			                        "\" algorithm is not allowed or supported by the JWS signer: Supported algorithms: " + signer.supportedJWSAlgorithms());
+		}
+
+		this.header = header;
+		this.signer = signer;
+		encodedHeader = header.toBase64URL().toString().getBytes(StandardCharset.UTF_8);
+	}
+
+
+	/**
+	 * Returns the JWS header for all minted JWTs.
+	 *
+	 * @return The JWS header.
+	 */
+	public JWSHeader getHeader() {
+
+		return header;
+	}
+
+
+	/**
+	 * Returns the JWS signer.
+	 *
+	 * @return The JWS signer.
+	 */
+	public JWSSigner getJWSSigner() {
+
+		return signer;
+	}
+
+
+	/**
+	 * Mints a signed JWT with the specified claims set.
+	 *
+	 * @param claimsSet The JWT claims set. Must not be {@code null}.
+	 *
+	 * @return The signed JWT in compact serialisation.
+	 *
+	 * @throws JOSEException If the JWT couldn't be signed.
+	 */
+	public String mint(final JWTClaimsSet claimsSet)
+		throws JOSEException {
+
+		final Buffers buffers = BUFFERS.get();
+
+		final JSONByteWriter json = buffers.json;
+		final JSONByteWriter out = buffers.out;
+
+		try {
+			json.reset();
+			json.writeClaimsSet(claimsSet);
+
+			// Signing input: header '.' payload
+			out.reset();
+			out.write(encodedHeader, 0, encodedHeader.length);
+			out.write((byte)'.');
+			final int payloadLength = Base64URL.computeEncodedLength(json.length());
+			out.ensureCapacity(payloadLength);
+			Base64URL.encodeInto(json.getBuffer(), 0, json.length(), out.getBuffer(), out.length());
+			final int signingInputLength = out.length() + payloadLength;
+
+			final Base64URL signature = signer.sign(header, Arrays.copyOf(out.getBuffer(), signingInputLength));
+
+			// Append '.' signature
+			final String sig = signature.toString();
+			final int length = signingInputLength + 1 + sig.length();
+			out.ensureCapacity(length - out.length());
+			final byte[] b = out.getBuffer();
+			b[signingInputLength] = '.';
+			for (int i=0, pos = signingInputLength + 1; i < sig.length(); i++) {
+				b[pos++] = (byte)sig.charAt(i);
+			}
+
+			return new String(b, 0, length, StandardCharset.UTF_8);
+
+		} finally {
+			if (json.getBuffer().length > MAX_RETAINED_BUFFER_SIZE || out.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+				BUFFERS.remove();
+			}
+		}
+	}
+
+
+	/**
+	 * Per-thread buffers.
+	 */
+	private static class Buffers {
+
+
+		/**
+		 * The claims set JSON.
+		 */
+		private final JSONByteWriter json = new JSONByteWriter(INITIAL_BUFFER_SIZE);
+
+
+		/**
+		 * The compact serialisation.
+		 */
+		private final JSONByteWriter out = new JSONByteWriter(INITIAL_BUFFER_SIZE * 2);
+	}
+}
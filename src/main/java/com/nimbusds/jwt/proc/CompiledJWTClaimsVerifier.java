@@ -0,0 +1,599 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.util.*;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+
+/**
+ * Compiled {@link JWTClaimsSetVerifier JWT claims verifier}. This class is
+ * thread-safe.
+ *
+ * <p>Performs the same checks as the {@link DefaultJWTClaimsVerifier default
+ * JWT claims verifier}, in the same order:
+ *
+ * <ol>
+ *     <li>Checks the audience (aud) claim against the accepted values, if
+ *         specified.
+ *     <li>Checks that all required claims are present.
+ *     <li>Checks that no prohibited claims are present.
+ *     <li>Checks that the exact-match claims have the expected values.
+ *     <li>If an expiration time (exp) claim is present, makes sure it is ahead
+ *         of the current time, else the JWT claims set is rejected.
+ *     <li>If a not-before-time (nbf) claim is present, makes sure it is
+ *         before the current time, else the JWT claims set is rejected.
+ * </ol>
+ *
+ * <p>The rules are compiled once, at construction time, into flat arrays of
+ * claim names and typed expected values. Verification of a JWT claims set
+ * that passes all checks does not allocate any objects: claim values are
+ * looked up individually, the audience is inspected in place, exact matches
+ * of string, integer and date claims are compared without boxing, and the
+ * time window is checked with primitive epoch time arithmetic. Objects are
+ * only created to report a rejected claims set.
+ *
+ * <p>The current time is obtained from a {@link #setClock configurable
+ * clock}, by default the {@link SystemClock system clock}. Use a
+ * {@link com.nimbusds.jose.util.CachedClock cached clock} to also avoid the
+ * system clock call on each verification.
+ *
+ * <p>Differences to the {@link DefaultJWTClaimsVerifier}:
+ *
+ * <ul>
+ *     <li>A claim set to {@code null} is regarded as not present, in line
+ *         with the {@link JWTClaimsSet#toJSONObject() JSON serialisation} of
+ *         the claims set, which omits {@code null} values.
+ *     <li>Exact-match claims with an integer value (byte, short, int or
+ *         long) match any integer value of the same magnitude, regardless of
+ *         its boxed type. Exact-match claims with a date value also match a
+ *         number of seconds since the Unix epoch.
+ *     <li>Exact-match claims with a {@code null} value are ignored.
+ * </ul>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class CompiledJWTClaimsVerifier <C extends SecurityContext> implements JWTClaimsSetVerifier<C>, ClockSkewAware {
+
+
+	/**
+	 * Exact match of a string value.
+	 */
+	private static final byte MATCH_STRING = 0;
+
+
+	/**
+	 * Exact match of an integer value.
+	 */
+	private static final byte MATCH_INTEGER = 1;
+
+
+	/**
+	 * Exact match of a date value, in milliseconds since the Unix epoch.
+	 */
+	private static final byte MATCH_DATE = 2;
+
+
+	/**
+	 * Exact match of any other value, using {@link Object#equals}.
+	 */
+	private static final byte MATCH_OBJECT = 3;
+
+
+	/**
+	 * Indicates an absent or non-date time claim.
+	 */
+	private static final long NO_TIME = Long.MIN_VALUE;
+
+
+	/**
+	 * The maximum acceptable clock skew, in seconds.
+	 */
+	private int maxClockSkew = DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS;
+
+
+	/**
+	 * The clock for obtaining the current time.
+	 */
+	private Clock clock = SystemClock.INSTANCE;
+
+
+	/**
+	 * The accepted audience values, {@code null} if not specified. A
+	 * {@code null} value present in the set allows JWTs with no audience.
+	 */
+	private final Set<String> acceptedAudienceValues;
+
+
+	/**
+	 * The JWT claims that must match exactly, empty set if none.
+	 */
+	private final JWTClaimsSet exactMatchClaims;
+
+
+	/**
+	 * The names of the JWT claims that must be present, empty set if none.
+	 */
+	private final Set<String> requiredClaims;
+
+
+	/**
+	 * The names of the JWT claims that must not be present, empty set if
+	 * none.
+	 */
+	private final Set<String> prohibitedClaims;
+
+
+	/**
+	 * The compiled accepted audience values, {@code null} if not
+	 * specified.
+	 */
+	private final String[] audienceProgram;
+
+
+	/**
+	 * {@code true} if JWTs with no audience are accepted.
+	 */
+	private final boolean acceptsNoAudience;
+
+
+	/**
+	 * The compiled names of the required claims.
+	 */
+	private final String[] requiredProgram;
+
+
+	/**
+	 * The compiled names of the prohibited claims.
+	 */
+	private final String[] prohibitedProgram;
+
+
+	/**
+	 * The compiled names of the exact-match claims.
+	 */
+	private final String[] exactMatchNames;
+
+
+	/**
+	 * The match types of the exact-match claims.
+	 */
+	private final byte[] exactMatchTypes;
+
+
+	/**
+	 * The expected string and other object values of the exact-match
+	 * claims, {@code null} for integer and date matches.
+	 */
+	private final Object[] exactMatchObjects;
+
+
+	/**
+	 * The expected integer and date values of the exact-match claims.
+	 */
+	private final long[] exactMatchLongs;
+
+
+	/**
+	 * Creates a new compiled JWT claims verifier. No audience ("aud"),
+	 * required and prohibited claims are specified. Will check the
+	 * expiration ("exp") and not-before ("nbf") times if present.
+	 */
+	public CompiledJWTClaimsVerifier() {
+		this(null, null, null, null);
+	}
+
+
+	/**
+	 * Creates a new compiled JWT claims verifier.
+	 *
+	 * @param acceptedAudience The accepted JWT audience values,
+	 *                         {@code null} if not specified. A
+	 *                         {@code null} value in the set allows JWTs
+	 *                         with no audience.
+	 * @param exactMatchClaims The JWT claims that must match exactly,
+	 *                         {@code null} if none.
+	 * @param requiredClaims   The names of the JWT claims that must be
+	 *                         present, empty set or {@code null} if none.
+	 * @param prohibitedClaims The names of the JWT claims that must not be
+	 *                         present, empty set or {@code null} if none.
+	 */
+	public CompiledJWTClaimsVerifier(final Set<String> acceptedAudience,
+					 final JWTClaimsSet exactMatchClaims,
+					 final Set<String> requiredClaims,
+					 final Set<String> prohibitedClaims) {
+
+		this.acceptedAudienceValues = acceptedAudience != null ? Collections.unmodifiableSet(new LinkedHashSet<>(acceptedAudience)) : null;
+
+		this.exactMatchClaims = exactMatchClaims != null ? exactMatchClaims : new JWTClaimsSet.Builder().build();
+
+		Set<String> requiredClaimsCopy = new LinkedHashSet<>(this.exactMatchClaims.getClaims().keySet());
+		if (acceptedAudienceValues != null && ! acceptedAudienceValues.contains(null)) {
+			// check if an explicit aud is required
+			requiredClaimsCopy.add("aud");
+		}
+		if (requiredClaims != null) {
+			requiredClaimsCopy.addAll(requiredClaims);
+		}
+		this.requiredClaims = Collections.unmodifiableSet(requiredClaimsCopy);
+
+		this.prohibitedClaims = prohibitedClaims != null ? Collections.unmodifiableSet(new LinkedHashSet<>(prohibitedClaims)) : Collections.<String>emptySet();
+
+		// Compile the audience rule
+		if (acceptedAudienceValues != null) {
+			audienceProgram = acceptedAudienceValues.toArray(new String[0]);
+			acceptsNoAudience = acceptedAudienceValues.contains(null);
+		} else {
+			audienceProgram = null;
+			acceptsNoAudience = true;
+		}
+
+		// Compile the presence rules
+		requiredProgram = this.requiredClaims.toArray(new String[0]);
+		prohibitedProgram = this.prohibitedClaims.toArray(new String[0]);
+
+		// Compile the exact-match rules, skipping null values
+		List<String> names = new ArrayList<>();
+		for (Map.Entry<String,Object> en: this.exactMatchClaims.getClaims().entrySet()) {
+			if (en.getValue() != null) {
+				names.add(en.getKey());
+			}
+		}
+
+		exactMatchNames = names.toArray(new String[0]);
+		exactMatchTypes = new byte[exactMatchNames.length];
+		exactMatchObjects = new Object[exactMatchNames.length];
+		exactMatchLongs = new long[exactMatchNames.length];
+
+		for (int i=0; i < exactMatchNames.length; i++) {
+
+			Object expected = this.exactMatchClaims.getClaim(exactMatchNames[i]);
+
+			if (expected instanceof String) {
+				exactMatchTypes[i] = MATCH_STRING;
+				exactMatchObjects[i] = expected;
+			} else if (isInteger(expected)) {
+				exactMatchTypes[i] = MATCH_INTEGER;
+				exactMatchLongs[i] = ((Number)expected).longValue();
+			} else if (expected instanceof Date) {
+				exactMatchTypes[i] = MATCH_DATE;
+				exactMatchLongs[i] = ((Date)expected).getTime();
+			} else {
+				exactMatchTypes[i] = MATCH_OBJECT;
+				exactMatchObjects[i] = expected;
+			}
+		}
+	}
+
+
+	/**
+	 * Compiles the rules of the specified default JWT claims verifier,
+	 * including its maximum acceptable clock skew and clock.
+	 *
+	 * @param verifier The default JWT claims verifier. Must not be
+	 *                 {@code null}.
+	 *
+	 * @return The compiled JWT claims verifier.
+	 */
+	public static <C extends SecurityContext> CompiledJWTClaimsVerifier<C> compile(final DefaultJWTClaimsVerifier<C> verifier) {
+
+		CompiledJWTClaimsVerifier<C> compiled = new CompiledJWTClaimsVerifier<>(
+			verifier.getAcceptedAudienceValues(),
+			verifier.getExactMatchClaims(),
+			verifier.getRequiredClaims(),
+			verifier.getProhibitedClaims());
+		compiled.setMaxClockSkew(verifier.getMaxClockSkew());
+		compiled.setClock(verifier.getClock());
+		return compiled;
+	}
+
+
+	/**
+	 * Returns the accepted audience values.
+	 *
+	 * @return The accepted JWT audience values, {@code null} if not
+	 *         specified. A {@code null} value in the set allows JWTs with
+	 *         no audience.
+	 */
+	public Set<String> getAcceptedAudienceValues() {
+		return acceptedAudienceValues;
+	}
+
+
+	/**
+	 * Returns the JWT claims that must match exactly.
+	 *
+	 * @return The JWT claims that must match exactly, empty set if none.
+	 */
+	public JWTClaimsSet getExactMatchClaims() {
+		return exactMatchClaims;
+	}
+
+
+	/**
+	 * Returns the names of the JWT claims that must be present, including
+	 * the name of those that must match exactly.
+	 *
+	 * @return The names of the JWT claims that must be present, empty set
+	 *         if none.
+	 */
+	public Set<String> getRequiredClaims() {
+		return requiredClaims;
+	}
+
+
+	/**
+	 * Returns the names of the JWT claims that must not be present.
+	 *
+	 * @return The names of the JWT claims that must not be present, empty
+	 *         set if none.
+	 */
+	public Set<String> getProhibitedClaims() {
+		return prohibitedClaims;
+	}
+
+
+	@Override
+	public int getMaxClockSkew() {
+		return maxClockSkew;
+	}
+
+
+	@Override
+	public void setMaxClockSkew(final int maxClockSkewSeconds) {
+		maxClockSkew = maxClockSkewSeconds;
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+
+	/**
+	 * Sets the clock for obtaining the current time.
+	 *
+	 * @param clock The clock. Must not be {@code null}.
+	 */
+	public void setClock(final Clock clock) {
+		if (clock == null) {
+			throw new IllegalArgumentException("The clock must not be null");
+		}
+		this.clock = clock;
+	}
+
+
+	@Override
+	public void verify(final JWTClaimsSet claimsSet, final C context)
+		throws BadJWTException {
+
+		// Check audience
+		if (audienceProgram != null) {
+			verifyAudience(claimsSet.getClaim("aud"));
+		}
+
+		// Check if all required claims are present
+		for (String name: requiredProgram) {
+			if (claimsSet.getClaim(name) == null) {
+				throw new BadJWTException("JWT missing required claims: " + collectClaims(claimsSet, requiredProgram, false));
+			}
+		}
+
+		// Check if prohibited claims are present
+		for (String name: prohibitedProgram) {
+			if (claimsSet.getClaim(name) != null) {
+				throw new BadJWTException("JWT has prohibited claims: " + collectClaims(claimsSet, prohibitedProgram, true));
+			}
+		}
+
+		// Check exact matches
+		for (int i=0; i < exactMatchNames.length; i++) {
+			Object value = claimsSet.getClaim(exactMatchNames[i]);
+			if (! matches(i, value)) {
+				throw new BadJWTException("JWT \"" + exactMatchNames[i] + "\" claim doesn't match expected value: " + value);
+			}
+		}
+
+		// Check time window
+		final long now = clock.currentTimeMillis();
+		final long skew = maxClockSkew * 1000L;
+
+		final long exp = toEpochMillis(claimsSet.getClaim("exp"));
+		if (exp != NO_TIME && exp + skew <= now) {
+			throw new BadJWTException("Expired JWT");
+		}
+
+		final long nbf = toEpochMillis(claimsSet.getClaim("nbf"));
+		if (nbf != NO_TIME && nbf - skew >= now) {
+			throw new BadJWTException("JWT before use time");
+		}
+	}
+
+
+	/**
+	 * Verifies the specified audience (aud) claim value.
+	 *
+	 * @param aud The audience claim value, {@code null} if not specified.
+	 *
+	 * @throws BadJWTException If the audience is rejected.
+	 */
+	private void verifyAudience(final Object aud)
+		throws BadJWTException {
+
+		if (aud instanceof String) {
+			if (! isAcceptedAudience(aud)) {
+				throw new BadJWTException("JWT audience rejected: " + Collections.singletonList(aud));
+			}
+			return;
+		}
+
+		if (aud instanceof List && ! ((List<?>)aud).isEmpty()) {
+
+			List<?> audList = (List<?>)aud;
+			boolean audMatch = false;
+			boolean audValid = true;
+			for (int i=0; i < audList.size(); i++) {
+				Object value = audList.get(i);
+				if (value != null && ! (value instanceof String)) {
+					// Not a list of strings, treat as no audience
+					audValid = false;
+					break;
+				}
+				if (! audMatch && isAcceptedAudience(value)) {
+					audMatch = true;
+				}
+			}
+
+			if (audValid) {
+				if (! audMatch) {
+					throw new BadJWTException("JWT audience rejected: " + audList);
+				}
+				return;
+			}
+		}
+
+		if (! acceptsNoAudience) {
+			throw new BadJWTException("JWT missing required audience");
+		}
+	}
+
+
+	/**
+	 * Checks if the specified audience value is accepted.
+	 *
+	 * @param aud The audience value, may be {@code null}.
+	 *
+	 * @return {@code true} if the audience value is accepted, else
+	 *         {@code false}.
+	 */
+	private boolean isAcceptedAudience(final Object aud) {
+
+		for (String accepted: audienceProgram) {
+			if (accepted == null ? aud == null : accepted.equals(aud)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Checks if the specified claim value matches the expected value of
+	 * the exact-match rule at the specified index.
+	 *
+	 * @param i     The index of the exact-match rule.
+	 * @param value The claim value, {@code null} if not specified.
+	 *
+	 * @return {@code true} if the claim value matches, else
+	 *         {@code false}.
+	 */
+	private boolean matches(final int i, final Object value) {
+
+		switch (exactMatchTypes[i]) {
+			case MATCH_STRING:
+				return exactMatchObjects[i].equals(value);
+			case MATCH_INTEGER:
+				return isInteger(value) && ((Number)value).longValue() == exactMatchLongs[i];
+			case MATCH_DATE:
+				long time = toEpochMillis(value);
+				return time != NO_TIME && time == exactMatchLongs[i];
+			default:
+				return exactMatchObjects[i].equals(value);
+		}
+	}
+
+
+	/**
+	 * Returns the names of the claims that are present or missing in the
+	 * specified JWT claims set.
+	 *
+	 * @param claimsSet The JWT claims set.
+	 * @param names     The claim names to check.
+	 * @param present   {@code true} to return the present claims,
+	 *                  {@code false} to return the missing claims.
+	 *
+	 * @return The claim names.
+	 */
+	private static List<String> collectClaims(final JWTClaimsSet claimsSet,
+						  final String[] names,
+						  final boolean present) {
+
+		List<String> out = new ArrayList<>();
+		for (String name: names) {
+			if ((claimsSet.getClaim(name) != null) == present) {
+				out.add(name);
+			}
+		}
+		return out;
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified value is a byte, short,
+	 * integer or long.
+	 *
+	 * @param value The value, may be {@code null}.
+	 *
+	 * @return {@code true} if the value is an integer, else
+	 *         {@code false}.
+	 */
+	private static boolean isInteger(final Object value) {
+
+		return value instanceof Integer ||
+			value instanceof Long ||
+			value instanceof Short ||
+			value instanceof Byte;
+	}
+
+
+	/**
+	 * Converts the specified date claim value to milliseconds since the
+	 * Unix epoch. The claim may be represented by a date object or a number
+	 * of seconds since the Unix epoch.
+	 *
+	 * @param value The claim value, may be {@code null}.
+	 *
+	 * @return The milliseconds since the Unix epoch, {@link #NO_TIME} if
+	 *         the value is {@code null} or not a date.
+	 */
+	private static long toEpochMillis(final Object value) {
+
+		if (value instanceof Date) {
+			return ((Date)value).getTime();
+		} else if (value instanceof Number) {
+			return ((Number)value).longValue() * 1000L;
+		} else {
+			return NO_TIME;
+		}
+	}
+}
@@ -23,6 +23,8 @@ import java.util.*;
 import net.jcip.annotations.ThreadSafe;
 
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.util.DateUtils;
 
@@ -40,10 +42,13 @@ import com.nimbusds.jwt.util.DateUtils;
  *         before the current time, else the JWT claims set is rejected.
  * </ol>
  *
+ * <p>The current time is obtained from a {@link #setClock configurable
+ * clock}, by default the {@link SystemClock system clock}.
+ *
  * <p>This class may be extended to perform additional checks.
  *
  * @author Vladimir Dzhuvinov
- * @version 2019-10-17
+ * @version 2026-10-19
  */
 @ThreadSafe
 public class DefaultJWTClaimsVerifier <C extends SecurityContext> implements JWTClaimsSetVerifier<C>, JWTClaimsVerifier, ClockSkewAware {
@@ -59,6 +64,12 @@ public class DefaultJWTClaimsVerifier <C extends SecurityContext> implements JWT
 	 * The maximum acceptable clock skew, in seconds.
 	 */
 	private int maxClockSkew = DEFAULT_MAX_CLOCK_SKEW_SECONDS;
+
+
+	/**
+	 * The clock for obtaining the current time.
+	 */
+	private Clock clock = SystemClock.INSTANCE;
 	
 	
 	/**
@@ -227,6 +238,29 @@ public class DefaultJWTClaimsVerifier <C extends SecurityContext> implements JWT
 	public void setMaxClockSkew(final int maxClockSkewSeconds) {
 		maxClockSkew = maxClockSkewSeconds;
 	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+
+	/**
+	 * Sets the clock for obtaining the current time.
+	 *
+	 * @param clock The clock. Must not be {@code null}.
+	 */
+	public void setClock(final Clock clock) {
+		if (clock == null) {
+			throw new IllegalArgumentException("The clock must not be null");
+		}
+		this.clock = clock;
+	}
 	
 	
 	@Override
@@ -287,12 +321,12 @@ public class DefaultJWTClaimsVerifier <C extends SecurityContext> implements JWT
 		}
 		
 		// Check time window
-		final Date now = new Date();
+		final long now = clock.currentTimeMillis();
 		
 		final Date exp = claimsSet.getExpirationTime();
 		if (exp != null) {
 			
-			if (! DateUtils.isAfter(exp, now, maxClockSkew)) {
+			if (! DateUtils.isAfter(exp.getTime(), now, maxClockSkew)) {
 				throw new BadJWTException("Expired JWT");
 			}
 		}
@@ -300,7 +334,7 @@ public class DefaultJWTClaimsVerifier <C extends SecurityContext> implements JWT
 		final Date nbf = claimsSet.getNotBeforeTime();
 		if (nbf != null) {
 			
-			if (! DateUtils.isBefore(nbf, now, maxClockSkew)) {
+			if (! DateUtils.isBefore(nbf.getTime(), now, maxClockSkew)) {
 				throw new BadJWTException("JWT before use time");
 			}
 		}
@@ -0,0 +1,574 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.util.StandardCharset;
+
+
+/**
+ * Default JSON Web Token (JWT) ID replay cache. This class is thread-safe.
+ *
+ * <p>The cache is a fixed-size, set-associative hash table held in a
+ * {@link ByteBuffer}, which can be on the Java heap, off-heap (direct) or
+ * memory-mapped to a file. Memory use is therefore bounded and independent of
+ * the number of processed JWTs.
+ *
+ * <ul>
+ *     <li>Each JWT ID is identified by the first 128 bits of the SHA-256
+ *         hash of its issuer and value, each length-prefixed, with a
+ *         missing issuer distinct from an empty one.
+ *     <li>Each entry occupies a {@link #SLOT_SIZE 24 byte} slot in one of two
+ *         candidate sets of {@link #WAYS 8} slots, selected by the hash.
+ *     <li>Entries expire in time buckets of configurable width, aligned to
+ *         the expiration time of the JWT. An entry is retained at least until
+ *         its expiration time and at most one bucket longer. Slots of
+ *         expired entries are reused for new entries, no purging is
+ *         required.
+ *     <li>The sets are guarded by striped locks, so that concurrent
+ *         additions of different JWT IDs rarely contend.
+ * </ul>
+ *
+ * <p>When both candidate sets of a JWT ID are filled with unexpired entries
+ * the cache is full and {@link #add} throws an {@link IllegalStateException}.
+ * To keep this unlikely the capacity should be about twice the expected
+ * number of JWTs issued within their lifetime.
+ *
+ * <p>A memory-mapped cache {@link #createMemoryMapped created} for an existing
+ * file with the same capacity and bucket width retains its entries across
+ * restarts. The file starts with a header recording the format version, the
+ * capacity and the bucket width, the entries of a file with a different
+ * header are cleared.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class DefaultJWTIDReplayCache implements JWTIDReplayCache {
+
+
+	/**
+	 * The default bucket width, in seconds (60).
+	 */
+	public static final int DEFAULT_BUCKET_SECONDS = 60;
+
+
+	/**
+	 * The number of slots in a set.
+	 */
+	public static final int WAYS = 8;
+
+
+	/**
+	 * The slot size, in bytes: 16 bytes hash, 8 bytes expiration bucket.
+	 */
+	public static final int SLOT_SIZE = 24;
+
+
+	/**
+	 * The magic number at the start of a memory-mapped cache file
+	 * ("JTIR").
+	 */
+	private static final int FILE_MAGIC = 0x4A544952;
+
+
+	/**
+	 * The format version of a memory-mapped cache file.
+	 */
+	private static final int FILE_VERSION = 1;
+
+
+	/**
+	 * The header size of a memory-mapped cache file, in bytes: magic
+	 * number, format version, capacity and bucket width, 4 bytes each.
+	 */
+	private static final int FILE_HEADER_SIZE = 16;
+
+
+	/**
+	 * The number of sets.
+	 */
+	private final int sets;
+
+
+	/**
+	 * The bucket width, in milliseconds.
+	 */
+	private final long bucketMillis;
+
+
+	/**
+	 * The hash table.
+	 */
+	private final ByteBuffer table;
+
+
+	/**
+	 * The striped locks guarding the sets.
+	 */
+	private final Object[] locks;
+
+
+	/**
+	 * Per-thread SHA-256 digest and output buffer.
+	 */
+	private static final ThreadLocal<Hasher> HASHER = new ThreadLocal<Hasher>() {
+		@Override
+		protected Hasher initialValue() {
+			return new Hasher();
+		}
+	};
+
+
+	/**
+	 * Creates a new JWT ID replay cache on the Java heap, with the default
+	 * bucket width.
+	 *
+	 * @param capacity The capacity, in JWT IDs. Must be positive.
+	 */
+	public DefaultJWTIDReplayCache(final int capacity) {
+
+		this(capacity, DEFAULT_BUCKET_SECONDS, ByteBuffer.allocate(getRequiredBufferSize(capacity)));
+	}
+
+
+	/**
+	 * Creates a new JWT ID replay cache backed by the specified buffer.
+	 *
+	 * @param capacity      The capacity, in JWT IDs. Must be positive.
+	 * @param bucketSeconds The bucket width, in seconds. Must be
+	 *                      positive.
+	 * @param buffer        The buffer, starting at its current position.
+	 *                      Must have at least
+	 *                      {@link #getRequiredBufferSize} bytes
+	 *                      remaining. Must not be {@code null}.
+	 */
+	public DefaultJWTIDReplayCache(final int capacity,
+				       final int bucketSeconds,
+				       final ByteBuffer buffer) {
+
+		if (bucketSeconds < 1) {
+			throw new IllegalArgumentException("The bucket width must be at least one second");
+		}
+
+		int requiredSize = getRequiredBufferSize(capacity);
+
+		if (buffer == null || buffer.remaining() < requiredSize) {
+			throw new IllegalArgumentException("The buffer must have at least " + requiredSize + " bytes remaining");
+		}
+
+		sets = getSetCount(capacity);
+		bucketMillis = bucketSeconds * 1000L;
+
+		ByteBuffer slice = buffer.slice();
+		((Buffer) slice).limit(requiredSize);
+		table = slice;
+
+		locks = new Object[Math.min(sets, Math.max(16, 4 * Runtime.getRuntime().availableProcessors()))];
+		for (int i=0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+
+	/**
+	 * Creates a new off-heap JWT ID replay cache, backed by a direct
+	 * buffer.
+	 *
+	 * @param capacity      The capacity, in JWT IDs. Must be positive.
+	 * @param bucketSeconds The bucket width, in seconds. Must be
+	 *                      positive.
+	 *
+	 * @return The JWT ID replay cache.
+	 */
+	public static DefaultJWTIDReplayCache createOffHeap(final int capacity, final int bucketSeconds) {
+
+		return new DefaultJWTIDReplayCache(capacity, bucketSeconds, ByteBuffer.allocateDirect(getRequiredBufferSize(capacity)));
+	}
+
+
+	/**
+	 * Creates a new JWT ID replay cache, memory-mapped to the specified
+	 * file. The file is created or extended as necessary. Entries in an
+	 * existing file are retained if its header records the same format
+	 * version, capacity and bucket width, else they are cleared and the
+	 * header is rewritten.
+	 *
+	 * @param file          The file. Must not be {@code null}.
+	 * @param capacity      The capacity, in JWT IDs. Must be positive.
+	 * @param bucketSeconds The bucket width, in seconds. Must be
+	 *                      positive.
+	 *
+	 * @return The JWT ID replay cache.
+	 *
+	 * @throws IOException If the file couldn't be mapped, or is not
+	 *                     empty and not a JWT ID replay cache file.
+	 */
+	public static DefaultJWTIDReplayCache createMemoryMapped(final File file,
+								 final int capacity,
+								 final int bucketSeconds)
+		throws IOException {
+
+		int size = FILE_HEADER_SIZE + getRequiredBufferSize(capacity);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		     FileChannel channel = raf.getChannel()) {
+
+			final boolean isNewFile = channel.size() == 0L;
+
+			if (! isNewFile) {
+				ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+				while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+					// Read the complete header
+				}
+				if (header.hasRemaining() || header.getInt(0) != FILE_MAGIC) {
+					throw new IOException("Not a JWT ID replay cache file: " + file);
+				}
+			}
+
+			// The mapping remains valid after the channel is closed
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			((Buffer) mapped).position(FILE_HEADER_SIZE);
+
+			DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(capacity, bucketSeconds, mapped);
+
+			final boolean headerMatches =
+				! isNewFile &&
+				mapped.getInt(4) == FILE_VERSION &&
+				mapped.getInt(8) == cache.getCapacity() &&
+				mapped.getInt(12) == bucketSeconds;
+
+			if (! headerMatches) {
+				// Clear the entries, then write the header
+				for (int offset = FILE_HEADER_SIZE; offset < size; offset += 8) {
+					mapped.putLong(offset, 0L);
+				}
+				mapped.putInt(0, FILE_MAGIC);
+				mapped.putInt(4, FILE_VERSION);
+				mapped.putInt(8, cache.getCapacity());
+				mapped.putInt(12, bucketSeconds);
+			}
+
+			return cache;
+		}
+	}
+
+
+	/**
+	 * Returns the buffer size required for a JWT ID replay cache with the
+	 * specified capacity.
+	 *
+	 * @param capacity The capacity, in JWT IDs. Must be positive.
+	 *
+	 * @return The buffer size, in bytes.
+	 */
+	public static int getRequiredBufferSize(final int capacity) {
+
+		long size = (long)getSetCount(capacity) * WAYS * SLOT_SIZE;
+
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The capacity is too large: " + capacity);
+		}
+
+		return (int)size;
+	}
+
+
+	/**
+	 * Returns the number of sets for the specified capacity.
+	 *
+	 * @param capacity The capacity, in JWT IDs. Must be positive.
+	 *
+	 * @return The number of sets.
+	 */
+	private static int getSetCount(final int capacity) {
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+
+		return (capacity + WAYS - 1) / WAYS;
+	}
+
+
+	/**
+	 * Returns the bucket width.
+	 *
+	 * @return The bucket width, in seconds.
+	 */
+	public int getBucketSeconds() {
+
+		return (int)(bucketMillis / 1000L);
+	}
+
+
+	@Override
+	public int getCapacity() {
+
+		return sets * WAYS;
+	}
+
+
+	/**
+	 * Returns the time bucket for the specified time.
+	 *
+	 * @param time The time, in milliseconds since the Unix epoch.
+	 *
+	 * @return The bucket, positive for times since the Unix epoch.
+	 */
+	private long toBucket(final long time) {
+
+		return time / bucketMillis + 1L;
+	}
+
+
+	@Override
+	public boolean add(final String issuer,
+			   final String jti,
+			   final long expirationTime,
+			   final long now) {
+
+		final long currentBucket = toBucket(now);
+		final long expirationBucket = toBucket(expirationTime);
+
+		if (expirationBucket < currentBucket) {
+			// Expired, nothing to record
+			return true;
+		}
+
+		final Hasher hasher = HASHER.get();
+		hasher.hash(issuer, jti);
+		final long h0 = hasher.h0;
+		final long h1 = hasher.h1;
+
+		final int set0 = (int)((h0 >>> 1) % sets);
+		final int set1 = (int)((h1 >>> 1) % sets);
+
+		// Lock the stripes in a consistent order
+		final int stripe0 = set0 % locks.length;
+		final int stripe1 = set1 % locks.length;
+
+		synchronized (locks[Math.min(stripe0, stripe1)]) {
+			synchronized (locks[Math.max(stripe0, stripe1)]) {
+
+				// Check both candidate sets for a replay
+				int free0 = findFreeSlotOrReplay(set0, h0, h1, currentBucket);
+				if (free0 == REPLAY) {
+					return false;
+				}
+				int free1 = set1 != set0 ? findFreeSlotOrReplay(set1, h0, h1, currentBucket) : free0;
+				if (free1 == REPLAY) {
+					return false;
+				}
+
+				int slot = free0 != FULL ? free0 : free1;
+
+				if (slot == FULL) {
+					throw new IllegalStateException("JWT ID replay cache full");
+				}
+
+				table.putLong(slot, h0);
+				table.putLong(slot + 8, h1);
+				table.putLong(slot + 16, expirationBucket);
+				return true;
+			}
+		}
+	}
+
+
+	/**
+	 * Indicates a recorded, unexpired JWT ID.
+	 */
+	private static final int REPLAY = -1;
+
+
+	/**
+	 * Indicates no free slot in a set.
+	 */
+	private static final int FULL = -2;
+
+
+	/**
+	 * Searches the specified set for the specified hash and for a free
+	 * slot. Must be called with the stripe lock of the set held.
+	 *
+	 * @param set           The set index.
+	 * @param h0            The high 64 bits of the hash.
+	 * @param h1            The low 64 bits of the hash.
+	 * @param currentBucket The current time bucket.
+	 *
+	 * @return {@link #REPLAY} if the hash is recorded and unexpired, else
+	 *         the offset of the first empty or expired slot, or
+	 *         {@link #FULL} if none.
+	 */
+	private int findFreeSlotOrReplay(final int set,
+					 final long h0,
+					 final long h1,
+					 final long currentBucket) {
+
+		final int base = set * WAYS * SLOT_SIZE;
+		int free = FULL;
+
+		for (int i=0; i < WAYS; i++) {
+
+			final int offset = base + i * SLOT_SIZE;
+			final long bucket = table.getLong(offset + 16);
+
+			if (bucket < currentBucket) {
+				// Empty (zero) or expired
+				if (free == FULL) {
+					free = offset;
+				}
+			} else if (table.getLong(offset) == h0 && table.getLong(offset + 8) == h1) {
+				return REPLAY;
+			}
+		}
+
+		return free;
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Scans the entire table, intended for monitoring only.
+	 */
+	@Override
+	public int size(final long now) {
+
+		final long currentBucket = toBucket(now);
+		int count = 0;
+
+		for (int stripe=0; stripe < locks.length; stripe++) {
+			synchronized (locks[stripe]) {
+				for (int set=stripe; set < sets; set += locks.length) {
+					final int base = set * WAYS * SLOT_SIZE;
+					for (int i=0; i < WAYS; i++) {
+						if (table.getLong(base + i * SLOT_SIZE + 16) >= currentBucket) {
+							count++;
+						}
+					}
+				}
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * Per-thread SHA-256 hasher of JWT IDs.
+	 */
+	private static class Hasher {
+
+
+		/**
+		 * The SHA-256 digest.
+		 */
+		private final MessageDigest digest;
+
+
+		/**
+		 * The digest output buffer.
+		 */
+		private final byte[] out = new byte[32];
+
+
+		/**
+		 * The high and low 64 bits of the last hash.
+		 */
+		private long h0, h1;
+
+
+		private Hasher() {
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
+
+
+		/**
+		 * Hashes the specified issuer and JWT ID.
+		 *
+		 * @param issuer The issuer, {@code null} if not specified.
+		 * @param jti    The JWT ID. Must not be {@code null}.
+		 */
+		private void hash(final String issuer, final String jti) {
+
+			// Presence byte and length prefixes, so that distinct
+			// (iss, jti) pairs never produce the same digest input
+			if (issuer != null) {
+				digest.update((byte)1);
+				update(issuer.getBytes(StandardCharset.UTF_8));
+			} else {
+				digest.update((byte)0);
+			}
+			update(jti.getBytes(StandardCharset.UTF_8));
+
+			try {
+				digest.digest(out, 0, out.length);
+			} catch (DigestException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+
+			h0 = toLong(out, 0);
+			h1 = toLong(out, 8);
+		}
+
+
+		/**
+		 * Updates the digest with the length of the specified bytes,
+		 * as 4 bytes big-endian, followed by the bytes.
+		 *
+		 * @param bytes The bytes.
+		 */
+		private void update(final byte[] bytes) {
+
+			digest.update((byte)(bytes.length >>> 24));
+			digest.update((byte)(bytes.length >>> 16));
+			digest.update((byte)(bytes.length >>> 8));
+			digest.update((byte)bytes.length);
+			digest.update(bytes);
+		}
+
+
+		private static long toLong(final byte[] b, final int offset) {
+
+			long l = 0;
+			for (int i=offset; i < offset + 8; i++) {
+				l = (l << 8) | (b[i] & 0xFF);
+			}
+			return l;
+		}
+	}
+}
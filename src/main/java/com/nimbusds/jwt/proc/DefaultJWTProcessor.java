@@ -23,6 +23,8 @@ import java.text.ParseException;
 import java.util.List;
 import java.util.ListIterator;
 
+import net.minidev.json.JSONObject;
+
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.factories.DefaultJWEDecrypterFactory;
 import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
@@ -82,11 +84,15 @@ import com.nimbusds.jwt.*;
  * verifier may be extended to perform additional checks, such as issuer and
  * subject acceptance.
  *
+ * <p>An optional {@link #setJWEDecryptionCache JWE decryption cache} can be
+ * set to return the payload of a previously decrypted JWT without decrypting
+ * it again. The claims are still verified.
+ *
  * <p>To process generic JOSE objects (with arbitrary payloads) use the
  * {@link com.nimbusds.jose.proc.DefaultJOSEProcessor} class.
  *
  * @author Vladimir Dzhuvinov
- * @version 2019-10-15
+ * @version 2026-10-19
  */
 public class DefaultJWTProcessor<C extends SecurityContext> implements ConfigurableJWTProcessor<C> {
 
@@ -134,6 +140,12 @@ public class DefaultJWTProcessor<C extends SecurityContext> implements Configura
 	private JWEDecrypterFactory jweDecrypterFactory = new DefaultJWEDecrypterFactory();
 
 
+	/**
+	 * The optional JWE decryption cache.
+	 */
+	private JWEDecryptionCache jweDecryptionCache;
+
+
 	/**
 	 * The claims verifier.
 	 */
@@ -242,6 +254,43 @@ public class DefaultJWTProcessor<C extends SecurityContext> implements Configura
 
 		jweDecrypterFactory = factory;
 	}
+
+
+	/**
+	 * Gets the cache of the payloads of successfully decrypted JWTs.
+	 *
+	 * @return The JWE decryption cache, {@code null} if not specified.
+	 */
+	public JWEDecryptionCache getJWEDecryptionCache() {
+
+		return jweDecryptionCache;
+	}
+
+
+	/**
+	 * Sets the cache of the payloads of successfully decrypted JWTs. The
+	 * JWE key selector is still called for every JWT and a cached payload
+	 * is returned only if the JWT was previously decrypted with one of
+	 * the selected key candidates, so that context-dependent key
+	 * selection and key rotation take effect immediately, also for a
+	 * cache shared between processors. Only the key unwrapping and the
+	 * content decryption are skipped. The JWE header "typ" (type) and
+	 * the claims are still verified and a nested signed JWT still
+	 * processed.
+	 *
+	 * <p>On a cache hit the passed encrypted JWT is not decrypted, it
+	 * remains in the {@link JWEObject.State#ENCRYPTED encrypted} state
+	 * without a payload, whereas on a cache miss it ends up
+	 * {@link JWEObject.State#DECRYPTED decrypted}. Callers should use the
+	 * returned claims set and not the payload of the encrypted JWT.
+	 *
+	 * @param jweDecryptionCache The JWE decryption cache, {@code null} if
+	 *                           not specified (disables caching).
+	 */
+	public void setJWEDecryptionCache(final JWEDecryptionCache jweDecryptionCache) {
+
+		this.jweDecryptionCache = jweDecryptionCache;
+	}
 	
 	
 	@Override
@@ -288,6 +337,23 @@ public class DefaultJWTProcessor<C extends SecurityContext> implements Configura
 	}
 
 
+	private JWTClaimsSet extractJWTClaimsSet(final Payload payload)
+		throws BadJWTException {
+
+		JSONObject json = payload.toJSONObject();
+
+		if (json == null) {
+			throw new BadJWTException("Payload of JWE object is not a valid JSON object");
+		}
+
+		try {
+			return JWTClaimsSet.parse(json);
+		} catch (ParseException e) {
+			throw new BadJWTException(e.getMessage(), e);
+		}
+	}
+
+
 	private JWTClaimsSet verifyClaims(final JWTClaimsSet claimsSet, final C context)
 		throws BadJWTException {
 		
@@ -435,11 +501,90 @@ public class DefaultJWTProcessor<C extends SecurityContext> implements Configura
 			throw new BadJOSEException("Encrypted JWT rejected: Another algorithm expected, or no matching key(s) found");
 		}
 
+		Payload payload = getCachedPayload(encryptedJWT, keyCandidates);
+
+		if (payload == null) {
+
+			Key key = decrypt(encryptedJWT, keyCandidates);
+			payload = encryptedJWT.getPayload();
+
+			if (jweDecryptionCache != null) {
+				jweDecryptionCache.put(encryptedJWT, key, payload);
+			}
+		}
+
+		if ("JWT".equalsIgnoreCase(encryptedJWT.getHeader().getContentType())) {
+
+			// Handle nested signed JWT, see http://tools.ietf.org/html/rfc7519#section-5.2
+			SignedJWT signedJWTPayload = payload.toSignedJWT();
+
+			if (signedJWTPayload == null) {
+				// Cannot parse payload to signed JWT
+				throw new BadJWTException("The payload is not a nested signed JWT");
+			}
+
+			return process(signedJWTPayload, context);
+		}
+
+		JWTClaimsSet claimsSet = extractJWTClaimsSet(payload);
+		return verifyClaims(claimsSet, context);
+	}
+
+
+	/**
+	 * Gets the cached payload of the specified encrypted JWT, if it was
+	 * previously decrypted with one of the specified key candidates.
+	 *
+	 * @param encryptedJWT  The encrypted JWT. Must not be {@code null}.
+	 * @param keyCandidates The key candidates from the JWE key selector.
+	 *                      Must not be {@code null}.
+	 *
+	 * @return The cached payload, {@code null} if none or no JWE
+	 *         decryption cache is configured.
+	 */
+	private Payload getCachedPayload(final EncryptedJWT encryptedJWT, final List<? extends Key> keyCandidates) {
+
+		if (jweDecryptionCache == null) {
+			return null;
+		}
+
+		for (Key key: keyCandidates) {
+
+			Payload payload = jweDecryptionCache.get(encryptedJWT, key);
+
+			if (payload != null) {
+				return payload;
+			}
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Decrypts the specified encrypted JWT with the specified key
+	 * candidates.
+	 *
+	 * @param encryptedJWT  The encrypted JWT. Must not be {@code null}.
+	 * @param keyCandidates The key candidates from the JWE key selector.
+	 *                      Must not be empty or {@code null}.
+	 *
+	 * @return The key which decrypted the JWT.
+	 *
+	 * @throws BadJOSEException If no key candidate could decrypt the JWT.
+	 * @throws JOSEException    If an internal processing exception is
+	 *                          encountered.
+	 */
+	private Key decrypt(final EncryptedJWT encryptedJWT, final List<? extends Key> keyCandidates)
+		throws BadJOSEException, JOSEException {
+
 		ListIterator<? extends Key> it = keyCandidates.listIterator();
 
 		while (it.hasNext()) {
 
-			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(encryptedJWT.getHeader(), it.next());
+			Key key = it.next();
+
+			JWEDecrypter decrypter = getJWEDecrypterFactory().createJWEDecrypter(encryptedJWT.getHeader(), key);
 
 			if (decrypter == null) {
 				continue;
@@ -459,21 +604,7 @@ public class DefaultJWTProcessor<C extends SecurityContext> implements Configura
 				throw new BadJWEException("Encrypted JWT rejected: " + e.getMessage(), e);
 			}
 
-			if ("JWT".equalsIgnoreCase(encryptedJWT.getHeader().getContentType())) {
-
-				// Handle nested signed JWT, see http://tools.ietf.org/html/rfc7519#section-5.2
-				SignedJWT signedJWTPayload = encryptedJWT.getPayload().toSignedJWT();
-
-				if (signedJWTPayload == null) {
-					// Cannot parse payload to signed JWT
-					throw new BadJWTException("The payload is not a nested signed JWT");
-				}
-
-				return process(signedJWTPayload, context);
-			}
-
-			JWTClaimsSet claimsSet = extractJWTClaimsSet(encryptedJWT);
-			return verifyClaims(claimsSet, context);
+			return key;
 		}
 
 		throw new BadJOSEException("Encrypted JWT rejected: No matching decrypter(s) found");
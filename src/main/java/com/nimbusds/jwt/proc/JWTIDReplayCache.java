@@ -0,0 +1,78 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+/**
+ * Cache of JSON Web Token (JWT) IDs for detecting replayed JWTs. Records each
+ * JWT ID, scoped by issuer, until the JWT expires. Used by the
+ * {@link JWTIDReplayVerifier}.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+public interface JWTIDReplayCache {
+
+
+	/**
+	 * Records the specified JWT ID, unless already recorded and not
+	 * expired. A JWT ID with an expiration time in the past need not be
+	 * recorded, the caller must reject the expired JWT itself.
+	 *
+	 * @param issuer         The JWT issuer (iss), {@code null} if not
+	 *                       specified.
+	 * @param jti            The JWT ID (jti). Must not be {@code null}.
+	 * @param expirationTime The time until which the JWT ID must be
+	 *                       retained, in milliseconds since the Unix
+	 *                       epoch. Typically the JWT expiration time
+	 *                       plus the maximum acceptable clock skew.
+	 * @param now            The current time, in milliseconds since the
+	 *                       Unix epoch.
+	 *
+	 * @return {@code true} if the JWT ID was recorded, {@code false} if
+	 *         it was already recorded (replay).
+	 *
+	 * @throws IllegalStateException If the cache has no space left to
+	 *                               record the JWT ID.
+	 */
+	boolean add(final String issuer,
+		    final String jti,
+		    final long expirationTime,
+		    final long now);
+
+
+	/**
+	 * Returns the number of recorded JWT IDs which haven't expired yet.
+	 *
+	 * @param now The current time, in milliseconds since the Unix epoch.
+	 *
+	 * @return The number of recorded JWT IDs.
+	 */
+	int size(final long now);
+
+
+	/**
+	 * Returns the maximum number of JWT IDs the cache can hold.
+	 *
+	 * @return The capacity.
+	 */
+	int getCapacity();
+}
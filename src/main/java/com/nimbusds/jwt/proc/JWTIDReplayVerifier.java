@@ -0,0 +1,215 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.util.Date;
+
+import net.jcip.annotations.ThreadSafe;
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+
+/**
+ * JSON Web Token (JWT) ID replay verifier. Decorates a
+ * {@link JWTClaimsSetVerifier JWT claims verifier} to reject JWTs with a
+ * previously seen JWT ID (jti) from the same issuer (iss). This class is
+ * thread-safe.
+ *
+ * <p>Performs the following checks, in order:
+ *
+ * <ol>
+ *     <li>Applies the decorated claims verifier, if any.
+ *     <li>Requires the JWT ID (jti) and expiration time (exp) claims.
+ *     <li>Rejects the JWT if the expiration time plus the maximum
+ *         acceptable clock skew is in the past, also when no decorated
+ *         claims verifier is set.
+ *     <li>Records the JWT ID in the {@link JWTIDReplayCache replay cache}
+ *         until the expiration time plus the maximum acceptable clock skew,
+ *         and rejects the JWT if the ID is already recorded.
+ * </ol>
+ *
+ * <p>JWTs which cannot be recorded because the replay cache is full are
+ * rejected.
+ *
+ * <p>Set with {@link DefaultJWTProcessor#setJWTClaimsSetVerifier}, the JWT ID
+ * is recorded only after the JWS signature or JWE decryption was
+ * successfully verified.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 2026-10-19
+ * @since 8.11
+ */
+@ThreadSafe
+public class JWTIDReplayVerifier <C extends SecurityContext> implements JWTClaimsSetVerifier<C>, ClockSkewAware {
+
+
+	/**
+	 * The decorated claims verifier, {@code null} if none.
+	 */
+	private final JWTClaimsSetVerifier<C> claimsVerifier;
+
+
+	/**
+	 * The JWT ID replay cache.
+	 */
+	private final JWTIDReplayCache replayCache;
+
+
+	/**
+	 * The maximum acceptable clock skew, in seconds.
+	 */
+	private int maxClockSkew = DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS;
+
+
+	/**
+	 * The clock for obtaining the current time.
+	 */
+	private Clock clock = SystemClock.INSTANCE;
+
+
+	/**
+	 * Creates a new JWT ID replay verifier. If the decorated claims
+	 * verifier is {@link ClockSkewAware clock skew aware} its maximum
+	 * acceptable clock skew is adopted.
+	 *
+	 * @param claimsVerifier The claims verifier to decorate, {@code null}
+	 *                       if none.
+	 * @param replayCache    The JWT ID replay cache. Must not be
+	 *                       {@code null}.
+	 */
+	public JWTIDReplayVerifier(final JWTClaimsSetVerifier<C> claimsVerifier,
+				   final JWTIDReplayCache replayCache) {
+
+		if (replayCache == null) {
+			throw new IllegalArgumentException("The JWT ID replay cache must not be null");
+		}
+
+		this.claimsVerifier = claimsVerifier;
+		this.replayCache = replayCache;
+
+		if (claimsVerifier instanceof ClockSkewAware) {
+			maxClockSkew = ((ClockSkewAware)claimsVerifier).getMaxClockSkew();
+		}
+	}
+
+
+	/**
+	 * Returns the decorated claims verifier.
+	 *
+	 * @return The claims verifier, {@code null} if none.
+	 */
+	public JWTClaimsSetVerifier<C> getJWTClaimsSetVerifier() {
+		return claimsVerifier;
+	}
+
+
+	/**
+	 * Returns the JWT ID replay cache.
+	 *
+	 * @return The JWT ID replay cache.
+	 */
+	public JWTIDReplayCache getReplayCache() {
+		return replayCache;
+	}
+
+
+	@Override
+	public int getMaxClockSkew() {
+		return maxClockSkew;
+	}
+
+
+	@Override
+	public void setMaxClockSkew(final int maxClockSkewSeconds) {
+		maxClockSkew = maxClockSkewSeconds;
+	}
+
+
+	/**
+	 * Returns the clock for obtaining the current time.
+	 *
+	 * @return The clock.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+
+	/**
+	 * Sets the clock for obtaining the current time.
+	 *
+	 * @param clock The clock. Must not be {@code null}.
+	 */
+	public void setClock(final Clock clock) {
+		if (clock == null) {
+			throw new IllegalArgumentException("The clock must not be null");
+		}
+		this.clock = clock;
+	}
+
+
+	@Override
+	public void verify(final JWTClaimsSet claimsSet, final C context)
+		throws BadJWTException {
+
+		if (claimsVerifier != null) {
+			claimsVerifier.verify(claimsSet, context);
+		}
+
+		final String jti = claimsSet.getJWTID();
+
+		if (jti == null) {
+			throw new BadJWTException("JWT missing required claims: [jti]");
+		}
+
+		final Date exp = claimsSet.getExpirationTime();
+
+		if (exp == null) {
+			throw new BadJWTException("JWT missing required claims: [exp]");
+		}
+
+		final long retainUntil = exp.getTime() + maxClockSkew * 1000L;
+		final long now = clock.currentTimeMillis();
+
+		if (retainUntil < now) {
+			// Expired JWT IDs aren't recorded and could be replayed
+			throw new BadJWTException("Expired JWT");
+		}
+
+		final boolean recorded;
+
+		try {
+			recorded = replayCache.add(
+				claimsSet.getIssuer(),
+				jti,
+				retainUntil,
+				now);
+
+		} catch (IllegalStateException e) {
+			throw new BadJWTException("JWT ID replay cache full", e);
+		}
+
+		if (! recorded) {
+			throw new BadJWTException("Replayed JWT ID (jti)");
+		}
+	}
+}
@@ -85,7 +85,40 @@ public class DateUtils {
 				      final Date reference,
 				      final long maxClockSkewSeconds) {
 
-		return new Date(date.getTime() + maxClockSkewSeconds*1000L).after(reference);
+		return isAfter(date.getTime(), reference.getTime(), maxClockSkewSeconds);
+	}
+
+
+	/**
+	 * Check if the specified time is after the specified reference, given
+	 * the maximum accepted negative clock skew. Does not allocate any
+	 * objects.
+	 *
+	 * <p>Example: Ensure a JWT expiration (exp) timestamp is after the
+	 * current time of a {@link com.nimbusds.jose.util.Clock clock}, with a
+	 * minute of acceptable clock skew.
+	 *
+	 * <pre>
+	 * boolean valid = DateUtils.isAfter(exp.getTime(), clock.currentTimeMillis(), 60);
+	 * </pre>
+	 *
+	 * @param time                The time to check, in milliseconds
+	 *                            since the Unix epoch.
+	 * @param reference           The reference time (e.g. the current
+	 *                            time), in milliseconds since the Unix
+	 *                            epoch.
+	 * @param maxClockSkewSeconds The maximum acceptable negative clock
+	 *                            skew of the time value to check, in
+	 *                            seconds.
+	 *
+	 * @return {@code true} if the time is after the reference, plus the
+	 *         maximum accepted clock skew, else {@code false}.
+	 */
+	public static boolean isAfter(final long time,
+				      final long reference,
+				      final long maxClockSkewSeconds) {
+
+		return time + maxClockSkewSeconds*1000L > reference;
 	}
 
 
@@ -120,7 +153,39 @@ public class DateUtils {
 				       final Date reference,
 				       final long maxClockSkewSeconds) {
 
-		return new Date(date.getTime() - maxClockSkewSeconds*1000L).before(reference);
+		return isBefore(date.getTime(), reference.getTime(), maxClockSkewSeconds);
+	}
+
+
+	/**
+	 * Checks if the specified time is before the specified reference,
+	 * given the maximum accepted positive clock skew. Does not allocate
+	 * any objects.
+	 *
+	 * <p>Example: Ensure a JWT issued-at (iat) timestamp is before the
+	 * current time of a {@link com.nimbusds.jose.util.Clock clock}, with a
+	 * minute of acceptable clock skew.
+	 *
+	 * <pre>
+	 * boolean valid = DateUtils.isBefore(iat.getTime(), clock.currentTimeMillis(), 60);
+	 * </pre>
+	 *
+	 * @param time                The time to check, in milliseconds
+	 *                            since the Unix epoch.
+	 * @param reference           The reference time (e.g. the current
+	 *                            time), in milliseconds since the Unix
+	 *                            epoch.
+	 * @param maxClockSkewSeconds The maximum acceptable clock skew of the
+	 *                            time value to check, in seconds.
+	 *
+	 * @return {@code true} if the time is before the reference, minus the
+	 *         maximum accepted clock skew, else {@code false}.
+	 */
+	public static boolean isBefore(final long time,
+				       final long reference,
+				       final long maxClockSkewSeconds) {
+
+		return time - maxClockSkewSeconds*1000L < reference;
 	}
 
 
@@ -0,0 +1,228 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+
+
+public class DetachedJWSTest extends TestCase {
+
+
+	/**
+	 * Generates a deterministic stream of the specified length without
+	 * holding it in memory.
+	 */
+	private static class GeneratedInputStream extends InputStream {
+
+
+		private final long length;
+
+
+		private long pos;
+
+
+		private GeneratedInputStream(final long length) {
+			this.length = length;
+		}
+
+
+		@Override
+		public int read() {
+
+			if (pos >= length) {
+				return -1;
+			}
+
+			return (int) ((pos++ * 31) & 0xff);
+		}
+
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) {
+
+			if (pos >= length) {
+				return -1;
+			}
+
+			int n = (int) Math.min(len, length - pos);
+
+			for (int i=0; i < n; i++) {
+				b[off + i] = (byte) read();
+			}
+
+			return n;
+		}
+	}
+
+
+	private static JWSHeader unencodedHeader(final JWSAlgorithm alg) {
+
+		return new JWSHeader.Builder(alg)
+			.customParam("b64", false)
+			.criticalParams(Collections.singleton("b64"))
+			.build();
+	}
+
+
+	public void testEncodedPayloadMatchesJWSObject()
+		throws Exception {
+
+		MACSigner signer = new MACSigner(UnencodedJWSPayloadTest.JWK);
+
+		// Payload length not a multiple of the chunk size or 3
+		byte[] payload = new byte[10000];
+		new GeneratedInputStream(payload.length).read(payload, 0, payload.length);
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload(payload));
+		jwsObject.sign(signer);
+
+		DetachedJWS jws = DetachedJWS.sign(new JWSHeader(JWSAlgorithm.HS256), new ByteArrayInputStream(payload), signer);
+		assertEquals(jwsObject.getSignature(), jws.getSignature());
+
+		assertTrue(jws.verify(new ByteArrayInputStream(payload), new MACVerifier(UnencodedJWSPayloadTest.JWK)));
+	}
+
+
+	public void testUnencodedPayloadRFC7797Example()
+		throws Exception {
+
+		// RFC 7797, section 4.2
+		JWSHeader header = JWSHeader.parse(new Base64URL("eyJhbGciOiJIUzI1NiIsImI2NCI6ZmFsc2UsImNyaXQiOlsiYjY0Il19"));
+
+		DetachedJWS jws = DetachedJWS.sign(header, new ByteArrayInputStream("$.02".getBytes("UTF-8")), new MACSigner(UnencodedJWSPayloadTest.JWK));
+		assertEquals("eyJhbGciOiJIUzI1NiIsImI2NCI6ZmFsc2UsImNyaXQiOlsiYjY0Il19..A5dxf2s96_n5FLueVuW1Z_vh161FwXZC4YLPff6dmDY", jws.serialize());
+
+		jws = DetachedJWS.parse(jws.serialize());
+
+		MACVerifier verifier = new MACVerifier(UnencodedJWSPayloadTest.JWK, new HashSet<>(Collections.singletonList("b64")));
+		assertTrue(jws.verify(new ByteArrayInputStream("$.02".getBytes("UTF-8")), verifier));
+		assertFalse(jws.verify(new ByteArrayInputStream("$.03".getBytes("UTF-8")), verifier));
+
+		// b64 not deferred
+		assertFalse(jws.verify(new ByteArrayInputStream("$.02".getBytes("UTF-8")), new MACVerifier(UnencodedJWSPayloadTest.JWK)));
+	}
+
+
+	public void testLargeStreamedPayloads()
+		throws Exception {
+
+		final long length = 8L * 1024 * 1024 + 7;
+
+		RSAKey rsaJWK = new RSAKeyGenerator(2048).generate();
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).generate();
+
+		for (JWSHeader header: new JWSHeader[]{new JWSHeader(JWSAlgorithm.RS256), unencodedHeader(JWSAlgorithm.RS256)}) {
+
+			DetachedJWS jws = DetachedJWS.sign(header, new GeneratedInputStream(length), new RSASSASigner(rsaJWK));
+			assertTrue(jws.verify(new GeneratedInputStream(length), new RSASSAVerifier(rsaJWK.toRSAPublicKey(), new HashSet<>(Collections.singletonList("b64")))));
+			assertFalse(jws.verify(new GeneratedInputStream(length - 1), new RSASSAVerifier(rsaJWK.toRSAPublicKey(), new HashSet<>(Collections.singletonList("b64")))));
+		}
+
+		DetachedJWS jws = DetachedJWS.sign(unencodedHeader(JWSAlgorithm.ES256), new GeneratedInputStream(length), new ECDSASigner(ecJWK));
+		assertTrue(jws.verify(new GeneratedInputStream(length), new ECDSAVerifier(ecJWK.toECPublicKey(), new HashSet<>(Collections.singletonList("b64")))));
+		assertFalse(jws.verify(new GeneratedInputStream(length + 1), new ECDSAVerifier(ecJWK.toECPublicKey(), new HashSet<>(Collections.singletonList("b64")))));
+	}
+
+
+	public void testFileChannel()
+		throws Exception {
+
+		File file = File.createTempFile("detached-jws", ".bin");
+		file.deleteOnExit();
+
+		byte[] buffer = new byte[8192];
+		try (InputStream in = new GeneratedInputStream(1024 * 1024); FileOutputStream out = new FileOutputStream(file)) {
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				out.write(buffer, 0, n);
+			}
+		}
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).generate();
+
+		DetachedJWS jws;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			jws = DetachedJWS.sign(new JWSHeader(JWSAlgorithm.ES256), channel, new ECDSASigner(ecJWK));
+		}
+
+		jws = DetachedJWS.parse(jws.serialize());
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			assertTrue(jws.verify(channel, new ECDSAVerifier(ecJWK)));
+		}
+
+		assertTrue(jws.verify(new GeneratedInputStream(1024 * 1024), new ECDSAVerifier(ecJWK)));
+	}
+
+
+	public void testReadError()
+		throws Exception {
+
+		InputStream failing = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Disk error");
+			}
+		};
+
+		try {
+			DetachedJWS.sign(new JWSHeader(JWSAlgorithm.HS256), failing, new MACSigner(UnencodedJWSPayloadTest.JWK));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Couldn't read the signing input: Disk error", e.getMessage());
+		}
+	}
+
+
+	public void testParseErrors() {
+
+		try {
+			DetachedJWS.parse("eyJhbGciOiJIUzI1NiJ9.JC4wMg.5mvfOroL-g7HyqJoozehmsaqmvTYGEq5jTI1gVvoEoQ");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("The payload part of a detached JWS must be empty", e.getMessage());
+		}
+
+		try {
+			DetachedJWS.parse("a.b.c.d.e");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Unexpected number of Base64URL parts, must be three", e.getMessage());
+		}
+	}
+}
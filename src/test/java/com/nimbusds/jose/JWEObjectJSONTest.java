@@ -0,0 +1,363 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.text.ParseException;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import junit.framework.TestCase;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+
+public class JWEObjectJSONTest extends TestCase {
+
+
+	private static SecretKey generateAESKey(final int bitLength)
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+		keyGen.init(bitLength);
+		return keyGen.generateKey();
+	}
+
+
+	public void testMultipleRecipients()
+		throws Exception {
+
+		RSAKey rsaJWK = new RSAKeyGenerator(2048).keyID("1").generate();
+		SecretKey aesKey1 = generateAESKey(128);
+		SecretKey aesKey2 = generateAESKey(256);
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).keyID("4").generate();
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.type(JOSEObjectType.JOSE)
+			.recipient(JWEAlgorithm.RSA_OAEP_256, "1", new RSAEncrypter(rsaJWK))
+			.recipient(JWEAlgorithm.A128KW, "2", new AESEncrypter(aesKey1))
+			.recipient(JWEAlgorithm.A256GCMKW, "3", new AESEncrypter(aesKey2))
+			.recipient(JWEAlgorithm.ECDH_ES_A128KW, "4", new ECDHEncrypter(ecJWK))
+			.encrypt(new Payload("Hello, world!"));
+
+		assertEquals(4, jwe.getRecipients().size());
+		assertNull(jwe.getUnprotectedHeader());
+		assertNull(jwe.getAAD());
+
+		JSONObject protectedHeader = JSONObjectUtils.parse(jwe.getProtectedHeader().decodeToString());
+		assertEquals("A128GCM", protectedHeader.get("enc"));
+		assertEquals("JOSE", protectedHeader.get("typ"));
+		assertEquals(2, protectedHeader.size());
+
+		assertEquals(JWEAlgorithm.RSA_OAEP_256, jwe.getHeader("1").getAlgorithm());
+		assertEquals(JWEAlgorithm.A128KW, jwe.getHeader(1).getAlgorithm());
+		assertNotNull(jwe.getHeader("3").getIV());
+		assertNotNull(jwe.getHeader("3").getAuthTag());
+		assertNotNull(jwe.getHeader("4").getEphemeralPublicKey());
+		assertEquals(EncryptionMethod.A128GCM, jwe.getHeader("4").getEncryptionMethod());
+		assertNull(jwe.getHeader("5"));
+
+		JWEObjectJSON.Recipient recipient = jwe.getRecipients().get(0);
+		assertEquals("1", recipient.getKeyID());
+		assertEquals("RSA-OAEP-256", recipient.getHeader().get("alg"));
+		assertFalse(recipient.getHeader().containsKey("enc"));
+
+		String json = jwe.serializeGeneral();
+
+		JSONObject jsonObject = JSONObjectUtils.parse(json);
+		assertEquals(4, ((JSONArray) jsonObject.get("recipients")).size());
+
+		jwe = JWEObjectJSON.parse(json);
+
+		assertEquals("Hello, world!", jwe.decrypt(new RSADecrypter(rsaJWK), "1").toString());
+		assertEquals("Hello, world!", jwe.decrypt(new AESDecrypter(aesKey1), "2").toString());
+		assertEquals("Hello, world!", jwe.decrypt(new AESDecrypter(aesKey2), "3").toString());
+		assertEquals("Hello, world!", jwe.decrypt(new ECDHDecrypter(ecJWK), "4").toString());
+
+		// Without key ID
+		assertEquals("Hello, world!", jwe.decrypt(new AESDecrypter(aesKey2)).toString());
+		assertEquals("Hello, world!", jwe.decrypt(new ECDHDecrypter(ecJWK)).toString());
+
+		try {
+			jwe.serializeFlattened();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("The flattened JWE JSON serialization requires a single recipient", e.getMessage());
+		}
+	}
+
+
+	public void testFlattened()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128CBC_HS256)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"));
+
+		JSONObject jsonObject = jwe.toFlattenedJSONObject();
+		assertFalse(jsonObject.containsKey("recipients"));
+		assertNotNull(jsonObject.get("header"));
+		assertNotNull(jsonObject.get("encrypted_key"));
+
+		jwe = JWEObjectJSON.parse(jwe.serializeFlattened());
+		assertEquals(1, jwe.getRecipients().size());
+		assertEquals("Hello, world!", jwe.decrypt(new AESDecrypter(aesKey), "1").toString());
+
+		// Same in general serialisation
+		jwe = JWEObjectJSON.parse(jwe.serializeGeneral());
+		assertEquals("Hello, world!", jwe.decrypt(new AESDecrypter(aesKey)).toString());
+	}
+
+
+	public void testAADAndCompression()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i < 100; i++) {
+			sb.append("Hello, world! ");
+		}
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A256GCM)
+			.compressionAlgorithm(CompressionAlgorithm.DEF)
+			.aad("additional".getBytes())
+			.recipient(JWEAlgorithm.A128KW, null, new AESEncrypter(aesKey))
+			.encrypt(new Payload(sb.toString()));
+
+		assertEquals(CompressionAlgorithm.DEF, jwe.getHeader(0).getCompressionAlgorithm());
+		assertEquals(Base64URL.encode("additional"), jwe.getAAD());
+		assertTrue(jwe.getCipherText().decode().length < sb.length());
+
+		String json = jwe.serializeGeneral();
+		assertEquals(sb.toString(), JWEObjectJSON.parse(json).decrypt(new AESDecrypter(aesKey)).toString());
+
+		// Tamper with the JWE AAD
+		JSONObject jsonObject = JSONObjectUtils.parse(json);
+		jsonObject.put("aad", Base64URL.encode("other").toString());
+
+		try {
+			JWEObjectJSON.parse(jsonObject).decrypt(new AESDecrypter(aesKey));
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testTamperedCipherText()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"));
+
+		JSONObject jsonObject = jwe.toGeneralJSONObject();
+		byte[] cipherText = jwe.getCipherText().decode();
+		cipherText[0] ^= 1;
+		jsonObject.put("ciphertext", Base64URL.encode(cipherText).toString());
+
+		try {
+			JWEObjectJSON.parse(jsonObject).decrypt(new AESDecrypter(aesKey), "1");
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testTamperedProtectedHeader()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"));
+
+		JSONObject jsonObject = jwe.toGeneralJSONObject();
+		jsonObject.put("protected", Base64URL.encode("{\"enc\":\"A128GCM\",\"cty\":\"text\"}").toString());
+
+		try {
+			JWEObjectJSON.parse(jsonObject).decrypt(new AESDecrypter(aesKey), "1");
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testUnknownKeyID()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"));
+
+		try {
+			jwe.decrypt(new AESDecrypter(aesKey), "2");
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("No JWE recipient with key ID 2", e.getMessage());
+		}
+	}
+
+
+	public void testWrongKey()
+		throws Exception {
+
+		JWEObjectJSON jwe = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(generateAESKey(128)))
+			.encrypt(new Payload("Hello, world!"));
+
+		try {
+			jwe.decrypt(new AESDecrypter(generateAESKey(128)));
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testRejectDuplicateHeaderParameter()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JSONObject jsonObject = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"))
+			.toGeneralJSONObject();
+
+		JSONObject unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("kid", "2");
+		jsonObject.put("unprotected", unprotectedHeader);
+
+		try {
+			JWEObjectJSON.parse(jsonObject);
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Duplicate JWE header parameter: kid", e.getMessage());
+		}
+	}
+
+
+	public void testRejectUnprotectedCompressionAlgorithm()
+		throws Exception {
+
+		SecretKey aesKey = generateAESKey(128);
+
+		JSONObject jsonObject = new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+			.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(aesKey))
+			.encrypt(new Payload("Hello, world!"))
+			.toGeneralJSONObject();
+
+		JSONObject unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("zip", "DEF");
+		jsonObject.put("unprotected", unprotectedHeader);
+
+		try {
+			JWEObjectJSON.parse(jsonObject);
+			fail();
+		} catch (ParseException e) {
+			assertEquals("The JWE compression algorithm (zip) must be in the protected header", e.getMessage());
+		}
+
+		jsonObject.remove("unprotected");
+		JSONObject recipient = (JSONObject) ((JSONArray) jsonObject.get("recipients")).get(0);
+		((JSONObject) recipient.get("header")).put("zip", "DEF");
+
+		try {
+			JWEObjectJSON.parse(jsonObject);
+			fail();
+		} catch (ParseException e) {
+			assertEquals("The JWE compression algorithm (zip) must be in the protected header", e.getMessage());
+		}
+	}
+
+
+	public void testRejectDifferentEncryptionMethods() {
+
+		try {
+			JWEObjectJSON.parse("{" +
+				"\"recipients\":[" +
+				"{\"header\":{\"alg\":\"A128KW\",\"enc\":\"A128GCM\"},\"encrypted_key\":\"AAAA\"}," +
+				"{\"header\":{\"alg\":\"A256KW\",\"enc\":\"A256GCM\"},\"encrypted_key\":\"AAAA\"}]," +
+				"\"iv\":\"AAAA\",\"ciphertext\":\"AAAA\",\"tag\":\"AAAA\"}");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("The JWE encryption method (enc) must be the same for all recipients", e.getMessage());
+		}
+	}
+
+
+	public void testBuilderErrors()
+		throws Exception {
+
+		try {
+			new JWEObjectJSON.Builder(EncryptionMethod.A128GCM).encrypt(new Payload("Hello, world!"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("At least one JWE recipient must be specified", e.getMessage());
+		}
+
+		try {
+			new JWEObjectJSON.Builder(EncryptionMethod.A128GCM)
+				.recipient(JWEAlgorithm.RSA_OAEP_256, "1", new AESEncrypter(generateAESKey(128)))
+				.encrypt(new Payload("Hello, world!"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The JWE algorithm RSA-OAEP-256 isn't supported by the key encrypter", e.getMessage());
+		}
+
+		try {
+			new JWEObjectJSON.Builder(EncryptionMethod.A128CBC_HS256_DEPRECATED)
+				.recipient(JWEAlgorithm.A128KW, "1", new AESEncrypter(generateAESKey(128)))
+				.encrypt(new Payload("Hello, world!"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The deprecated encryption method A128CBC+HS256 isn't supported with JSON serialization", e.getMessage());
+		}
+	}
+
+
+	public void testParseMissingCipherText() {
+
+		try {
+			JWEObjectJSON.parse("{\"protected\":\"" + Base64URL.encode("{\"enc\":\"A128GCM\"}") + "\",\"header\":{\"alg\":\"A128KW\"}}");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Missing JWE cipher text", e.getMessage());
+		}
+	}
+}
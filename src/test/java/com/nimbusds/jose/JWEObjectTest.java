@@ -18,11 +18,15 @@
 package com.nimbusds.jose;
 
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Set;
 
+import com.nimbusds.jose.crypto.DirectEncrypter;
 import com.nimbusds.jose.jca.JWEJCAContext;
 import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
 import junit.framework.TestCase;
 
 
@@ -123,4 +127,32 @@ public class JWEObjectTest extends TestCase {
 			assertEquals("The \"A128CBC-HS256\" encryption method or key size is not supported by the JWE encrypter: Supported methods: [xyz]", e.getMessage());
 		}
 	}
+
+
+	public void testSerializeToAppendableAndBuffer()
+		throws Exception {
+
+		JWEObject jweObject = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), new Payload("Hello world!"));
+		jweObject.encrypt(new DirectEncrypter(new byte[16]));
+
+		String expected = jweObject.serialize();
+
+		StringBuilder sb = new StringBuilder();
+		jweObject.serialize(sb);
+		assertEquals(expected, sb.toString());
+		assertTrue(expected.contains(".."));
+
+		ByteBuffer buffer = ByteBuffer.allocate(jweObject.getSerializedLength());
+		jweObject.serialize(buffer);
+		assertEquals(expected, new String(buffer.array(), StandardCharset.UTF_8));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jweObject.writeTo(out);
+		assertEquals(expected, new String(out.toByteArray(), StandardCharset.UTF_8));
+
+		jweObject = JWEObject.parse(expected);
+		sb = new StringBuilder();
+		jweObject.serialize(sb);
+		assertEquals(expected, sb.toString());
+	}
 }
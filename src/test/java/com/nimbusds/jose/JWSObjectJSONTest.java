@@ -0,0 +1,411 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose;
+
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+
+public class JWSObjectJSONTest extends TestCase {
+
+
+	private static RSAKey rsaJWK;
+
+
+	private static ECKey ecJWK;
+
+
+	private static OctetSequenceKey hmacJWK;
+
+
+	@Override
+	public void setUp()
+		throws Exception {
+
+		if (rsaJWK == null) {
+			rsaJWK = new RSAKeyGenerator(2048).keyID("1").generate();
+			ecJWK = new ECKeyGenerator(Curve.P_256).keyID("2").generate();
+			hmacJWK = new OctetSequenceKeyGenerator(256).keyID("3").generate();
+		}
+	}
+
+
+	private static JWSObjectJSON signByAll()
+		throws JOSEException {
+
+		return new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+			.signature(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("1").build(), new RSASSASigner(rsaJWK))
+			.signature(new JWSHeader.Builder(JWSAlgorithm.ES256).keyID("2").build(), new ECDSASigner(ecJWK))
+			.signature(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("3").build(), new MACSigner(hmacJWK))
+			.sign();
+	}
+
+
+	private static List<JWSVerifier> verifiers()
+		throws JOSEException {
+
+		return Arrays.<JWSVerifier>asList(
+			new RSASSAVerifier(rsaJWK),
+			new ECDSAVerifier(ecJWK),
+			new MACVerifier(hmacJWK));
+	}
+
+
+	public void testSignAndVerify()
+		throws Exception {
+
+		JWSObjectJSON jws = signByAll();
+
+		assertEquals("Hello, world!", jws.getPayload().toString());
+		assertEquals(3, jws.getSignatures().size());
+		assertEquals(JWSAlgorithm.RS256, jws.getSignatures().get(0).getHeader().getAlgorithm());
+		assertEquals("2", jws.getSignatures().get(1).getHeader().getKeyID());
+		assertNull(jws.getSignatures().get(2).getUnprotectedHeader());
+
+		String json = jws.serializeGeneral();
+
+		JSONObject jsonObject = JSONObjectUtils.parse(json);
+		assertEquals(new Payload("Hello, world!").toBase64URL().toString(), jsonObject.get("payload"));
+		assertEquals(3, ((JSONArray) jsonObject.get("signatures")).size());
+
+		jws = JWSObjectJSON.parse(json);
+
+		List<JWSVerifier> verifiers = verifiers();
+
+		for (int i=0; i < 3; i++) {
+			assertTrue(jws.verify(verifiers.get(i), i));
+		}
+
+		assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf()));
+		assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.anyOf()));
+		assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(3)));
+		assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(4)));
+
+		// Compact equivalent
+		JWSObject jwsObject = new JWSObject(
+			jws.getSignatures().get(0).getProtectedHeader(),
+			new Payload("Hello, world!").toBase64URL(),
+			jws.getSignatures().get(0).getSignature());
+		assertTrue(jwsObject.verify(new RSASSAVerifier(rsaJWK)));
+	}
+
+
+	public void testConcurrentVerification()
+		throws Exception {
+
+		JWSObjectJSON jws = JWSObjectJSON.parse(signByAll().serializeGeneral());
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+
+		try {
+			List<JWSVerifier> verifiers = verifiers();
+
+			assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf(), executor));
+			assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.anyOf(), executor));
+			assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(2), executor));
+			assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(4), executor));
+
+			// One signature with the wrong key
+			List<JWSVerifier> oneWrong = Arrays.<JWSVerifier>asList(
+				new RSASSAVerifier(rsaJWK),
+				new ECDSAVerifier(new ECKeyGenerator(Curve.P_256).generate()),
+				new MACVerifier(hmacJWK));
+
+			assertFalse(jws.verify(oneWrong, JWSObjectJSON.VerificationPolicy.allOf(), executor));
+			assertTrue(jws.verify(oneWrong, JWSObjectJSON.VerificationPolicy.threshold(2), executor));
+			assertFalse(jws.verify(oneWrong, JWSObjectJSON.VerificationPolicy.threshold(3), executor));
+			assertFalse(jws.verify(oneWrong, JWSObjectJSON.VerificationPolicy.allOf()));
+			assertTrue(jws.verify(oneWrong, JWSObjectJSON.VerificationPolicy.anyOf()));
+
+			// Missing verifiers
+			List<JWSVerifier> onlyOne = Arrays.<JWSVerifier>asList(null, null, new MACVerifier(hmacJWK));
+			assertTrue(jws.verify(onlyOne, JWSObjectJSON.VerificationPolicy.anyOf(), executor));
+			assertFalse(jws.verify(onlyOne, JWSObjectJSON.VerificationPolicy.threshold(2), executor));
+			assertTrue(jws.verify(onlyOne, JWSObjectJSON.VerificationPolicy.anyOf()));
+			assertFalse(jws.verify(onlyOne, JWSObjectJSON.VerificationPolicy.allOf()));
+
+			// Verifier exception counted as invalid
+			List<JWSVerifier> mismatched = Arrays.<JWSVerifier>asList(
+				new MACVerifier(hmacJWK),
+				new ECDSAVerifier(ecJWK),
+				new MACVerifier(hmacJWK));
+			assertFalse(jws.verify(mismatched, JWSObjectJSON.VerificationPolicy.allOf(), executor));
+			assertTrue(jws.verify(mismatched, JWSObjectJSON.VerificationPolicy.threshold(2), executor));
+
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	public void testRejectDuplicateSignature()
+		throws Exception {
+
+		JSONObject jsonObject = signByAll().toGeneralJSONObject();
+		JSONArray signatures = (JSONArray) jsonObject.get("signatures");
+		JSONObject hmacSignature = (JSONObject) signatures.get(2);
+		signatures.add(hmacSignature);
+		signatures.add(hmacSignature);
+
+		try {
+			JWSObjectJSON.parse(jsonObject);
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Duplicate JWS signature", e.getMessage());
+		}
+	}
+
+
+	public void testVerifierCountedOnce()
+		throws Exception {
+
+		// Same key, distinct protected headers and hence signatures
+		JWSObjectJSON jws = new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+			.signature(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("3").build(), new MACSigner(hmacJWK))
+			.signature(new JWSHeader.Builder(JWSAlgorithm.HS256).keyID("3").customParam("x", 1).build(), new MACSigner(hmacJWK))
+			.sign();
+
+		jws = JWSObjectJSON.parse(jws.serializeGeneral());
+
+		JWSVerifier verifier = new MACVerifier(hmacJWK);
+		List<JWSVerifier> verifiers = Arrays.asList(verifier, verifier);
+
+		assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.anyOf()));
+		assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf()));
+		assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(2)));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.anyOf(), executor));
+			assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf(), executor));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	public void testRuntimeExceptionCountedAsInvalid()
+		throws Exception {
+
+		JWSVerifier failing = new MACVerifier(hmacJWK) {
+			@Override
+			public boolean verify(final JWSHeader header, final byte[] signedContent, final Base64URL signature) {
+				throw new IllegalStateException("Broken verifier");
+			}
+		};
+
+		JWSObjectJSON jws = signByAll();
+		List<JWSVerifier> verifiers = Arrays.asList(new RSASSAVerifier(rsaJWK), new ECDSAVerifier(ecJWK), failing);
+
+		assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf()));
+		assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(2)));
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+
+		try {
+			assertFalse(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.allOf(), executor));
+			assertTrue(jws.verify(verifiers, JWSObjectJSON.VerificationPolicy.threshold(2), executor));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	public void testVerifierCountMismatch()
+		throws Exception {
+
+		try {
+			signByAll().verify(Arrays.<JWSVerifier>asList(new MACVerifier(hmacJWK)), JWSObjectJSON.VerificationPolicy.anyOf());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The number of verifiers must match the number of signatures", e.getMessage());
+		}
+	}
+
+
+	public void testTamperedPayload()
+		throws Exception {
+
+		JSONObject jsonObject = signByAll().toGeneralJSONObject();
+		jsonObject.put("payload", new Payload("Hello, world?").toBase64URL().toString());
+
+		JWSObjectJSON jws = JWSObjectJSON.parse(jsonObject);
+		assertFalse(jws.verify(verifiers(), JWSObjectJSON.VerificationPolicy.anyOf()));
+	}
+
+
+	public void testFlattenedWithUnprotectedHeader()
+		throws Exception {
+
+		JSONObject unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("kid", "3");
+
+		JWSObjectJSON jws = new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+			.signature(new JWSHeader(JWSAlgorithm.HS256), unprotectedHeader, new MACSigner(hmacJWK))
+			.sign();
+
+		JSONObject jsonObject = jws.toFlattenedJSONObject();
+		assertFalse(jsonObject.containsKey("signatures"));
+		assertEquals(unprotectedHeader, jsonObject.get("header"));
+
+		jws = JWSObjectJSON.parse(jws.serializeFlattened());
+		assertEquals("3", jws.getSignatures().get(0).getHeader().getKeyID());
+		assertEquals(JWSAlgorithm.HS256, jws.getSignatures().get(0).getHeader().getAlgorithm());
+		assertTrue(jws.verify(new MACVerifier(hmacJWK), 0));
+
+		// The unprotected header isn't integrity protected
+		jsonObject = jws.toFlattenedJSONObject();
+		((JSONObject) jsonObject.get("header")).put("kid", "4");
+		assertTrue(JWSObjectJSON.parse(jsonObject).verify(new MACVerifier(hmacJWK), 0));
+
+		try {
+			signByAll().serializeFlattened();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("The flattened JWS JSON serialization requires a single signature", e.getMessage());
+		}
+	}
+
+
+	public void testRejectDuplicateHeaderParameter()
+		throws Exception {
+
+		JSONObject unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("alg", "none");
+
+		try {
+			new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+				.signature(new JWSHeader(JWSAlgorithm.HS256), unprotectedHeader, new MACSigner(hmacJWK))
+				.sign();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Duplicate JWS header parameter: alg", e.getMessage());
+		}
+	}
+
+
+	public void testRejectUnprotectedCritAndB64()
+		throws Exception {
+
+		Base64URL protectedHeader = new JWSHeader(JWSAlgorithm.HS256).toBase64URL();
+
+		JSONObject unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("crit", new JSONArray());
+
+		try {
+			new JWSObjectJSON.Signature(protectedHeader, unprotectedHeader, new Base64URL("abc"));
+			fail();
+		} catch (ParseException e) {
+			assertEquals("The crit JWS header parameter must be integrity protected", e.getMessage());
+		}
+
+		unprotectedHeader = new JSONObject();
+		unprotectedHeader.put("b64", false);
+
+		try {
+			new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+				.signature(new JWSHeader(JWSAlgorithm.HS256), unprotectedHeader, new MACSigner(hmacJWK))
+				.sign();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The b64 JWS header parameter must be integrity protected", e.getMessage());
+		}
+	}
+
+
+	public void testBuilderErrors()
+		throws Exception {
+
+		try {
+			new JWSObjectJSON.Builder(new Payload("Hello, world!")).sign();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("At least one JWS signature must be specified", e.getMessage());
+		}
+
+		try {
+			new JWSObjectJSON.Builder(new Payload("Hello, world!"))
+				.signature(new JWSHeader(JWSAlgorithm.RS256), new MACSigner(hmacJWK))
+				.sign();
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The JWS algorithm RS256 isn't supported by the signer", e.getMessage());
+		}
+	}
+
+
+	public void testPolicy() {
+
+		assertEquals(1, JWSObjectJSON.VerificationPolicy.anyOf().getRequiredCount(3));
+		assertEquals(3, JWSObjectJSON.VerificationPolicy.allOf().getRequiredCount(3));
+		assertEquals(2, JWSObjectJSON.VerificationPolicy.threshold(2).getRequiredCount(3));
+		assertEquals("threshold(2)", JWSObjectJSON.VerificationPolicy.threshold(2).toString());
+
+		try {
+			JWSObjectJSON.VerificationPolicy.threshold(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The threshold must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testParseErrors() {
+
+		try {
+			JWSObjectJSON.parse("{\"signatures\":[]}");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Missing JWS payload", e.getMessage());
+		}
+
+		try {
+			JWSObjectJSON.parse("{\"payload\":\"abc\",\"signatures\":[]}");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Missing JWS signatures", e.getMessage());
+		}
+
+		try {
+			JWSObjectJSON.parse("{\"payload\":\"abc\",\"protected\":\"" + Base64URL.encode("{\"alg\":\"HS256\"}") + "\"}");
+			fail();
+		} catch (ParseException e) {
+			assertEquals("Missing JWS signature", e.getMessage());
+		}
+	}
+}
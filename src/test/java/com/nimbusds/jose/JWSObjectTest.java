@@ -18,10 +18,17 @@
 package com.nimbusds.jose;
 
 
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
 import junit.framework.TestCase;
 
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
 
 
 /**
@@ -72,4 +79,87 @@ public class JWSObjectTest extends TestCase {
 
 		assertEquals(output, jwsObject.serialize());
 	}
-}
\ No newline at end of file
+
+
+	public void testSerializeToAppendableAndBuffer()
+		throws Exception {
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload("Hello world!"));
+
+		try {
+			jwsObject.serialize(new StringBuilder());
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("The JWS object must be in a signed or verified state", e.getMessage());
+		}
+
+		jwsObject.sign(new MACSigner("12345678901234567890123456789012"));
+
+		String expected = jwsObject.serialize();
+
+		StringBuilder sb = new StringBuilder();
+		jwsObject.serialize(sb);
+		assertEquals(expected, sb.toString());
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length() + 10);
+		buffer.position(5);
+		jwsObject.serialize(buffer);
+		assertEquals(5 + expected.length(), buffer.position());
+		assertEquals(expected, new String(buffer.array(), 5, expected.length(), StandardCharset.UTF_8));
+
+		// Insufficient space, nothing written
+		buffer = ByteBuffer.allocate(expected.length() - 1);
+		try {
+			jwsObject.serialize(buffer);
+			fail();
+		} catch (BufferOverflowException e) {
+			assertEquals(0, buffer.position());
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jwsObject.writeTo(out);
+		assertEquals(expected, new String(out.toByteArray(), StandardCharset.UTF_8));
+	}
+
+
+	public void testSerializeUnencodedNonASCIIPayloadToBuffer()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.customParam("b64", false)
+			.criticalParams(Collections.singleton("b64"))
+			.build();
+
+		JWSObject jwsObject = new JWSObject(header, new Payload("\u20ac100"));
+		jwsObject.sign(new MACSigner("12345678901234567890123456789012"));
+
+		byte[] expected = jwsObject.serialize().getBytes(StandardCharset.UTF_8);
+		assertEquals(expected.length, jwsObject.getSerializedLength());
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+		jwsObject.serialize(buffer);
+		assertTrue(Arrays.equals(expected, buffer.array()));
+	}
+
+
+	public void testSerializeUnencodedLoneSurrogatePayloadToBuffer()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.customParam("b64", false)
+			.criticalParams(Collections.singleton("b64"))
+			.build();
+
+		JWSObject jwsObject = new JWSObject(header, new Payload("a\ud800b\udc00"));
+		jwsObject.sign(new MACSigner("12345678901234567890123456789012"));
+
+		// Replaced with '?'
+		byte[] expected = jwsObject.serialize().getBytes(StandardCharset.UTF_8);
+		assertEquals(expected.length, jwsObject.getSerializedLength());
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+		jwsObject.serialize(buffer);
+		assertFalse(buffer.hasRemaining());
+		assertTrue(Arrays.equals(expected, buffer.array()));
+	}
+}
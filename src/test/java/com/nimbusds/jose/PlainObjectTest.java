@@ -18,8 +18,13 @@
 package com.nimbusds.jose;
 
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
 import junit.framework.TestCase;
 
+import com.nimbusds.jose.util.StandardCharset;
+
 
 /**
  * Tests plaintext JOSE object parsing and serialisation.
@@ -60,4 +65,28 @@ public class PlainObjectTest extends TestCase {
 
 		assertEquals(serializedJOSEObject, p.getParsedString());
 	}
+
+
+	public void testSerializeToAppendableAndBuffer()
+		throws Exception {
+
+		PlainObject p = new PlainObject(new Payload("Hello world!"));
+
+		String expected = p.serialize();
+
+		StringBuilder sb = new StringBuilder();
+		p.serialize(sb);
+		assertEquals(expected, sb.toString());
+
+		assertEquals(expected.length(), p.getSerializedLength());
+
+		ByteBuffer buffer = ByteBuffer.allocate(p.getSerializedLength());
+		p.serialize(buffer);
+		assertFalse(buffer.hasRemaining());
+		assertEquals(expected, new String(buffer.array(), StandardCharset.UTF_8));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		p.writeTo(out);
+		assertEquals(expected, new String(out.toByteArray(), StandardCharset.UTF_8));
+	}
 }
@@ -19,8 +19,12 @@ package com.nimbusds.jose.crypto;
 
 
 import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
@@ -32,7 +36,7 @@ import junit.framework.TestCase;
 /**
  * Tests the static ECDSA utilities.
  *
- * @version 2018-03-28
+ * @version 2026-10-19
  */
 public class ECDSATest extends TestCase {
 
@@ -100,4 +104,136 @@ public class ECDSATest extends TestCase {
 		assertEquals(JWSAlgorithm.ES512, ECDSA.resolveAlgorithm(publicKey));
 		assertEquals(JWSAlgorithm.ES512, ECDSA.resolveAlgorithm(privateKey));
 	}
+
+
+	private static void assertTranscodingIntoBuffers(final String curveName, final JWSAlgorithm alg)
+		throws Exception {
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec(curveName));
+		KeyPair keyPair = generator.generateKeyPair();
+
+		final int outputLength = ECDSA.getSignatureByteArrayLength(alg);
+		byte[] concatBuffer = new byte[outputLength + 10];
+		byte[] derBuffer = new byte[ECDSA.MAX_DER_SIGNATURE_LENGTH + 10];
+
+		for (int i=0; i < 200; i++) {
+
+			Signature signer = ECDSA.getSignerAndVerifier(alg, null);
+			signer.initSign(keyPair.getPrivate());
+			signer.update(new byte[]{(byte)i});
+			byte[] derSignature = signer.sign();
+
+			// DER -> concat, at an offset
+			byte[] derInput = new byte[derSignature.length + 3];
+			System.arraycopy(derSignature, 0, derInput, 3, derSignature.length);
+			assertEquals(outputLength, ECDSA.transcodeSignatureToConcat(derInput, 3, derSignature.length, concatBuffer, 5, outputLength));
+
+			byte[] concatSignature = ECDSA.transcodeSignatureToConcat(derSignature, outputLength);
+			assertTrue(Arrays.equals(concatSignature, Arrays.copyOfRange(concatBuffer, 5, 5 + outputLength)));
+
+			// concat -> DER, at an offset
+			int derLength = ECDSA.transcodeSignatureToDER(concatBuffer, 5, outputLength, derBuffer, 7);
+			assertTrue(Arrays.equals(derSignature, Arrays.copyOfRange(derBuffer, 7, 7 + derLength)));
+			assertTrue(Arrays.equals(ECDSA.transcodeSignatureToDER(concatSignature), Arrays.copyOfRange(derBuffer, 7, 7 + derLength)));
+
+			Signature verifier = ECDSA.getSignerAndVerifier(alg, null);
+			verifier.initVerify(keyPair.getPublic());
+			verifier.update(new byte[]{(byte)i});
+			assertTrue(verifier.verify(derBuffer, 7, derLength));
+		}
+	}
+
+
+	public void testTranscodeIntoBuffers_ES256()
+		throws Exception {
+
+		assertTranscodingIntoBuffers("secp256r1", JWSAlgorithm.ES256);
+	}
+
+
+	public void testTranscodeIntoBuffers_ES384()
+		throws Exception {
+
+		assertTranscodingIntoBuffers("secp384r1", JWSAlgorithm.ES384);
+	}
+
+
+	public void testTranscodeIntoBuffers_ES512()
+		throws Exception {
+
+		assertTranscodingIntoBuffers("secp521r1", JWSAlgorithm.ES512);
+	}
+
+
+	public void testTranscodeToDERIntoBuffer_zeroAndHighBitValues()
+		throws JOSEException {
+
+		byte[] jwsSignature = new byte[64];
+		jwsSignature[31] = 1; // R = 1
+		jwsSignature[32] = (byte)0x80; // S with high bit set
+
+		byte[] out = new byte[ECDSA.MAX_DER_SIGNATURE_LENGTH];
+		int len = ECDSA.transcodeSignatureToDER(jwsSignature, 0, jwsSignature.length, out, 0);
+
+		assertEquals(2 + 3 + 2 + 33, len);
+		assertEquals(48, out[0]);
+		assertEquals(len - 2, out[1]);
+		assertEquals(2, out[2]);
+		assertEquals(1, out[3]);
+		assertEquals(1, out[4]);
+		assertEquals(2, out[5]);
+		assertEquals(33, out[6]);
+		assertEquals(0, out[7]);
+		assertEquals((byte)0x80, out[8]);
+
+		byte[] concat = new byte[64];
+		assertEquals(64, ECDSA.transcodeSignatureToConcat(out, 0, len, concat, 0, 64));
+		assertTrue(Arrays.equals(jwsSignature, concat));
+	}
+
+
+	public void testTranscodeIntoBuffers_invalidFormat() {
+
+		byte[] out = new byte[ECDSA.MAX_DER_SIGNATURE_LENGTH];
+
+		byte[] tooLong = new byte[300];
+		Arrays.fill(tooLong, (byte)0x80);
+
+		for (byte[] jwsSignature: Arrays.asList(new byte[0], new byte[1], new byte[63], tooLong)) {
+			try {
+				ECDSA.transcodeSignatureToDER(jwsSignature, 0, jwsSignature.length, out, 0);
+				fail();
+			} catch (JOSEException e) {
+				assertEquals("Invalid ECDSA signature format", e.getMessage());
+			}
+		}
+
+		byte[] validDER = {48, 6, 2, 1, 1, 2, 1, 1};
+
+		for (byte[] derSignature: Arrays.asList(
+			new byte[7],
+			new byte[]{49, 6, 2, 1, 1, 2, 1, 1},
+			new byte[]{48, 7, 2, 1, 1, 2, 1, 1},
+			new byte[]{48, 6, 3, 1, 1, 2, 1, 1},
+			new byte[]{48, 6, 2, 2, 1, 2, 1, 1},
+			new byte[]{48, 6, 2, 1, 1, 3, 1, 1},
+			new byte[]{48, 6, 2, (byte)0xff, 1, 2, 1, 1},
+			new byte[]{48, 6, 2, 1, 1, 2, 2, 1})) {
+			try {
+				ECDSA.transcodeSignatureToConcat(derSignature, 0, derSignature.length, out, 0, 64);
+				fail();
+			} catch (JOSEException e) {
+				assertEquals("Invalid ECDSA signature format", e.getMessage());
+			}
+		}
+
+		// R doesn't fit
+		try {
+			ECDSA.transcodeSignatureToConcat(validDER, 0, validDER.length, out, 0, 0);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Invalid ECDSA signature format", e.getMessage());
+		}
+	}
 }
@@ -18,6 +18,10 @@
 package com.nimbusds.jose.crypto;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Provider;
 import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,9 +29,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.impl.HMAC;
 import com.nimbusds.jose.crypto.impl.MACProvider;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.StandardCharset;
 import junit.framework.TestCase;
 
 
@@ -35,7 +41,7 @@ import junit.framework.TestCase;
  * Tests HMAC JWS signing and verification. Uses test vectors from JWS spec.
  *
  * @author Vladimir Dzhuvinov
- * @version 2016-04-13
+ * @version 2026-10-19
  */
 public class MACTest extends TestCase {
 
@@ -453,4 +459,162 @@ public class MACTest extends TestCase {
 		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS384), new Payload("Hello world!"));
 		jwsObject.sign(signer);
 	}
+
+
+	public void testRepeatedSignAndVerifyWithPrototypeMac()
+		throws Exception {
+
+		byte[] secret = new byte[64];
+		new SecureRandom().nextBytes(secret);
+
+		MACSigner signer = new MACSigner(secret);
+		MACVerifier verifier = new MACVerifier(secret);
+
+		for (JWSAlgorithm alg: MACSigner.SUPPORTED_ALGORITHMS) {
+
+			String jcaAlg = alg.equals(JWSAlgorithm.HS256) ? "HMACSHA256" : alg.equals(JWSAlgorithm.HS384) ? "HMACSHA384" : "HMACSHA512";
+
+			for (int i=0; i < 10; i++) {
+				byte[] signingInput = ("signing-input-" + i).getBytes(StandardCharset.UTF_8);
+				Base64URL signature = signer.sign(new JWSHeader(alg), signingInput);
+				assertEquals(Base64URL.encode(HMAC.compute(jcaAlg, secret, signingInput, null)), signature);
+				assertTrue(verifier.verify(new JWSHeader(alg), signingInput, signature));
+				assertFalse(verifier.verify(new JWSHeader(alg), Arrays.copyOf(signingInput, signingInput.length - 1), signature));
+			}
+		}
+	}
+
+
+	/**
+	 * JCA provider without algorithms.
+	 */
+	private static class EmptyProvider extends Provider {
+
+
+		private static final long serialVersionUID = 1L;
+
+
+		private EmptyProvider() {
+
+			super("empty", 1.0, "No algorithms");
+		}
+	}
+
+
+	public void testPrototypeMacFollowsProviderChange()
+		throws Exception {
+
+		MACSigner signer = new MACSigner(sharedSecret);
+		Base64URL signature = signer.sign(new JWSHeader(JWSAlgorithm.HS256), new byte[]{1, 2, 3});
+
+		signer.getJCAContext().setProvider(new EmptyProvider());
+
+		try {
+			signer.sign(new JWSHeader(JWSAlgorithm.HS256), new byte[]{1, 2, 3});
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("Unsupported HMAC algorithm: "));
+		}
+
+		signer.getJCAContext().setProvider(null);
+		assertEquals(signature, signer.sign(new JWSHeader(JWSAlgorithm.HS256), new byte[]{1, 2, 3}));
+	}
+
+
+	public void testConcurrentSignAndVerify()
+		throws Exception {
+
+		final MACSigner signer = new MACSigner(sharedSecret);
+		final MACVerifier verifier = new MACVerifier(sharedSecret);
+		final byte[][] signingInputs = new byte[8][];
+		final Base64URL[] expected = new Base64URL[signingInputs.length];
+
+		for (int i=0; i < signingInputs.length; i++) {
+			signingInputs[i] = ("thread-" + i).getBytes(StandardCharset.UTF_8);
+			expected[i] = Base64URL.encode(HMAC.compute("HMACSHA256", sharedSecret, signingInputs[i], null));
+		}
+
+		final Set<String> errors = Collections.synchronizedSet(new HashSet<String>());
+		Thread[] threads = new Thread[signingInputs.length];
+
+		for (int t=0; t < threads.length; t++) {
+			final int index = t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i=0; i < 1000; i++) {
+							Base64URL signature = signer.sign(new JWSHeader(JWSAlgorithm.HS256), signingInputs[index]);
+							if (! expected[index].equals(signature) || ! verifier.verify(new JWSHeader(JWSAlgorithm.HS256), signingInputs[index], signature)) {
+								errors.add("Thread " + index + " mismatch");
+							}
+						}
+					} catch (JOSEException e) {
+						errors.add(e.getMessage());
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		assertTrue(errors.toString(), errors.isEmpty());
+	}
+
+
+	public void testStreamingVerify()
+		throws Exception {
+
+		MACSigner signer = new MACSigner(sharedSecret);
+		MACVerifier verifier = new MACVerifier(sharedSecret);
+
+		byte[] payload = new byte[100_000];
+		new SecureRandom().nextBytes(payload);
+
+		JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload(payload));
+		jwsObject.sign(signer);
+
+		assertTrue(verifier.verify(jwsObject.getHeader(), new ByteArrayInputStream(jwsObject.getSigningInput()), jwsObject.getSignature()));
+
+		byte[] tampered = jwsObject.getSigningInput();
+		tampered[tampered.length - 1] ^= 1;
+		assertFalse(verifier.verify(jwsObject.getHeader(), new ByteArrayInputStream(tampered), jwsObject.getSignature()));
+	}
+
+
+	public void testStreamingVerifyCritHeaderParamReject()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.customParam("exp", "2014-04-24")
+			.criticalParams(new HashSet<>(Collections.singletonList("exp")))
+			.build();
+
+		JWSObject jwsObject = new JWSObject(header, new Payload("Hello world!"));
+		jwsObject.sign(new MACSigner(sharedSecret));
+
+		assertFalse(new MACVerifier(sharedSecret).verify(header, new ByteArrayInputStream(jwsObject.getSigningInput()), jwsObject.getSignature()));
+	}
+
+
+	public void testStreamingVerifyReadException() {
+
+		InputStream in = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Broken stream");
+			}
+		};
+
+		try {
+			new MACVerifier(sharedSecret).verify(new JWSHeader(JWSAlgorithm.HS256), in, new Base64URL("abc"));
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("Couldn't read the signing input: Broken stream", e.getMessage());
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
 }
@@ -0,0 +1,262 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.AESDecrypter;
+import com.nimbusds.jose.crypto.AESEncrypter;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.util.Base64URL;
+
+
+public class AESGCMIVGeneratorTest extends TestCase {
+
+
+	public void testConstants() {
+
+		assertEquals(Long.MAX_VALUE, AESGCMIVGenerator.DEFAULT_MAX_INVOCATIONS);
+	}
+
+
+	public void testFixedField()
+		throws JOSEException {
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(0x0A0B0C0D, 0L, AESGCMIVGenerator.DEFAULT_MAX_INVOCATIONS);
+		assertEquals(0x0A0B0C0D, generator.getFixedField());
+		assertEquals(AESGCMIVGenerator.DEFAULT_MAX_INVOCATIONS, generator.getMaxInvocations());
+		assertEquals(0L, generator.getInvocationCount());
+
+		byte[] iv = generator.generateIV();
+		assertEquals(12, iv.length);
+		assertEquals(generator.getFixedField(), ((iv[0] & 0xFF) << 24) | ((iv[1] & 0xFF) << 16) | ((iv[2] & 0xFF) << 8) | (iv[3] & 0xFF));
+		assertEquals(1L, generator.getInvocationCount());
+	}
+
+
+	public void testIVComposition()
+		throws JOSEException {
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(0x01020304, 0x05060708090A0B0CL, Long.MAX_VALUE);
+		assertEquals(0x01020304, generator.getFixedField());
+
+		assertEquals("AQIDBAUGBwgJCgsM", Base64URL.encode(generator.generateIV()).toString());
+		assertEquals(0x05060708090A0B0DL, generator.getInvocationCount());
+	}
+
+
+	public void testCounterSequence()
+		throws JOSEException {
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(7, 0L, 1000L);
+
+		for (long i=0; i < 300; i++) {
+			byte[] iv = generator.generateIV();
+			assertEquals(0, iv[0]);
+			assertEquals(7, iv[3]);
+			assertEquals(i, ((iv[10] & 0xFF) << 8) | (iv[11] & 0xFF));
+		}
+
+		assertEquals(300L, generator.getInvocationCount());
+		assertEquals(700L, generator.getRemainingInvocations());
+	}
+
+
+	public void testExhaustion()
+		throws JOSEException {
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(1, 8L, 10L);
+
+		generator.generateIV();
+		generator.generateIV();
+		assertEquals(0L, generator.getRemainingInvocations());
+
+		for (int i=0; i < 2; i++) {
+			try {
+				generator.generateIV();
+				fail();
+			} catch (JOSEException e) {
+				assertEquals("The AES/GCM IV generator is exhausted after 10 invocations, the key must be rotated", e.getMessage());
+			}
+		}
+
+		assertEquals(10L, generator.getInvocationCount());
+	}
+
+
+	public void testExhaustionAtMaxCounter()
+		throws JOSEException {
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(1, Long.MAX_VALUE - 1, Long.MAX_VALUE);
+		generator.generateIV();
+
+		try {
+			generator.generateIV();
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+
+		// Counter wrap-around
+		try {
+			generator.generateIV();
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new AESGCMIVGenerator(1, -1L, 10L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The initial counter must not be negative", e.getMessage());
+		}
+
+		try {
+			new AESGCMIVGenerator(1, 10L, 10L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum invocations must be greater than the initial counter", e.getMessage());
+		}
+	}
+
+
+	public void testConcurrentUniqueness()
+		throws Exception {
+
+		final AESGCMIVGenerator generator = new AESGCMIVGenerator(1, 0L, AESGCMIVGenerator.DEFAULT_MAX_INVOCATIONS);
+		final Set<Base64URL> ivs = Collections.synchronizedSet(new HashSet<Base64URL>());
+
+		Thread[] threads = new Thread[8];
+
+		for (int t=0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i=0; i < 1000; i++) {
+							ivs.add(Base64URL.encode(generator.generateIV()));
+						}
+					} catch (JOSEException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		assertEquals(8000, ivs.size());
+		assertEquals(8000L, generator.getInvocationCount());
+	}
+
+
+	public void testDirectEncrypter()
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+		keyGen.init(256);
+		SecretKey key = keyGen.generateKey();
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(42, 0L, 2L);
+		DirectEncrypter encrypter = new DirectEncrypter(key, generator);
+		assertEquals(generator, encrypter.getAESGCMIVGenerator());
+		assertNull(new DirectEncrypter(key).getAESGCMIVGenerator());
+
+		for (int i=0; i < 2; i++) {
+			JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM), new Payload("Hello, world!"));
+			jwe.encrypt(encrypter);
+
+			byte[] iv = jwe.getIV().decode();
+			assertEquals(42, iv[3]);
+			assertEquals(i, iv[11]);
+
+			jwe = JWEObject.parse(jwe.serialize());
+			jwe.decrypt(new DirectDecrypter(key));
+			assertEquals("Hello, world!", jwe.getPayload().toString());
+		}
+
+		try {
+			new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM), new Payload("Hello, world!")).encrypt(encrypter);
+			fail();
+		} catch (JOSEException e) {
+			assertEquals("The AES/GCM IV generator is exhausted after 2 invocations, the key must be rotated", e.getMessage());
+		}
+	}
+
+
+	public void testDirectEncrypterCBCUsesRandomIV()
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
+		keyGen.init(256);
+		SecretKey key = keyGen.generateKey();
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(42, 0L, 10L);
+		JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128CBC_HS256), new Payload("Hello, world!"));
+		jwe.encrypt(new DirectEncrypter(key, generator));
+
+		assertEquals(16, jwe.getIV().decode().length);
+		assertEquals(0L, generator.getInvocationCount());
+	}
+
+
+	public void testAESEncrypterKeyWrapIV()
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+		keyGen.init(128);
+		SecretKey kek = keyGen.generateKey();
+
+		AESGCMIVGenerator generator = new AESGCMIVGenerator(42, 0L, 10L);
+		AESEncrypter encrypter = new AESEncrypter(kek, generator);
+		assertEquals(generator, encrypter.getAESGCMIVGenerator());
+
+		JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.A128GCMKW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		jwe.encrypt(encrypter);
+
+		assertTrue(Arrays.equals(new AESGCMIVGenerator(42, 0L, 10L).generateIV(), jwe.getHeader().getIV().decode()));
+		assertEquals(1L, generator.getInvocationCount());
+
+		jwe = JWEObject.parse(jwe.serialize());
+		jwe.decrypt(new AESDecrypter(kek));
+		assertEquals("Hello, world!", jwe.getPayload().toString());
+
+		// Not used with AES key wrap
+		jwe = new JWEObject(new JWEHeader(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		jwe.encrypt(encrypter);
+		assertEquals(1L, generator.getInvocationCount());
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.ECDHDecrypter;
+import com.nimbusds.jose.crypto.ECDHEncrypter;
+import com.nimbusds.jose.crypto.X25519Decrypter;
+import com.nimbusds.jose.crypto.X25519Encrypter;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.util.Base64URL;
+
+
+public class EphemeralKeyPoolTest extends TestCase {
+
+
+	private static void awaitSize(final EphemeralKeyPool<?> pool, final int size)
+		throws InterruptedException {
+
+		for (int i=0; i < 1000 && pool.size() < size; i++) {
+			Thread.sleep(10L);
+		}
+
+		assertEquals(size, pool.size());
+	}
+
+
+	public void testConstants() {
+
+		assertEquals(16, EphemeralKeyPool.DEFAULT_CAPACITY);
+		assertEquals(100L, EphemeralKeyPool.MIN_RETRY_BACKOFF_MILLIS);
+		assertEquals(60000L, EphemeralKeyPool.MAX_RETRY_BACKOFF_MILLIS);
+	}
+
+
+	public void testECDefaults()
+		throws Exception {
+
+		ECEphemeralKeyPool pool = new ECEphemeralKeyPool(Curve.P_256);
+		assertEquals(Curve.P_256, pool.getCurve());
+		assertEquals(EphemeralKeyPool.DEFAULT_CAPACITY, pool.getCapacity());
+		assertNull(pool.getProvider());
+		assertTrue(pool.isRunning());
+
+		awaitSize(pool, EphemeralKeyPool.DEFAULT_CAPACITY);
+
+		pool.shutdown();
+		assertFalse(pool.isRunning());
+		assertEquals(0, pool.size());
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new ECEphemeralKeyPool(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The curve must not be null", e.getMessage());
+		}
+
+		try {
+			new ECEphemeralKeyPool(Curve.P_256, 0, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The capacity must be positive", e.getMessage());
+		}
+
+		try {
+			new ECEphemeralKeyPool(Curve.X25519);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Unsupported elliptic curve: X25519", e.getMessage());
+		}
+
+		try {
+			new X25519EphemeralKeyPool(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The capacity must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testKeyPairsAreSingleUse()
+		throws Exception {
+
+		ECEphemeralKeyPool pool = new ECEphemeralKeyPool(Curve.P_384, 4, null);
+		awaitSize(pool, 4);
+
+		Set<Base64URL> publicKeys = new HashSet<>();
+
+		for (int i=0; i < 20; i++) {
+			KeyPair keyPair = pool.take();
+			ECKey ecKey = new ECKey.Builder(Curve.P_384, (ECPublicKey) keyPair.getPublic()).build();
+			assertTrue(publicKeys.add(ecKey.getX()));
+		}
+
+		assertEquals(20L, pool.getHitCount() + pool.getMissCount());
+		assertTrue(pool.getHitCount() >= 4);
+		assertTrue(pool.getGeneratedCount() >= pool.getHitCount());
+		assertEquals(0L, pool.getFailureCount());
+
+		pool.shutdown();
+	}
+
+
+	public void testRetryAfterFailure()
+		throws Exception {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		EphemeralKeyPool<Integer> pool = new EphemeralKeyPool<Integer>(Curve.P_256, 2) {
+			{
+				startRefill();
+			}
+
+			@Override
+			protected Integer generateKeyPair()
+				throws JOSEException {
+
+				int n = calls.incrementAndGet();
+
+				if (n <= 2) {
+					throw new JOSEException("Transient failure");
+				}
+
+				return n;
+			}
+		};
+
+		// Backoff 100 + 200 ms
+		awaitSize(pool, 2);
+
+		assertEquals(2L, pool.getFailureCount());
+		assertTrue(pool.getGeneratedCount() >= 2L);
+		assertTrue(pool.isRunning());
+		assertEquals(3, (int) pool.take());
+
+		pool.shutdown();
+		assertFalse(pool.isRunning());
+	}
+
+
+	public void testFallbackAfterShutdown()
+		throws Exception {
+
+		X25519EphemeralKeyPool pool = new X25519EphemeralKeyPool(2);
+		awaitSize(pool, 2);
+
+		pool.shutdown();
+
+		OctetKeyPair keyPair = pool.take();
+		assertEquals(Curve.X25519, keyPair.getCurve());
+		assertTrue(keyPair.isPrivate());
+		assertEquals(0L, pool.getHitCount());
+		assertEquals(1L, pool.getMissCount());
+	}
+
+
+	public void testECDHEncrypter()
+		throws Exception {
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).generate();
+
+		ECEphemeralKeyPool pool = new ECEphemeralKeyPool(Curve.P_256, 2, null);
+		awaitSize(pool, 2);
+
+		ECDHEncrypter encrypter = new ECDHEncrypter(ecJWK.toECPublicKey(), null, pool);
+		assertEquals(pool, encrypter.getEphemeralKeyPool());
+		assertNull(new ECDHEncrypter(ecJWK.toECPublicKey()).getEphemeralKeyPool());
+
+		Set<Base64URL> epks = new HashSet<>();
+
+		for (int i=0; i < 4; i++) {
+			JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.ECDH_ES, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+			jwe.encrypt(encrypter);
+
+			assertTrue(epks.add(((ECKey) jwe.getHeader().getEphemeralPublicKey()).getX()));
+
+			jwe = JWEObject.parse(jwe.serialize());
+			jwe.decrypt(new ECDHDecrypter(ecJWK));
+			assertEquals("Hello, world!", jwe.getPayload().toString());
+		}
+
+		assertEquals(4L, pool.getHitCount() + pool.getMissCount());
+
+		pool.shutdown();
+	}
+
+
+	public void testECDHEncrypterCurveMismatch()
+		throws Exception {
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).generate();
+
+		ECEphemeralKeyPool pool = new ECEphemeralKeyPool(Curve.P_521, 1, null);
+
+		try {
+			new ECDHEncrypter(ecJWK.toECPublicKey(), null, pool);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The curve of the ephemeral key pool must match the public key curve", e.getMessage());
+		}
+
+		pool.shutdown();
+	}
+
+
+	public void testX25519Encrypter()
+		throws Exception {
+
+		OctetKeyPair okp = new OctetKeyPairGenerator(Curve.X25519).generate();
+
+		X25519EphemeralKeyPool pool = new X25519EphemeralKeyPool(2);
+		awaitSize(pool, 2);
+
+		X25519Encrypter encrypter = new X25519Encrypter(okp.toPublicJWK(), pool);
+		assertEquals(pool, encrypter.getEphemeralKeyPool());
+		assertNull(new X25519Encrypter(okp.toPublicJWK()).getEphemeralKeyPool());
+
+		Set<Base64URL> epks = new HashSet<>();
+
+		for (int i=0; i < 4; i++) {
+			JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.ECDH_ES_A128KW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+			jwe.encrypt(encrypter);
+
+			OctetKeyPair epk = (OctetKeyPair) jwe.getHeader().getEphemeralPublicKey();
+			assertFalse(epk.isPrivate());
+			assertTrue(epks.add(epk.getX()));
+
+			jwe = JWEObject.parse(jwe.serialize());
+			jwe.decrypt(new X25519Decrypter(okp));
+			assertEquals("Hello, world!", jwe.getPayload().toString());
+		}
+
+		assertEquals(4L, pool.getHitCount() + pool.getMissCount());
+
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.crypto.impl;
+
+
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.PasswordBasedDecrypter;
+import com.nimbusds.jose.crypto.PasswordBasedEncrypter;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.StandardCharset;
+import com.nimbusds.jose.util.SystemClock;
+
+
+public class PBKDF2KeyCacheTest extends TestCase {
+
+
+	private static final byte[] PASSWORD = "secret".getBytes(StandardCharset.UTF_8);
+
+
+	private byte[] salt;
+
+
+	private static final SecretKey KEY = new SecretKeySpec(new byte[16], "AES");
+
+
+	private static class FixedClock implements Clock {
+
+		private long time;
+
+		@Override
+		public long currentTimeMillis() {
+			return time;
+		}
+	}
+
+
+	@Override
+	public void setUp()
+		throws JOSEException {
+
+		salt = PBKDF2.formatSalt(JWEAlgorithm.PBES2_HS256_A128KW, new byte[8]);
+	}
+
+
+	private static PRFParams prf(final JWEAlgorithm alg)
+		throws JOSEException {
+
+		return PRFParams.resolve(alg, null);
+	}
+
+
+	public void testDefaults() {
+
+		PBKDF2KeyCache cache = new PBKDF2KeyCache();
+		assertEquals(1000, cache.getMaxSize());
+		assertEquals(PBKDF2KeyCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+		assertEquals(10, cache.getTimeToLive(TimeUnit.MINUTES));
+		assertEquals(PBKDF2KeyCache.DEFAULT_TIME_TO_LIVE_MINUTES, cache.getTimeToLive(TimeUnit.MINUTES));
+		assertEquals(SystemClock.INSTANCE, cache.getClock());
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new PBKDF2KeyCache(0, 1, TimeUnit.MINUTES);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum size must be positive", e.getMessage());
+		}
+
+		try {
+			new PBKDF2KeyCache(1, 0, TimeUnit.MINUTES);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time to live must be positive", e.getMessage());
+		}
+
+		try {
+			new PBKDF2KeyCache(1, 1, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time unit must not be null", e.getMessage());
+		}
+
+		try {
+			new PBKDF2KeyCache(1, 1, TimeUnit.MINUTES, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The clock must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testPutAndGet()
+		throws JOSEException {
+
+		PBKDF2KeyCache cache = new PBKDF2KeyCache();
+
+		assertNull(cache.get(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+
+		cache.put(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW), KEY);
+		assertEquals(KEY, cache.get(PASSWORD.clone(), salt.clone(), 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertEquals(1, cache.size());
+
+		// Any other parameter must match
+		assertNull(cache.get("other".getBytes(StandardCharset.UTF_8), salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertNull(cache.get(PASSWORD, PBKDF2.formatSalt(JWEAlgorithm.PBES2_HS256_A128KW, new byte[9]), 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertNull(cache.get(PASSWORD, salt, 1001, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertNull(cache.get(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS512_A256KW)));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testExpiration()
+		throws JOSEException {
+
+		FixedClock clock = new FixedClock();
+		PBKDF2KeyCache cache = new PBKDF2KeyCache(10, 60, TimeUnit.SECONDS, clock);
+
+		cache.put(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW), KEY);
+
+		clock.time = 59_999L;
+		assertEquals(KEY, cache.get(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+
+		clock.time = 60_000L;
+		assertNull(cache.get(PASSWORD, salt, 1000, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testLeastRecentlyUsedEviction()
+		throws JOSEException {
+
+		PBKDF2KeyCache cache = new PBKDF2KeyCache(2, 1, TimeUnit.MINUTES);
+
+		cache.put(PASSWORD, salt, 1, prf(JWEAlgorithm.PBES2_HS256_A128KW), KEY);
+		cache.put(PASSWORD, salt, 2, prf(JWEAlgorithm.PBES2_HS256_A128KW), KEY);
+
+		// Touch the first
+		assertNotNull(cache.get(PASSWORD, salt, 1, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+
+		cache.put(PASSWORD, salt, 3, prf(JWEAlgorithm.PBES2_HS256_A128KW), KEY);
+		assertEquals(2, cache.size());
+
+		assertNotNull(cache.get(PASSWORD, salt, 1, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertNull(cache.get(PASSWORD, salt, 2, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+		assertNotNull(cache.get(PASSWORD, salt, 3, prf(JWEAlgorithm.PBES2_HS256_A128KW)));
+	}
+
+
+	public void testWithDecrypter()
+		throws Exception {
+
+		PasswordBasedEncrypter encrypter = new PasswordBasedEncrypter(PASSWORD, 16, 1000);
+
+		PBKDF2KeyCache cache = new PBKDF2KeyCache();
+		PasswordBasedDecrypter decrypter = new PasswordBasedDecrypter(PASSWORD, cache);
+		assertEquals(cache, decrypter.getKeyCache());
+		assertNull(new PasswordBasedDecrypter(PASSWORD).getKeyCache());
+
+		JWEObject first = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		first.encrypt(encrypter);
+
+		first = JWEObject.parse(first.serialize());
+		first.decrypt(decrypter);
+		assertEquals("Hello, world!", first.getPayload().toString());
+		assertEquals(1, cache.size());
+
+		// Cache hit
+		JWEHeader parsedHeader = first.getHeader();
+		byte[] formattedSalt = PBKDF2.formatSalt(parsedHeader.getAlgorithm(), parsedHeader.getPBES2Salt().decode());
+		assertNotNull(cache.get(PASSWORD, formattedSalt, parsedHeader.getPBES2Count(), prf(parsedHeader.getAlgorithm())));
+
+		first = JWEObject.parse(first.serialize());
+		first.decrypt(decrypter);
+		assertEquals("Hello, world!", first.getPayload().toString());
+		assertEquals(1, cache.size());
+	}
+
+
+	public void testWrongPasswordNotCached()
+		throws Exception {
+
+		JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.PBES2_HS256_A128KW, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		jwe.encrypt(new PasswordBasedEncrypter(PASSWORD, 16, 1000));
+
+		PBKDF2KeyCache cache = new PBKDF2KeyCache();
+
+		try {
+			JWEObject.parse(jwe.serialize()).decrypt(new PasswordBasedDecrypter("other".getBytes(StandardCharset.UTF_8), cache));
+			fail();
+		} catch (JOSEException e) {
+			// ok
+		}
+
+		assertEquals(0, cache.size());
+	}
+}
@@ -116,4 +116,103 @@ public class PBKDF2Test extends TestCase {
 
 		assertTrue(Arrays.equals(expectedKey, secretKey.getEncoded()));
 	}
+
+
+	public void testDeriveKeyExampleBothEngines()
+		throws Exception {
+
+		final byte[] password = "Thus from my lips, by yours, my sin is purged.".getBytes(Charset.forName("UTF-8"));
+		final byte[] salt = PBKDF2.formatSalt(JWEAlgorithm.PBES2_HS256_A128KW, new byte[]{
+			(byte)217, (byte) 96, (byte)147, (byte)112, (byte)150, (byte)117, (byte) 70, (byte)247,
+			(byte)127, (byte)  8, (byte)155, (byte)137, (byte)174, (byte) 42, (byte) 80, (byte)215 });
+
+		PRFParams prfParams = new PRFParams("HmacSHA256", null, 16);
+
+		final byte[] expectedKey = {
+			(byte)110, (byte)171, (byte)169, (byte) 92, (byte)129, (byte) 92, (byte)109, (byte)117,
+			(byte)233, (byte)242, (byte)116, (byte)233, (byte)170, (byte) 14, (byte) 24, (byte) 75 };
+
+		assertTrue(Arrays.equals(expectedKey, PBKDF2.deriveKeyWithPRF(password, salt, 4096, prfParams).getEncoded()));
+
+		SecretKey key = PBKDF2.deriveKeyWithSecretKeyFactory(password, salt, 4096, prfParams);
+		assertNotNull(key);
+		assertEquals("AES", key.getAlgorithm());
+		assertTrue(Arrays.equals(expectedKey, key.getEncoded()));
+	}
+
+
+	// Multi-block output, https://stackoverflow.com/a/5136918
+	public void testDeriveKeyHmacSHA256Vectors()
+		throws Exception {
+
+		byte[] password = "password".getBytes(Charset.forName("UTF-8"));
+		byte[] salt = "salt".getBytes(Charset.forName("UTF-8"));
+
+		assertEquals("120fb6cffcf8b32c43e7225256c4f837a86548c92ccc35480805987cb70be17b",
+			toHex(PBKDF2.deriveKeyWithPRF(password, salt, 1, new PRFParams("HmacSHA256", null, 32)).getEncoded()));
+
+		assertEquals("c5e478d59288c841aa530db6845c4c8d962893a001ce4e11a4963873aa98134a",
+			toHex(PBKDF2.deriveKeyWithPRF(password, salt, 4096, new PRFParams("HmacSHA256", null, 32)).getEncoded()));
+
+		password = "passwordPASSWORDpassword".getBytes(Charset.forName("UTF-8"));
+		salt = "saltSALTsaltSALTsaltSALTsaltSALTsalt".getBytes(Charset.forName("UTF-8"));
+
+		PRFParams prfParams = new PRFParams("HmacSHA256", null, 40);
+
+		assertEquals("348c89dbcbd32b2f32d814b8116e84cf2b17347ebc1800181c4e2a1fb8dd53e1c635518c7dac47e9",
+			toHex(PBKDF2.deriveKeyWithPRF(password, salt, 4096, prfParams).getEncoded()));
+
+		assertEquals("348c89dbcbd32b2f32d814b8116e84cf2b17347ebc1800181c4e2a1fb8dd53e1c635518c7dac47e9",
+			toHex(PBKDF2.deriveKey(password, salt, 4096, prfParams).getEncoded()));
+	}
+
+
+	public void testEnginesAgreeForAllAlgorithms()
+		throws Exception {
+
+		SecureRandom random = new SecureRandom();
+
+		for (JWEAlgorithm alg: JWEAlgorithm.Family.PBES2) {
+
+			byte[] passwordBytes = new byte[8];
+			random.nextBytes(passwordBytes);
+			byte[] password = Base64URL.encode(passwordBytes).toString().getBytes(Charset.forName("UTF-8"));
+			byte[] salt = new byte[16];
+			random.nextBytes(salt);
+			byte[] formattedSalt = PBKDF2.formatSalt(alg, salt);
+
+			PRFParams prfParams = PRFParams.resolve(alg, null);
+
+			byte[] expected = PBKDF2.deriveKeyWithPRF(password, formattedSalt, 1000, prfParams).getEncoded();
+			assertEquals(prfParams.getDerivedKeyByteLength(), expected.length);
+
+			assertTrue(Arrays.equals(expected, PBKDF2.deriveKeyWithSecretKeyFactory(password, formattedSalt, 1000, prfParams).getEncoded()));
+			assertTrue(Arrays.equals(expected, PBKDF2.deriveKey(password, formattedSalt, 1000, prfParams).getEncoded()));
+		}
+	}
+
+
+	public void testNonUTF8PasswordUsesPRF()
+		throws Exception {
+
+		byte[] password = { (byte)0xff, (byte)0xfe, (byte)0x80, (byte)0x00 };
+		byte[] salt = PBKDF2.formatSalt(JWEAlgorithm.PBES2_HS512_A256KW, new byte[8]);
+		PRFParams prfParams = PRFParams.resolve(JWEAlgorithm.PBES2_HS512_A256KW, null);
+
+		assertNull(PBKDF2.deriveKeyWithSecretKeyFactory(password, salt, 100, prfParams));
+
+		assertTrue(Arrays.equals(
+			PBKDF2.deriveKeyWithPRF(password, salt, 100, prfParams).getEncoded(),
+			PBKDF2.deriveKey(password, salt, 100, prfParams).getEncoded()));
+	}
+
+
+	private static String toHex(final byte[] bytes) {
+
+		StringBuilder sb = new StringBuilder();
+		for (byte b: bytes) {
+			sb.append(String.format("%02x", b & 0xff));
+		}
+		return sb.toString();
+	}
 }
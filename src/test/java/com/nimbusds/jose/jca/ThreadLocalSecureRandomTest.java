@@ -0,0 +1,202 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jca;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.util.Base64URL;
+
+
+public class ThreadLocalSecureRandomTest extends TestCase {
+
+
+	public void testDefaults() {
+
+		ThreadLocalSecureRandom random = new ThreadLocalSecureRandom();
+		assertTrue(random.getAlgorithm().equals("ThreadLocal-DRBG") || random.getAlgorithm().equals("ThreadLocal-SHA1PRNG"));
+		assertEquals(1024L * 1024L, random.getReseedIntervalBytes());
+		assertEquals(ThreadLocalSecureRandom.DEFAULT_RESEED_INTERVAL_BYTES, random.getReseedIntervalBytes());
+		assertEquals(ThreadLocalSecureRandom.DEFAULT_RESEED_INTERVAL_MILLIS, random.getReseedIntervalMillis());
+	}
+
+
+	public void testGetDefault() {
+
+		assertNotNull(ThreadLocalSecureRandom.getDefault());
+		assertSame(ThreadLocalSecureRandom.getDefault(), ThreadLocalSecureRandom.getDefault());
+	}
+
+
+	public void testDefaultInJCAContext() {
+
+		// Opt-in
+		assertFalse(new JCAContext().getSecureRandom() instanceof ThreadLocalSecureRandom);
+
+		JCAContext jcaContext = new JCAContext();
+		jcaContext.setSecureRandom(ThreadLocalSecureRandom.getDefault());
+		assertSame(ThreadLocalSecureRandom.getDefault(), jcaContext.getSecureRandom());
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new ThreadLocalSecureRandom("no-such-alg", 100, 100);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Unsupported secure random algorithm: no-such-alg", e.getMessage());
+		}
+
+		try {
+			new ThreadLocalSecureRandom("SHA1PRNG", 0, 100);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The reseed interval in bytes must be positive", e.getMessage());
+		}
+
+		try {
+			new ThreadLocalSecureRandom("SHA1PRNG", 100, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The reseed interval in milliseconds must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testNextBytes() {
+
+		SecureRandom random = new ThreadLocalSecureRandom("SHA1PRNG", 100, 60_000L);
+		assertEquals("ThreadLocal-SHA1PRNG", random.getAlgorithm());
+
+		Set<Base64URL> outputs = new HashSet<>();
+
+		// Crosses the reseed interval repeatedly
+		for (int i=0; i < 1000; i++) {
+			byte[] bytes = new byte[16];
+			random.nextBytes(bytes);
+			assertTrue(outputs.add(Base64URL.encode(bytes)));
+		}
+
+		assertFalse(Arrays.equals(new byte[16], outputs.iterator().next().decode()));
+	}
+
+
+	public void testOtherMethodsDelegate() {
+
+		SecureRandom random = new ThreadLocalSecureRandom();
+
+		random.setSeed(new byte[]{1, 2, 3});
+		random.setSeed(123L);
+		assertEquals(16, random.generateSeed(16).length);
+
+		// Built-in methods based on nextBytes
+		random.nextInt();
+		random.nextLong();
+		random.nextDouble();
+	}
+
+
+	public void testSerialization()
+		throws Exception {
+
+		ThreadLocalSecureRandom random = new ThreadLocalSecureRandom("SHA1PRNG", 1000L, 2000L);
+		random.nextBytes(new byte[16]);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(random);
+		}
+
+		ThreadLocalSecureRandom copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (ThreadLocalSecureRandom) in.readObject();
+		}
+
+		assertNotSame(random, copy);
+		assertEquals("ThreadLocal-SHA1PRNG", copy.getAlgorithm());
+		assertEquals(1000L, copy.getReseedIntervalBytes());
+		assertEquals(2000L, copy.getReseedIntervalMillis());
+
+		byte[] out = new byte[16];
+		copy.nextBytes(out);
+		assertFalse(Arrays.equals(new byte[16], out));
+		copy.setSeed(new byte[8]);
+		assertEquals(4, copy.generateSeed(4).length);
+	}
+
+
+	public void testSeededGeneratorsDifferAcrossInstances() {
+
+		byte[] a = new byte[32];
+		byte[] b = new byte[32];
+		new ThreadLocalSecureRandom().nextBytes(a);
+		new ThreadLocalSecureRandom().nextBytes(b);
+		assertFalse(Arrays.equals(a, b));
+	}
+
+
+	public void testConcurrentThreads()
+		throws Exception {
+
+		final SecureRandom random = new ThreadLocalSecureRandom();
+		final Set<Base64URL> outputs = Collections.synchronizedSet(new HashSet<Base64URL>());
+		final CountDownLatch start = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[8];
+
+		for (int t=0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i=0; i < 1000; i++) {
+						byte[] iv = new byte[12];
+						random.nextBytes(iv);
+						outputs.add(Base64URL.encode(iv));
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		start.countDown();
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		// No per-thread generators with the same state
+		assertEquals(8000, outputs.size());
+	}
+}
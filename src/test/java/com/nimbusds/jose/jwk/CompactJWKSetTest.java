@@ -0,0 +1,157 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk;
+
+
+import java.util.*;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+
+
+public class CompactJWKSetTest extends TestCase {
+
+
+	// Self-signed, EC P-256
+	private static final Base64 CERT = new Base64(
+		"MIIBdDCCARugAwIBAgIUW+JzXTDsvEisRQTd5ctYdWa/J+gwCgYIKoZIzj0EAwIw" +
+		"DzENMAsGA1UEAwwEYzJpZDAgFw0yNjEwMTkwMjQ5MzBaGA8yMTI2MDkyNTAyNDkz" +
+		"MFowDzENMAsGA1UEAwwEYzJpZDBZMBMGByqGSM49AgEGCCqGSM49AwEHA0IABJKW" +
+		"w2iWHehfqYN0Mb06HHzVitbcABPE13pTRhS1EJhBok391tkN+ITW8K7qoIFfewB0" +
+		"vQl5pBzXtp/AQvXQb8+jUzBRMB0GA1UdDgQWBBQjzPo4LDB6XnQC/9qd4z+5TbcM" +
+		"uzAfBgNVHSMEGDAWgBQjzPo4LDB6XnQC/9qd4z+5TbcMuzAPBgNVHRMBAf8EBTAD" +
+		"AQH/MAoGCCqGSM49BAMCA0cAMEQCIB08JwD8fp5mBToJOMPmkpexskiBaqT94DFo" +
+		"kyoywNQuAiBkWxhYWsaZDyeIVGxC0MAyEZGt/Xvq4cUTh4XYxBwTSw==");
+
+
+	private static JWKSet createJWKSet()
+		throws Exception {
+
+		List<JWK> keys = new ArrayList<>();
+
+		keys.add(new RSAKeyGenerator(2048)
+			.keyUse(KeyUse.SIGNATURE)
+			.algorithm(JWSAlgorithm.RS256)
+			.keyID("rsa")
+			.generate());
+
+		keys.add(new ECKeyGenerator(Curve.P_256)
+			.keyOperations(new HashSet<>(Arrays.asList(KeyOperation.SIGN, KeyOperation.VERIFY)))
+			.keyID("ec")
+			.generate());
+
+		keys.add(new OctetKeyPairGenerator(Curve.Ed25519)
+			.keyID("okp")
+			.generate());
+
+		keys.add(new OctetSequenceKey.Builder(new OctetSequenceKeyGenerator(256).generate().getKeyValue())
+			.algorithm(JWEAlgorithm.A256KW)
+			.x509CertChain(Collections.singletonList(CERT))
+			.x509CertSHA256Thumbprint(new Base64URL("abc"))
+			.build());
+
+		// Same kid
+		keys.add(new OctetSequenceKeyGenerator(256).keyID("ec").generate());
+
+		Map<String,Object> customMembers = new HashMap<>();
+		customMembers.put("tenant", "t1");
+
+		return new JWKSet(keys, customMembers);
+	}
+
+
+	public void testRoundTrip()
+		throws Exception {
+
+		JWKSet jwkSet = createJWKSet();
+
+		for (boolean offHeap: new boolean[]{false, true}) {
+
+			CompactJWKSet compact = new CompactJWKSet(jwkSet, offHeap);
+
+			assertEquals(offHeap, compact.isOffHeap());
+			assertEquals(5, compact.size());
+			assertEquals(jwkSet.getAdditionalMembers(), compact.getAdditionalMembers());
+
+			for (int i=0; i < jwkSet.getKeys().size(); i++) {
+				JWK expected = jwkSet.getKeys().get(i);
+				JWK restored = compact.getKey(i);
+				assertEquals(expected, restored);
+				assertEquals(expected.toJSONObject(), restored.toJSONObject());
+				assertNotSame(restored, compact.getKey(i));
+			}
+
+			assertEquals(jwkSet.toJSONObject(false), compact.toJWKSet().toJSONObject(false));
+
+			// Raw bytes take less space than the Base64URL strings
+			assertTrue(compact.getStorageSize() < jwkSet.toJSONObject(false).toJSONString().length());
+		}
+	}
+
+
+	public void testGetKeyByKeyId()
+		throws Exception {
+
+		JWKSet jwkSet = createJWKSet();
+		CompactJWKSet compact = new CompactJWKSet(jwkSet);
+
+		assertEquals(jwkSet.getKeyByKeyId("rsa"), compact.getKeyByKeyId("rsa"));
+		assertEquals(jwkSet.getKeys().get(1), compact.getKeyByKeyId("ec"));
+		assertNull(compact.getKeyByKeyId("xxx"));
+
+		List<JWK> keys = compact.getKeysByKeyId(new HashSet<>(Arrays.asList("okp", "ec", "xxx")));
+		assertEquals(Arrays.asList(jwkSet.getKeys().get(1), jwkSet.getKeys().get(2), jwkSet.getKeys().get(4)), keys);
+
+		try {
+			compact.getKey(5);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Invalid key index: 5", e.getMessage());
+		}
+	}
+
+
+	public void testNonCanonicalBase64URLPreserved()
+		throws Exception {
+
+		// Trailing bits set, decoding isn't lossless
+		OctetSequenceKey octJWK = new OctetSequenceKey.Builder(new Base64URL("AAAB")).build();
+		OctetSequenceKey nonCanonical = OctetSequenceKey.parse("{\"kty\":\"oct\",\"k\":\"AAB\"}");
+
+		CompactJWKSet compact = new CompactJWKSet(new JWKSet(Arrays.<JWK>asList(octJWK, nonCanonical)));
+
+		assertEquals(octJWK, compact.getKey(0));
+		assertEquals("AAB", ((OctetSequenceKey) compact.getKey(1)).getKeyValue().toString());
+	}
+
+
+	public void testEmpty() {
+
+		CompactJWKSet compact = new CompactJWKSet(new JWKSet());
+		assertEquals(0, compact.size());
+		assertTrue(compact.toJWKSet().getKeys().isEmpty());
+	}
+}
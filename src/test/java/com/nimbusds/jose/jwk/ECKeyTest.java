@@ -862,6 +862,32 @@ public class ECKeyTest extends TestCase {
 	}
 	
 	
+	public void testMatchesX509Certificate()
+		throws Exception {
+		
+		X509Certificate cert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-pem-encoded-objects/eccert.pem"), Charset.forName("UTF-8")));
+		X509Certificate otherCert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-certs/wikipedia.crt"), Charset.forName("UTF-8")));
+		X509Certificate rsaCert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-certs/ietf.crt"), Charset.forName("UTF-8")));
+		
+		// No x5c
+		ECKey jwk = new ECKey.Builder(Curve.P_256, (ECPublicKey) cert.getPublicKey()).build();
+		assertTrue(jwk.matches(cert));
+		assertFalse(jwk.matches(otherCert));
+		assertFalse(jwk.matches(rsaCert));
+		
+		// The specified certificate is checked, not the first in x5c
+		jwk = new ECKey.Builder(Curve.P_256, (ECPublicKey) cert.getPublicKey())
+			.x509CertChain(Collections.singletonList(Base64.encode(cert.getEncoded())))
+			.build();
+		assertTrue(jwk.matches(cert));
+		assertFalse(jwk.matches(otherCert));
+		
+		jwk = new ECKey.Builder(Curve.P_256, (ECPublicKey) otherCert.getPublicKey()).build();
+		assertFalse(jwk.matches(cert));
+		assertTrue(jwk.matches(otherCert));
+	}
+	
+	
 	public void testParseFromX509Cert()
 		throws Exception {
 		
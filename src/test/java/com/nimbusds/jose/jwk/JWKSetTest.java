@@ -1009,4 +1009,43 @@ public class JWKSetTest extends TestCase {
 			assertEquals("Missing required \"keys\" member", e.getMessage());
 		}
 	}
+	
+	
+	public void testGetKeyByThumbprint()
+		throws Exception {
+		
+		// RFC 7638, section 3.1
+		RSAKey rsaKey = new RSAKey.Builder(
+			new Base64URL(
+				"0vx7agoebGcQSuuPiLJXZptN9nndrQmbXEps2aiAFbWhM78LhWx" +
+				"4cbbfAAtVT86zwu1RK7aPFFxuhDR1L6tSoc_BJECPebWKRXjBZCiFV4n3oknjhMs" +
+				"tn64tZ_2W-5JsGY4Hc5n9yBXArwl93lqt7_RN5w6Cf0h4QyQ5v-65YGjQR0_FDW2" +
+				"QvzqY368QQMicAtaSqzs8KJZgnYb9c7d0zgdAZHzu6qMQvRL5hajrn1n91CbOpbI" +
+				"SD08qNLyrdkt-bFTWhAI4vMQFh6WeZu0fM4lFd2NcRwr3XPksINHaQ-G_xBniIqb" +
+				"w0Ls1jF44-csFCur-kEgU8awapJzKnqDKgw"),
+			new Base64URL("AQAB"))
+			.keyID("2011-04-29")
+			.algorithm(JWSAlgorithm.RS256)
+			.build();
+		
+		Base64URL thumbprint = new Base64URL("NzbLsXh8uDCcd-6MNwXF4W_7noWXFZAfHkxZsRGC9Xs");
+		
+		// Memoized
+		assertEquals(thumbprint, rsaKey.computeThumbprint());
+		assertSame(rsaKey.computeThumbprint(), rsaKey.computeThumbprint());
+		assertSame(rsaKey.computeThumbprint(), ThumbprintUtils.compute(rsaKey));
+		assertEquals(ThumbprintUtils.compute("SHA-256", rsaKey.getRequiredParams()), rsaKey.computeThumbprint());
+		
+		OctetSequenceKey octKey = new OctetSequenceKey.Builder(new byte[32]).keyID("1").build();
+		
+		// Same public params, other kid
+		RSAKey otherRSAKey = new RSAKey.Builder(rsaKey).keyID("2").build();
+		
+		JWKSet jwkSet = new JWKSet(Arrays.<JWK>asList(octKey, rsaKey, otherRSAKey));
+		
+		assertEquals(rsaKey, jwkSet.getKeyByThumbprint(thumbprint));
+		assertEquals(octKey, jwkSet.getKeyByThumbprint(octKey.computeThumbprint()));
+		assertNull(jwkSet.getKeyByThumbprint(new Base64URL("abc")));
+		assertNull(new JWKSet().getKeyByThumbprint(thumbprint));
+	}
 }
@@ -0,0 +1,153 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.util.IOUtils;
+import com.nimbusds.jose.util.StandardCharset;
+
+
+public class PublishedJWKSetTest extends TestCase {
+
+
+	public void testPublish()
+		throws Exception {
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).keyID("1").generate();
+		OctetSequenceKey octJWK = new OctetSequenceKeyGenerator(256).keyID("2").generate();
+
+		JWKSet jwkSet = new JWKSet(Arrays.<JWK>asList(ecJWK, octJWK));
+
+		PublishedJWKSet published = new PublishedJWKSet(jwkSet);
+
+		assertEquals(JWKSet.MIME_TYPE, published.getContentType());
+
+		// Public keys only
+		assertEquals(1, published.getJWKSet().getKeys().size());
+		assertFalse(published.getJWKSet().getKeys().get(0).isPrivate());
+
+		String json = new String(published.getBytes(), StandardCharset.UTF_8);
+		assertEquals(jwkSet.toPublicJWKSet().toJSONObject().toString(), json);
+		assertEquals(json, published.toString());
+		assertEquals(published.getBytes().length, published.getContentLength());
+		assertEquals(ecJWK.toPublicJWK(), JWKSet.parse(json).getKeyByKeyId("1"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		published.writeTo(out);
+		assertEquals(json, new String(out.toByteArray(), StandardCharset.UTF_8));
+
+		// Gzip
+		assertEquals(published.getGzipBytes().length, published.getGzipContentLength());
+		out = new ByteArrayOutputStream();
+		published.writeGzipTo(out);
+		assertTrue(Arrays.equals(published.getGzipBytes(), out.toByteArray()));
+		String decompressed = IOUtils.readInputStreamToString(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())), StandardCharset.UTF_8);
+		assertEquals(json, decompressed);
+
+		// Returned arrays are copies
+		published.getBytes()[0] = 0;
+		assertEquals(json, published.toString());
+	}
+
+
+	public void testETag()
+		throws Exception {
+
+		JWKSet jwkSet = new JWKSet(new ECKeyGenerator(Curve.P_256).keyID("1").generate());
+
+		PublishedJWKSet published = new PublishedJWKSet(jwkSet);
+
+		String eTag = published.getETag();
+		assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+		assertEquals(eTag, new PublishedJWKSet(jwkSet).getETag());
+
+		assertTrue(published.isNotModified(eTag));
+		assertTrue(published.isNotModified("W/" + eTag));
+		assertTrue(published.isNotModified("\"abc\", " + eTag));
+		assertTrue(published.isNotModified("*"));
+		assertFalse(published.isNotModified("\"abc\""));
+		assertFalse(published.isNotModified(null));
+
+		JWKSet otherJWKSet = new JWKSet(new ECKeyGenerator(Curve.P_256).keyID("1").generate());
+		assertFalse(new PublishedJWKSet(otherJWKSet).isNotModified(eTag));
+	}
+
+
+	public void testGzipETag()
+		throws Exception {
+
+		JWKSet jwkSet = new JWKSet(new ECKeyGenerator(Curve.P_256).keyID("1").generate());
+
+		PublishedJWKSet published = new PublishedJWKSet(jwkSet);
+
+		String eTag = published.getETag();
+		String gzipETag = published.getGzipETag();
+		assertTrue(gzipETag.startsWith("\"") && gzipETag.endsWith("\""));
+		assertFalse(eTag.equals(gzipETag));
+		assertEquals(gzipETag, new PublishedJWKSet(jwkSet).getGzipETag());
+
+		// RFC 7232, section 2.3.3: distinct validators per content coding
+		assertTrue(published.isGzipNotModified(gzipETag));
+		assertTrue(published.isGzipNotModified("W/" + gzipETag));
+		assertTrue(published.isGzipNotModified("*"));
+		assertFalse(published.isGzipNotModified(eTag));
+		assertFalse(published.isGzipNotModified(null));
+		assertFalse(published.isNotModified(gzipETag));
+	}
+
+
+	public void testUpdate()
+		throws Exception {
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).keyID("1").generate();
+		JWKSet jwkSet = new JWKSet(ecJWK);
+
+		PublishedJWKSet published = new PublishedJWKSet(jwkSet);
+
+		assertSame(published, published.update(jwkSet));
+
+		// Same public keys, other instance
+		assertSame(published, published.update(new JWKSet(ecJWK.toPublicJWK())));
+
+		ECKey newECJWK = new ECKeyGenerator(Curve.P_256).keyID("2").generate();
+		PublishedJWKSet updated = published.update(new JWKSet(Arrays.<JWK>asList(ecJWK, newECJWK)));
+		assertNotSame(published, updated);
+		assertEquals(2, updated.getJWKSet().getKeys().size());
+		assertFalse(published.getETag().equals(updated.getETag()));
+	}
+
+
+	public void testRejectNull() {
+
+		try {
+			new PublishedJWKSet(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWK set must not be null", e.getMessage());
+		}
+	}
+}
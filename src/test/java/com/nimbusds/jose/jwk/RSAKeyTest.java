@@ -1410,6 +1410,32 @@ public class RSAKeyTest extends TestCase {
 	}
 	
 	
+	public void testMatchesX509Certificate()
+		throws Exception {
+		
+		X509Certificate cert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-pem-encoded-objects/rsacert.pem"), Charset.forName("UTF-8")));
+		X509Certificate otherCert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-certs/ietf.crt"), Charset.forName("UTF-8")));
+		X509Certificate ecCert = X509CertUtils.parse(IOUtils.readFileToString(new File("src/test/resources/sample-certs/wikipedia.crt"), Charset.forName("UTF-8")));
+		
+		// No x5c
+		RSAKey jwk = new RSAKey.Builder((RSAPublicKey) cert.getPublicKey()).build();
+		assertTrue(jwk.matches(cert));
+		assertFalse(jwk.matches(otherCert));
+		assertFalse(jwk.matches(ecCert));
+		
+		// The specified certificate is checked, not the first in x5c
+		jwk = new RSAKey.Builder((RSAPublicKey) cert.getPublicKey())
+			.x509CertChain(Collections.singletonList(Base64.encode(cert.getEncoded())))
+			.build();
+		assertTrue(jwk.matches(cert));
+		assertFalse(jwk.matches(otherCert));
+		
+		jwk = new RSAKey.Builder((RSAPublicKey) otherCert.getPublicKey()).build();
+		assertFalse(jwk.matches(cert));
+		assertTrue(jwk.matches(otherCert));
+	}
+	
+	
 	public void testLoadFromKeyStore()
 		throws Exception {
 		
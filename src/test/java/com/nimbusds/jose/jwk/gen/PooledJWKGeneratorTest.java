@@ -0,0 +1,269 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk.gen;
+
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.util.Base64URL;
+import junit.framework.TestCase;
+
+
+public class PooledJWKGeneratorTest extends TestCase {
+
+
+	private static void awaitSize(final PooledJWKGenerator<?> pool, final int size)
+		throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + 30000L;
+
+		while (pool.size() < size) {
+			assertTrue("Pool not filled in time", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+
+	public void testFillAndTakeWithParams()
+		throws Exception {
+
+		PooledJWKGenerator<ECKey> pool = new PooledJWKGenerator<>(new ECKeyGenerator(Curve.P_256).keyID("ignored"), 4);
+
+		try {
+			assertEquals(4, pool.getCapacity());
+			assertTrue(pool.getGenerator() instanceof ECKeyGenerator);
+
+			awaitSize(pool, 4);
+			assertEquals(4, pool.getGeneratedCount());
+
+			ECKey ecJWK = pool
+				.keyUse(KeyUse.SIGNATURE)
+				.keyOperations(Collections.singleton(KeyOperation.SIGN))
+				.algorithm(JWSAlgorithm.ES256)
+				.keyID("1")
+				.generate();
+
+			assertEquals(Curve.P_256, ecJWK.getCurve());
+			assertTrue(ecJWK.isPrivate());
+			assertEquals(KeyUse.SIGNATURE, ecJWK.getKeyUse());
+			assertEquals(Collections.singleton(KeyOperation.SIGN), ecJWK.getKeyOperations());
+			assertEquals(JWSAlgorithm.ES256, ecJWK.getAlgorithm());
+			assertEquals("1", ecJWK.getKeyID());
+			assertEquals(1, pool.getHitCount());
+
+			ecJWK = pool
+				.keyUse(null)
+				.keyOperations(null)
+				.algorithm(null)
+				.keyIDFromThumbprint(true)
+				.generate();
+
+			assertNull(ecJWK.getKeyUse());
+			assertNull(ecJWK.getKeyOperations());
+			assertNull(ecJWK.getAlgorithm());
+			assertEquals(ecJWK.computeThumbprint().toString(), ecJWK.getKeyID());
+
+			// Refilled
+			awaitSize(pool, 4);
+			assertEquals(6, pool.getGeneratedCount());
+			assertEquals(0, pool.getMissCount());
+			assertEquals(0, pool.getFailureCount());
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testWrappedGeneratorParamsRetained()
+		throws Exception {
+
+		PooledJWKGenerator<ECKey> pool = new PooledJWKGenerator<>(
+			new ECKeyGenerator(Curve.P_256)
+				.keyUse(KeyUse.SIGNATURE)
+				.algorithm(JWSAlgorithm.ES256)
+				.keyIDFromThumbprint(true),
+			2);
+
+		try {
+			awaitSize(pool, 2);
+
+			// Nothing set on the pool
+			ECKey ecJWK = pool.generate();
+			assertEquals(KeyUse.SIGNATURE, ecJWK.getKeyUse());
+			assertEquals(JWSAlgorithm.ES256, ecJWK.getAlgorithm());
+			assertEquals(ecJWK.computeThumbprint().toString(), ecJWK.getKeyID());
+
+			// Only the algorithm and key ID overridden
+			ecJWK = pool.algorithm(JWSAlgorithm.ES256K).keyID("1").generate();
+			assertEquals(KeyUse.SIGNATURE, ecJWK.getKeyUse());
+			assertEquals(JWSAlgorithm.ES256K, ecJWK.getAlgorithm());
+			assertEquals("1", ecJWK.getKeyID());
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testKeysHandedOutOnce()
+		throws Exception {
+
+		PooledJWKGenerator<OctetSequenceKey> pool = new PooledJWKGenerator<>(new OctetSequenceKeyGenerator(256), 8, 2);
+
+		try {
+			awaitSize(pool, 8);
+
+			Set<Base64URL> keys = new HashSet<>();
+
+			for (int i=0; i < 100; i++) {
+				assertTrue(keys.add(pool.generate().getKeyValue()));
+			}
+
+			assertEquals(100, pool.getHitCount() + pool.getMissCount());
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testRSA()
+		throws Exception {
+
+		PooledJWKGenerator<RSAKey> pool = new PooledJWKGenerator<>(new RSAKeyGenerator(2048), 1);
+
+		try {
+			awaitSize(pool, 1);
+
+			RSAKey rsaJWK = pool.keyID("1").generate();
+			assertEquals(2048, rsaJWK.size());
+			assertTrue(rsaJWK.isPrivate());
+			assertEquals("1", rsaJWK.getKeyID());
+			assertEquals(1, pool.getHitCount());
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testOKP()
+		throws Exception {
+
+		PooledJWKGenerator<OctetKeyPair> pool = new PooledJWKGenerator<>(new OctetKeyPairGenerator(Curve.Ed25519), 2);
+
+		try {
+			OctetKeyPair okp = pool.keyUse(KeyUse.SIGNATURE).generate();
+			assertEquals(Curve.Ed25519, okp.getCurve());
+			assertEquals(KeyUse.SIGNATURE, okp.getKeyUse());
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testInlineAfterShutdown()
+		throws Exception {
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			PooledJWKGenerator<ECKey> pool = new PooledJWKGenerator<>(new ECKeyGenerator(Curve.P_256), 2, executor);
+			awaitSize(pool, 2);
+
+			pool.shutdown();
+			assertEquals(0, pool.size());
+
+			// The executor isn't owned
+			assertFalse(executor.isShutdown());
+
+			assertNotNull(pool.keyID("1").generate());
+			assertEquals(1, pool.getMissCount());
+			assertEquals(0, pool.getHitCount());
+
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	public void testBackgroundFailure()
+		throws Exception {
+
+		JWKGenerator<ECKey> failing = new JWKGenerator<ECKey>() {
+			@Override
+			public ECKey generate() throws JOSEException {
+				throw new JOSEException("Generation failed");
+			}
+		};
+
+		PooledJWKGenerator<ECKey> pool = new PooledJWKGenerator<>(failing, 1);
+
+		try {
+			long deadline = System.currentTimeMillis() + 30000L;
+			while (pool.getFailureCount() < 1) {
+				assertTrue(System.currentTimeMillis() < deadline);
+				Thread.sleep(10);
+			}
+
+			try {
+				pool.generate();
+				fail();
+			} catch (JOSEException e) {
+				assertEquals("Generation failed", e.getMessage());
+			}
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	public void testConstructorErrors() {
+
+		try {
+			new PooledJWKGenerator<>(new ECKeyGenerator(Curve.P_256), 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The capacity must be positive", e.getMessage());
+		}
+
+		try {
+			new PooledJWKGenerator<>(new ECKeyGenerator(Curve.P_256), 1, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The number of threads must be positive", e.getMessage());
+		}
+
+		try {
+			new PooledJWKGenerator<ECKey>(null, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWK generator must not be null", e.getMessage());
+		}
+	}
+}
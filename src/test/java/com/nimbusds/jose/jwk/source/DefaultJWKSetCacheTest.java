@@ -20,10 +20,13 @@ package com.nimbusds.jose.jwk.source;
 
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import junit.framework.TestCase;
 
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
 
 
 public class DefaultJWKSetCacheTest extends TestCase {
@@ -162,4 +165,56 @@ public class DefaultJWKSetCacheTest extends TestCase {
 		assertEquals(DefaultJWKSetCache.DEFAULT_REFRESH_TIME_MINUTES, cache.getRefreshTime(TimeUnit.MINUTES));
 		assertFalse(cache.requiresRefresh());
 	}
+	
+	
+	public void testWithClock() {
+		
+		final AtomicLong now = new AtomicLong(1000000L);
+		
+		Clock clock = new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return now.get();
+			}
+		};
+		
+		DefaultJWKSetCache cache = new DefaultJWKSetCache(3L, 1L, TimeUnit.SECONDS, clock);
+		assertEquals(clock, cache.getClock());
+		
+		JWKSet jwkSet = new JWKSet();
+		cache.put(jwkSet);
+		assertEquals(1000000L, cache.getPutTimestamp());
+		
+		now.set(1001000L);
+		assertEquals(jwkSet, cache.get());
+		assertFalse(cache.requiresRefresh());
+		assertFalse(cache.isExpired());
+		
+		now.set(1001001L);
+		assertEquals(jwkSet, cache.get());
+		assertTrue(cache.requiresRefresh());
+		assertFalse(cache.isExpired());
+		
+		now.set(1003001L);
+		assertTrue(cache.requiresRefresh());
+		assertTrue(cache.isExpired());
+		assertNull(cache.get());
+	}
+	
+	
+	public void testDefaultClock() {
+		
+		assertEquals(SystemClock.INSTANCE, new DefaultJWKSetCache().getClock());
+	}
+	
+	
+	public void testRejectNullClock() {
+		
+		try {
+			new DefaultJWKSetCache(3L, 1L, TimeUnit.SECONDS, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The clock must not be null", e.getMessage());
+		}
+	}
 }
@@ -0,0 +1,53 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.jwk.source;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import junit.framework.TestCase;
+
+
+public class ImmutableCompactJWKSetTest extends TestCase {
+
+
+	public void testRun()
+		throws Exception {
+
+		ECKey ecJWK = new ECKeyGenerator(Curve.P_256).keyID("1").generate();
+		OctetSequenceKey octJWK = new OctetSequenceKeyGenerator(256).generate();
+
+		CompactJWKSet jwkSet = new CompactJWKSet(new JWKSet(Arrays.<JWK>asList(ecJWK, octJWK)));
+
+		ImmutableCompactJWKSet<?> source = new ImmutableCompactJWKSet<>(jwkSet);
+
+		assertEquals(jwkSet, source.getJWKSet());
+
+		List<JWK> matches = source.get(new JWKSelector(new JWKMatcher.Builder().keyID("1").build()), null);
+		assertEquals(Arrays.<JWK>asList(ecJWK), matches);
+
+		matches = source.get(new JWKSelector(new JWKMatcher.Builder().keyType(KeyType.OCT).build()), null);
+		assertEquals(Arrays.<JWK>asList(octJWK), matches);
+
+		assertTrue(source.get(new JWKSelector(new JWKMatcher.Builder().keyID("2").build()), null).isEmpty());
+	}
+}
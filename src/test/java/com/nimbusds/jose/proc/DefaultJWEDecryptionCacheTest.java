@@ -0,0 +1,363 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+
+public class DefaultJWEDecryptionCacheTest extends TestCase {
+
+
+	private static class FixedClock implements Clock {
+
+		private long time;
+
+		@Override
+		public long currentTimeMillis() {
+			return time;
+		}
+	}
+
+
+	private static class CountingKeySelector extends JWEDecryptionKeySelector<SecurityContext> {
+
+		private int calls;
+
+		private CountingKeySelector(final SecretKey key) {
+			super(JWEAlgorithm.DIR, EncryptionMethod.A128GCM, new ImmutableSecret<>(key));
+		}
+
+		@Override
+		public List<Key> selectJWEKeys(final JWEHeader jweHeader, final SecurityContext context)
+			throws KeySourceException {
+
+			calls++;
+			return super.selectJWEKeys(jweHeader, context);
+		}
+	}
+
+
+	private static SecretKey generateKey()
+		throws Exception {
+
+		KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+		keyGen.init(128);
+		return keyGen.generateKey();
+	}
+
+
+	private static String encrypt(final SecretKey key, final Payload payload)
+		throws JOSEException {
+
+		JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), payload);
+		jwe.encrypt(new DirectEncrypter(key));
+		return jwe.serialize();
+	}
+
+
+	public void testDefaults() {
+
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+		assertEquals(1000, cache.getMaxSize());
+		assertEquals(DefaultJWEDecryptionCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+		assertEquals(5, cache.getTimeToLive(TimeUnit.MINUTES));
+		assertEquals(DefaultJWEDecryptionCache.DEFAULT_TIME_TO_LIVE_MINUTES, cache.getTimeToLive(TimeUnit.MINUTES));
+		assertEquals(SystemClock.INSTANCE, cache.getClock());
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new DefaultJWEDecryptionCache(0, 1, TimeUnit.MINUTES);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum size must be positive", e.getMessage());
+		}
+
+		try {
+			new DefaultJWEDecryptionCache(1, 0, TimeUnit.MINUTES);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time to live must be positive", e.getMessage());
+		}
+
+		try {
+			new DefaultJWEDecryptionCache(1, 1, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time unit must not be null", e.getMessage());
+		}
+
+		try {
+			new DefaultJWEDecryptionCache(1, 1, TimeUnit.MINUTES, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The clock must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testPutAndGet()
+		throws Exception {
+
+		SecretKey key = generateKey();
+		String compactJWE = encrypt(key, new Payload("Hello, world!"));
+
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+
+		JWEObject jwe = JWEObject.parse(compactJWE);
+		assertNull(cache.get(jwe, key));
+
+		cache.put(jwe, key, new Payload("Hello, world!"));
+		assertEquals(1, cache.size());
+
+		// Parsed again
+		assertEquals("Hello, world!", cache.get(JWEObject.parse(compactJWE), key).toString());
+
+		// Same key material
+		assertEquals("Hello, world!", cache.get(jwe, new SecretKeySpec(key.getEncoded(), "NONE")).toString());
+
+		// Other key
+		assertNull(cache.get(jwe, generateKey()));
+
+		// Same key and payload, other IV
+		assertNull(cache.get(JWEObject.parse(encrypt(key, new Payload("Hello, world!"))), key));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testHashOfParsedAndCreated()
+		throws Exception {
+
+		JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), new Payload("Hello, world!"));
+		jwe.encrypt(new DirectEncrypter(generateKey()));
+
+		assertEquals(
+			DefaultJWEDecryptionCache.computeHash(JWEObject.parse(jwe.serialize())),
+			DefaultJWEDecryptionCache.computeHash(jwe));
+	}
+
+
+	public void testExpiration()
+		throws Exception {
+
+		FixedClock clock = new FixedClock();
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache(10, 60, TimeUnit.SECONDS, clock);
+
+		SecretKey key = generateKey();
+		JWEObject jwe = JWEObject.parse(encrypt(key, new Payload("Hello, world!")));
+		cache.put(jwe, key, new Payload("Hello, world!"));
+
+		clock.time = 59_999L;
+		assertNotNull(cache.get(jwe, key));
+
+		clock.time = 60_000L;
+		assertNull(cache.get(jwe, key));
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testLeastRecentlyUsedEviction()
+		throws Exception {
+
+		SecretKey key = generateKey();
+		JWEObject jwe1 = JWEObject.parse(encrypt(key, new Payload("1")));
+		JWEObject jwe2 = JWEObject.parse(encrypt(key, new Payload("2")));
+		JWEObject jwe3 = JWEObject.parse(encrypt(key, new Payload("3")));
+
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache(2, 1, TimeUnit.MINUTES);
+
+		cache.put(jwe1, key, new Payload("1"));
+		cache.put(jwe2, key, new Payload("2"));
+
+		// Touch the first
+		assertNotNull(cache.get(jwe1, key));
+
+		cache.put(jwe3, key, new Payload("3"));
+		assertEquals(2, cache.size());
+
+		assertNotNull(cache.get(jwe1, key));
+		assertNull(cache.get(jwe2, key));
+		assertNotNull(cache.get(jwe3, key));
+	}
+
+
+	public void testJOSEProcessor()
+		throws Exception {
+
+		SecretKey key = generateKey();
+		String compactJWE = encrypt(key, new Payload("Hello, world!"));
+
+		CountingKeySelector keySelector = new CountingKeySelector(key);
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+
+		DefaultJOSEProcessor<SecurityContext> processor = new DefaultJOSEProcessor<>();
+		assertNull(processor.getJWEDecryptionCache());
+		processor.setJWEKeySelector(keySelector);
+		processor.setJWEDecryptionCache(cache);
+		assertEquals(cache, processor.getJWEDecryptionCache());
+
+		assertEquals("Hello, world!", processor.process(compactJWE, null).toString());
+		assertEquals(1, keySelector.calls);
+		assertEquals(1, cache.size());
+
+		// Cache hit, key selection still performed
+		assertEquals("Hello, world!", processor.process(compactJWE, null).toString());
+		assertEquals(2, keySelector.calls);
+	}
+
+
+	public void testCacheHitRequiresSelectedKey()
+		throws Exception {
+
+		SecretKey key = generateKey();
+		String compactJWE = encrypt(key, new Payload("Hello, world!"));
+
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+
+		DefaultJOSEProcessor<SecurityContext> processor = new DefaultJOSEProcessor<>();
+		processor.setJWEKeySelector(new CountingKeySelector(key));
+		processor.setJWEDecryptionCache(cache);
+
+		assertEquals("Hello, world!", processor.process(compactJWE, null).toString());
+		assertEquals(1, cache.size());
+
+		// Other processor sharing the cache, with another key
+		DefaultJOSEProcessor<SecurityContext> otherProcessor = new DefaultJOSEProcessor<>();
+		otherProcessor.setJWEKeySelector(new CountingKeySelector(generateKey()));
+		otherProcessor.setJWEDecryptionCache(cache);
+
+		try {
+			otherProcessor.process(compactJWE, null);
+			fail();
+		} catch (BadJWEException e) {
+			// ok
+		}
+
+		// Key removed, no candidates
+		otherProcessor.setJWEKeySelector(new JWEKeySelector<SecurityContext>() {
+			@Override
+			public List<? extends Key> selectJWEKeys(final JWEHeader header, final SecurityContext context) {
+				return Collections.emptyList();
+			}
+		});
+
+		try {
+			otherProcessor.process(compactJWE, null);
+			fail();
+		} catch (BadJOSEException e) {
+			assertEquals("JWE object rejected: Another algorithm expected, or no matching key(s) found", e.getMessage());
+		}
+	}
+
+
+	public void testJOSEProcessorDoesNotCacheFailures()
+		throws Exception {
+
+		String compactJWE = encrypt(generateKey(), new Payload("Hello, world!"));
+
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+
+		DefaultJOSEProcessor<SecurityContext> processor = new DefaultJOSEProcessor<>();
+		processor.setJWEKeySelector(new CountingKeySelector(generateKey()));
+		processor.setJWEDecryptionCache(cache);
+
+		for (int i=0; i < 2; i++) {
+			try {
+				processor.process(compactJWE, null);
+				fail();
+			} catch (BadJWEException e) {
+				// ok
+			}
+		}
+
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testJWTProcessorVerifiesClaimsOnCacheHit()
+		throws Exception {
+
+		SecretKey key = generateKey();
+
+		FixedClock clock = new FixedClock();
+		clock.time = System.currentTimeMillis();
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.subject("alice")
+			.expirationTime(new Date(clock.time + 60_000L))
+			.build();
+
+		EncryptedJWT jwt = new EncryptedJWT(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), claimsSet);
+		jwt.encrypt(new DirectEncrypter(key));
+		String compactJWT = jwt.serialize();
+
+		CountingKeySelector keySelector = new CountingKeySelector(key);
+		DefaultJWEDecryptionCache cache = new DefaultJWEDecryptionCache();
+
+		DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+		assertNull(processor.getJWEDecryptionCache());
+		processor.setJWEKeySelector(keySelector);
+		processor.setJWEDecryptionCache(cache);
+
+		assertEquals("alice", processor.process(compactJWT, null).getSubject());
+		assertEquals(1, keySelector.calls);
+
+		// Cache hit, key selection still performed
+		assertEquals("alice", processor.process(compactJWT, null).getSubject());
+		assertEquals(2, keySelector.calls);
+
+		// Expired JWT rejected, despite cache hit
+		cache.put(EncryptedJWT.parse(compactJWT), key, new Payload(new JWTClaimsSet.Builder()
+			.subject("alice")
+			.expirationTime(new Date(clock.time - 600_000L))
+			.build()
+			.toJSONObject()));
+
+		try {
+			processor.process(compactJWT, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
+}
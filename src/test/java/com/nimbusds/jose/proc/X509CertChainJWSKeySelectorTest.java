@@ -0,0 +1,310 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.proc;
+
+
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.cert.PKIXParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jose.util.X509CertUtils;
+
+
+public class X509CertChainJWSKeySelectorTest extends TestCase {
+
+
+	// EC P-256, valid from 2026-10-19 to 2126-09-25
+	private static final Base64 LEAF_CERT = new Base64(
+		"MIIBhzCCAS2gAwIBAgIUdoYrgzBODLAxxbFQFM9wlhchn/AwCgYIKoZIzj0EAwIw" +
+		"EjEQMA4GA1UEAwwHUm9vdCBDQTAgFw0yNjEwMTkwMjUyNDJaGA8yMTI2MDkyNTAy" +
+		"NTI0MlowETEPMA0GA1UEAwwGc2lnbmVyMFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcD" +
+		"QgAE82lAG4mG4i/cv/CqO2lRkweb/uk9M995fWyIWLHPbA4uk5Cg3trX1RVzz6eZ" +
+		"B5XYS8sDFPc6gauL6HlsLf1MXaNgMF4wDAYDVR0TAQH/BAIwADAOBgNVHQ8BAf8E" +
+		"BAMCB4AwHQYDVR0OBBYEFD1MoJJk12HbmPzKzWDI4VZqUV2UMB8GA1UdIwQYMBaA" +
+		"FKiOIQgxJPnX1e+Is9kiV0arBU48MAoGCCqGSM49BAMCA0gAMEUCIQDEZZcHKg+x" +
+		"I6kLor2Nuj3PtPh7oFdsI9jIt+G1fifJ8AIgG+h38ZgI4khh2upMmazv1mvVrej7" +
+		"D7W2FlRkc8jnvGc=");
+
+
+	private static final Base64 LEAF_PRIVATE_KEY = new Base64(
+		"MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgHMsj/TEsdWYcmcUC" +
+		"OBwb5FJ+IxsfylFS8xu1rOG+Hd2hRANCAATzaUAbiYbiL9y/8Ko7aVGTB5v+6T0z" +
+		"33l9bIhYsc9sDi6TkKDe2tfVFXPPp5kHldhLywMU9zqBq4voeWwt/Uxd");
+
+
+	private static final Base64 ROOT_CERT = new Base64(
+		"MIIBijCCATGgAwIBAgIUWJPOVd+un79mfg7wGb69T/dlVqswCgYIKoZIzj0EAwIw" +
+		"EjEQMA4GA1UEAwwHUm9vdCBDQTAgFw0yNjEwMTkwMjUyNDJaGA8yMTI2MDkyNTAy" +
+		"NTI0MlowEjEQMA4GA1UEAwwHUm9vdCBDQTBZMBMGByqGSM49AgEGCCqGSM49AwEH" +
+		"A0IABDUXM8sGNccj4AMAAAXWfRmbPEI7v81eF8K1zSXyN8NsPMuGCNFcGtBSIiXd" +
+		"L27Gjum6Sm2Tns6BBdfj4R19hrijYzBhMB0GA1UdDgQWBBSojiEIMST519XviLPZ" +
+		"IldGqwVOPDAfBgNVHSMEGDAWgBSojiEIMST519XviLPZIldGqwVOPDAPBgNVHRMB" +
+		"Af8EBTADAQH/MA4GA1UdDwEB/wQEAwICBDAKBggqhkjOPQQDAgNHADBEAiA5djIq" +
+		"tOwuw2IdqOu0i73NpNKdcyOsJAH0UcQzzRgkpgIgYH/+8s1inMRjj0giG7A8fapA" +
+		"iHQsatS47vnQDscbKaw=");
+
+
+	// Other root with the same subject
+	private static final Base64 OTHER_ROOT_CERT = new Base64(
+		"MIIBfDCCASGgAwIBAgIUTZJf8A9baEwg81/bInPHzt/bK5kwCgYIKoZIzj0EAwIw" +
+		"EjEQMA4GA1UEAwwHUm9vdCBDQTAgFw0yNjEwMTkwMjUyNDJaGA8yMTI2MDkyNTAy" +
+		"NTI0MlowEjEQMA4GA1UEAwwHUm9vdCBDQTBZMBMGByqGSM49AgEGCCqGSM49AwEH" +
+		"A0IABJ7pC6pGXiERBMaBbtz7e0uI2QB342p6Xb61Kf1ymsRpxVXvQfzXFS1xD3rw" +
+		"XMspSDlFimq+fnNVLJIn42CYp/mjUzBRMB0GA1UdDgQWBBQatBph3iSk/b2HUInh" +
+		"v01zkMVS1DAfBgNVHSMEGDAWgBQatBph3iSk/b2HUInhv01zkMVS1DAPBgNVHRMB" +
+		"Af8EBTADAQH/MAoGCCqGSM49BAMCA0kAMEYCIQDhM7TqrvIOWQNDaf5PJlVcptFq" +
+		"hX2XbqFMEZLNKbjpbgIhAO7TwM0Z9JOfIgBhjlthtt6neX6aRcW7Dn703LHkZnPj");
+
+
+	private static class FixedClock implements Clock {
+
+
+		private long time;
+
+
+		private FixedClock(final long time) {
+			this.time = time;
+		}
+
+
+		@Override
+		public long currentTimeMillis() {
+			return time;
+		}
+	}
+
+
+	// 2030-01-01
+	private static final long NOW = 1893456000000L;
+
+
+	private static X509Certificate cert(final Base64 b64) {
+
+		return X509CertUtils.parse(b64.decode());
+	}
+
+
+	private static PKIXParameters pkixParams(final Base64 rootCert)
+		throws Exception {
+
+		PKIXParameters params = new PKIXParameters(Collections.singleton(new TrustAnchor(cert(rootCert), null)));
+		params.setRevocationEnabled(false);
+		return params;
+	}
+
+
+	private static X509CertChainJWSKeySelector<SecurityContext> createSelector(final Base64 rootCert, final Clock clock)
+		throws Exception {
+
+		return new X509CertChainJWSKeySelector<>(
+			Collections.singleton(JWSAlgorithm.ES256),
+			pkixParams(rootCert),
+			10,
+			5,
+			TimeUnit.MINUTES,
+			clock);
+	}
+
+
+	private static JWSHeader header(final Base64 ... x5c) {
+
+		return new JWSHeader.Builder(JWSAlgorithm.ES256)
+			.x509CertChain(Arrays.asList(x5c))
+			.build();
+	}
+
+
+	public void testDefaultConstructor() {
+
+		Set<TrustAnchor> trustAnchors = Collections.singleton(new TrustAnchor(cert(ROOT_CERT), null));
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = new X509CertChainJWSKeySelector<>(
+			Collections.singleton(JWSAlgorithm.ES256),
+			trustAnchors);
+
+		assertEquals(Collections.singleton(JWSAlgorithm.ES256), selector.getJWSAlgorithms());
+		assertEquals(trustAnchors, selector.getPKIXParameters().getTrustAnchors());
+		assertFalse(selector.getPKIXParameters().isRevocationEnabled());
+		assertEquals(X509CertChainJWSKeySelector.DEFAULT_MAX_SIZE, selector.getMaxSize());
+		assertEquals(X509CertChainJWSKeySelector.DEFAULT_TIME_TO_LIVE_MINUTES, selector.getTimeToLive(TimeUnit.MINUTES));
+		assertEquals(SystemClock.INSTANCE, selector.getClock());
+		assertEquals(0, selector.size());
+	}
+
+
+	public void testConstructorErrors()
+		throws Exception {
+
+		try {
+			new X509CertChainJWSKeySelector<>(Collections.singleton(JWSAlgorithm.HS256), Collections.singleton(new TrustAnchor(cert(ROOT_CERT), null)));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWS algorithm must be RSA or EC based: HS256", e.getMessage());
+		}
+
+		try {
+			new X509CertChainJWSKeySelector<>(Collections.singleton(JWSAlgorithm.ES256), Collections.<TrustAnchor>emptySet());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The trust anchors must not be empty or null", e.getMessage());
+		}
+
+		try {
+			new X509CertChainJWSKeySelector<>(Collections.singleton(JWSAlgorithm.ES256), pkixParams(ROOT_CERT), 0, 5, TimeUnit.MINUTES, SystemClock.INSTANCE);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum size must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testSelectAndVerify()
+		throws Exception {
+
+		PrivateKey privateKey = KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(LEAF_PRIVATE_KEY.decode()));
+
+		JWSObject jwsObject = new JWSObject(header(LEAF_CERT, ROOT_CERT), new Payload("Hello, world!"));
+		jwsObject.sign(new ECDSASigner(privateKey, Curve.P_256));
+		jwsObject = JWSObject.parse(jwsObject.serialize());
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(ROOT_CERT, new FixedClock(NOW));
+
+		List<? extends Key> keys = selector.selectJWSKeys(jwsObject.getHeader(), null);
+		assertEquals(1, keys.size());
+		assertEquals(cert(LEAF_CERT).getPublicKey(), keys.get(0));
+		assertTrue(jwsObject.verify(new ECDSAVerifier((ECPublicKey) keys.get(0))));
+		assertEquals(1, selector.size());
+
+		// Cached
+		assertEquals(keys, selector.selectJWSKeys(jwsObject.getHeader(), null));
+		assertEquals(1, selector.size());
+
+		// Chain without the root
+		assertEquals(1, selector.selectJWSKeys(header(LEAF_CERT), null).size());
+		assertEquals(2, selector.size());
+	}
+
+
+	public void testRejectUntrustedChain()
+		throws Exception {
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(OTHER_ROOT_CERT, new FixedClock(NOW));
+
+		assertTrue(selector.selectJWSKeys(header(LEAF_CERT, ROOT_CERT), null).isEmpty());
+		assertTrue(selector.selectJWSKeys(header(LEAF_CERT), null).isEmpty());
+		assertEquals(0, selector.size());
+	}
+
+
+	public void testRejectOtherAlgorithmOrMissingChain()
+		throws Exception {
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(ROOT_CERT, new FixedClock(NOW));
+
+		assertTrue(selector.selectJWSKeys(new JWSHeader.Builder(JWSAlgorithm.RS256).x509CertChain(Collections.singletonList(LEAF_CERT)).build(), null).isEmpty());
+		assertTrue(selector.selectJWSKeys(new JWSHeader(JWSAlgorithm.ES256), null).isEmpty());
+		assertTrue(selector.selectJWSKeys(header(new Base64("AAAA")), null).isEmpty());
+		assertEquals(0, selector.size());
+	}
+
+
+	public void testLeafIsTrustAnchor()
+		throws Exception {
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(ROOT_CERT, new FixedClock(NOW));
+
+		JWSHeader header = header(ROOT_CERT);
+		assertEquals(cert(ROOT_CERT).getPublicKey(), selector.selectJWSKeys(header, null).get(0));
+	}
+
+
+	public void testExpiration()
+		throws Exception {
+
+		FixedClock clock = new FixedClock(NOW);
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(ROOT_CERT, clock);
+
+		assertEquals(1, selector.selectJWSKeys(header(LEAF_CERT), null).size());
+		assertEquals(1, selector.size());
+
+		// Certificate expired, cached validation must not outlive it
+		clock.time = cert(LEAF_CERT).getNotAfter().getTime() + 1000L;
+		assertTrue(selector.selectJWSKeys(header(LEAF_CERT), null).isEmpty());
+		assertEquals(0, selector.size());
+
+		// Time to live
+		clock.time = NOW;
+		assertEquals(1, selector.selectJWSKeys(header(LEAF_CERT), null).size());
+		clock.time = NOW + 5 * 60 * 1000L;
+		assertEquals(1, selector.selectJWSKeys(header(LEAF_CERT), null).size());
+		assertEquals(1, selector.size());
+	}
+
+
+	public void testInvalidate()
+		throws Exception {
+
+		X509CertChainJWSKeySelector<SecurityContext> selector = createSelector(ROOT_CERT, new FixedClock(NOW));
+
+		selector.selectJWSKeys(header(LEAF_CERT), null);
+		selector.selectJWSKeys(header(LEAF_CERT, ROOT_CERT), null);
+		selector.selectJWSKeys(header(ROOT_CERT), null);
+		assertEquals(3, selector.size());
+
+		selector.invalidate(cert(OTHER_ROOT_CERT));
+		assertEquals(3, selector.size());
+
+		selector.invalidate(cert(LEAF_CERT));
+		assertEquals(1, selector.size());
+
+		selector.clear();
+		assertEquals(0, selector.size());
+	}
+
+
+	public void testFingerprintIncludesCertBoundaries() {
+
+		byte[] leaf = LEAF_CERT.decode();
+		Base64 head = Base64.encode(Arrays.copyOfRange(leaf, 0, 100));
+		Base64 tail = Base64.encode(Arrays.copyOfRange(leaf, 100, leaf.length));
+
+		assertEquals(
+			X509CertChainJWSKeySelector.computeFingerprint(Arrays.asList(LEAF_CERT)),
+			X509CertChainJWSKeySelector.computeFingerprint(Arrays.asList(LEAF_CERT)));
+
+		// Same concatenated bytes, differently split
+		assertFalse(X509CertChainJWSKeySelector.computeFingerprint(Arrays.asList(LEAF_CERT))
+			.equals(X509CertChainJWSKeySelector.computeFingerprint(Arrays.asList(head, tail))));
+	}
+}
@@ -103,5 +103,22 @@ public class Base64URLTest extends TestCase {
 		
 		assertNull(Base64URL.from(null));
 	}
+	
+	
+	public void testEncodeInto() {
+		
+		byte[] in = "xfoobarx".getBytes(StandardCharset.UTF_8);
+		
+		for (int len=0; len <= 6; len++) {
+			
+			String expected = Base64URL.encode(new String(in, 1, len, StandardCharset.UTF_8)).toString();
+			assertEquals(expected.length(), Base64URL.computeEncodedLength(len));
+			
+			byte[] out = new byte[2 + expected.length()];
+			assertEquals(expected.length(), Base64URL.encodeInto(in, 1, len, out, 2));
+			assertEquals(0, out[0]);
+			assertEquals(0, out[1]);
+			assertEquals(expected, new String(out, 2, expected.length(), StandardCharset.UTF_8));
+		}
+	}
 }
-
@@ -0,0 +1,212 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+
+public class CachedClockTest extends TestCase {
+
+
+	public void testSystemClock() {
+
+		long before = System.currentTimeMillis();
+		long now = SystemClock.INSTANCE.currentTimeMillis();
+		long after = System.currentTimeMillis();
+
+		assertTrue(before <= now);
+		assertTrue(now <= after);
+	}
+
+
+	public void testDefaultConstructor()
+		throws InterruptedException {
+
+		CachedClock clock = new CachedClock();
+		assertEquals(CachedClock.DEFAULT_RESOLUTION_MILLIS, clock.getResolution());
+		assertEquals(SystemClock.INSTANCE, clock.getSource());
+		assertTrue(clock.isRunning());
+
+		long before = System.currentTimeMillis();
+		Thread.sleep(50L);
+		assertTrue(clock.currentTimeMillis() >= before);
+
+		clock.shutdown();
+		assertFalse(clock.isRunning());
+	}
+
+
+	public void testRefreshFromSource()
+		throws InterruptedException {
+
+		final AtomicLong source = new AtomicLong(1000L);
+
+		CachedClock clock = new CachedClock(5L, new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return source.get();
+			}
+		});
+
+		assertEquals(5L, clock.getResolution());
+		assertEquals(1000L, clock.currentTimeMillis());
+
+		source.set(2000L);
+
+		for (int i=0; i < 200 && clock.currentTimeMillis() != 2000L; i++) {
+			Thread.sleep(5L);
+		}
+
+		assertEquals(2000L, clock.currentTimeMillis());
+
+		clock.shutdown();
+
+		// Reads the source directly after shutdown
+		source.set(3000L);
+		assertEquals(3000L, clock.currentTimeMillis());
+	}
+
+
+	private static int countTickerThreads(final String name) {
+
+		int count = 0;
+
+		for (Thread thread: Thread.getAllStackTraces().keySet()) {
+			if (name.equals(thread.getName()) && thread.isAlive()) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+
+	public void testSharedTickerStartedLazily()
+		throws InterruptedException {
+
+		final String threadName = "nimbus-cached-clock-7ms";
+
+		CachedClock clock1 = new CachedClock(7L);
+		CachedClock clock2 = new CachedClock(7L);
+
+		// No thread started by the constructor
+		assertEquals(0, countTickerThreads(threadName));
+
+		clock1.currentTimeMillis();
+		clock2.currentTimeMillis();
+
+		// One thread per resolution
+		assertEquals(1, countTickerThreads(threadName));
+
+		clock1.shutdown();
+		Thread.sleep(50L);
+		assertEquals(1, countTickerThreads(threadName));
+
+		clock2.shutdown();
+
+		for (int i=0; i < 200 && countTickerThreads(threadName) > 0; i++) {
+			Thread.sleep(5L);
+		}
+
+		// Thread ends when no running clocks remain
+		assertEquals(0, countTickerThreads(threadName));
+
+		// Restarted on demand
+		CachedClock clock3 = new CachedClock(7L);
+		long before = System.currentTimeMillis();
+		assertTrue(clock3.currentTimeMillis() >= before);
+		assertEquals(1, countTickerThreads(threadName));
+		clock3.shutdown();
+	}
+
+
+	private static Thread findTickerThread(final String name) {
+
+		for (Thread thread: Thread.getAllStackTraces().keySet()) {
+			if (name.equals(thread.getName()) && thread.isAlive()) {
+				return thread;
+			}
+		}
+
+		return null;
+	}
+
+
+	public void testInterruptedTickerEndsAndRestarts()
+		throws InterruptedException {
+
+		final String threadName = "nimbus-cached-clock-9ms";
+
+		final AtomicLong source = new AtomicLong(1000L);
+
+		CachedClock clock = new CachedClock(9L, new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return source.get();
+			}
+		});
+
+		assertEquals(1000L, clock.currentTimeMillis());
+
+		Thread ticker = findTickerThread(threadName);
+		assertNotNull(ticker);
+		ticker.interrupt();
+		ticker.join(1000L);
+		assertFalse(ticker.isAlive());
+
+		// Restarted on the next read
+		source.set(2000L);
+		assertEquals(2000L, clock.currentTimeMillis());
+		assertEquals(1, countTickerThreads(threadName));
+
+		source.set(3000L);
+
+		for (int i=0; i < 200 && clock.currentTimeMillis() != 3000L; i++) {
+			Thread.sleep(5L);
+		}
+
+		assertEquals(3000L, clock.currentTimeMillis());
+
+		clock.shutdown();
+	}
+
+
+	public void testRejectZeroResolution() {
+
+		try {
+			new CachedClock(0L);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The resolution must be at least one millisecond", e.getMessage());
+		}
+	}
+
+
+	public void testRejectNullSource() {
+
+		try {
+			new CachedClock(1L, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The underlying clock must not be null", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+
+public class ExpiringLRUCacheTest extends TestCase {
+
+
+	private static class FixedClock implements Clock {
+
+		private long time;
+
+		@Override
+		public long currentTimeMillis() {
+			return time;
+		}
+	}
+
+
+	public void testNoExpiration() {
+
+		ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<>(10);
+		assertEquals(10, cache.getMaxSize());
+		assertEquals(Long.MAX_VALUE, cache.getTimeToLive(TimeUnit.MILLISECONDS));
+		assertEquals(SystemClock.INSTANCE, cache.getClock());
+
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new ExpiringLRUCache<String,String>(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum size must be positive", e.getMessage());
+		}
+
+		try {
+			new ExpiringLRUCache<String,String>(1, 0, TimeUnit.MINUTES, SystemClock.INSTANCE);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time to live must be positive", e.getMessage());
+		}
+
+		try {
+			new ExpiringLRUCache<String,String>(1, 1, null, SystemClock.INSTANCE);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The time unit must not be null", e.getMessage());
+		}
+
+		try {
+			new ExpiringLRUCache<String,String>(1, 1, TimeUnit.MINUTES, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The clock must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testTimeToLive() {
+
+		FixedClock clock = new FixedClock();
+		ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<>(10, 60, TimeUnit.SECONDS, clock);
+		assertEquals(60, cache.getTimeToLive(TimeUnit.SECONDS));
+		assertEquals(clock, cache.getClock());
+
+		cache.put("a", "1");
+
+		clock.time = 59_999L;
+		assertEquals("1", cache.get("a"));
+
+		clock.time = 60_000L;
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testEarlierExpirationTime() {
+
+		FixedClock clock = new FixedClock();
+		ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<>(10, 60, TimeUnit.SECONDS, clock);
+
+		cache.put("a", "1", 10_000L);
+		cache.put("b", "2", 120_000L);
+
+		clock.time = 10_000L;
+		assertNull(cache.get("a"));
+		assertEquals("2", cache.get("b"));
+
+		// The time to live still applies
+		clock.time = 60_000L;
+		assertNull(cache.get("b"));
+	}
+
+
+	public void testLeastRecentlyUsedEviction() {
+
+		ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<>(2);
+
+		cache.put("a", "1");
+		cache.put("b", "2");
+
+		// Touch the first
+		assertEquals("1", cache.get("a"));
+
+		cache.put("c", "3");
+		assertEquals(2, cache.size());
+
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("3", cache.get("c"));
+	}
+
+
+	public void testRemoveMatching() {
+
+		ExpiringLRUCache<String,String> cache = new ExpiringLRUCache<>(10);
+
+		cache.put("a", "x1");
+		cache.put("b", "y2");
+		cache.put("c", "x3");
+
+		int removed = cache.removeMatching(new ExpiringLRUCache.Matcher<String>() {
+			@Override
+			public boolean matches(final String value) {
+				return value.startsWith("x");
+			}
+		});
+
+		assertEquals(2, removed);
+		assertEquals(1, cache.size());
+		assertEquals("y2", cache.get("b"));
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jose.util;
+
+
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONObject;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+
+
+public class X509CertCacheTest extends TestCase {
+
+
+	// Self-signed, EC P-256
+	private static final Base64 CERT = new Base64(
+		"MIIBdDCCARugAwIBAgIUW+JzXTDsvEisRQTd5ctYdWa/J+gwCgYIKoZIzj0EAwIw" +
+		"DzENMAsGA1UEAwwEYzJpZDAgFw0yNjEwMTkwMjQ5MzBaGA8yMTI2MDkyNTAyNDkz" +
+		"MFowDzENMAsGA1UEAwwEYzJpZDBZMBMGByqGSM49AgEGCCqGSM49AwEHA0IABJKW" +
+		"w2iWHehfqYN0Mb06HHzVitbcABPE13pTRhS1EJhBok391tkN+ITW8K7qoIFfewB0" +
+		"vQl5pBzXtp/AQvXQb8+jUzBRMB0GA1UdDgQWBBQjzPo4LDB6XnQC/9qd4z+5TbcM" +
+		"uzAfBgNVHSMEGDAWgBQjzPo4LDB6XnQC/9qd4z+5TbcMuzAPBgNVHRMBAf8EBTAD" +
+		"AQH/MAoGCCqGSM49BAMCA0cAMEQCIB08JwD8fp5mBToJOMPmkpexskiBaqT94DFo" +
+		"kyoywNQuAiBkWxhYWsaZDyeIVGxC0MAyEZGt/Xvq4cUTh4XYxBwTSw==");
+
+
+	public void testDefaults() {
+
+		X509CertCache cache = new X509CertCache();
+		assertEquals(1000, X509CertCache.DEFAULT_MAX_SIZE);
+		assertEquals(X509CertCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+		assertEquals(0, cache.size());
+
+		assertNotNull(X509CertUtils.getCertCache());
+	}
+
+
+	public void testRejectIllegalMaxSize() {
+
+		try {
+			new X509CertCache(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The maximum size must be positive", e.getMessage());
+		}
+	}
+
+
+	public void testPutGetAndEviction() {
+
+		X509Certificate cert = X509CertUtils.parse(CERT.decode());
+		assertNotNull(cert);
+
+		X509CertCache cache = new X509CertCache(2);
+
+		byte[] key1 = new byte[]{1};
+		byte[] key2 = new byte[]{2};
+		byte[] key3 = new byte[]{3};
+
+		assertNull(cache.get(key1));
+
+		cache.put(key1, cert);
+		cache.put(key2, cert);
+
+		// Touch the first
+		assertEquals(cert, cache.get(new byte[]{1}));
+
+		cache.put(key3, cert);
+		assertEquals(2, cache.size());
+
+		assertNotNull(cache.get(key1));
+		assertNull(cache.get(key2));
+		assertNotNull(cache.get(key3));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+
+	public void testParseWithCache() {
+
+		X509CertCache defaultCache = X509CertUtils.getCertCache();
+
+		try {
+			X509CertCache cache = new X509CertCache(10);
+			X509CertUtils.setCertCache(cache);
+			assertEquals(cache, X509CertUtils.getCertCache());
+
+			X509Certificate cert = X509CertUtils.parse(CERT.decode());
+			assertEquals(1, cache.size());
+			assertSame(cert, X509CertUtils.parse(CERT.decode()));
+			assertSame(cert, cache.get(CERT.decode()));
+
+			// Invalid certs not cached
+			assertNull(X509CertUtils.parse(new byte[]{1, 2, 3}));
+			assertEquals(1, cache.size());
+
+			// Disabled
+			X509CertUtils.setCertCache(null);
+			assertNull(X509CertUtils.getCertCache());
+			assertEquals(cert, X509CertUtils.parse(CERT.decode()));
+			assertEquals(1, cache.size());
+
+		} finally {
+			X509CertUtils.setCertCache(defaultCache);
+		}
+	}
+
+
+	public void testJWKChainParsedLazily()
+		throws Exception {
+
+		X509Certificate cert = X509CertUtils.parse(CERT.decode());
+
+		ECKey ecKey = new ECKey.Builder(Curve.P_256, (ECPublicKey) cert.getPublicKey())
+			.x509CertChain(Collections.singletonList(CERT))
+			.build();
+
+		List<X509Certificate> chain = ecKey.getParsedX509CertChain();
+		assertEquals(1, chain.size());
+		assertEquals(cert, chain.get(0));
+		assertSame(chain, ecKey.getParsedX509CertChain());
+
+		// Entries which aren't DER encoded rejected on construction,
+		// also for keys without a certificate match check
+		try {
+			new OctetSequenceKey.Builder(new byte[32])
+				.x509CertChain(Arrays.asList(CERT, new Base64("AAAA")))
+				.build();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Invalid X.509 certificate chain \"x5c\": Invalid X.509 certificate at position 1", e.getMessage());
+		}
+
+		JSONObject jsonObject = new OctetSequenceKey.Builder(new byte[32]).build().toJSONObject();
+		JSONArray x5c = new JSONArray();
+		x5c.add("AAAA");
+		jsonObject.put("x5c", x5c);
+
+		try {
+			JWK.parse(jsonObject);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid X.509 certificate chain \"x5c\": Invalid X.509 certificate at position 0", e.getMessage());
+		}
+	}
+
+
+	public void testJWKCertificateMatchCheckedOnConstruction()
+		throws Exception {
+
+		ECKey otherKey = new ECKeyGenerator(Curve.P_256).generate();
+
+		try {
+			new ECKey.Builder(otherKey)
+				.x509CertChain(Collections.singletonList(CERT))
+				.build();
+			fail();
+		} catch (IllegalStateException | IllegalArgumentException e) {
+			assertEquals("The public subject key info of the first X.509 certificate in the chain must match the JWK type and public parameters", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.util.StandardCharset;
+
+
+public class JSONByteWriterTest extends TestCase {
+
+
+	private static String toString(final JSONByteWriter writer) {
+
+		return new String(writer.getBuffer(), 0, writer.length(), StandardCharset.UTF_8);
+	}
+
+
+	public void testLongs() {
+
+		long[] values = {0L, 1L, -1L, 9L, 10L, 99L, 100L, 1234567890L, -1234567890L, Long.MAX_VALUE, Long.MIN_VALUE, 999999999999999999L, 1000000000000000000L};
+
+		for (long value: values) {
+			JSONByteWriter writer = new JSONByteWriter(1);
+			writer.writeLong(value);
+			assertEquals(Long.toString(value), toString(writer));
+		}
+	}
+
+
+	public void testStringEscapes() {
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeString("a\"b\\c/d\b\f\n\r\t\u0001\u007F\u2028");
+		assertEquals("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0001\\u007F\\u2028\"", toString(writer));
+	}
+
+
+	public void testStringUTF8() {
+
+		String s = "\u00E4\u4E2D\uD83D\uDE00";
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeString(s);
+		assertEquals("\"" + s + "\"", toString(writer));
+	}
+
+
+	public void testStringWebEscapes() {
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeString("\u0085\u20AC\u2100");
+		assertEquals("\"\\u0085\\u20AC\u2100\"", toString(writer));
+	}
+
+
+	public void testUnpairedSurrogate() {
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeString("a\uD83Db");
+		assertEquals("\"a?b\"", toString(writer));
+	}
+
+
+	public void testValues() {
+
+		Map<String,Object> map = new LinkedHashMap<>();
+		map.put("a", 1);
+		map.put("b", Arrays.asList("x", true, null));
+		map.put("c", new String[]{"y"});
+		map.put("d", Collections.emptyMap());
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeValue(map);
+		assertEquals("{\"a\":1,\"b\":[\"x\",true,null],\"c\":[\"y\"],\"d\":{}}", toString(writer));
+	}
+
+
+	public void testClaimsSet()
+		throws Exception {
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.issuer("https://c2id.com")
+			.subject("alice")
+			.audience("client-123")
+			.expirationTime(new Date(1600000000999L))
+			.claim("scope", Arrays.asList("openid", "email"))
+			.claim("null", null)
+			.build();
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeClaimsSet(claimsSet);
+
+		String json = toString(writer);
+		assertEquals("{\"iss\":\"https:\\/\\/c2id.com\",\"sub\":\"alice\",\"aud\":\"client-123\",\"exp\":1600000000,\"scope\":[\"openid\",\"email\"]}", json);
+		assertEquals(claimsSet.toJSONObject(), JWTClaimsSet.parse(json).toJSONObject());
+	}
+
+
+	public void testClaimsSetMultipleAudiences()
+		throws Exception {
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.audience(Arrays.asList("a", "b"))
+			.build();
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeClaimsSet(claimsSet);
+		assertEquals("{\"aud\":[\"a\",\"b\"]}", toString(writer));
+	}
+
+
+	public void testEmptyClaimsSet() {
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeClaimsSet(new JWTClaimsSet.Builder().build());
+		assertEquals("{}", toString(writer));
+	}
+
+
+	public void testReset() {
+
+		JSONByteWriter writer = new JSONByteWriter(1);
+		writer.writeString("abc");
+		writer.reset();
+		assertEquals(0, writer.length());
+		writer.writeLong(1L);
+		assertEquals("1", toString(writer));
+	}
+}
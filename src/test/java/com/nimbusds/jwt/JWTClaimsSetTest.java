@@ -18,11 +18,16 @@
 package com.nimbusds.jwt;
 
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.*;
 
 import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.StandardCharset;
 import junit.framework.TestCase;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
@@ -986,4 +991,51 @@ public class JWTClaimsSetTest extends TestCase {
 
 		assertEquals(claimsB, claimsA);
 	}
+
+
+	public void testSerializeToAppendableStreamAndBuffer()
+		throws Exception {
+
+		JWTClaimsSet[] claimsSets = {
+			new JWTClaimsSet.Builder()
+				.issuer("https://c2id.com")
+				.subject("alice")
+				.audience("client-123")
+				.expirationTime(new Date(1000000000000L))
+				.claim("name", "Alice \u00c4\"\\")
+				.claim("nothing", null)
+				.build(),
+			new JWTClaimsSet.Builder()
+				.audience(Arrays.asList("a", "b"))
+				.issueTime(new Date(2000000000000L))
+				.claim("admin", true)
+				.build(),
+			new JWTClaimsSet.Builder().build()
+		};
+
+		for (JWTClaimsSet claimsSet: claimsSets) {
+
+			JSONObject expected = JSONObjectUtils.parse(claimsSet.toString());
+
+			StringBuilder sb = new StringBuilder();
+			claimsSet.serialize(sb);
+			assertEquals(expected, JSONObjectUtils.parse(sb.toString()));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			claimsSet.writeTo(out);
+			assertEquals(expected, JSONObjectUtils.parse(new String(out.toByteArray(), StandardCharset.UTF_8)));
+
+			ByteBuffer buffer = ByteBuffer.allocate(1024);
+			claimsSet.serialize(buffer);
+			assertEquals(expected, JSONObjectUtils.parse(new String(buffer.array(), 0, buffer.position(), StandardCharset.UTF_8)));
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(2);
+		try {
+			claimsSets[0].serialize(buffer);
+			fail();
+		} catch (BufferOverflowException e) {
+			assertEquals(0, buffer.position());
+		}
+	}
 }
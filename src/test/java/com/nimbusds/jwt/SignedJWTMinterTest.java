@@ -0,0 +1,205 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt;
+
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+
+
+public class SignedJWTMinterTest extends TestCase {
+
+
+	private static final byte[] SECRET = "01234567890123456789012345678901".getBytes();
+
+
+	public void testConstructor()
+		throws JOSEException {
+
+		JWSHeader header = new JWSHeader(JWSAlgorithm.HS256);
+		MACSigner signer = new MACSigner(SECRET);
+
+		SignedJWTMinter minter = new SignedJWTMinter(header, signer);
+		assertEquals(header, minter.getHeader());
+		assertEquals(signer, minter.getJWSSigner());
+	}
+
+
+	public void testRejectUnsupportedAlgorithm()
+		throws JOSEException {
+
+		try {
+			new SignedJWTMinter(new JWSHeader(JWSAlgorithm.RS256), new MACSigner(SECRET));
+			fail();
+		} catch (JOSEException e) {
+			assertTrue(e.getMessage().startsWith("The \"RS256\" algorithm is not allowed or supported by the JWS signer"));
+		}
+	}
+
+
+	public void testRejectNullArguments()
+		throws JOSEException {
+
+		try {
+			new SignedJWTMinter(null, new MACSigner(SECRET));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWS header must not be null", e.getMessage());
+		}
+
+		try {
+			new SignedJWTMinter(new JWSHeader(JWSAlgorithm.HS256), null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWS signer must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testSameAsSignedJWT()
+		throws Exception {
+
+		JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS256)
+			.type(JOSEObjectType.JWT)
+			.keyID("1")
+			.build();
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.subject("alice")
+			.build();
+
+		SignedJWT jwt = new SignedJWT(header, claimsSet);
+		jwt.sign(new MACSigner(SECRET));
+
+		assertEquals(jwt.serialize(), new SignedJWTMinter(header, new MACSigner(SECRET)).mint(claimsSet));
+	}
+
+
+	public void testMintHMAC()
+		throws Exception {
+
+		SignedJWTMinter minter = new SignedJWTMinter(new JWSHeader(JWSAlgorithm.HS256), new MACSigner(SECRET));
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.issuer("https://c2id.com")
+			.subject("alice")
+			.audience(Arrays.asList("a", "b"))
+			.expirationTime(new Date(1600000000000L))
+			.issueTime(new Date(1500000000000L))
+			.jwtID("abc")
+			.claim("name", "Alïce €")
+			.claim("scope", Arrays.asList("openid", "email"))
+			.build();
+
+		for (int i=0; i < 3; i++) {
+			String token = minter.mint(claimsSet);
+
+			SignedJWT jwt = SignedJWT.parse(token);
+			assertEquals(JWSObject.State.SIGNED, jwt.getState());
+			assertEquals(JWSAlgorithm.HS256, jwt.getHeader().getAlgorithm());
+			assertTrue(jwt.verify(new MACVerifier(SECRET)));
+			assertEquals(claimsSet.toJSONObject(), jwt.getJWTClaimsSet().toJSONObject());
+		}
+	}
+
+
+	public void testMintRSA()
+		throws Exception {
+
+		KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+		kpg.initialize(2048);
+		KeyPair kp = kpg.genKeyPair();
+
+		SignedJWTMinter minter = new SignedJWTMinter(new JWSHeader(JWSAlgorithm.RS256), new RSASSASigner((RSAPrivateKey)kp.getPrivate()));
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.subject("alice")
+			.build();
+
+		SignedJWT jwt = SignedJWT.parse(minter.mint(claimsSet));
+		assertTrue(jwt.verify(new RSASSAVerifier((RSAPublicKey)kp.getPublic())));
+		assertEquals("alice", jwt.getJWTClaimsSet().getSubject());
+	}
+
+
+	public void testMintLargeClaimsSet()
+		throws Exception {
+
+		char[] chars = new char[100000];
+		Arrays.fill(chars, 'x');
+		String large = new String(chars);
+
+		SignedJWTMinter minter = new SignedJWTMinter(new JWSHeader(JWSAlgorithm.HS256), new MACSigner(SECRET));
+
+		for (String sub: Arrays.asList(large, "alice")) {
+			SignedJWT jwt = SignedJWT.parse(minter.mint(new JWTClaimsSet.Builder().subject(sub).build()));
+			assertTrue(jwt.verify(new MACVerifier(SECRET)));
+			assertEquals(sub, jwt.getJWTClaimsSet().getSubject());
+		}
+	}
+
+
+	public void testConcurrentMinting()
+		throws Exception {
+
+		final SignedJWTMinter minter = new SignedJWTMinter(new JWSHeader(JWSAlgorithm.HS256), new MACSigner(SECRET));
+		final Exception[] failure = new Exception[1];
+
+		Thread[] threads = new Thread[4];
+
+		for (int t=0; t < threads.length; t++) {
+			final String sub = "user-" + t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i=0; i < 200; i++) {
+							SignedJWT jwt = SignedJWT.parse(minter.mint(new JWTClaimsSet.Builder().subject(sub).jwtID("" + i).build()));
+							if (! jwt.verify(new MACVerifier(SECRET)) || ! sub.equals(jwt.getJWTClaimsSet().getSubject())) {
+								throw new Exception("Bad JWT: " + jwt.serialize());
+							}
+						}
+					} catch (Exception e) {
+						synchronized (failure) {
+							failure[0] = e;
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		assertNull(failure[0]);
+	}
+}
@@ -0,0 +1,371 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+
+public class CompiledJWTClaimsVerifierTest extends TestCase {
+
+
+	public void testDefaultConstructor() {
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		assertNull(verifier.getAcceptedAudienceValues());
+		assertTrue(verifier.getExactMatchClaims().getClaims().isEmpty());
+		assertTrue(verifier.getRequiredClaims().isEmpty());
+		assertTrue(verifier.getProhibitedClaims().isEmpty());
+		assertEquals(60, verifier.getMaxClockSkew());
+	}
+
+
+	public void testValidNoClaims()
+		throws BadJOSEException {
+
+		new CompiledJWTClaimsVerifier<>().verify(new JWTClaimsSet.Builder().build(), null);
+	}
+
+
+	public void testExpiration()
+		throws BadJOSEException {
+
+		final Date now = new Date();
+		Date tomorrow = new Date(now.getTime() + 24 * 60 * 60 * 1000);
+		Date yesterday = new Date(now.getTime() - 24 * 60 * 60 * 1000);
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		verifier.verify(new JWTClaimsSet.Builder().expirationTime(tomorrow).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().expirationTime(yesterday).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
+
+
+	public void testNotBefore()
+		throws BadJOSEException {
+
+		final Date now = new Date();
+		Date tomorrow = new Date(now.getTime() + 24 * 60 * 60 * 1000);
+		Date yesterday = new Date(now.getTime() - 24 * 60 * 60 * 1000);
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		verifier.verify(new JWTClaimsSet.Builder().notBeforeTime(yesterday).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().notBeforeTime(tomorrow).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT before use time", e.getMessage());
+		}
+	}
+
+
+	public void testClockSkew()
+		throws BadJOSEException {
+
+		final Date now = new Date();
+		final Date thirtySecondsAgo = new Date(now.getTime() - 30 * 1000L);
+		final Date thirtySecondsAhead = new Date(now.getTime() + 30 * 1000L);
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		verifier.verify(new JWTClaimsSet.Builder().expirationTime(thirtySecondsAgo).notBeforeTime(thirtySecondsAhead).build(), null);
+
+		verifier.setMaxClockSkew(0);
+		assertEquals(0, verifier.getMaxClockSkew());
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().expirationTime(thirtySecondsAgo).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
+
+
+	public void testTimeClaimsAsNumbers()
+		throws BadJOSEException {
+
+		long nowSeconds = System.currentTimeMillis() / 1000L;
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		verifier.verify(new JWTClaimsSet.Builder()
+			.claim("exp", nowSeconds + 3600)
+			.claim("nbf", nowSeconds - 3600)
+			.build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().claim("exp", nowSeconds - 3600).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
+
+
+	public void testIssuer()
+		throws BadJWTException {
+
+		String iss = "https://c2id.com";
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(
+			null,
+			new JWTClaimsSet.Builder().issuer(iss).build(),
+			null,
+			null);
+
+		assertEquals(Collections.singleton("iss"), verifier.getRequiredClaims());
+
+		verifier.verify(new JWTClaimsSet.Builder().issuer(iss).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required claims: [iss]", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().issuer("https://example.com").build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT \"iss\" claim doesn't match expected value: https://example.com", e.getMessage());
+		}
+	}
+
+
+	public void testExactMatchInteger()
+		throws BadJWTException {
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(
+			null,
+			new JWTClaimsSet.Builder().claim("level", 2L).build(),
+			null,
+			null);
+
+		verifier.verify(new JWTClaimsSet.Builder().claim("level", 2).build(), null);
+		verifier.verify(new JWTClaimsSet.Builder().claim("level", 2L).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().claim("level", 3).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT \"level\" claim doesn't match expected value: 3", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().claim("level", "2").build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT \"level\" claim doesn't match expected value: 2", e.getMessage());
+		}
+	}
+
+
+	public void testExactMatchDate()
+		throws BadJWTException {
+
+		Date iat = new Date(1300819380 * 1000L);
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(
+			null,
+			new JWTClaimsSet.Builder().issueTime(iat).build(),
+			null,
+			null);
+
+		verifier.verify(new JWTClaimsSet.Builder().issueTime(iat).build(), null);
+		verifier.verify(new JWTClaimsSet.Builder().claim("iat", 1300819380L).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().issueTime(new Date(iat.getTime() + 1000L)).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertTrue(e.getMessage().startsWith("JWT \"iat\" claim doesn't match expected value: "));
+		}
+	}
+
+
+	public void testAudienceAcceptSetOrNull()
+		throws BadJWTException {
+
+		String aud = "123";
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(new HashSet<>(Arrays.asList(aud, null)), null, null, null);
+		assertTrue(verifier.getAcceptedAudienceValues().contains(aud));
+		assertTrue(verifier.getAcceptedAudienceValues().contains(null));
+		assertTrue(verifier.getRequiredClaims().isEmpty());
+
+		verifier.verify(new JWTClaimsSet.Builder().build(), null);
+		verifier.verify(new JWTClaimsSet.Builder().audience(aud).build(), null);
+		verifier.verify(new JWTClaimsSet.Builder().audience(Arrays.asList(aud, "456")).build(), null);
+		verifier.verify(new JWTClaimsSet.Builder().claim("aud", aud).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().audience("456").build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT audience rejected: [456]", e.getMessage());
+		}
+	}
+
+
+	public void testAudienceMissing() {
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(Collections.singleton("123"), null, null, null);
+		assertEquals(Collections.singleton("aud"), verifier.getRequiredClaims());
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required audience", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().claim("aud", Arrays.asList(1, 2)).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required audience", e.getMessage());
+		}
+	}
+
+
+	public void testAudienceRejected_multi() {
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(Collections.singleton("123"), null, null, null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().audience(Arrays.asList("456", "789")).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT audience rejected: [456, 789]", e.getMessage());
+		}
+	}
+
+
+	public void testRequiredAndProhibitedClaims()
+		throws BadJWTException {
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>(
+			null,
+			null,
+			new LinkedHashSet<>(Arrays.asList("sub", "iat")),
+			new LinkedHashSet<>(Arrays.asList("scope", "act")));
+
+		verifier.verify(new JWTClaimsSet.Builder().subject("alice").issueTime(new Date()).build(), null);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required claims: [sub, iat]", e.getMessage());
+		}
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder()
+				.subject("alice")
+				.issueTime(new Date())
+				.claim("scope", "openid")
+				.claim("act", "bob")
+				.build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT has prohibited claims: [scope, act]", e.getMessage());
+		}
+	}
+
+
+	public void testCompileDefaultVerifier()
+		throws BadJWTException {
+
+		DefaultJWTClaimsVerifier<SecurityContext> defaultVerifier = new DefaultJWTClaimsVerifier<>(
+			"123",
+			new JWTClaimsSet.Builder().issuer("https://c2id.com").build(),
+			Collections.singleton("sub"));
+		defaultVerifier.setMaxClockSkew(30);
+
+		CompiledJWTClaimsVerifier<SecurityContext> verifier = CompiledJWTClaimsVerifier.compile(defaultVerifier);
+		assertEquals(defaultVerifier.getAcceptedAudienceValues(), verifier.getAcceptedAudienceValues());
+		assertEquals(defaultVerifier.getExactMatchClaims(), verifier.getExactMatchClaims());
+		assertEquals(defaultVerifier.getRequiredClaims(), verifier.getRequiredClaims());
+		assertEquals(defaultVerifier.getProhibitedClaims(), verifier.getProhibitedClaims());
+		assertEquals(30, verifier.getMaxClockSkew());
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.issuer("https://c2id.com")
+			.subject("alice")
+			.audience("123")
+			.build();
+
+		defaultVerifier.verify(claimsSet, null);
+		verifier.verify(claimsSet, null);
+	}
+
+
+	public void testClock()
+		throws BadJWTException {
+
+		final AtomicLong now = new AtomicLong(1300819380 * 1000L);
+
+		CompiledJWTClaimsVerifier<?> verifier = new CompiledJWTClaimsVerifier<>();
+		assertEquals(SystemClock.INSTANCE, verifier.getClock());
+		verifier.setMaxClockSkew(0);
+		verifier.setClock(new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return now.get();
+			}
+		});
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.notBeforeTime(new Date(now.get() - 1L))
+			.expirationTime(new Date(now.get() + 1000L))
+			.build();
+
+		verifier.verify(claimsSet, null);
+
+		now.addAndGet(1000L);
+
+		try {
+			verifier.verify(claimsSet, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+
+		now.set(claimsSet.getNotBeforeTime().getTime());
+
+		try {
+			verifier.verify(claimsSet, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT before use time", e.getMessage());
+		}
+	}
+}
@@ -26,6 +26,8 @@ import java.util.HashSet;
 import junit.framework.TestCase;
 
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
 import com.nimbusds.jwt.JWTClaimsSet;
 
 
@@ -376,4 +378,36 @@ public class DefaultJWTClaimsVerifierTest extends TestCase {
 			assertEquals("JWT missing required claims: [nbf]", e.getMessage());
 		}
 	}
+	
+	
+	public void testClock() throws BadJWTException {
+		
+		DefaultJWTClaimsVerifier verifier = new DefaultJWTClaimsVerifier();
+		assertEquals(SystemClock.INSTANCE, verifier.getClock());
+		
+		final Date exp = new Date(1300819380 * 1000L);
+		
+		verifier.setClock(new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return exp.getTime() + 60 * 1000L - 1L;
+			}
+		});
+		
+		verifier.verify(new JWTClaimsSet.Builder().expirationTime(exp).build(), null);
+		
+		verifier.setClock(new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return exp.getTime() + 60 * 1000L;
+			}
+		});
+		
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().expirationTime(exp).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+	}
 }
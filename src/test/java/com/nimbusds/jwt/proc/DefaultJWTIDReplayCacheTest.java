@@ -0,0 +1,308 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.util.StandardCharset;
+
+
+public class DefaultJWTIDReplayCacheTest extends TestCase {
+
+
+	private static final long NOW = 1_600_000_000_000L;
+
+
+	private static final long HOUR = 60 * 60 * 1000L;
+
+
+	public void testConstants() {
+
+		assertEquals(60, DefaultJWTIDReplayCache.DEFAULT_BUCKET_SECONDS);
+		assertEquals(8, DefaultJWTIDReplayCache.WAYS);
+		assertEquals(24, DefaultJWTIDReplayCache.SLOT_SIZE);
+	}
+
+
+	public void testRequiredBufferSize() {
+
+		assertEquals(8 * 24, DefaultJWTIDReplayCache.getRequiredBufferSize(1));
+		assertEquals(8 * 24, DefaultJWTIDReplayCache.getRequiredBufferSize(8));
+		assertEquals(2 * 8 * 24, DefaultJWTIDReplayCache.getRequiredBufferSize(9));
+	}
+
+
+	public void testConstructor() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(1000);
+		assertEquals(1000, cache.getCapacity());
+		assertEquals(60, cache.getBucketSeconds());
+		assertEquals(0, cache.size(NOW));
+	}
+
+
+	public void testCapacityRoundedUp() {
+
+		assertEquals(16, new DefaultJWTIDReplayCache(10).getCapacity());
+	}
+
+
+	public void testRejectIllegalArguments() {
+
+		try {
+			new DefaultJWTIDReplayCache(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The capacity must be positive", e.getMessage());
+		}
+
+		try {
+			new DefaultJWTIDReplayCache(8, 0, ByteBuffer.allocate(8 * 24));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The bucket width must be at least one second", e.getMessage());
+		}
+
+		try {
+			new DefaultJWTIDReplayCache(8, 60, ByteBuffer.allocate(8 * 24 - 1));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The buffer must have at least 192 bytes remaining", e.getMessage());
+		}
+
+		try {
+			new DefaultJWTIDReplayCache(8, 60, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The buffer must have at least 192 bytes remaining", e.getMessage());
+		}
+	}
+
+
+	public void testDetectReplay() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+		assertFalse(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+		assertFalse(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW + HOUR - 1));
+		assertEquals(1, cache.size(NOW));
+	}
+
+
+	public void testScopedByIssuer() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+		assertTrue(cache.add("https://example.com", "abc", NOW + HOUR, NOW));
+		assertTrue(cache.add(null, "abc", NOW + HOUR, NOW));
+		assertFalse(cache.add(null, "abc", NOW + HOUR, NOW));
+
+		// The length prefixes prevent ambiguous concatenation
+		assertTrue(cache.add("a", "bc", NOW + HOUR, NOW));
+		assertTrue(cache.add("ab", "c", NOW + HOUR, NOW));
+		assertTrue(cache.add("a\u0000", "b", NOW + HOUR, NOW));
+		assertTrue(cache.add("a", "\u0000b", NOW + HOUR, NOW));
+
+		// Missing issuer distinct from empty issuer
+		assertTrue(cache.add("", "abc", NOW + HOUR, NOW));
+		assertFalse(cache.add("", "abc", NOW + HOUR, NOW));
+
+		assertEquals(8, cache.size(NOW));
+	}
+
+
+	public void testExpiration() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		// Retained at most one bucket past the expiration time
+		assertEquals(0, cache.size(NOW + HOUR + 60_000L));
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + 2 * HOUR, NOW + HOUR + 60_000L));
+	}
+
+
+	public void testAlreadyExpiredNotRecorded() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+
+		assertTrue(cache.add("https://c2id.com", "abc", NOW - HOUR, NOW));
+		assertEquals(0, cache.size(NOW));
+	}
+
+
+	public void testFullAndSlotReuse() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(8);
+
+		for (int i=0; i < 8; i++) {
+			assertTrue(cache.add("https://c2id.com", "jti-" + i, NOW + HOUR, NOW));
+		}
+
+		assertEquals(8, cache.size(NOW));
+
+		// Replays are still detected when full
+		assertFalse(cache.add("https://c2id.com", "jti-0", NOW + HOUR, NOW));
+
+		try {
+			cache.add("https://c2id.com", "jti-8", NOW + HOUR, NOW);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("JWT ID replay cache full", e.getMessage());
+		}
+
+		// Expired slots are reused
+		assertTrue(cache.add("https://c2id.com", "jti-8", NOW + 3 * HOUR, NOW + 2 * HOUR));
+		assertEquals(1, cache.size(NOW + 2 * HOUR));
+	}
+
+
+	public void testOffHeap() {
+
+		DefaultJWTIDReplayCache cache = DefaultJWTIDReplayCache.createOffHeap(1000, 30);
+		assertEquals(1000, cache.getCapacity());
+		assertEquals(30, cache.getBucketSeconds());
+
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+		assertFalse(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+	}
+
+
+	public void testBufferAtPosition() {
+
+		ByteBuffer buffer = ByteBuffer.allocate(100 + DefaultJWTIDReplayCache.getRequiredBufferSize(8));
+		buffer.position(100);
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(8, 60, buffer);
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		for (int i=0; i < 100; i++) {
+			assertEquals(0, buffer.get(i));
+		}
+	}
+
+
+	public void testMemoryMappedRetainedAcrossInstances()
+		throws Exception {
+
+		File file = File.createTempFile("jti-cache", ".bin");
+		file.deleteOnExit();
+
+		DefaultJWTIDReplayCache cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 1000, 60);
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 1000, 60);
+		assertFalse(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+		assertEquals(1, cache.size(NOW));
+	}
+
+
+	public void testMemoryMappedClearedOnHeaderMismatch()
+		throws Exception {
+
+		File file = File.createTempFile("jti-cache", ".bin");
+		file.deleteOnExit();
+
+		DefaultJWTIDReplayCache cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 1000, 60);
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		// Different bucket width
+		cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 1000, 30);
+		assertEquals(0, cache.size(NOW));
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		// Different capacity
+		cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 2000, 30);
+		assertEquals(0, cache.size(NOW));
+		assertTrue(cache.add("https://c2id.com", "abc", NOW + HOUR, NOW));
+
+		cache = DefaultJWTIDReplayCache.createMemoryMapped(file, 2000, 30);
+		assertEquals(1, cache.size(NOW));
+	}
+
+
+	public void testMemoryMappedRejectOtherFile()
+		throws Exception {
+
+		File file = File.createTempFile("jti-cache", ".bin");
+		file.deleteOnExit();
+
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("Hello, world!".getBytes(StandardCharset.UTF_8));
+		}
+
+		try {
+			DefaultJWTIDReplayCache.createMemoryMapped(file, 1000, 60);
+			fail();
+		} catch (IOException e) {
+			assertEquals("Not a JWT ID replay cache file: " + file, e.getMessage());
+		}
+
+		assertEquals(13L, file.length());
+	}
+
+
+	public void testConcurrentAddsRecordEachJWTIDOnce()
+		throws Exception {
+
+		final DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(10_000);
+		final AtomicInteger recorded = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[8];
+
+		for (int t=0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i=0; i < 1000; i++) {
+						if (cache.add("https://c2id.com", "jti-" + i, NOW + HOUR, NOW)) {
+							recorded.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+
+		start.countDown();
+
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		assertEquals(1000, recorded.get());
+		assertEquals(1000, cache.size(NOW));
+	}
+}
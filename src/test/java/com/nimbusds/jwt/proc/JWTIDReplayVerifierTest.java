@@ -0,0 +1,276 @@
+/*
+ * nimbus-jose-jwt
+ *
+ * Copyright 2012-2016, Connect2id Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package com.nimbusds.jwt.proc;
+
+
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Clock;
+import com.nimbusds.jose.util.SystemClock;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+
+public class JWTIDReplayVerifierTest extends TestCase {
+
+
+	private static final long NOW = 1_600_000_000_000L;
+
+
+	private static class FixedClock implements Clock {
+
+		private long time;
+
+		private FixedClock(final long time) {
+			this.time = time;
+		}
+
+		@Override
+		public long currentTimeMillis() {
+			return time;
+		}
+	}
+
+
+	public void testConstructor() {
+
+		DefaultJWTClaimsVerifier<SecurityContext> claimsVerifier = new DefaultJWTClaimsVerifier<>();
+		claimsVerifier.setMaxClockSkew(30);
+		JWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(claimsVerifier, cache);
+		assertEquals(claimsVerifier, verifier.getJWTClaimsSetVerifier());
+		assertEquals(cache, verifier.getReplayCache());
+		assertEquals(30, verifier.getMaxClockSkew());
+		assertEquals(SystemClock.INSTANCE, verifier.getClock());
+	}
+
+
+	public void testConstructorNoClaimsVerifier() {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+		assertNull(verifier.getJWTClaimsSetVerifier());
+		assertEquals(DefaultJWTClaimsVerifier.DEFAULT_MAX_CLOCK_SKEW_SECONDS, verifier.getMaxClockSkew());
+	}
+
+
+	public void testRejectNullCache() {
+
+		try {
+			new JWTIDReplayVerifier<SecurityContext>(null, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The JWT ID replay cache must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testRejectNullClock() {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+
+		try {
+			verifier.setClock(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("The clock must not be null", e.getMessage());
+		}
+	}
+
+
+	public void testRejectReplay()
+		throws BadJWTException {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+		verifier.setClock(new FixedClock(NOW));
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.issuer("https://c2id.com")
+			.jwtID("abc")
+			.expirationTime(new Date(NOW + 60_000L))
+			.build();
+
+		verifier.verify(claimsSet, null);
+
+		try {
+			verifier.verify(claimsSet, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Replayed JWT ID (jti)", e.getMessage());
+		}
+
+		// Other issuer
+		verifier.verify(new JWTClaimsSet.Builder(claimsSet).issuer("https://example.com").build(), null);
+	}
+
+
+	public void testRetainedForClockSkew()
+		throws BadJWTException {
+
+		FixedClock clock = new FixedClock(NOW);
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+		verifier.setClock(clock);
+		verifier.setMaxClockSkew(120);
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.jwtID("abc")
+			.expirationTime(new Date(NOW))
+			.build();
+
+		verifier.verify(claimsSet, null);
+
+		// Past exp, but within the clock skew
+		clock.time = NOW + 60_000L;
+
+		try {
+			verifier.verify(claimsSet, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Replayed JWT ID (jti)", e.getMessage());
+		}
+	}
+
+
+	public void testRejectExpiredWithoutClaimsVerifier()
+		throws BadJWTException {
+
+		FixedClock clock = new FixedClock(NOW);
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+		verifier.setClock(clock);
+		verifier.setMaxClockSkew(60);
+
+		JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+			.jwtID("abc")
+			.expirationTime(new Date(NOW - 60_000L))
+			.build();
+
+		// At the clock skew limit
+		verifier.verify(claimsSet, null);
+
+		// Beyond the clock skew, each attempt rejected
+		clock.time = NOW + 1;
+
+		for (int i=0; i < 2; i++) {
+			try {
+				verifier.verify(new JWTClaimsSet.Builder(claimsSet).jwtID("def").build(), null);
+				fail();
+			} catch (BadJWTException e) {
+				assertEquals("Expired JWT", e.getMessage());
+			}
+		}
+	}
+
+
+	public void testMissingJWTID() {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().expirationTime(new Date()).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required claims: [jti]", e.getMessage());
+		}
+	}
+
+
+	public void testMissingExpirationTime() {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(100));
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().jwtID("abc").build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT missing required claims: [exp]", e.getMessage());
+		}
+	}
+
+
+	public void testCacheFull()
+		throws BadJWTException {
+
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(null, new DefaultJWTIDReplayCache(8));
+		verifier.setClock(new FixedClock(NOW));
+
+		for (int i=0; i < 8; i++) {
+			verifier.verify(new JWTClaimsSet.Builder().jwtID("jti-" + i).expirationTime(new Date(NOW + 60_000L)).build(), null);
+		}
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().jwtID("jti-8").expirationTime(new Date(NOW + 60_000L)).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("JWT ID replay cache full", e.getMessage());
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+
+	public void testDelegateRejectsFirst() {
+
+		DefaultJWTIDReplayCache cache = new DefaultJWTIDReplayCache(100);
+		JWTIDReplayVerifier<SecurityContext> verifier = new JWTIDReplayVerifier<>(new DefaultJWTClaimsVerifier<SecurityContext>(), cache);
+
+		try {
+			verifier.verify(new JWTClaimsSet.Builder().jwtID("abc").expirationTime(new Date(0L)).build(), null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Expired JWT", e.getMessage());
+		}
+
+		assertEquals(0, cache.size(System.currentTimeMillis()));
+	}
+
+
+	public void testWithProcessor()
+		throws Exception {
+
+		byte[] secret = new byte[32];
+		SignedJWT jwt = new SignedJWT(
+			new JWSHeader(JWSAlgorithm.HS256),
+			new JWTClaimsSet.Builder()
+				.issuer("https://c2id.com")
+				.jwtID("abc")
+				.expirationTime(new Date(new Date().getTime() + 60_000L))
+				.build());
+		jwt.sign(new MACSigner(secret));
+		String token = jwt.serialize();
+
+		DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+		processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256, new ImmutableSecret<SecurityContext>(secret)));
+		processor.setJWTClaimsSetVerifier(new JWTIDReplayVerifier<>(new DefaultJWTClaimsVerifier<SecurityContext>(), new DefaultJWTIDReplayCache(100)));
+
+		assertEquals("abc", processor.process(token, null).getJWTID());
+
+		try {
+			processor.process(token, null);
+			fail();
+		} catch (BadJWTException e) {
+			assertEquals("Replayed JWT ID (jti)", e.getMessage());
+		}
+	}
+}
@@ -153,4 +153,39 @@ public class DateUtilsTest extends TestCase {
 		boolean valid = DateUtils.isBefore(iat, now, 60);
 		assertTrue(valid);
 	}
+
+
+	public void testAfterPrimitive() {
+
+		final long skewSeconds = 1L;
+
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isAfter(4001L, 5000L, skewSeconds));
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isAfter(5000L, 5000L, skewSeconds));
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isAfter(6000L, 5000L, skewSeconds));
+		assertFalse(com.nimbusds.jwt.util.DateUtils.isAfter(4000L, 5000L, skewSeconds));
+	}
+
+
+	public void testBeforePrimitive() {
+
+		final long skewSeconds = 1L;
+
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isBefore(5999L, 5000L, skewSeconds));
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isBefore(5000L, 5000L, skewSeconds));
+		assertTrue(com.nimbusds.jwt.util.DateUtils.isBefore(4000L, 5000L, skewSeconds));
+		assertFalse(com.nimbusds.jwt.util.DateUtils.isBefore(6000L, 5000L, skewSeconds));
+	}
+
+
+	public void testDateAndPrimitiveAgree() {
+
+		for (long time = 3000L; time <= 7000L; time += 500L) {
+			assertEquals(
+				com.nimbusds.jwt.util.DateUtils.isAfter(new Date(time), new Date(5000L), 1L),
+				com.nimbusds.jwt.util.DateUtils.isAfter(time, 5000L, 1L));
+			assertEquals(
+				com.nimbusds.jwt.util.DateUtils.isBefore(new Date(time), new Date(5000L), 1L),
+				com.nimbusds.jwt.util.DateUtils.isBefore(time, 5000L, 1L));
+		}
+	}
 }